@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request of the fast-start build.
+#
+# Usage: scripts/startup-benchmark.sh <extracted-app-dir> [port] [runs]
+#
+# The directory must contain the jar extracted by the fast-start Maven profile
+# and, optionally, the application.jsa CDS archive produced by its training run.
+set -euo pipefail
+
+APP_DIR=${1:?extracted application directory required}
+PORT=${2:-18080}
+RUNS=${3:-3}
+JAR=$(ls "$APP_DIR"/*.jar | head -n 1)
+REPORT="$APP_DIR/../startup-benchmark.txt"
+
+JAVA_OPTS=(-Dspring.aot.enabled=true -Dspring.profiles.active=fast-start -Dserver.port="$PORT")
+if [[ -f "$APP_DIR/application.jsa" ]]; then
+	JAVA_OPTS=(-XX:SharedArchiveFile="$APP_DIR/application.jsa" -Xlog:cds=off -Xlog:cds+dynamic=off "${JAVA_OPTS[@]}")
+fi
+
+now_ms() {
+	date +%s%3N
+}
+
+: > "$REPORT"
+total=0
+for run in $(seq 1 "$RUNS"); do
+	start=$(now_ms)
+	java "${JAVA_OPTS[@]}" -jar "$JAR" > "$APP_DIR/../startup-benchmark-run$run.log" 2>&1 &
+	pid=$!
+	until curl -sf "http://localhost:$PORT/api/mcp/status" > /dev/null; do
+		if ! kill -0 "$pid" 2> /dev/null; then
+			echo "Application exited before serving a request, see startup-benchmark-run$run.log" >&2
+			exit 1
+		fi
+		sleep 0.01
+	done
+	elapsed=$(( $(now_ms) - start ))
+	kill "$pid"
+	wait "$pid" 2> /dev/null || true
+	total=$(( total + elapsed ))
+	echo "run $run: time to first request ${elapsed} ms" | tee -a "$REPORT"
+done
+echo "average: $(( total / RUNS )) ms over $RUNS runs" | tee -a "$REPORT"
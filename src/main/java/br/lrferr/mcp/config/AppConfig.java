@@ -1,10 +1,26 @@
 package br.lrferr.mcp.config;
 
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
 
 @Configuration
 @EnableScheduling
 public class AppConfig {
-}
 
+	/**
+	 * With {@code spring.main.lazy-initialization} (the fast-start profile), a
+	 * bean nothing injects is never created, so its {@code @Scheduled} methods
+	 * would never run. Beans declaring one are created at startup regardless.
+	 */
+	@Bean
+	static LazyInitializationExcludeFilter scheduledBeansLazyInitializationExcludeFilter() {
+		return (beanName, beanDefinition, beanType) -> beanType != null
+			&& !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Scheduled>) method ->
+				AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+	}
+}
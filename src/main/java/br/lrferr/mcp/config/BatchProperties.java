@@ -0,0 +1,65 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.batch")
+public class BatchProperties {
+
+	/**
+	 * Maximum number of prompts in one batch.
+	 */
+	private int maxItems = 1000;
+
+	/**
+	 * Prompts routed and translated to SQL (or answered by the LLM) at the same
+	 * time, across all batches.
+	 */
+	private int llmParallelism = 2;
+
+	/**
+	 * Tool calls running at the same time, across all batches.
+	 */
+	private int toolParallelism = 4;
+
+	/**
+	 * Lifetime of a batch's result stream; unfinished items are skipped once it
+	 * expires.
+	 */
+	private Duration timeout = Duration.ofMinutes(30);
+
+	public int getMaxItems() {
+		return maxItems;
+	}
+
+	public void setMaxItems(int maxItems) {
+		this.maxItems = maxItems;
+	}
+
+	public int getLlmParallelism() {
+		return llmParallelism;
+	}
+
+	public void setLlmParallelism(int llmParallelism) {
+		this.llmParallelism = llmParallelism;
+	}
+
+	public int getToolParallelism() {
+		return toolParallelism;
+	}
+
+	public void setToolParallelism(int toolParallelism) {
+		this.toolParallelism = toolParallelism;
+	}
+
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(Duration timeout) {
+		this.timeout = timeout;
+	}
+}
@@ -0,0 +1,132 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.circuit-breaker")
+public class CircuitBreakerProperties {
+
+	/**
+	 * Whether MCP tool calls (per server) and LLM calls (per model) go through circuit
+	 * breakers. An open breaker fails calls immediately instead of waiting for a
+	 * dead backend.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Most recent calls whose outcomes decide whether a breaker opens.
+	 */
+	private int windowSize = 20;
+
+	/**
+	 * Calls a window must hold before its rates are evaluated.
+	 */
+	private int minimumCalls = 10;
+
+	/**
+	 * Share of failed calls in the window that opens the breaker.
+	 */
+	private double failureRateThreshold = 0.5;
+
+	/**
+	 * Share of slow calls in the window that opens the breaker, even when they
+	 * succeed.
+	 */
+	private double slowCallRateThreshold = 0.8;
+
+	/**
+	 * MCP tool calls taking longer than this count as slow.
+	 */
+	private Duration mcpSlowCallDuration = Duration.ofSeconds(30);
+
+	/**
+	 * LLM calls taking longer than this count as slow.
+	 */
+	private Duration llmSlowCallDuration = Duration.ofSeconds(90);
+
+	/**
+	 * How long an open breaker rejects calls before letting probes through.
+	 */
+	private Duration openDuration = Duration.ofSeconds(30);
+
+	/**
+	 * Probe calls let through while half-open. The breaker closes when all of them
+	 * succeed and reopens on the first failure.
+	 */
+	private int halfOpenCalls = 3;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	public void setWindowSize(int windowSize) {
+		this.windowSize = windowSize;
+	}
+
+	public int getMinimumCalls() {
+		return minimumCalls;
+	}
+
+	public void setMinimumCalls(int minimumCalls) {
+		this.minimumCalls = minimumCalls;
+	}
+
+	public double getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	public void setFailureRateThreshold(double failureRateThreshold) {
+		this.failureRateThreshold = failureRateThreshold;
+	}
+
+	public double getSlowCallRateThreshold() {
+		return slowCallRateThreshold;
+	}
+
+	public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+		this.slowCallRateThreshold = slowCallRateThreshold;
+	}
+
+	public Duration getMcpSlowCallDuration() {
+		return mcpSlowCallDuration;
+	}
+
+	public void setMcpSlowCallDuration(Duration mcpSlowCallDuration) {
+		this.mcpSlowCallDuration = mcpSlowCallDuration;
+	}
+
+	public Duration getLlmSlowCallDuration() {
+		return llmSlowCallDuration;
+	}
+
+	public void setLlmSlowCallDuration(Duration llmSlowCallDuration) {
+		this.llmSlowCallDuration = llmSlowCallDuration;
+	}
+
+	public Duration getOpenDuration() {
+		return openDuration;
+	}
+
+	public void setOpenDuration(Duration openDuration) {
+		this.openDuration = openDuration;
+	}
+
+	public int getHalfOpenCalls() {
+		return halfOpenCalls;
+	}
+
+	public void setHalfOpenCalls(int halfOpenCalls) {
+		this.halfOpenCalls = halfOpenCalls;
+	}
+}
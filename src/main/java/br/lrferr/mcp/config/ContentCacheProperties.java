@@ -0,0 +1,79 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.content-cache")
+public class ContentCacheProperties {
+
+	/**
+	 * Whether MCP resources and prompts are served from memory when possible.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Total size of cached results; least recently used entries are evicted first.
+	 */
+	private DataSize maxSize = DataSize.ofMegabytes(64);
+
+	/**
+	 * Results larger than this are never cached.
+	 */
+	private DataSize maxEntrySize = DataSize.ofMegabytes(4);
+
+	/**
+	 * Lifetime of entries the server will notify us about (subscribed resources,
+	 * lists of servers announcing {@code listChanged}). Only a safety net; those
+	 * entries are invalidated by notifications.
+	 */
+	private Duration notifiedTtl = Duration.ofHours(1);
+
+	/**
+	 * Lifetime of entries the server cannot notify us about.
+	 */
+	private Duration unnotifiedTtl = Duration.ofSeconds(30);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public DataSize getMaxSize() {
+		return maxSize;
+	}
+
+	public void setMaxSize(DataSize maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public DataSize getMaxEntrySize() {
+		return maxEntrySize;
+	}
+
+	public void setMaxEntrySize(DataSize maxEntrySize) {
+		this.maxEntrySize = maxEntrySize;
+	}
+
+	public Duration getNotifiedTtl() {
+		return notifiedTtl;
+	}
+
+	public void setNotifiedTtl(Duration notifiedTtl) {
+		this.notifiedTtl = notifiedTtl;
+	}
+
+	public Duration getUnnotifiedTtl() {
+		return unnotifiedTtl;
+	}
+
+	public void setUnnotifiedTtl(Duration unnotifiedTtl) {
+		this.unnotifiedTtl = unnotifiedTtl;
+	}
+}
@@ -0,0 +1,171 @@
+package br.lrferr.mcp.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.event-log")
+public class EventLogProperties {
+
+	/**
+	 * Whether query, tool call, LLM call and notification events are written to
+	 * the JSONL event log.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Directory of the event log files.
+	 */
+	private String directory = "./logs/events";
+
+	/**
+	 * Size at which the current file is closed and a new one started.
+	 */
+	private DataSize maxFileSize = DataSize.ofMegabytes(64);
+
+	/**
+	 * Files kept; the oldest is deleted when a new one is started.
+	 */
+	private int maxFiles = 10;
+
+	/**
+	 * Events waiting for the writer thread. When full, new events are dropped
+	 * instead of blocking the request thread.
+	 */
+	private int bufferSize = 8192;
+
+	/**
+	 * Share of successful events of a type that are written. Failed events are
+	 * always written.
+	 */
+	private double sampleRate = 1.0;
+
+	/**
+	 * Characters kept of each payload (prompt, SQL, tool arguments and result,
+	 * LLM response); longer payloads are cut.
+	 */
+	private int maxPayloadChars = 2048;
+
+	/**
+	 * Per event type ({@code query}, {@code tool-call}, {@code llm-call},
+	 * {@code notification}) overrides of {@link #sampleRate} and
+	 * {@link #maxPayloadChars}.
+	 */
+	private Map<String, Policy> types = new LinkedHashMap<>(Map.of(
+		"notification", new Policy(0.01, null)));
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public void setDirectory(String directory) {
+		this.directory = directory;
+	}
+
+	public DataSize getMaxFileSize() {
+		return maxFileSize;
+	}
+
+	public void setMaxFileSize(DataSize maxFileSize) {
+		this.maxFileSize = maxFileSize;
+	}
+
+	public int getMaxFiles() {
+		return maxFiles;
+	}
+
+	public void setMaxFiles(int maxFiles) {
+		this.maxFiles = maxFiles;
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	public double getSampleRate() {
+		return sampleRate;
+	}
+
+	public void setSampleRate(double sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
+	public int getMaxPayloadChars() {
+		return maxPayloadChars;
+	}
+
+	public void setMaxPayloadChars(int maxPayloadChars) {
+		this.maxPayloadChars = maxPayloadChars;
+	}
+
+	public Map<String, Policy> getTypes() {
+		return types;
+	}
+
+	public void setTypes(Map<String, Policy> types) {
+		this.types = types;
+	}
+
+	public double sampleRateFor(String type) {
+		Policy policy = types.get(type);
+		return policy != null && policy.getSampleRate() != null ? policy.getSampleRate() : sampleRate;
+	}
+
+	public int maxPayloadCharsFor(String type) {
+		Policy policy = types.get(type);
+		return policy != null && policy.getMaxPayloadChars() != null ? policy.getMaxPayloadChars() : maxPayloadChars;
+	}
+
+	public static class Policy {
+
+		/**
+		 * Share of successful events of this type that are written.
+		 */
+		private Double sampleRate;
+
+		/**
+		 * Characters kept of each payload of this type.
+		 */
+		private Integer maxPayloadChars;
+
+		public Policy() {
+		}
+
+		Policy(Double sampleRate, Integer maxPayloadChars) {
+			this.sampleRate = sampleRate;
+			this.maxPayloadChars = maxPayloadChars;
+		}
+
+		public Double getSampleRate() {
+			return sampleRate;
+		}
+
+		public void setSampleRate(Double sampleRate) {
+			this.sampleRate = sampleRate;
+		}
+
+		public Integer getMaxPayloadChars() {
+			return maxPayloadChars;
+		}
+
+		public void setMaxPayloadChars(Integer maxPayloadChars) {
+			this.maxPayloadChars = maxPayloadChars;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.hedging")
+public class HedgingProperties {
+
+	/**
+	 * Whether calls to tools listed in a server's {@code idempotentTools} are
+	 * hedged.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Observed latency quantile after which a duplicate call is sent.
+	 */
+	private double quantile = 0.95;
+
+	/**
+	 * Calls of a tool observed before it is hedged.
+	 */
+	private int minSamples = 20;
+
+	/**
+	 * Never hedge earlier than this, however fast the tool usually is.
+	 */
+	private Duration minDelay = Duration.ofMillis(50);
+
+	/**
+	 * Maximum share of calls that may be hedged.
+	 */
+	private double maxRate = 0.05;
+
+	/**
+	 * Samples after which the latency sketch halves its counts, so it follows
+	 * recent behaviour.
+	 */
+	private int sketchWindow = 1000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public double getQuantile() {
+		return quantile;
+	}
+
+	public void setQuantile(double quantile) {
+		this.quantile = quantile;
+	}
+
+	public int getMinSamples() {
+		return minSamples;
+	}
+
+	public void setMinSamples(int minSamples) {
+		this.minSamples = minSamples;
+	}
+
+	public Duration getMinDelay() {
+		return minDelay;
+	}
+
+	public void setMinDelay(Duration minDelay) {
+		this.minDelay = minDelay;
+	}
+
+	public double getMaxRate() {
+		return maxRate;
+	}
+
+	public void setMaxRate(double maxRate) {
+		this.maxRate = maxRate;
+	}
+
+	public int getSketchWindow() {
+		return sketchWindow;
+	}
+
+	public void setSketchWindow(int sketchWindow) {
+		this.sketchWindow = sketchWindow;
+	}
+}
@@ -0,0 +1,100 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.llm.scheduler")
+public class LlmSchedulerProperties {
+
+	/**
+	 * Whether LLM calls are queued per model by priority. When disabled every call
+	 * goes out immediately on the request thread.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Calls dispatched to one model at the same time on each Ollama endpoint
+	 * serving it. Keep it equal to Ollama's {@code OLLAMA_NUM_PARALLEL} so requests
+	 * wait here, where SQL translation can overtake chat, instead of in Ollama's
+	 * FIFO queue.
+	 */
+	private int maxConcurrent = 4;
+
+	/**
+	 * Per-model overrides of {@link #maxConcurrent}, keyed by model name.
+	 */
+	private Map<String, Integer> modelConcurrency = new LinkedHashMap<>();
+
+	/**
+	 * Maximum calls waiting for one model; further calls are rejected.
+	 */
+	private int queueCapacity = 256;
+
+	/**
+	 * How long a call may wait for a slot before it fails.
+	 */
+	private Duration queueTimeout = Duration.ofMinutes(2);
+
+	/**
+	 * Number of recent queue-wait samples kept per model and priority for the
+	 * percentiles reported by {@code /api/mcp/llm/queues}.
+	 */
+	private int sampleSize = 1024;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	public void setMaxConcurrent(int maxConcurrent) {
+		this.maxConcurrent = maxConcurrent;
+	}
+
+	public Map<String, Integer> getModelConcurrency() {
+		return modelConcurrency;
+	}
+
+	public void setModelConcurrency(Map<String, Integer> modelConcurrency) {
+		this.modelConcurrency = modelConcurrency;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	public Duration getQueueTimeout() {
+		return queueTimeout;
+	}
+
+	public void setQueueTimeout(Duration queueTimeout) {
+		this.queueTimeout = queueTimeout;
+	}
+
+	public int getSampleSize() {
+		return sampleSize;
+	}
+
+	public void setSampleSize(int sampleSize) {
+		this.sampleSize = sampleSize;
+	}
+
+	public int concurrencyFor(String model) {
+		return Math.max(1, modelConcurrency.getOrDefault(model, maxConcurrent));
+	}
+}
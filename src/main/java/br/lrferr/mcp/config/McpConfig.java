@@ -4,7 +4,12 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@EnableConfigurationProperties(McpConfigurationProperties.class)
+@EnableConfigurationProperties({ McpConfigurationProperties.class, RoutingProperties.class, TracingProperties.class,
+		SchemaProperties.class, SqlTemplateProperties.class, LlmSchedulerProperties.class,
+		OllamaEndpointsProperties.class, OllamaModelProperties.class, ResourceProperties.class,
+		ContentCacheProperties.class, MonitorProperties.class, QueryProperties.class,
+		ToolCacheProperties.class, BatchProperties.class, HedgingProperties.class,
+		CircuitBreakerProperties.class, EventLogProperties.class, WebSocketProperties.class })
 public class McpConfig {
 }
 
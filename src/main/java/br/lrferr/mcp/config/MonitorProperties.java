@@ -0,0 +1,64 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.monitor")
+public class MonitorProperties {
+
+	/**
+	 * Threads running standing queries and computing their deltas.
+	 */
+	private int threads = 2;
+
+	/**
+	 * Shortest interval a standing query may request.
+	 */
+	private Duration minInterval = Duration.ofSeconds(1);
+
+	/**
+	 * Maximum number of distinct standing queries; identical registrations share
+	 * one.
+	 */
+	private int maxQueries = 100;
+
+	/**
+	 * Lifetime of a subscriber's event stream; clients reconnect after it ends.
+	 */
+	private Duration streamTimeout = Duration.ofMinutes(30);
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public Duration getMinInterval() {
+		return minInterval;
+	}
+
+	public void setMinInterval(Duration minInterval) {
+		this.minInterval = minInterval;
+	}
+
+	public int getMaxQueries() {
+		return maxQueries;
+	}
+
+	public void setMaxQueries(int maxQueries) {
+		this.maxQueries = maxQueries;
+	}
+
+	public Duration getStreamTimeout() {
+		return streamTimeout;
+	}
+
+	public void setStreamTimeout(Duration streamTimeout) {
+		this.streamTimeout = streamTimeout;
+	}
+}
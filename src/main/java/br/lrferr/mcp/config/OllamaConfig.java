@@ -0,0 +1,31 @@
+package br.lrferr.mcp.config;
+
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.lrferr.mcp.service.ollama.OllamaRoutingInterceptor;
+import br.lrferr.mcp.service.ollama.OllamaStreamingRoutingFilter;
+
+@Configuration
+public class OllamaConfig {
+
+	/**
+	 * Routes the Spring AI Ollama client, which is built from the shared
+	 * {@code RestClient.Builder}, across the configured Ollama endpoints.
+	 */
+	@Bean
+	RestClientCustomizer ollamaRoutingCustomizer(OllamaRoutingInterceptor ollamaRoutingInterceptor) {
+		return builder -> builder.requestInterceptor(ollamaRoutingInterceptor);
+	}
+
+	/**
+	 * Same routing for streamed chats, which Spring AI sends through the shared
+	 * {@code WebClient.Builder} instead.
+	 */
+	@Bean
+	WebClientCustomizer ollamaStreamingRoutingCustomizer(OllamaStreamingRoutingFilter ollamaStreamingRoutingFilter) {
+		return builder -> builder.filter(ollamaStreamingRoutingFilter);
+	}
+}
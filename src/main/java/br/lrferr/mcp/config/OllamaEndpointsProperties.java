@@ -0,0 +1,120 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.ollama")
+public class OllamaEndpointsProperties {
+
+	/**
+	 * Ollama hosts to balance across. When empty, {@code spring.ai.ollama.base-url}
+	 * is the only endpoint.
+	 */
+	private List<Endpoint> endpoints = new ArrayList<>();
+
+	/**
+	 * How an endpoint is picked among the healthy ones serving the model.
+	 */
+	private Balancing balancing = Balancing.LEAST_OUTSTANDING;
+
+	/**
+	 * Consecutive failures after which an endpoint is ejected until a health
+	 * probe succeeds again.
+	 */
+	private int failureThreshold = 3;
+
+	/**
+	 * Interval between {@code /api/tags} probes of every endpoint. The probe also
+	 * refreshes the models each endpoint serves.
+	 */
+	private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+	/**
+	 * Weight of the newest sample in the per-endpoint latency average.
+	 */
+	private double ewmaAlpha = 0.3;
+
+	public List<Endpoint> getEndpoints() {
+		return endpoints;
+	}
+
+	public void setEndpoints(List<Endpoint> endpoints) {
+		this.endpoints = endpoints;
+	}
+
+	public Balancing getBalancing() {
+		return balancing;
+	}
+
+	public void setBalancing(Balancing balancing) {
+		this.balancing = balancing;
+	}
+
+	public int getFailureThreshold() {
+		return failureThreshold;
+	}
+
+	public void setFailureThreshold(int failureThreshold) {
+		this.failureThreshold = failureThreshold;
+	}
+
+	public Duration getHealthCheckInterval() {
+		return healthCheckInterval;
+	}
+
+	public void setHealthCheckInterval(Duration healthCheckInterval) {
+		this.healthCheckInterval = healthCheckInterval;
+	}
+
+	public double getEwmaAlpha() {
+		return ewmaAlpha;
+	}
+
+	public void setEwmaAlpha(double ewmaAlpha) {
+		this.ewmaAlpha = ewmaAlpha;
+	}
+
+	public enum Balancing {
+
+		/** Fewest in-flight requests, ties broken by latency. */
+		LEAST_OUTSTANDING,
+
+		/** Lowest latency average weighted by in-flight requests. */
+		EWMA_LATENCY
+	}
+
+	public static class Endpoint {
+
+		/**
+		 * Base URL of the Ollama host, e.g. {@code http://gpu-1:11434}.
+		 */
+		private String url;
+
+		/**
+		 * Models this host serves. When empty, the models reported by its
+		 * {@code /api/tags} are used.
+		 */
+		private List<String> models = new ArrayList<>();
+
+		public String getUrl() {
+			return url;
+		}
+
+		public void setUrl(String url) {
+			this.url = url;
+		}
+
+		public List<String> getModels() {
+			return models;
+		}
+
+		public void setModels(List<String> models) {
+			this.models = models;
+		}
+	}
+}
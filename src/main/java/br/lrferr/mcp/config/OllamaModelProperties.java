@@ -0,0 +1,112 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.ollama.model")
+public class OllamaModelProperties {
+
+	/**
+	 * Whether selecting a model loads it on every Ollama endpoint serving it
+	 * right away, instead of on the first query.
+	 */
+	private boolean warmUpOnSelect = true;
+
+	/**
+	 * Ollama {@code keep_alive} sent with every chat request that does not set
+	 * one, e.g. {@code 5m}, {@code 1h} or {@code -1} to never unload.
+	 */
+	private String keepAlive = "30m";
+
+	/**
+	 * Per-model overrides of {@link #keepAlive}, keyed by model name.
+	 */
+	private Map<String, String> keepAliveOverrides = new LinkedHashMap<>();
+
+	/**
+	 * Models kept loaded at all times. They are sent with {@code keep_alive=-1}
+	 * and reloaded when an endpoint reports them unloaded.
+	 */
+	private List<String> pinned = new ArrayList<>();
+
+	/**
+	 * Interval between checks that pinned models are still loaded.
+	 */
+	private Duration pinnedCheckInterval = Duration.ofMinutes(1);
+
+	/**
+	 * Maximum time a warm-up request waits for a model to load.
+	 */
+	private Duration warmUpTimeout = Duration.ofMinutes(5);
+
+	public boolean isWarmUpOnSelect() {
+		return warmUpOnSelect;
+	}
+
+	public void setWarmUpOnSelect(boolean warmUpOnSelect) {
+		this.warmUpOnSelect = warmUpOnSelect;
+	}
+
+	public String getKeepAlive() {
+		return keepAlive;
+	}
+
+	public void setKeepAlive(String keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	public Map<String, String> getKeepAliveOverrides() {
+		return keepAliveOverrides;
+	}
+
+	public void setKeepAliveOverrides(Map<String, String> keepAliveOverrides) {
+		this.keepAliveOverrides = keepAliveOverrides;
+	}
+
+	public List<String> getPinned() {
+		return pinned;
+	}
+
+	public void setPinned(List<String> pinned) {
+		this.pinned = pinned;
+	}
+
+	public Duration getPinnedCheckInterval() {
+		return pinnedCheckInterval;
+	}
+
+	public void setPinnedCheckInterval(Duration pinnedCheckInterval) {
+		this.pinnedCheckInterval = pinnedCheckInterval;
+	}
+
+	public Duration getWarmUpTimeout() {
+		return warmUpTimeout;
+	}
+
+	public void setWarmUpTimeout(Duration warmUpTimeout) {
+		this.warmUpTimeout = warmUpTimeout;
+	}
+
+	public boolean isPinned(String model) {
+		return pinned.contains(model) || (!model.contains(":") && pinned.contains(model + ":latest"))
+				|| (model.endsWith(":latest") && pinned.contains(model.substring(0, model.length() - ":latest".length())));
+	}
+
+	/**
+	 * The {@code keep_alive} to send for {@code model}: never unload pinned
+	 * models, otherwise the override or the default.
+	 */
+	public String keepAliveFor(String model) {
+		if (isPinned(model)) {
+			return "-1";
+		}
+		return keepAliveOverrides.getOrDefault(model, keepAlive);
+	}
+}
@@ -0,0 +1,39 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.query")
+public class QueryProperties {
+
+	/**
+	 * How long /api/mcp/query waits for an answer before the query is cancelled
+	 * and 504 is returned.
+	 */
+	private Duration timeout = Duration.ofMinutes(5);
+
+	/**
+	 * Lifetime of a /api/mcp/query/stream event stream; the query is cancelled
+	 * when it expires.
+	 */
+	private Duration streamTimeout = Duration.ofMinutes(10);
+
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(Duration timeout) {
+		this.timeout = timeout;
+	}
+
+	public Duration getStreamTimeout() {
+		return streamTimeout;
+	}
+
+	public void setStreamTimeout(Duration streamTimeout) {
+		this.streamTimeout = streamTimeout;
+	}
+}
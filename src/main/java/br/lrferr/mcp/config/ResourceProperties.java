@@ -0,0 +1,78 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.resources")
+public class ResourceProperties {
+
+	/**
+	 * Whether MCP server processes are sampled for CPU, memory, file descriptors
+	 * and threads.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Interval between samples of every running MCP server.
+	 */
+	private Duration sampleInterval = Duration.ofSeconds(5);
+
+	/**
+	 * Samples kept per server; with the default interval, one hour of history.
+	 */
+	private int historySize = 720;
+
+	/**
+	 * Minimum time between two limit-triggered restarts of the same server.
+	 */
+	private Duration restartCooldown = Duration.ofMinutes(5);
+
+	/**
+	 * How long a limit-triggered restart waits for in-flight requests on the old
+	 * process.
+	 */
+	private Duration drainTimeout = Duration.ofSeconds(30);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Duration getSampleInterval() {
+		return sampleInterval;
+	}
+
+	public void setSampleInterval(Duration sampleInterval) {
+		this.sampleInterval = sampleInterval;
+	}
+
+	public int getHistorySize() {
+		return historySize;
+	}
+
+	public void setHistorySize(int historySize) {
+		this.historySize = historySize;
+	}
+
+	public Duration getRestartCooldown() {
+		return restartCooldown;
+	}
+
+	public void setRestartCooldown(Duration restartCooldown) {
+		this.restartCooldown = restartCooldown;
+	}
+
+	public Duration getDrainTimeout() {
+		return drainTimeout;
+	}
+
+	public void setDrainTimeout(Duration drainTimeout) {
+		this.drainTimeout = drainTimeout;
+	}
+}
@@ -0,0 +1,87 @@
+package br.lrferr.mcp.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.routing")
+public class RoutingProperties {
+
+	/**
+	 * Keywords that mark a prompt as a data query for every server. Servers can add
+	 * their own through the {@code keywords} entry of the MCP JSON configuration.
+	 */
+	private List<String> keywords = new ArrayList<>(List.of("select", "retorne", "lista", "dados", "registros",
+			"tabela", "database", "query", "motorista", "frota"));
+
+	/**
+	 * Per-keyword weight used by the classifier. Keywords without an entry weigh
+	 * {@code 1.0}. Keys are matched case-insensitively, like the keywords.
+	 */
+	private Map<String, Double> weights = new LinkedHashMap<>(Map.of("primeiros", 0.5, "5", 0.5));
+
+	/**
+	 * When enabled, matched keywords are scored against {@link #threshold} instead of
+	 * routing on the first hit.
+	 */
+	private boolean classifierEnabled = true;
+
+	/**
+	 * Minimum score for a prompt to be routed to the MCP data path.
+	 */
+	private double threshold = 1.0;
+
+	/**
+	 * Number of recent routing decisions kept for tuning.
+	 */
+	private int historySize = 500;
+
+	public List<String> getKeywords() {
+		return keywords;
+	}
+
+	public void setKeywords(List<String> keywords) {
+		this.keywords = keywords;
+	}
+
+	public Map<String, Double> getWeights() {
+		return weights;
+	}
+
+	public void setWeights(Map<String, Double> weights) {
+		// The matcher reports keywords in lower case, so the lookup keys must be too.
+		Map<String, Double> lowered = new LinkedHashMap<>();
+		weights.forEach((keyword, weight) -> lowered.put(keyword.toLowerCase(Locale.ROOT), weight));
+		this.weights = lowered;
+	}
+
+	public boolean isClassifierEnabled() {
+		return classifierEnabled;
+	}
+
+	public void setClassifierEnabled(boolean classifierEnabled) {
+		this.classifierEnabled = classifierEnabled;
+	}
+
+	public double getThreshold() {
+		return threshold;
+	}
+
+	public void setThreshold(double threshold) {
+		this.threshold = threshold;
+	}
+
+	public int getHistorySize() {
+		return historySize;
+	}
+
+	public void setHistorySize(int historySize) {
+		this.historySize = historySize;
+	}
+}
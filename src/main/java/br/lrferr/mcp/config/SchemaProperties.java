@@ -0,0 +1,116 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.schema")
+public class SchemaProperties {
+
+	/**
+	 * Whether SQL generation prompts include the tables relevant to the user prompt.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * How long a loaded schema catalog is reused before it is fetched again.
+	 */
+	private Duration ttl = Duration.ofMinutes(30);
+
+	/**
+	 * How long to wait before retrying after a catalog could not be loaded.
+	 */
+	private Duration failureTtl = Duration.ofMinutes(1);
+
+	/**
+	 * Maximum number of tables described in a single prompt.
+	 */
+	private int maxTables = 5;
+
+	/**
+	 * Maximum number of columns listed per table.
+	 */
+	private int maxColumns = 30;
+
+	/**
+	 * Maximum number of dictionary rows (one per column) read when loading a catalog.
+	 */
+	private int maxRows = 20_000;
+
+	/**
+	 * How long loading a catalog may take before the tool call is cancelled.
+	 */
+	private Duration loadTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * How often catalogs of running servers are loaded in the background, and
+	 * how far ahead of expiry they are refreshed.
+	 */
+	private Duration warmInterval = Duration.ofSeconds(10);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Duration getTtl() {
+		return ttl;
+	}
+
+	public void setTtl(Duration ttl) {
+		this.ttl = ttl;
+	}
+
+	public Duration getFailureTtl() {
+		return failureTtl;
+	}
+
+	public void setFailureTtl(Duration failureTtl) {
+		this.failureTtl = failureTtl;
+	}
+
+	public int getMaxTables() {
+		return maxTables;
+	}
+
+	public void setMaxTables(int maxTables) {
+		this.maxTables = maxTables;
+	}
+
+	public int getMaxColumns() {
+		return maxColumns;
+	}
+
+	public void setMaxColumns(int maxColumns) {
+		this.maxColumns = maxColumns;
+	}
+
+	public int getMaxRows() {
+		return maxRows;
+	}
+
+	public void setMaxRows(int maxRows) {
+		this.maxRows = maxRows;
+	}
+
+	public Duration getLoadTimeout() {
+		return loadTimeout;
+	}
+
+	public void setLoadTimeout(Duration loadTimeout) {
+		this.loadTimeout = loadTimeout;
+	}
+
+	public Duration getWarmInterval() {
+		return warmInterval;
+	}
+
+	public void setWarmInterval(Duration warmInterval) {
+		this.warmInterval = warmInterval;
+	}
+}
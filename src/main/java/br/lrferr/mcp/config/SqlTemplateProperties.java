@@ -0,0 +1,36 @@
+package br.lrferr.mcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.sql-template")
+public class SqlTemplateProperties {
+
+	/**
+	 * Whether prompts that differ only in literals reuse a cached parameterized SQL
+	 * template instead of calling the LLM again.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of templates kept; the least recently used one is evicted.
+	 */
+	private int maxEntries = 500;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+}
@@ -0,0 +1,193 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.tool-cache")
+public class ToolCacheProperties {
+
+	/**
+	 * Whether results of cacheable tools are reused across identical calls.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Tools whose results may be cached; they must be read-only.
+	 */
+	private List<String> tools = new ArrayList<>(List.of("execute_safe_query"));
+
+	/**
+	 * Lifetime of a cached result.
+	 */
+	private Duration ttl = Duration.ofMinutes(5);
+
+	/**
+	 * Per-tool lifetime, overriding {@link #ttl}.
+	 */
+	private Map<String, Duration> ttlOverrides = new HashMap<>();
+
+	/**
+	 * Maximum number of results kept on the heap.
+	 */
+	private int heapEntries = 256;
+
+	/**
+	 * Results larger than this stay on disk only.
+	 */
+	private DataSize heapMaxEntrySize = DataSize.ofKilobytes(256);
+
+	/**
+	 * Disk hits after which a result is promoted to the heap.
+	 */
+	private int promoteAfterHits = 2;
+
+	/**
+	 * Whether results are stored in memory-mapped segment files that survive restarts.
+	 */
+	private boolean persistent = true;
+
+	/**
+	 * Directory of the segment files.
+	 */
+	private String directory = "./cache/tool-results";
+
+	/**
+	 * Size of one segment file; a full segment is sealed and a new one started.
+	 */
+	private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+	/**
+	 * Total size of the segment files; the oldest segment is dropped beyond it.
+	 */
+	private DataSize maxDiskSize = DataSize.ofGigabytes(1);
+
+	/**
+	 * A sealed segment whose share of live data falls below this is compacted into the active one.
+	 */
+	private double compactionThreshold = 0.5;
+
+	/**
+	 * How often expired entries are purged and sparse segments compacted.
+	 */
+	private Duration compactionInterval = Duration.ofMinutes(1);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public List<String> getTools() {
+		return tools;
+	}
+
+	public void setTools(List<String> tools) {
+		this.tools = tools;
+	}
+
+	public Duration getTtl() {
+		return ttl;
+	}
+
+	public void setTtl(Duration ttl) {
+		this.ttl = ttl;
+	}
+
+	public Map<String, Duration> getTtlOverrides() {
+		return ttlOverrides;
+	}
+
+	public void setTtlOverrides(Map<String, Duration> ttlOverrides) {
+		this.ttlOverrides = ttlOverrides;
+	}
+
+	public int getHeapEntries() {
+		return heapEntries;
+	}
+
+	public void setHeapEntries(int heapEntries) {
+		this.heapEntries = heapEntries;
+	}
+
+	public DataSize getHeapMaxEntrySize() {
+		return heapMaxEntrySize;
+	}
+
+	public void setHeapMaxEntrySize(DataSize heapMaxEntrySize) {
+		this.heapMaxEntrySize = heapMaxEntrySize;
+	}
+
+	public int getPromoteAfterHits() {
+		return promoteAfterHits;
+	}
+
+	public void setPromoteAfterHits(int promoteAfterHits) {
+		this.promoteAfterHits = promoteAfterHits;
+	}
+
+	public boolean isPersistent() {
+		return persistent;
+	}
+
+	public void setPersistent(boolean persistent) {
+		this.persistent = persistent;
+	}
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public void setDirectory(String directory) {
+		this.directory = directory;
+	}
+
+	public DataSize getSegmentSize() {
+		return segmentSize;
+	}
+
+	public void setSegmentSize(DataSize segmentSize) {
+		this.segmentSize = segmentSize;
+	}
+
+	public DataSize getMaxDiskSize() {
+		return maxDiskSize;
+	}
+
+	public void setMaxDiskSize(DataSize maxDiskSize) {
+		this.maxDiskSize = maxDiskSize;
+	}
+
+	public double getCompactionThreshold() {
+		return compactionThreshold;
+	}
+
+	public void setCompactionThreshold(double compactionThreshold) {
+		this.compactionThreshold = compactionThreshold;
+	}
+
+	public Duration getCompactionInterval() {
+		return compactionInterval;
+	}
+
+	public void setCompactionInterval(Duration compactionInterval) {
+		this.compactionInterval = compactionInterval;
+	}
+
+	public boolean isCacheable(String toolName) {
+		return enabled && tools.contains(toolName);
+	}
+
+	public Duration ttlFor(String toolName) {
+		return ttlOverrides.getOrDefault(toolName, ttl);
+	}
+}
@@ -0,0 +1,62 @@
+package br.lrferr.mcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.tracing")
+public class TracingProperties {
+
+	/**
+	 * Whether {@code /api/mcp/query} calls are traced stage by stage.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Number of completed traces kept in the in-memory ring buffer.
+	 */
+	private int bufferSize = 1024;
+
+	/**
+	 * Base URL of an OTLP/HTTP collector (e.g. {@code http://localhost:4318}). Traces
+	 * are only exported when this is set.
+	 */
+	private String otlpEndpoint;
+
+	/**
+	 * Value reported as the OTLP {@code service.name} resource attribute.
+	 */
+	private String serviceName = "mcp-orchestrator";
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	public String getOtlpEndpoint() {
+		return otlpEndpoint;
+	}
+
+	public void setOtlpEndpoint(String otlpEndpoint) {
+		this.otlpEndpoint = otlpEndpoint;
+	}
+
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	public void setServiceName(String serviceName) {
+		this.serviceName = serviceName;
+	}
+}
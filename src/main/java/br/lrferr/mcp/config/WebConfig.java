@@ -0,0 +1,41 @@
+package br.lrferr.mcp.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Serves responses as CBOR or Smile when the client asks for
+ * {@code application/cbor} or {@code application/x-jackson-smile}. The binary
+ * converters are appended after JSON, so JSON stays the default, and use the
+ * application's Jackson settings.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+	public WebConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+		this.objectMapperBuilder = objectMapperBuilder;
+	}
+
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+			|| converter instanceof MappingJackson2SmileHttpMessageConverter);
+		// The builder bean is a prototype, so each call returns a fresh one.
+		converters.add(new MappingJackson2CborHttpMessageConverter(
+			objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+		converters.add(new MappingJackson2SmileHttpMessageConverter(
+			objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+	}
+}
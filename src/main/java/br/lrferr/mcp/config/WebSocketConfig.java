@@ -0,0 +1,33 @@
+package br.lrferr.mcp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import br.lrferr.mcp.service.ws.McpWebSocketHandler;
+
+/**
+ * Registers the interactive query endpoint ({@code mcp.websocket.path}), where
+ * one connection carries many concurrent queries.
+ */
+@Configuration
+@EnableWebSocket
+@ConditionalOnProperty(prefix = "mcp.websocket", name = "enabled", matchIfMissing = true)
+public class WebSocketConfig implements WebSocketConfigurer {
+
+	private final McpWebSocketHandler handler;
+	private final WebSocketProperties properties;
+
+	public WebSocketConfig(McpWebSocketHandler handler, WebSocketProperties properties) {
+		this.handler = handler;
+		this.properties = properties;
+	}
+
+	@Override
+	public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+		registry.addHandler(handler, properties.getPath())
+			.setAllowedOriginPatterns(properties.getAllowedOrigins().toArray(String[]::new));
+	}
+}
@@ -0,0 +1,110 @@
+package br.lrferr.mcp.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "mcp.websocket")
+public class WebSocketProperties {
+
+	/**
+	 * Whether the interactive query endpoint is registered.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Path of the WebSocket endpoint.
+	 */
+	private String path = "/ws/mcp";
+
+	/**
+	 * Origin patterns, besides the application's own origin, allowed to open a
+	 * connection from a browser, e.g. {@code https://console.example.com} or
+	 * {@code https://*.example.com}. Empty allows same-origin pages only; clients
+	 * that send no {@code Origin} header are not affected.
+	 */
+	private List<String> allowedOrigins = new ArrayList<>();
+
+	/**
+	 * Queries one connection may have running at once; further queries are
+	 * rejected until one finishes.
+	 */
+	private int maxQueriesPerConnection = 8;
+
+	/**
+	 * Frames waiting to be sent on one connection. When full, token, progress and
+	 * log frames are dropped and rows wait for room; a connection that lets
+	 * replies pile up beyond it is closed.
+	 */
+	private int maxPendingFrames = 1024;
+
+	/**
+	 * Rows of a data result sent per {@code rows} frame.
+	 */
+	private int rowsPerFrame = 100;
+
+	/**
+	 * How long a query may run before it is cancelled.
+	 */
+	private Duration queryTimeout = Duration.ofMinutes(10);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	public List<String> getAllowedOrigins() {
+		return allowedOrigins;
+	}
+
+	public void setAllowedOrigins(List<String> allowedOrigins) {
+		this.allowedOrigins = allowedOrigins;
+	}
+
+	public int getMaxQueriesPerConnection() {
+		return maxQueriesPerConnection;
+	}
+
+	public void setMaxQueriesPerConnection(int maxQueriesPerConnection) {
+		this.maxQueriesPerConnection = maxQueriesPerConnection;
+	}
+
+	public int getMaxPendingFrames() {
+		return maxPendingFrames;
+	}
+
+	public void setMaxPendingFrames(int maxPendingFrames) {
+		this.maxPendingFrames = maxPendingFrames;
+	}
+
+	public int getRowsPerFrame() {
+		return rowsPerFrame;
+	}
+
+	public void setRowsPerFrame(int rowsPerFrame) {
+		this.rowsPerFrame = rowsPerFrame;
+	}
+
+	public Duration getQueryTimeout() {
+		return queryTimeout;
+	}
+
+	public void setQueryTimeout(Duration queryTimeout) {
+		this.queryTimeout = queryTimeout;
+	}
+}
@@ -0,0 +1,71 @@
+package br.lrferr.mcp.controller;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.mcp.McpRuntimeInspector;
+import br.lrferr.mcp.service.ws.McpWebSocketHandler;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Admin",
+     description = "Live view of MCP server processes, their sessions and in-flight calls, and of interactive WebSocket connections.")
+@RestController
+@RequestMapping("/api/mcp/admin")
+public class McpAdminController {
+
+	private final McpRuntimeInspector runtimeInspector;
+	private final McpWebSocketHandler webSocketHandler;
+
+	public McpAdminController(McpRuntimeInspector runtimeInspector, McpWebSocketHandler webSocketHandler) {
+		this.runtimeInspector = runtimeInspector;
+		this.webSocketHandler = webSocketHandler;
+	}
+
+	@Operation(
+		summary = "Runtime State",
+		description = "Returns, per server, process uptime and, per session (primary and hedge), pending requests and the age of the oldest, message and byte rates in each direction, last interaction, handshake latency and the state of the listener thread. Cheap enough to poll every second.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Runtime state retrieved successfully")
+	})
+	@GetMapping("/runtime")
+	public ResponseEntity<Map<String, Object>> getRuntime() {
+		return ResponseEntity.ok(runtimeInspector.getRuntime());
+	}
+
+	@Operation(
+		summary = "Stuck Calls",
+		description = "Lists in-flight MCP requests pending for at least olderThanMs, oldest first, with the state of the thread that sent each one and, optionally, its stack.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Stuck calls retrieved successfully")
+	})
+	@GetMapping("/runtime/stuck")
+	public ResponseEntity<Map<String, Object>> getStuckCalls(
+			@Parameter(description = "Minimum age of a pending request, in milliseconds")
+			@RequestParam(defaultValue = "10000") long olderThanMs,
+			@Parameter(description = "Include the stack of each calling thread")
+			@RequestParam(defaultValue = "false") boolean stacks) {
+		return ResponseEntity.ok(runtimeInspector.getStuckCalls(Duration.ofMillis(olderThanMs), stacks));
+	}
+
+	@Operation(
+		summary = "WebSocket Connections",
+		description = "Lists open interactive query connections with their bound server and model, running query ids, pending frames, remaining credits, and sent and dropped frame counts.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Connections retrieved successfully")
+	})
+	@GetMapping("/websocket")
+	public ResponseEntity<Map<String, Object>> getWebSocketConnections() {
+		return ResponseEntity.ok(webSocketHandler.getStats());
+	}
+}
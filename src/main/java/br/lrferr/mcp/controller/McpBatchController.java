@@ -0,0 +1,83 @@
+package br.lrferr.mcp.controller;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.lrferr.mcp.config.BatchProperties;
+import br.lrferr.mcp.model.BatchQueryRequest;
+import br.lrferr.mcp.service.BatchQueryService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Batch Queries",
+     description = "Run many prompts as one pipelined batch and stream the results as NDJSON.")
+@RestController
+@RequestMapping("/api/mcp/query/batch")
+public class McpBatchController {
+
+	private final BatchQueryService batchQueryService;
+	private final BatchProperties batchProperties;
+	private final ObjectMapper objectMapper;
+
+	public McpBatchController(BatchQueryService batchQueryService, BatchProperties batchProperties,
+			ObjectMapper objectMapper) {
+		this.batchQueryService = batchQueryService;
+		this.batchProperties = batchProperties;
+		this.objectMapper = objectMapper;
+	}
+
+	@Operation(
+		summary = "Batch Query",
+		description = "Runs the prompts through a pipeline: SQL generation for one item overlaps the tool call of the previous one, with bounded parallelism per stage. Identical prompts for the same server run once. Streams one JSON line per item as it completes (status OK, ERROR or SKIPPED, with type, sql and result), then a final {\"summary\": ...} line. Items not started yet are skipped if the client disconnects.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Results streamed"),
+		@ApiResponse(responseCode = "400", description = "Empty or oversized batch, or an item without prompt or server")
+	})
+	@PostMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<ResponseBodyEmitter> batch(@RequestBody BatchQueryRequest request) {
+		ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchProperties.getTimeout().toMillis());
+		BatchQueryService.Run run;
+		try {
+			run = batchQueryService.execute(request, line -> send(emitter, line));
+		} catch (IllegalArgumentException e) {
+			send(emitter, Map.of("error", e.getMessage()));
+			emitter.complete();
+			return ResponseEntity.badRequest().body(emitter);
+		}
+		emitter.onTimeout(run::cancel);
+		emitter.onError(error -> run.cancel());
+		run.summary().whenComplete((summary, error) -> {
+			if (error != null) {
+				Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+				send(emitter, Map.of("error", "Batch failed: " + cause.getMessage()));
+			}
+			else {
+				send(emitter, Map.of("summary", summary));
+			}
+			emitter.complete();
+		});
+		return ResponseEntity.ok(emitter);
+	}
+
+	private void send(ResponseBodyEmitter emitter, Map<String, Object> line) {
+		try {
+			emitter.send(objectMapper.writeValueAsString(line) + "\n", MediaType.APPLICATION_NDJSON);
+		} catch (IOException | IllegalStateException e) {
+			// Client went away; the remaining lines are simply dropped.
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package br.lrferr.mcp.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.mcp.McpCaptureService;
+import br.lrferr.mcp.service.mcp.McpJournalWriter;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Traffic Capture", 
+     description = "Record MCP JSON-RPC traffic to binary journals for offline replay with McpReplayServer.")
+@RestController
+@RequestMapping("/api/mcp/capture")
+public class McpCaptureController {
+
+	private final McpSessionManager sessionManager;
+	private final McpCaptureService captureService;
+
+	public McpCaptureController(McpSessionManager sessionManager, McpCaptureService captureService) {
+		this.sessionManager = sessionManager;
+		this.captureService = captureService;
+	}
+
+	@Operation(
+		summary = "List Captures", 
+		description = "Shows active captures and the journals already written to the capture directory.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Captures listed")
+	})
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> listCaptures() {
+		Map<String, Object> active = new java.util.LinkedHashMap<>();
+		sessionManager.getActiveCaptures().forEach((name, journal) -> active.put(name, describe(journal)));
+		List<String> journals = captureService.listJournals().stream().map(path -> path.toString()).toList();
+		return ResponseEntity.ok(Map.of(
+			"active", active,
+			"journals", journals,
+			"directory", captureService.getDirectory().toAbsolutePath().toString()
+		));
+	}
+
+	@Operation(
+		summary = "Start Capture", 
+		description = "Starts writing every frame exchanged with the server to a new journal.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Capture started"),
+		@ApiResponse(responseCode = "400", description = "Server not running")
+	})
+	@PostMapping("/{serverName}/start")
+	public ResponseEntity<Map<String, Object>> startCapture(
+			@Parameter(description = "Server name to capture")
+			@PathVariable String serverName) {
+		try {
+			McpJournalWriter journal = sessionManager.startCapture(serverName);
+			return ResponseEntity.ok(describe(journal));
+		} catch (IllegalStateException e) {
+			return ResponseEntity.badRequest().body(Map.of(
+				"error", e.getMessage()
+			));
+		}
+	}
+
+	@Operation(
+		summary = "Stop Capture", 
+		description = "Stops capturing the server's traffic and closes its journal.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Capture stopped"),
+		@ApiResponse(responseCode = "404", description = "No capture running for the server")
+	})
+	@PostMapping("/{serverName}/stop")
+	public ResponseEntity<Map<String, Object>> stopCapture(
+			@Parameter(description = "Server name to stop capturing")
+			@PathVariable String serverName) {
+		McpJournalWriter journal = sessionManager.stopCapture(serverName);
+		if (journal == null) {
+			return ResponseEntity.status(404).body(Map.of(
+				"error", "No capture running for " + serverName
+			));
+		}
+		return ResponseEntity.ok(describe(journal));
+	}
+
+	private Map<String, Object> describe(McpJournalWriter journal) {
+		return Map.of(
+			"serverName", journal.getServerName(),
+			"file", journal.getPath().toAbsolutePath().toString(),
+			"frames", journal.getEntries()
+		);
+	}
+}
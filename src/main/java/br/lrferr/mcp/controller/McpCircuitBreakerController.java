@@ -0,0 +1,65 @@
+package br.lrferr.mcp.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.breaker.CircuitBreakerRegistry;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Circuit Breakers",
+     description = "Inspect and reset the circuit breakers of MCP servers and LLM models.")
+@RestController
+@RequestMapping("/api/mcp/circuit-breakers")
+public class McpCircuitBreakerController {
+
+	private final CircuitBreakerRegistry circuitBreakers;
+
+	public McpCircuitBreakerController(CircuitBreakerRegistry circuitBreakers) {
+		this.circuitBreakers = circuitBreakers;
+	}
+
+	@Operation(
+		summary = "List Circuit Breakers",
+		description = "Returns every breaker, open and half-open first, with its failure and slow-call rates over the current window and its lifetime counters.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Breakers retrieved successfully")
+	})
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> getBreakers() {
+		return ResponseEntity.ok(Map.of(
+			"breakers", circuitBreakers.getBreakers()
+		));
+	}
+
+	@Operation(
+		summary = "Reset Circuit Breaker",
+		description = "Closes a breaker immediately, e.g. once the backend is known to be back, instead of waiting for half-open probes.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Breaker closed"),
+		@ApiResponse(responseCode = "404", description = "No breaker for this backend")
+	})
+	@PostMapping("/{kind}/{name}/reset")
+	public ResponseEntity<Map<String, Object>> reset(
+			@Parameter(description = "Backend kind: mcp (server) or llm (model)")
+			@PathVariable String kind,
+			@Parameter(description = "Server or model name")
+			@PathVariable String name) {
+		if (!circuitBreakers.reset(kind, name)) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(Map.of(
+			"message", "Closed circuit for " + kind + " " + name
+		));
+	}
+}
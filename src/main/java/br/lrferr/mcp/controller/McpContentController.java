@@ -0,0 +1,140 @@
+package br.lrferr.mcp.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import br.lrferr.mcp.service.mcp.McpContentCache;
+import br.lrferr.mcp.service.mcp.McpContentService;
+import br.lrferr.mcp.service.mcp.McpProtocolException;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "MCP Resources & Prompts",
+     description = "Read resources and prompts exposed by MCP servers, served from a cache kept fresh by server notifications.")
+@RestController
+@RequestMapping("/api/mcp")
+public class McpContentController {
+
+	private final McpContentService contentService;
+	private final McpContentCache contentCache;
+
+	public McpContentController(McpContentService contentService, McpContentCache contentCache) {
+		this.contentService = contentService;
+		this.contentCache = contentCache;
+	}
+
+	@Operation(
+		summary = "List Resources",
+		description = "Returns the server's resources/list result.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Resources listed"),
+		@ApiResponse(responseCode = "400", description = "Server not running"),
+		@ApiResponse(responseCode = "500", description = "The MCP server returned an error")
+	})
+	@GetMapping("/{serverName}/resources")
+	public ResponseEntity<Map<String, Object>> listResources(
+			@Parameter(description = "Server name")
+			@PathVariable String serverName,
+			@Parameter(description = "Pagination cursor from a previous response")
+			@RequestParam(required = false) String cursor) {
+		return respond(serverName, () -> contentService.listResources(serverName, cursor));
+	}
+
+	@Operation(
+		summary = "Read Resource",
+		description = "Returns the contents of a resource. Subscribes to it when the server supports subscriptions, so the cached copy is dropped as soon as it changes.")
+	@GetMapping("/{serverName}/resources/read")
+	public ResponseEntity<Map<String, Object>> readResource(
+			@Parameter(description = "Server name")
+			@PathVariable String serverName,
+			@Parameter(description = "Resource URI")
+			@RequestParam String uri) {
+		return respond(serverName, () -> contentService.readResource(serverName, uri));
+	}
+
+	@Operation(
+		summary = "List Prompts",
+		description = "Returns the server's prompts/list result.")
+	@GetMapping("/{serverName}/prompts")
+	public ResponseEntity<Map<String, Object>> listPrompts(
+			@Parameter(description = "Server name")
+			@PathVariable String serverName,
+			@Parameter(description = "Pagination cursor from a previous response")
+			@RequestParam(required = false) String cursor) {
+		return respond(serverName, () -> contentService.listPrompts(serverName, cursor));
+	}
+
+	@Operation(
+		summary = "Get Prompt",
+		description = "Renders a prompt with the given arguments (a JSON object of strings) through prompts/get.")
+	@PostMapping("/{serverName}/prompts/{promptName}")
+	public ResponseEntity<Map<String, Object>> getPrompt(
+			@Parameter(description = "Server name")
+			@PathVariable String serverName,
+			@Parameter(description = "Prompt name")
+			@PathVariable String promptName,
+			@RequestBody(required = false) JsonNode arguments) {
+		return respond(serverName, () -> contentService.getPrompt(serverName, promptName, arguments));
+	}
+
+	@Operation(
+		summary = "Get Content Cache Statistics",
+		description = "Returns size, hit rate, evictions and notification-driven invalidations of the resource and prompt cache.")
+	@GetMapping("/content-cache")
+	public ResponseEntity<Map<String, Object>> getCacheStats() {
+		return ResponseEntity.ok(contentCache.getStats());
+	}
+
+	@Operation(
+		summary = "Clear Content Cache",
+		description = "Drops cached resources and prompts of one server, or of all servers when serverName is omitted.")
+	@DeleteMapping("/content-cache")
+	public ResponseEntity<Map<String, Object>> clearCache(
+			@Parameter(description = "Server name")
+			@RequestParam(required = false) String serverName) {
+		if (serverName != null) {
+			contentService.invalidate(serverName);
+		} else {
+			contentCache.clear();
+		}
+		return ResponseEntity.ok(Map.of(
+			"message", serverName != null ? "Cleared cached content of " + serverName : "Cleared content cache"
+		));
+	}
+
+	private ResponseEntity<Map<String, Object>> respond(String serverName, Supplier<McpContentService.Result> call) {
+		try {
+			McpContentService.Result result = call.get();
+			Map<String, Object> response = new LinkedHashMap<>();
+			response.put("serverName", serverName);
+			response.put("cached", result.cached());
+			response.put("result", result.value());
+			return ResponseEntity.ok(response);
+		} catch (IllegalStateException e) {
+			return ResponseEntity.badRequest().body(Map.of(
+				"error", e.getMessage()
+			));
+		} catch (McpProtocolException e) {
+			return ResponseEntity.internalServerError().body(Map.of(
+				"error", e.getMessage()
+			));
+		}
+	}
+}
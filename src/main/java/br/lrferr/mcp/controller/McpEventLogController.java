@@ -0,0 +1,39 @@
+package br.lrferr.mcp.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.eventlog.QueryEventLog;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Event Log",
+     description = "Inspect the structured JSONL log of queries, tool calls and LLM calls.")
+@RestController
+@RequestMapping("/api/mcp/event-log")
+public class McpEventLogController {
+
+	private final QueryEventLog eventLog;
+
+	public McpEventLogController(QueryEventLog eventLog) {
+		this.eventLog = eventLog;
+	}
+
+	@Operation(
+		summary = "Event Log Statistics",
+		description = "Returns the current file and how many events were written, sampled out, dropped because the buffer was full, or had payloads cut.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+	})
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> getStats() {
+		return ResponseEntity.ok(eventLog.getStats());
+	}
+}
@@ -0,0 +1,90 @@
+package br.lrferr.mcp.controller;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.lrferr.mcp.model.FanOutRequest;
+import br.lrferr.mcp.service.McpFanOutService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Fan-out Queries", 
+     description = "Run one tool call or prompt on several MCP servers in parallel.")
+@RestController
+@RequestMapping("/api/mcp/fanout")
+public class McpFanOutController {
+
+	private final McpFanOutService fanOutService;
+
+	public McpFanOutController(McpFanOutService fanOutService) {
+		this.fanOutService = fanOutService;
+	}
+
+	@Operation(
+		summary = "Fan-out Query", 
+		description = "Runs the tool call (toolName + arguments) or prompt on the listed servers, the servers with the given tag, or every running server, and returns the merged results with per-server status.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "All servers answered, failed or timed out"),
+		@ApiResponse(responseCode = "400", description = "Invalid request or no matching servers")
+	})
+	@PostMapping
+	public ResponseEntity<Map<String, Object>> fanOut(@RequestBody FanOutRequest request) {
+		try {
+			return ResponseEntity.ok(fanOutService.execute(request, result -> { }).join());
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(Map.of(
+				"error", e.getMessage()
+			));
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause() != null ? e.getCause() : e;
+			return ResponseEntity.internalServerError().body(Map.of(
+				"error", "Fan-out failed: " + cause.getMessage()
+			));
+		}
+	}
+
+	@Operation(
+		summary = "Streaming Fan-out Query", 
+		description = "Same as /fanout but streams a 'result' server-sent event as each server answers, followed by a 'summary' event with the merged response.")
+	@PostMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter fanOutStream(@RequestBody FanOutRequest request) {
+		SseEmitter emitter = new SseEmitter(request.getTimeoutMs() + 60_000);
+		try {
+			fanOutService.execute(request, result -> send(emitter, "result", result))
+				.whenComplete((merged, error) -> {
+					if (error != null) {
+						Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+						send(emitter, "error", Map.of("error", "Fan-out failed: " + cause.getMessage()));
+					}
+					else {
+						send(emitter, "summary", merged);
+					}
+					emitter.complete();
+				});
+		} catch (IllegalArgumentException e) {
+			send(emitter, "error", Map.of("error", e.getMessage()));
+			emitter.complete();
+		}
+		return emitter;
+	}
+
+	private static void send(SseEmitter emitter, String name, Object data) {
+		try {
+			emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+		} catch (IOException | IllegalStateException e) {
+			// Client went away; the remaining results are simply dropped.
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package br.lrferr.mcp.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.hedge.McpHedger;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Hedging",
+     description = "Inspect hedged calls of idempotent tools.")
+@RestController
+@RequestMapping("/api/mcp/hedging")
+public class McpHedgingController {
+
+	private final McpHedger hedger;
+
+	public McpHedgingController(McpHedger hedger) {
+		this.hedger = hedger;
+	}
+
+	@Operation(
+		summary = "Hedging Statistics",
+		description = "Returns, per server and idempotent tool, the calls made, how many were hedged, how many hedges answered first, and the latency quantiles that set the hedge delay.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+	})
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> getStats() {
+		return ResponseEntity.ok(hedger.getStats());
+	}
+}
@@ -0,0 +1,84 @@
+package br.lrferr.mcp.controller;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.jfr.JfrRecordingService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Flight Recorder", 
+     description = "Toggle Java Flight Recorder recordings that include MCP frame, JSON-RPC, tool and LLM events.")
+@RestController
+@RequestMapping("/api/mcp/jfr")
+public class McpJfrController {
+
+	private final JfrRecordingService recordingService;
+
+	public McpJfrController(JfrRecordingService recordingService) {
+		this.recordingService = recordingService;
+	}
+
+	@Operation(
+		summary = "Start Recording", 
+		description = "Starts a JFR recording with the given JDK settings and all orchestrator events enabled.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Recording started"),
+		@ApiResponse(responseCode = "400", description = "Recording already running or unknown settings")
+	})
+	@PostMapping("/start")
+	public ResponseEntity<Map<String, Object>> start(
+			@Parameter(description = "JDK settings: default (low overhead) or profile")
+			@RequestParam(defaultValue = "default") String settings,
+			@Parameter(description = "Maximum age of data kept, in minutes (optional)")
+			@RequestParam(required = false) Long maxAgeMinutes) {
+		try {
+			Duration maxAge = maxAgeMinutes != null ? Duration.ofMinutes(maxAgeMinutes) : null;
+			return ResponseEntity.ok(recordingService.start(settings, maxAge));
+		} catch (IllegalStateException | IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(Map.of(
+				"error", e.getMessage()
+			));
+		}
+	}
+
+	@Operation(
+		summary = "Stop Recording", 
+		description = "Stops the running recording and writes it to a .jfr file.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Recording stopped and written"),
+		@ApiResponse(responseCode = "400", description = "No recording running")
+	})
+	@PostMapping("/stop")
+	public ResponseEntity<Map<String, Object>> stop() {
+		try {
+			return ResponseEntity.ok(recordingService.stop());
+		} catch (IllegalStateException e) {
+			return ResponseEntity.badRequest().body(Map.of(
+				"error", e.getMessage()
+			));
+		}
+	}
+
+	@Operation(
+		summary = "Recording Status", 
+		description = "Shows whether a recording is running and which orchestrator events it captures.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Status retrieved")
+	})
+	@GetMapping("/status")
+	public ResponseEntity<Map<String, Object>> status() {
+		return ResponseEntity.ok(recordingService.getStatus());
+	}
+}
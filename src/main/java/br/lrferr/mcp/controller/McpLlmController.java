@@ -0,0 +1,39 @@
+package br.lrferr.mcp.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.llm.LlmScheduler;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "LLM Dispatch",
+     description = "Inspect how LLM calls are queued and dispatched to Ollama models.")
+@RestController
+@RequestMapping("/api/mcp/llm")
+public class McpLlmController {
+
+	private final LlmScheduler llmScheduler;
+
+	public McpLlmController(LlmScheduler llmScheduler) {
+		this.llmScheduler = llmScheduler;
+	}
+
+	@Operation(
+		summary = "Get LLM Queues",
+		description = "Returns, per model, the concurrency limit, running and queued calls, and queue-wait percentiles per priority class.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Queue statistics retrieved successfully")
+	})
+	@GetMapping("/queues")
+	public ResponseEntity<Map<String, Object>> getQueues() {
+		return ResponseEntity.ok(llmScheduler.getStats());
+	}
+}
@@ -0,0 +1,139 @@
+package br.lrferr.mcp.controller;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.lrferr.mcp.config.MonitorProperties;
+import br.lrferr.mcp.model.StandingQueryRequest;
+import br.lrferr.mcp.service.monitor.StandingQueryService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Standing Queries",
+     description = "Re-run a tool call on an interval and stream row-level changes as server-sent events.")
+@RestController
+@RequestMapping("/api/mcp/monitors")
+public class McpMonitorController {
+
+	private final StandingQueryService standingQueryService;
+	private final MonitorProperties monitorProperties;
+
+	public McpMonitorController(StandingQueryService standingQueryService, MonitorProperties monitorProperties) {
+		this.standingQueryService = standingQueryService;
+		this.monitorProperties = monitorProperties;
+	}
+
+	@Operation(
+		summary = "Register Standing Query",
+		description = "Registers the tool call as a standing query, or joins the identical one already running, and streams a 'subscribed' event, a 'snapshot' event with the current rows, then a 'delta' event (added / changed / removed) whenever a run differs from the previous one. Failed runs produce an 'error' event and the query keeps running.")
+	@PostMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter register(@RequestBody StandingQueryRequest request) {
+		EmitterSubscriber subscriber = new EmitterSubscriber(new SseEmitter(monitorProperties.getStreamTimeout().toMillis()));
+		try {
+			subscriber.attach(standingQueryService.subscribe(request, subscriber));
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			subscriber.send("error", Map.of("error", e.getMessage()));
+			subscriber.close();
+		}
+		return subscriber.emitter;
+	}
+
+	@Operation(
+		summary = "Join Standing Query",
+		description = "Streams the events of a running standing query, starting with its current rows.")
+	@GetMapping(path = "/{queryId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter join(@PathVariable String queryId) {
+		EmitterSubscriber subscriber = new EmitterSubscriber(new SseEmitter(monitorProperties.getStreamTimeout().toMillis()));
+		try {
+			standingQueryService.join(queryId, subscriber);
+			subscriber.attach(queryId);
+		} catch (IllegalArgumentException e) {
+			subscriber.send("error", Map.of("error", e.getMessage()));
+			subscriber.close();
+		}
+		return subscriber.emitter;
+	}
+
+	@Operation(
+		summary = "List Standing Queries",
+		description = "Returns every running standing query with its interval, subscriber count, run / skipped / error counts and last run duration.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Standing queries retrieved successfully")
+	})
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> getQueries() {
+		List<Map<String, Object>> queries = standingQueryService.getQueries();
+		Map<String, Object> response = new LinkedHashMap<>();
+		response.put("count", queries.size());
+		response.put("queries", queries);
+		return ResponseEntity.ok(response);
+	}
+
+	@Operation(
+		summary = "Stop Standing Query",
+		description = "Stops the query for every subscriber and ends their streams.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Standing query stopped"),
+		@ApiResponse(responseCode = "404", description = "Unknown standing query")
+	})
+	@DeleteMapping("/{queryId}")
+	public ResponseEntity<Map<String, Object>> stop(@PathVariable String queryId) {
+		if (!standingQueryService.stop(queryId)) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(Map.of(
+			"message", "Stopped standing query " + queryId
+		));
+	}
+
+	/**
+	 * Adapts an SSE stream to a standing-query subscriber and unsubscribes it when
+	 * the client goes away or the stream times out.
+	 */
+	private final class EmitterSubscriber implements StandingQueryService.Subscriber {
+
+		private final SseEmitter emitter;
+
+		EmitterSubscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		void attach(String queryId) {
+			Runnable leave = () -> standingQueryService.unsubscribe(queryId, this);
+			emitter.onCompletion(leave);
+			emitter.onTimeout(leave);
+			emitter.onError(error -> leave.run());
+		}
+
+		@Override
+		public boolean send(String event, Object data) {
+			try {
+				emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+				return true;
+			} catch (IOException | IllegalStateException e) {
+				return false;
+			}
+		}
+
+		@Override
+		public void close() {
+			emitter.complete();
+		}
+	}
+}
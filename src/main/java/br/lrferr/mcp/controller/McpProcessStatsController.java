@@ -0,0 +1,65 @@
+package br.lrferr.mcp.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.resource.McpResourceMonitor;
+import br.lrferr.mcp.service.resource.ProcessSample;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "MCP Process Stats",
+     description = "CPU, memory, file descriptor and thread usage of MCP server processes and their limits.")
+@RestController
+@RequestMapping("/api/mcp/process-stats")
+public class McpProcessStatsController {
+
+	private final McpResourceMonitor resourceMonitor;
+
+	public McpProcessStatsController(McpResourceMonitor resourceMonitor) {
+		this.resourceMonitor = resourceMonitor;
+	}
+
+	@Operation(
+		summary = "Get Process Stats",
+		description = "Returns the latest sample of every running MCP server process, hedge processes included, its configured limits and any current breaches.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Process stats retrieved successfully")
+	})
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> getSummary() {
+		Map<String, Object> servers = resourceMonitor.getSummary();
+		return ResponseEntity.ok(Map.of(
+			"servers", servers,
+			"total", servers.size()
+		));
+	}
+
+	@Operation(
+		summary = "Get Process Stats History",
+		description = "Returns the most recent samples of one MCP server, oldest first.")
+	@GetMapping("/{serverName}")
+	public ResponseEntity<Map<String, Object>> getHistory(
+			@Parameter(description = "Server name")
+			@PathVariable String serverName,
+			@Parameter(description = "Maximum number of samples")
+			@RequestParam(defaultValue = "120") int limit) {
+		List<ProcessSample> samples = resourceMonitor.getHistory(serverName, limit);
+		return ResponseEntity.ok(Map.of(
+			"serverName", serverName,
+			"samples", samples,
+			"total", samples.size()
+		));
+	}
+}
@@ -0,0 +1,94 @@
+package br.lrferr.mcp.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.schema.SchemaCatalog;
+import br.lrferr.mcp.service.schema.SchemaCatalogService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Schema Catalog", 
+     description = "Inspect and invalidate the cached table catalogs used to ground SQL generation.")
+@RestController
+@RequestMapping("/api/mcp/schema")
+public class McpSchemaController {
+
+	private final SchemaCatalogService schemaCatalogService;
+
+	public McpSchemaController(SchemaCatalogService schemaCatalogService) {
+		this.schemaCatalogService = schemaCatalogService;
+	}
+
+	@Operation(
+		summary = "Get Schema Catalog", 
+		description = "Returns the cached catalog of a server, loading it through the server's MCP tools if needed.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Catalog retrieved (check 'error' for load failures)")
+	})
+	@GetMapping("/{serverName}")
+	public ResponseEntity<Map<String, Object>> getCatalog(
+			@Parameter(description = "Server name")
+			@PathVariable String serverName) {
+		SchemaCatalog catalog = schemaCatalogService.getCatalog(serverName);
+		Map<String, Object> response = new java.util.LinkedHashMap<>();
+		response.put("serverName", serverName);
+		response.put("loadedAt", catalog.getLoadedAt());
+		response.put("error", catalog.getError());
+		response.put("total", catalog.getTables().size());
+		response.put("tables", catalog.getTables());
+		return ResponseEntity.ok(response);
+	}
+
+	@Operation(
+		summary = "Preview Prompt Context", 
+		description = "Shows the table descriptions that would be added to the SQL generation prompt for the given text.")
+	@GetMapping("/{serverName}/relevant")
+	public ResponseEntity<Map<String, Object>> getRelevantTables(
+			@Parameter(description = "Server name")
+			@PathVariable String serverName,
+			@Parameter(description = "User prompt")
+			@RequestParam String prompt) {
+		return ResponseEntity.ok(Map.of(
+			"serverName", serverName,
+			"prompt", prompt,
+			"context", schemaCatalogService.describeRelevantTables(serverName, prompt)
+		));
+	}
+
+	@Operation(
+		summary = "Invalidate Schema Catalog", 
+		description = "Drops a server's cached catalog so it is reloaded on the next SQL generation, e.g. after DDL changes.")
+	@DeleteMapping("/{serverName}")
+	public ResponseEntity<Map<String, Object>> invalidate(
+			@Parameter(description = "Server name")
+			@PathVariable String serverName) {
+		schemaCatalogService.invalidate(serverName);
+		return ResponseEntity.ok(Map.of(
+			"message", "Invalidated schema catalog for " + serverName,
+			"serverName", serverName
+		));
+	}
+
+	@Operation(
+		summary = "Invalidate All Schema Catalogs", 
+		description = "Drops every cached catalog.")
+	@DeleteMapping
+	public ResponseEntity<Map<String, Object>> invalidateAll() {
+		schemaCatalogService.invalidateAll();
+		return ResponseEntity.ok(Map.of(
+			"message", "Invalidated all schema catalogs"
+		));
+	}
+}
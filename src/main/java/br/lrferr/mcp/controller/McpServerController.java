@@ -1,10 +1,16 @@
 package br.lrferr.mcp.controller;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,13 +19,27 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
+import br.lrferr.mcp.config.QueryProperties;
 import br.lrferr.mcp.model.McpServerConfig;
+import br.lrferr.mcp.model.QueryResponse;
 import br.lrferr.mcp.service.McpClientService;
 import br.lrferr.mcp.service.McpConfigLoader;
 import br.lrferr.mcp.service.McpProcessManagerService;
 import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
 import br.lrferr.mcp.service.OllamaService;
+import br.lrferr.mcp.service.cancel.QueryCancellation;
+import br.lrferr.mcp.service.cancel.QueryCancellations;
+import br.lrferr.mcp.service.mcp.McpProgressListener;
+import br.lrferr.mcp.service.mcp.McpProtocolException;
+import br.lrferr.mcp.service.mcp.McpRestartConflictException;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+import br.lrferr.mcp.service.routing.QueryRouter;
+import br.lrferr.mcp.service.routing.RoutingDecision;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -37,13 +57,22 @@ public class McpServerController {
 	private final McpProcessManagerService processManagerService;
 	private final McpClientService clientService;
 	private final OllamaService ollamaService;
+	private final QueryRouter queryRouter;
+	private final McpSessionManager sessionManager;
+	private final QueryCancellations queryCancellations;
+	private final QueryProperties queryProperties;
 
 	public McpServerController(McpConfigLoader configLoader, McpProcessManagerService processManagerService,
-			McpClientService clientService, OllamaService ollamaService) {
+			McpClientService clientService, OllamaService ollamaService, QueryRouter queryRouter,
+			McpSessionManager sessionManager, QueryCancellations queryCancellations, QueryProperties queryProperties) {
 		this.configLoader = configLoader;
 		this.processManagerService = processManagerService;
 		this.clientService = clientService;
 		this.ollamaService = ollamaService;
+		this.queryRouter = queryRouter;
+		this.sessionManager = sessionManager;
+		this.queryCancellations = queryCancellations;
+		this.queryProperties = queryProperties;
 	}
 
 	@Operation(
@@ -111,12 +140,45 @@ public class McpServerController {
 			@Parameter(description = "Server name to stop")
 			@PathVariable String serverName) {
 		processManagerService.stopServer(serverName);
+		sessionManager.closeHedgeSession(serverName);
 		return ResponseEntity.ok(Map.of(
 			"message", "Stopped server " + serverName,
 			"serverName", serverName
 		));
 	}
 
+	@Operation(
+		summary = "Rolling Restart", 
+		description = "Starts and handshakes a replacement process (re-reading the server's config file), switches traffic to it, lets the old process finish its in-flight requests up to the drain timeout and then stops it.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Server restarted"),
+		@ApiResponse(responseCode = "400", description = "Server not running"),
+		@ApiResponse(responseCode = "409", description = "Server was stopped or replaced during the restart; the replacement was discarded"),
+		@ApiResponse(responseCode = "500", description = "Replacement failed to start; the old process keeps serving")
+	})
+	@PostMapping("/{serverName}/restart")
+	public ResponseEntity<Map<String, Object>> restartServer(
+			@Parameter(description = "Server name to restart")
+			@PathVariable String serverName,
+			@Parameter(description = "Maximum seconds to wait for in-flight requests on the old process")
+			@RequestParam(defaultValue = "30") long drainTimeoutSeconds) {
+		try {
+			return ResponseEntity.ok(sessionManager.rollingRestart(serverName, Duration.ofSeconds(drainTimeoutSeconds)));
+		} catch (McpRestartConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+				"error", e.getMessage()
+			));
+		} catch (IllegalStateException e) {
+			return ResponseEntity.badRequest().body(Map.of(
+				"error", e.getMessage()
+			));
+		} catch (McpProtocolException e) {
+			return ResponseEntity.internalServerError().body(Map.of(
+				"error", e.getMessage()
+			));
+		}
+	}
+
 	@Operation(
 		summary = "Connect to Server", 
 		description = "Establishes connection to a running MCP server for sending queries. Required before using /query endpoint. Use /list first to see available servers.")
@@ -145,28 +207,157 @@ public class McpServerController {
 
 	@Operation(
 		summary = "Query Server", 
-		description = "Send prompt to connected MCP server via Ollama LLM. Must connect to server first using /{serverName}/connect.")
+		description = "Send prompt to connected MCP server via Ollama LLM. Must connect to server first using /{serverName}/connect. If the client disconnects or mcp.query.timeout expires, the query is cancelled on the MCP server and Ollama.")
 	@ApiResponses({
 		@ApiResponse(responseCode = "200", description = "Query executed successfully"),
-		@ApiResponse(responseCode = "400", description = "No server connected")
+		@ApiResponse(responseCode = "400", description = "No server connected"),
+		@ApiResponse(responseCode = "503", description = "Circuit breaker of the MCP server or the model is open"),
+		@ApiResponse(responseCode = "504", description = "Query cancelled after mcp.query.timeout")
 	})
 	@PostMapping("/query")
-	public ResponseEntity<Map<String, Object>> queryServer(
+	public DeferredResult<ResponseEntity<Map<String, Object>>> queryServer(
 			@Parameter(description = "Your question or prompt")
-			@RequestParam String prompt) {
+			@RequestParam String prompt,
+			@Parameter(description = "Return data results as JSON (type, sql, result) instead of a Markdown string")
+			@RequestParam(defaultValue = "false") boolean structured) {
+		DeferredResult<ResponseEntity<Map<String, Object>>> result =
+			new DeferredResult<>(queryProperties.getTimeout().toMillis());
 		if (!clientService.getCurrentServer().isPresent()) {
-			return ResponseEntity.badRequest().body(Map.of(
+			result.setResult(ResponseEntity.badRequest().body(Map.of(
 				"error", "No server connected. Use /connect endpoint first."
-			));
+			)));
+			return result;
+		}
+
+		QueryCancellation cancellation = queryCancellations.create();
+		result.onTimeout(() -> {
+			queryCancellations.cancel(cancellation, "timeout");
+			result.setResult(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of(
+				"error", "Query did not finish within " + queryProperties.getTimeout() + " and was cancelled",
+				"prompt", prompt
+			)));
+		});
+		result.onError(error -> queryCancellations.cancel(cancellation, "disconnect"));
+
+		clientService.queryAsync(prompt, null, cancellation, structured).whenComplete((response, error) -> {
+			if (error != null) {
+				result.setErrorResult(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+			}
+			else if (QueryResponse.UNAVAILABLE.equals(response.getType())) {
+				long retryAfter = (((Number) response.getCircuit().get("retryAfterMs")).longValue() + 999) / 1000;
+				result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+					.body(queryBody(response, structured)));
+			}
+			else {
+				result.setResult(ResponseEntity.ok(queryBody(response, structured)));
+			}
+		});
+		return result;
+	}
+
+	@Operation(
+		summary = "Query Cancellations",
+		description = "Counts cancelled queries by reason (disconnect, timeout, client) and by the stage they interrupted (mcp, llm, pending).")
+	@GetMapping("/query/cancellations")
+	public ResponseEntity<Map<String, Object>> getQueryCancellations() {
+		return ResponseEntity.ok(queryCancellations.getStats());
+	}
+
+	@Operation(
+		summary = "Streaming Query",
+		description = "Same as /query but streams server-sent events: 'started' with the requestId of the MCP tool call, 'progress' and 'log' as the server reports progress or partial rows, 'token' as the model answers a general prompt, then 'result' (or 'error').")
+	@PostMapping(path = "/query/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter queryServerStream(
+			@Parameter(description = "Your question or prompt")
+			@RequestParam String prompt,
+			@Parameter(description = "Return data results as JSON (type, sql, result) instead of a Markdown string")
+			@RequestParam(defaultValue = "false") boolean structured) {
+		SseEmitter emitter = new SseEmitter(queryProperties.getStreamTimeout().toMillis());
+		McpProgressListener listener = new McpProgressListener() {
+			@Override
+			public void started(String requestId) {
+				send(emitter, "started", Map.of("requestId", requestId));
+			}
+
+			@Override
+			public void progress(JsonNode params) {
+				send(emitter, "progress", params);
+			}
+
+			@Override
+			public void message(JsonNode params) {
+				send(emitter, "log", params);
+			}
+
+			@Override
+			public void token(String text) {
+				send(emitter, "token", Map.of("text", text));
+			}
+		};
+		QueryCancellation cancellation = queryCancellations.create();
+		emitter.onTimeout(() -> queryCancellations.cancel(cancellation, "timeout"));
+		emitter.onError(error -> queryCancellations.cancel(cancellation, "disconnect"));
+		try {
+			clientService.queryAsync(prompt, listener, cancellation, structured).whenComplete((response, error) -> {
+				if (error != null) {
+					Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+					send(emitter, "error", Map.of("error", String.valueOf(cause.getMessage())));
+				}
+				else {
+					send(emitter, "result", queryBody(response, structured));
+				}
+				emitter.complete();
+			});
+		} catch (IllegalStateException e) {
+			send(emitter, "error", Map.of("error", "No server connected. Use /connect endpoint first."));
+			emitter.complete();
+		}
+		return emitter;
+	}
+
+	@Operation(
+		summary = "Cancel Streaming Query",
+		description = "Cancels the MCP tool call announced in the 'started' event of /query/stream; the server is sent notifications/cancelled.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Tool call cancelled"),
+		@ApiResponse(responseCode = "404", description = "Unknown or already finished request")
+	})
+	@PostMapping("/query/{requestId}/cancel")
+	public ResponseEntity<Map<String, Object>> cancelQuery(@PathVariable String requestId) {
+		if (!clientService.cancel(requestId)) {
+			return ResponseEntity.notFound().build();
 		}
-		
-		String response = clientService.query(prompt);
 		return ResponseEntity.ok(Map.of(
-			"response", response,
-			"prompt", prompt
+			"message", "Cancelled request " + requestId
 		));
 	}
 
+	private static Map<String, Object> queryBody(QueryResponse response, boolean structured) {
+		if (structured) {
+			return response.toMap();
+		}
+		if (response.getCircuit() != null) {
+			return Map.of(
+				"response", response.getText(),
+				"prompt", response.getPrompt(),
+				"circuit", response.getCircuit()
+			);
+		}
+		return Map.of(
+			"response", response.getText(),
+			"prompt", response.getPrompt()
+		);
+	}
+
+	private static void send(SseEmitter emitter, String name, Object data) {
+		try {
+			emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+		} catch (IOException | IllegalStateException e) {
+			// Client went away; the remaining events are simply dropped.
+		}
+	}
+
 	// Ollama Endpoints
 	@Operation(
 		summary = "List Ollama Models", 
@@ -232,6 +423,22 @@ public class McpServerController {
 		}
 	}
 
+	@Operation(
+		summary = "List Ollama Endpoints", 
+		description = "Shows every Ollama host LLM calls are balanced across, with its health, in-flight requests, latency average and models.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Endpoints retrieved")
+	})
+	@GetMapping("/ollama/endpoints")
+	public ResponseEntity<Map<String, Object>> listOllamaEndpoints() {
+		List<Map<String, Object>> endpoints = ollamaService.getEndpoints();
+		return ResponseEntity.ok(Map.of(
+			"endpoints", endpoints,
+			"total", endpoints.size(),
+			"healthy", endpoints.stream().filter(endpoint -> Boolean.TRUE.equals(endpoint.get("healthy"))).count()
+		));
+	}
+
 	@Operation(
 		summary = "Select Model", 
 		description = "Choose which Ollama model to use for queries. Check available models via /ollama/models first. You still need to connect to an MCP server using /{serverName}/connect")
@@ -259,6 +466,7 @@ public class McpServerController {
 			response.put("selectedModel", modelName);
 			response.put("connectedServer", clientService.getCurrentServer().orElse(null));
 			response.put("modelValidated", true);
+			response.put("loadState", ollamaService.getLoadState(modelName));
 			return ResponseEntity.ok(response);
 		} catch (IllegalArgumentException e) {
 			Map<String, Object> errorResponse = new java.util.LinkedHashMap<>();
@@ -283,4 +491,22 @@ public class McpServerController {
 	public ResponseEntity<Map<String, Object>> getStatus() {
 		return ResponseEntity.ok(clientService.getChatInfo());
 	}
+
+	@Operation(
+		summary = "Routing Decisions", 
+		description = "Shows recent data/general routing decisions with matched keywords, score and confidence. Use it to tune mcp.routing.* keywords and weights.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Routing decisions retrieved")
+	})
+	@GetMapping("/routing/decisions")
+	public ResponseEntity<Map<String, Object>> getRoutingDecisions(
+			@Parameter(description = "Maximum number of decisions to return (most recent first)")
+			@RequestParam(defaultValue = "50") int limit) {
+		List<RoutingDecision> decisions = queryRouter.getRecentDecisions(Math.max(0, limit));
+		return ResponseEntity.ok(Map.of(
+			"stats", queryRouter.getStats(),
+			"decisions", decisions,
+			"total", decisions.size()
+		));
+	}
 }
@@ -0,0 +1,54 @@
+package br.lrferr.mcp.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.template.SqlTemplateCache;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "SQL Templates",
+     description = "Inspect and clear the cache of parameterized SQL templates reused across similar prompts.")
+@RestController
+@RequestMapping("/api/mcp/sql-templates")
+public class McpSqlTemplateController {
+
+	private final SqlTemplateCache sqlTemplateCache;
+
+	public McpSqlTemplateController(SqlTemplateCache sqlTemplateCache) {
+		this.sqlTemplateCache = sqlTemplateCache;
+	}
+
+	@Operation(
+		summary = "List SQL Templates",
+		description = "Returns the overall hit rate and every cached template with its own hit count, most used first.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Templates retrieved successfully")
+	})
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> getTemplates() {
+		Map<String, Object> response = new LinkedHashMap<>(sqlTemplateCache.getStats());
+		response.put("templates", sqlTemplateCache.getTemplates());
+		return ResponseEntity.ok(response);
+	}
+
+	@Operation(
+		summary = "Clear SQL Templates",
+		description = "Drops every cached template, e.g. after a schema change or a model switch.")
+	@DeleteMapping
+	public ResponseEntity<Map<String, Object>> clear() {
+		sqlTemplateCache.clear();
+		return ResponseEntity.ok(Map.of(
+			"message", "Cleared SQL template cache"
+		));
+	}
+}
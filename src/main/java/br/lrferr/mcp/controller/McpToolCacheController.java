@@ -0,0 +1,51 @@
+package br.lrferr.mcp.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.toolcache.ToolResultCache;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Tool Result Cache",
+     description = "Inspect and clear the persistent cache of read-only tool results.")
+@RestController
+@RequestMapping("/api/mcp/tool-cache")
+public class McpToolCacheController {
+
+	private final ToolResultCache toolResultCache;
+
+	public McpToolCacheController(ToolResultCache toolResultCache) {
+		this.toolResultCache = toolResultCache;
+	}
+
+	@Operation(
+		summary = "Tool Cache Statistics",
+		description = "Returns heap and disk hits, misses, promotions, and the size of the segment files.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+	})
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> getStats() {
+		return ResponseEntity.ok(toolResultCache.getStats());
+	}
+
+	@Operation(
+		summary = "Clear Tool Cache",
+		description = "Drops every cached result from the heap and deletes the segment files.")
+	@DeleteMapping
+	public ResponseEntity<Map<String, Object>> clear() {
+		toolResultCache.clear();
+		return ResponseEntity.ok(Map.of(
+			"message", "Cleared tool result cache"
+		));
+	}
+}
@@ -0,0 +1,98 @@
+package br.lrferr.mcp.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.lrferr.mcp.service.trace.QueryTrace;
+import br.lrferr.mcp.service.trace.QueryTracer;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Query Traces", 
+     description = "Inspect per-stage timings of recent /api/mcp/query calls.")
+@RestController
+@RequestMapping("/api/mcp/traces")
+public class McpTraceController {
+
+	private final QueryTracer queryTracer;
+
+	public McpTraceController(QueryTracer queryTracer) {
+		this.queryTracer = queryTracer;
+	}
+
+	@Operation(
+		summary = "Recent Traces", 
+		description = "Lists the most recent query traces with their stage spans.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Traces retrieved")
+	})
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> recentTraces(
+			@Parameter(description = "Maximum number of traces to return")
+			@RequestParam(defaultValue = "20") int limit) {
+		List<QueryTrace> traces = queryTracer.getRecent(Math.max(0, limit));
+		return ResponseEntity.ok(Map.of(
+			"traces", traces,
+			"total", traces.size()
+		));
+	}
+
+	@Operation(
+		summary = "Slowest Traces", 
+		description = "Lists the slowest buffered query traces, slowest first.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Traces retrieved")
+	})
+	@GetMapping("/slowest")
+	public ResponseEntity<Map<String, Object>> slowestTraces(
+			@Parameter(description = "Number of traces to return")
+			@RequestParam(defaultValue = "10") int n) {
+		List<QueryTrace> traces = queryTracer.getSlowest(Math.max(0, n));
+		return ResponseEntity.ok(Map.of(
+			"traces", traces,
+			"total", traces.size()
+		));
+	}
+
+	@Operation(
+		summary = "Stage Breakdown", 
+		description = "Aggregates span durations per stage (route, session, generate_sql, invoke_tool, format_result, llm) over all buffered traces.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Breakdown computed")
+	})
+	@GetMapping("/stages")
+	public ResponseEntity<Map<String, Object>> stageBreakdown() {
+		return ResponseEntity.ok(Map.of(
+			"stages", queryTracer.getStageBreakdown()
+		));
+	}
+
+	@Operation(
+		summary = "Get Trace", 
+		description = "Retrieves a single buffered trace by its trace ID.")
+	@ApiResponses({
+		@ApiResponse(responseCode = "200", description = "Trace found"),
+		@ApiResponse(responseCode = "404", description = "Trace not in buffer")
+	})
+	@GetMapping("/{traceId}")
+	public ResponseEntity<Map<String, Object>> getTrace(
+			@Parameter(description = "32-character hex trace ID")
+			@PathVariable String traceId) {
+		return queryTracer.find(traceId)
+			.map(trace -> ResponseEntity.ok(Map.<String, Object>of("trace", trace)))
+			.orElseGet(() -> ResponseEntity.status(404).body(Map.of(
+				"error", "Trace not found: " + traceId
+			)));
+	}
+}
@@ -0,0 +1,68 @@
+package br.lrferr.mcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Request body for running many prompts as one pipelined batch. Each item may
+ * name its own server; otherwise {@code serverName}, then the connected server,
+ * is used.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchQueryRequest {
+
+	private String serverName;
+
+	private List<Item> items;
+
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	public static class Item {
+
+		private String id;
+
+		private String prompt;
+
+		private String serverName;
+
+		public String getId() {
+			return id;
+		}
+
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		public String getPrompt() {
+			return prompt;
+		}
+
+		public void setPrompt(String prompt) {
+			this.prompt = prompt;
+		}
+
+		public String getServerName() {
+			return serverName;
+		}
+
+		public void setServerName(String serverName) {
+			this.serverName = serverName;
+		}
+	}
+
+	public String getServerName() {
+		return serverName;
+	}
+
+	public void setServerName(String serverName) {
+		this.serverName = serverName;
+	}
+
+	public List<Item> getItems() {
+		return items;
+	}
+
+	public void setItems(List<Item> items) {
+		this.items = items;
+	}
+}
@@ -0,0 +1,75 @@
+package br.lrferr.mcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Request body for running one tool call, or one prompt, on several MCP servers
+ * at once. Servers are selected by name, by tag, or default to every running
+ * server.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FanOutRequest {
+
+	private List<String> servers;
+
+	private String tag;
+
+	private String toolName;
+
+	private JsonNode arguments;
+
+	private String prompt;
+
+	private long timeoutMs = 30_000;
+
+	public List<String> getServers() {
+		return servers;
+	}
+
+	public void setServers(List<String> servers) {
+		this.servers = servers;
+	}
+
+	public String getTag() {
+		return tag;
+	}
+
+	public void setTag(String tag) {
+		this.tag = tag;
+	}
+
+	public String getToolName() {
+		return toolName;
+	}
+
+	public void setToolName(String toolName) {
+		this.toolName = toolName;
+	}
+
+	public JsonNode getArguments() {
+		return arguments;
+	}
+
+	public void setArguments(JsonNode arguments) {
+		this.arguments = arguments;
+	}
+
+	public String getPrompt() {
+		return prompt;
+	}
+
+	public void setPrompt(String prompt) {
+		this.prompt = prompt;
+	}
+
+	public long getTimeoutMs() {
+		return timeoutMs;
+	}
+
+	public void setTimeoutMs(long timeoutMs) {
+		this.timeoutMs = timeoutMs;
+	}
+}
@@ -0,0 +1,116 @@
+package br.lrferr.mcp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Resource limits of an MCP server process, counted together with its
+ * descendants. Crossing a soft limit logs a warning; staying above a hard
+ * limit for {@code sustainedSamples} samples triggers {@code onHardLimit}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class McpResourceLimits {
+
+	public enum Action {
+		WARN, RESTART
+	}
+
+	private Long softRssMb;
+
+	private Long hardRssMb;
+
+	private Double softCpuPercent;
+
+	private Double hardCpuPercent;
+
+	private Integer softOpenFds;
+
+	private Integer hardOpenFds;
+
+	private Integer softThreads;
+
+	private Integer hardThreads;
+
+	private Action onHardLimit = Action.WARN;
+
+	private int sustainedSamples = 3;
+
+	public Long getSoftRssMb() {
+		return softRssMb;
+	}
+
+	public void setSoftRssMb(Long softRssMb) {
+		this.softRssMb = softRssMb;
+	}
+
+	public Long getHardRssMb() {
+		return hardRssMb;
+	}
+
+	public void setHardRssMb(Long hardRssMb) {
+		this.hardRssMb = hardRssMb;
+	}
+
+	public Double getSoftCpuPercent() {
+		return softCpuPercent;
+	}
+
+	public void setSoftCpuPercent(Double softCpuPercent) {
+		this.softCpuPercent = softCpuPercent;
+	}
+
+	public Double getHardCpuPercent() {
+		return hardCpuPercent;
+	}
+
+	public void setHardCpuPercent(Double hardCpuPercent) {
+		this.hardCpuPercent = hardCpuPercent;
+	}
+
+	public Integer getSoftOpenFds() {
+		return softOpenFds;
+	}
+
+	public void setSoftOpenFds(Integer softOpenFds) {
+		this.softOpenFds = softOpenFds;
+	}
+
+	public Integer getHardOpenFds() {
+		return hardOpenFds;
+	}
+
+	public void setHardOpenFds(Integer hardOpenFds) {
+		this.hardOpenFds = hardOpenFds;
+	}
+
+	public Integer getSoftThreads() {
+		return softThreads;
+	}
+
+	public void setSoftThreads(Integer softThreads) {
+		this.softThreads = softThreads;
+	}
+
+	public Integer getHardThreads() {
+		return hardThreads;
+	}
+
+	public void setHardThreads(Integer hardThreads) {
+		this.hardThreads = hardThreads;
+	}
+
+	public Action getOnHardLimit() {
+		return onHardLimit;
+	}
+
+	public void setOnHardLimit(Action onHardLimit) {
+		this.onHardLimit = onHardLimit;
+	}
+
+	public int getSustainedSamples() {
+		return sustainedSamples;
+	}
+
+	public void setSustainedSamples(int sustainedSamples) {
+		this.sustainedSamples = sustainedSamples;
+	}
+}
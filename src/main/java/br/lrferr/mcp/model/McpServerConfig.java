@@ -23,6 +23,27 @@ public class McpServerConfig {
 	@JsonProperty("capabilities")
 	private JsonNode capabilities;
 
+	@JsonProperty("keywords")
+	private List<String> keywords;
+
+	@JsonProperty("tags")
+	private List<String> tags;
+
+	@JsonProperty("databaseType")
+	private String databaseType;
+
+	@JsonProperty("schemaTool")
+	private String schemaTool;
+
+	@JsonProperty("schemas")
+	private List<String> schemas;
+
+	@JsonProperty("limits")
+	private McpResourceLimits limits;
+
+	@JsonProperty("idempotentTools")
+	private List<String> idempotentTools;
+
 	public String getCommand() {
 		return command;
 	}
@@ -62,5 +83,60 @@ public class McpServerConfig {
 	public void setCapabilities(JsonNode capabilities) {
 		this.capabilities = capabilities;
 	}
-}
 
+	public List<String> getKeywords() {
+		return keywords;
+	}
+
+	public void setKeywords(List<String> keywords) {
+		this.keywords = keywords;
+	}
+
+	public List<String> getTags() {
+		return tags;
+	}
+
+	public void setTags(List<String> tags) {
+		this.tags = tags;
+	}
+
+	public String getDatabaseType() {
+		return databaseType;
+	}
+
+	public void setDatabaseType(String databaseType) {
+		this.databaseType = databaseType;
+	}
+
+	public String getSchemaTool() {
+		return schemaTool;
+	}
+
+	public void setSchemaTool(String schemaTool) {
+		this.schemaTool = schemaTool;
+	}
+
+	public List<String> getSchemas() {
+		return schemas;
+	}
+
+	public void setSchemas(List<String> schemas) {
+		this.schemas = schemas;
+	}
+
+	public McpResourceLimits getLimits() {
+		return limits;
+	}
+
+	public void setLimits(McpResourceLimits limits) {
+		this.limits = limits;
+	}
+
+	public List<String> getIdempotentTools() {
+		return idempotentTools;
+	}
+
+	public void setIdempotentTools(List<String> idempotentTools) {
+		this.idempotentTools = idempotentTools;
+	}
+}
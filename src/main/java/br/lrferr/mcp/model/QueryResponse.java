@@ -0,0 +1,125 @@
+package br.lrferr.mcp.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Outcome of a query. Data queries carry the generated SQL and the tool result
+ * as structured JSON; {@code text} holds the answer of general prompts, error
+ * messages, and, unless structured output was requested, the Markdown
+ * rendering of data results.
+ */
+public class QueryResponse {
+
+	public static final String DATA = "data";
+	public static final String GENERAL = "general";
+	public static final String ERROR = "error";
+	public static final String UNAVAILABLE = "unavailable";
+
+	private final String type;
+	private final String prompt;
+	private final String serverName;
+	private final String databaseType;
+	private final String sql;
+	private final JsonNode result;
+	private final String text;
+	private final Map<String, Object> circuit;
+
+	private QueryResponse(String type, String prompt, String serverName, String databaseType, String sql,
+			JsonNode result, String text) {
+		this(type, prompt, serverName, databaseType, sql, result, text, null);
+	}
+
+	private QueryResponse(String type, String prompt, String serverName, String databaseType, String sql,
+			JsonNode result, String text, Map<String, Object> circuit) {
+		this.type = type;
+		this.prompt = prompt;
+		this.serverName = serverName;
+		this.databaseType = databaseType;
+		this.sql = sql;
+		this.result = result;
+		this.text = text;
+		this.circuit = circuit;
+	}
+
+	public static QueryResponse data(String prompt, String serverName, String databaseType, String sql,
+			JsonNode result, String text) {
+		return new QueryResponse(DATA, prompt, serverName, databaseType, sql, result, text);
+	}
+
+	public static QueryResponse general(String prompt, String serverName, String text) {
+		return new QueryResponse(GENERAL, prompt, serverName, null, null, null, text);
+	}
+
+	public static QueryResponse error(String prompt, String serverName, String text) {
+		return new QueryResponse(ERROR, prompt, serverName, null, null, null, text);
+	}
+
+	/**
+	 * A query rejected because the circuit breaker of a backend it needs is
+	 * open; {@code circuit} describes the breaker.
+	 */
+	public static QueryResponse unavailable(String prompt, String serverName, String text, Map<String, Object> circuit) {
+		return new QueryResponse(UNAVAILABLE, prompt, serverName, null, null, null, text, circuit);
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public String getPrompt() {
+		return prompt;
+	}
+
+	public String getServerName() {
+		return serverName;
+	}
+
+	public String getDatabaseType() {
+		return databaseType;
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	public JsonNode getResult() {
+		return result;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public Map<String, Object> getCircuit() {
+		return circuit;
+	}
+
+	/**
+	 * Structured form of the response, omitting absent fields.
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("type", type);
+		map.put("prompt", prompt);
+		map.put("serverName", serverName);
+		if (databaseType != null) {
+			map.put("databaseType", databaseType);
+		}
+		if (sql != null) {
+			map.put("sql", sql);
+		}
+		if (result != null) {
+			map.put("result", result);
+		}
+		if (text != null) {
+			map.put("text", text);
+		}
+		if (circuit != null) {
+			map.put("circuit", circuit);
+		}
+		return map;
+	}
+}
@@ -0,0 +1,75 @@
+package br.lrferr.mcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Request body for a standing query: a tool call re-run on an interval whose
+ * row-level changes are pushed to subscribers. Rows are matched across runs by
+ * {@code keyColumns}, or by their whole content when no key is given.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StandingQueryRequest {
+
+	private String serverName;
+
+	private String toolName;
+
+	private JsonNode arguments;
+
+	private long intervalMs = 5_000;
+
+	private List<String> keyColumns;
+
+	private long timeoutMs = 30_000;
+
+	public String getServerName() {
+		return serverName;
+	}
+
+	public void setServerName(String serverName) {
+		this.serverName = serverName;
+	}
+
+	public String getToolName() {
+		return toolName;
+	}
+
+	public void setToolName(String toolName) {
+		this.toolName = toolName;
+	}
+
+	public JsonNode getArguments() {
+		return arguments;
+	}
+
+	public void setArguments(JsonNode arguments) {
+		this.arguments = arguments;
+	}
+
+	public long getIntervalMs() {
+		return intervalMs;
+	}
+
+	public void setIntervalMs(long intervalMs) {
+		this.intervalMs = intervalMs;
+	}
+
+	public List<String> getKeyColumns() {
+		return keyColumns;
+	}
+
+	public void setKeyColumns(List<String> keyColumns) {
+		this.keyColumns = keyColumns;
+	}
+
+	public long getTimeoutMs() {
+		return timeoutMs;
+	}
+
+	public void setTimeoutMs(long timeoutMs) {
+		this.timeoutMs = timeoutMs;
+	}
+}
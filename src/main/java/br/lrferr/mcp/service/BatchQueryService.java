@@ -0,0 +1,244 @@
+package br.lrferr.mcp.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.config.BatchProperties;
+import br.lrferr.mcp.model.BatchQueryRequest;
+import br.lrferr.mcp.model.QueryResponse;
+import br.lrferr.mcp.service.breaker.CircuitOpenException;
+import br.lrferr.mcp.service.mcp.McpSession;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+import br.lrferr.mcp.service.mcp.McpToolInvoker;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs many prompts as a two-stage pipeline: routing and SQL generation (the
+ * LLM stage) on one bounded pool, tool calls on another. While item N's tool
+ * call runs, the LLM is already translating item N+1. Identical prompts for
+ * the same server run once.
+ */
+@Service
+public class BatchQueryService {
+
+	private static final Logger log = LoggerFactory.getLogger(BatchQueryService.class);
+
+	private static final String QUERY_TOOL = "execute_safe_query";
+
+	/**
+	 * A running batch: {@link #summary()} completes once every item has been
+	 * reported, and {@link #cancel()} skips the items that have not started a
+	 * stage yet.
+	 */
+	public static final class Run {
+
+		private final CompletableFuture<Map<String, Object>> summary;
+		private final AtomicBoolean cancelled;
+
+		private Run(CompletableFuture<Map<String, Object>> summary, AtomicBoolean cancelled) {
+			this.summary = summary;
+			this.cancelled = cancelled;
+		}
+
+		public CompletableFuture<Map<String, Object>> summary() {
+			return summary;
+		}
+
+		public void cancel() {
+			cancelled.set(true);
+		}
+	}
+
+	/** Output of the LLM stage: either the final answer or the SQL to run. */
+	private record Translation(QueryResponse answer, String databaseType, String sql) {
+	}
+
+	private final McpClientService clientService;
+	private final McpProcessManagerService processManagerService;
+	private final McpSessionManager sessionManager;
+	private final McpToolInvoker toolInvoker;
+	private final ObjectMapper objectMapper;
+	private final BatchProperties properties;
+
+	private final ExecutorService llmExecutor;
+	private final ExecutorService toolExecutor;
+
+	public BatchQueryService(McpClientService clientService, McpProcessManagerService processManagerService,
+			McpSessionManager sessionManager, McpToolInvoker toolInvoker, ObjectMapper objectMapper,
+			BatchProperties properties) {
+		this.clientService = clientService;
+		this.processManagerService = processManagerService;
+		this.sessionManager = sessionManager;
+		this.toolInvoker = toolInvoker;
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+		this.llmExecutor = fixedPool("mcp-batch-llm-", properties.getLlmParallelism());
+		this.toolExecutor = fixedPool("mcp-batch-tool-", properties.getToolParallelism());
+	}
+
+	private static ExecutorService fixedPool(String prefix, int threads) {
+		AtomicInteger counter = new AtomicInteger();
+		return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Starts the batch. {@code listener} receives one result line per item, in
+	 * completion order (never concurrently).
+	 */
+	public Run execute(BatchQueryRequest request, Consumer<Map<String, Object>> listener) {
+		List<BatchQueryRequest.Item> items = request.getItems();
+		if (items == null || items.isEmpty()) {
+			throw new IllegalArgumentException("items must not be empty");
+		}
+		if (items.size() > properties.getMaxItems()) {
+			throw new IllegalArgumentException("A batch holds at most " + properties.getMaxItems() + " items");
+		}
+		List<String> servers = new ArrayList<>();
+		for (int i = 0; i < items.size(); i++) {
+			BatchQueryRequest.Item item = items.get(i);
+			if (item.getPrompt() == null || item.getPrompt().isBlank()) {
+				throw new IllegalArgumentException("Item " + i + " has no prompt");
+			}
+			String server = item.getServerName() != null ? item.getServerName()
+				: request.getServerName() != null ? request.getServerName()
+				: clientService.getCurrentServer().orElse(null);
+			if (server == null) {
+				throw new IllegalArgumentException("Item " + i + " names no server and no server is connected");
+			}
+			servers.add(server);
+		}
+
+		long start = System.nanoTime();
+		AtomicBoolean cancelled = new AtomicBoolean();
+		Map<String, CompletableFuture<QueryResponse>> unique = new LinkedHashMap<>();
+		Map<String, AtomicInteger> counts = Map.of("OK", new AtomicInteger(), "ERROR", new AtomicInteger(),
+			"SKIPPED", new AtomicInteger(), "UNAVAILABLE", new AtomicInteger());
+		List<CompletableFuture<Void>> lines = new ArrayList<>();
+		for (int i = 0; i < items.size(); i++) {
+			BatchQueryRequest.Item item = items.get(i);
+			String server = servers.get(i);
+			String prompt = item.getPrompt().strip();
+			String key = server + '\u0000' + prompt;
+			boolean duplicate = unique.containsKey(key);
+			CompletableFuture<QueryResponse> result = unique.computeIfAbsent(key, k -> submit(server, prompt, cancelled));
+			int index = i;
+			lines.add(result.handle((response, error) -> {
+				Map<String, Object> line = line(index, item.getId(), server, duplicate, response, error, start);
+				counts.get((String) line.get("status")).incrementAndGet();
+				synchronized (listener) {
+					listener.accept(line);
+				}
+				return null;
+			}));
+		}
+		log.info("Batch of {} prompts started ({} unique)", items.size(), unique.size());
+
+		CompletableFuture<Map<String, Object>> summary = CompletableFuture.allOf(lines.toArray(CompletableFuture[]::new))
+			.thenApply(ignored -> {
+				Map<String, Object> totals = new LinkedHashMap<>();
+				totals.put("total", items.size());
+				totals.put("unique", unique.size());
+				totals.put("succeeded", counts.get("OK").get());
+				totals.put("failed", counts.get("ERROR").get());
+				totals.put("skipped", counts.get("SKIPPED").get());
+				totals.put("unavailable", counts.get("UNAVAILABLE").get());
+				totals.put("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				return totals;
+			});
+		return new Run(summary, cancelled);
+	}
+
+	private CompletableFuture<QueryResponse> submit(String server, String prompt, AtomicBoolean cancelled) {
+		return CompletableFuture.supplyAsync(() -> translate(server, prompt, cancelled), llmExecutor)
+			.thenCompose(translation -> translation.answer() != null
+				? CompletableFuture.completedFuture(translation.answer())
+				: CompletableFuture.supplyAsync(() -> runTool(server, prompt, translation, cancelled), toolExecutor));
+	}
+
+	private Translation translate(String server, String prompt, AtomicBoolean cancelled) {
+		checkCancelled(cancelled);
+		if (!clientService.isDataQuery(server, prompt)) {
+			return new Translation(QueryResponse.general(prompt, server, clientService.executeLLMQuery(server, prompt)),
+				null, null);
+		}
+		String databaseType = processManagerService.getDatabaseType(server);
+		if (databaseType == null) {
+			return new Translation(QueryResponse.error(prompt, server, "No databaseType configured for " + server),
+				null, null);
+		}
+		return new Translation(null, databaseType, clientService.generateSQLFromPrompt(server, prompt));
+	}
+
+	private QueryResponse runTool(String server, String prompt, Translation translation, AtomicBoolean cancelled) {
+		checkCancelled(cancelled);
+		McpSession session = sessionManager.getOrCreateSession(server);
+		ObjectNode params = objectMapper.createObjectNode();
+		params.put("query", translation.sql());
+		params.put("databaseType", translation.databaseType());
+		JsonNode result = toolInvoker.invokeTool(session, QUERY_TOOL, params);
+		return QueryResponse.data(prompt, server, translation.databaseType(), translation.sql(), result, null);
+	}
+
+	private static void checkCancelled(AtomicBoolean cancelled) {
+		if (cancelled.get()) {
+			throw new CancellationException("Batch cancelled");
+		}
+	}
+
+	private static Map<String, Object> line(int index, String id, String server, boolean duplicate,
+			QueryResponse response, Throwable error, long start) {
+		Map<String, Object> line = new LinkedHashMap<>();
+		line.put("index", index);
+		if (id != null) {
+			line.put("id", id);
+		}
+		if (error != null) {
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+			line.put("status", cause instanceof CancellationException ? "SKIPPED"
+				: cause instanceof CircuitOpenException ? "UNAVAILABLE" : "ERROR");
+			line.put("serverName", server);
+			line.put("error", String.valueOf(cause.getMessage()));
+			if (cause instanceof CircuitOpenException open) {
+				line.put("circuit", open.toMap());
+			}
+		}
+		else {
+			line.put("status", QueryResponse.ERROR.equals(response.getType()) ? "ERROR" : "OK");
+			line.putAll(response.toMap());
+		}
+		if (duplicate) {
+			line.put("deduplicated", true);
+		}
+		line.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return line;
+	}
+
+	@PreDestroy
+	void shutdown() {
+		llmExecutor.shutdownNow();
+		toolExecutor.shutdownNow();
+	}
+}
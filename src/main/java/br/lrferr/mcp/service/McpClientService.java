@@ -2,22 +2,51 @@ package br.lrferr.mcp.service;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.ChatClient.Builder;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.ChatOptionsBuilder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import br.lrferr.mcp.model.QueryResponse;
+import br.lrferr.mcp.service.breaker.CircuitBreakerRegistry;
+import br.lrferr.mcp.service.breaker.CircuitOpenException;
+import br.lrferr.mcp.service.cancel.QueryCancellation;
+import br.lrferr.mcp.service.cancel.QueryCancellations;
+import br.lrferr.mcp.service.eventlog.QueryEventLog;
+import br.lrferr.mcp.service.jfr.LlmCallEvent;
+import br.lrferr.mcp.service.llm.LlmPriority;
+import br.lrferr.mcp.service.llm.LlmScheduler;
+import br.lrferr.mcp.service.mcp.McpProgressListener;
 import br.lrferr.mcp.service.mcp.McpSession;
 import br.lrferr.mcp.service.mcp.McpSessionManager;
 import br.lrferr.mcp.service.mcp.McpToolInvoker;
+import br.lrferr.mcp.service.ollama.OllamaStreamingRoutingFilter;
+import br.lrferr.mcp.service.routing.QueryRouter;
+import br.lrferr.mcp.service.schema.SchemaCatalogService;
+import br.lrferr.mcp.service.template.PromptShape;
+import br.lrferr.mcp.service.template.SqlTemplateCache;
+import br.lrferr.mcp.service.trace.QueryTrace;
+import br.lrferr.mcp.service.trace.QueryTracer;
+import jakarta.annotation.PreDestroy;
+import reactor.util.context.Context;
 
 @Service
 public class McpClientService {
@@ -28,21 +57,49 @@ public class McpClientService {
 	private final McpSessionManager sessionManager;
 	private final McpToolInvoker toolInvoker;
 	private final ObjectMapper objectMapper;
-
-	private final Builder chatClientBuilder;
-	private ChatClient chatClient;
+	private final QueryRouter queryRouter;
+	private final QueryTracer queryTracer;
+	private final SchemaCatalogService schemaCatalogService;
+	private final SqlTemplateCache sqlTemplateCache;
+	private final LlmScheduler llmScheduler;
+	private final OllamaService ollamaService;
+	private final QueryCancellations queryCancellations;
+	private final CircuitBreakerRegistry circuitBreakers;
+	private final QueryEventLog eventLog;
+
+	// Resolved on first LLM call so startup does not pay for the Ollama client.
+	private final ObjectProvider<Builder> chatClientBuilder;
+	private volatile ChatClient chatClient;
 
 	private String currentServer;
 	private String selectedModel = "llama3";
 
+	private final AtomicInteger threadCounter = new AtomicInteger();
+	private final ExecutorService queryExecutor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "mcp-query-" + threadCounter.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	public McpClientService(McpProcessManagerService processManagerService, McpSessionManager sessionManager,
-		McpToolInvoker toolInvoker, ObjectMapper objectMapper, Builder chatClientBuilder) {
+		McpToolInvoker toolInvoker, ObjectMapper objectMapper, QueryRouter queryRouter, QueryTracer queryTracer,
+		SchemaCatalogService schemaCatalogService, SqlTemplateCache sqlTemplateCache, LlmScheduler llmScheduler,
+		OllamaService ollamaService, QueryCancellations queryCancellations, CircuitBreakerRegistry circuitBreakers,
+		QueryEventLog eventLog, ObjectProvider<Builder> chatClientBuilder) {
 		this.processManagerService = processManagerService;
 		this.sessionManager = sessionManager;
 		this.toolInvoker = toolInvoker;
 		this.objectMapper = objectMapper;
+		this.queryRouter = queryRouter;
+		this.queryTracer = queryTracer;
+		this.schemaCatalogService = schemaCatalogService;
+		this.sqlTemplateCache = sqlTemplateCache;
+		this.llmScheduler = llmScheduler;
+		this.ollamaService = ollamaService;
+		this.queryCancellations = queryCancellations;
+		this.circuitBreakers = circuitBreakers;
+		this.eventLog = eventLog;
 		this.chatClientBuilder = chatClientBuilder;
-		this.chatClient = chatClientBuilder.build();
 	}
 
 	public Optional<String> getCurrentServer() {
@@ -59,9 +116,12 @@ public class McpClientService {
 		}
 		this.selectedModel = modelName;
 		
-		// Rebuild ChatClient to support dynamic model switching
+		// Rebuild ChatClient (on next use) to support dynamic model switching
 		// Note: The ChatClient will use the current selectedModel variable for prompt calls
-		this.chatClient = chatClientBuilder.build();
+		this.chatClient = null;
+		
+		// Load the model now so the first query does not pay for it
+		ollamaService.modelSelected(modelName);
 		
 		log.info("Selected Ollama model: {}", modelName);
 	}
@@ -78,73 +138,165 @@ public class McpClientService {
 	}
 
 	public String query(String prompt) {
+		return execute(prompt, null, false).getText();
+	}
+
+	/**
+	 * Runs the query. With {@code structured}, data results are returned as JSON
+	 * only; otherwise they are also rendered as Markdown in
+	 * {@link QueryResponse#getText()}.
+	 */
+	public QueryResponse execute(String prompt, McpProgressListener listener, boolean structured) {
 		if (currentServer == null) {
 			throw new IllegalStateException("No MCP server connected. Use /api/mcp/{serverName}/connect first.");
 		}
+		return execute(currentServer, selectedModel, prompt, listener, structured);
+	}
 
-		log.info("Processing query for {} with prompt: {}", currentServer, prompt);
+	/**
+	 * Runs the query against {@code serverName} with {@code model}, independent
+	 * of the connected server and selected model. Answers to general prompts
+	 * are streamed to {@link McpProgressListener#token(String)} as the model
+	 * generates them.
+	 */
+	public QueryResponse execute(String serverName, String model, String prompt, McpProgressListener listener,
+		boolean structured) {
+		log.debug("Processing query for {}", serverName);
+
+		QueryTrace trace = queryTracer.start(serverName, prompt);
+		long start = System.nanoTime();
+		String outcome = QueryResponse.ERROR;
+		try {
+			QueryResponse result = queryTracer.stage("route", () -> isDataQuery(serverName, prompt))
+				? executeRealDataQuery(serverName, model, prompt, listener, structured)
+				: QueryResponse.general(prompt, serverName, executeLLMQuery(serverName, model, prompt, listener));
+			// The data path reports its failures as error responses rather than exceptions.
+			outcome = result.getType();
+			return result;
+		}
+		catch (CircuitOpenException e) {
+			log.warn("Query for {} rejected: {}", serverName, e.getMessage());
+			outcome = QueryResponse.UNAVAILABLE;
+			return QueryResponse.unavailable(prompt, serverName, "⛔ **Service Unavailable**: " + e.getMessage(),
+				e.toMap());
+		}
+		finally {
+			queryTracer.finish(trace, outcome);
+			eventLog.event("query", QueryResponse.ERROR.equals(outcome))
+				.field("traceId", trace != null ? trace.getTraceId() : null)
+				.field("server", serverName)
+				.field("model", model)
+				.field("outcome", outcome)
+				.field("structured", structured)
+				.field("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+				.payload("prompt", prompt)
+				.submit();
+		}
+	}
 
-		if (isDataQuery(prompt)) {
-			return executeRealDataQuery(prompt);
+	/**
+	 * Runs the query on a background thread; {@code listener} receives the MCP
+	 * server's progress and log notifications while its tool call runs, and
+	 * {@code cancellation} (optional) abandons the query wherever it is.
+	 */
+	public CompletableFuture<QueryResponse> queryAsync(String prompt, McpProgressListener listener,
+		QueryCancellation cancellation, boolean structured) {
+		if (currentServer == null) {
+			throw new IllegalStateException("No MCP server connected. Use /api/mcp/{serverName}/connect first.");
 		}
+		return queryAsync(currentServer, selectedModel, prompt, listener, cancellation, structured);
+	}
 
-		return executeLLMQuery(prompt);
+	/**
+	 * Same as {@link #queryAsync(String, McpProgressListener, QueryCancellation, boolean)}
+	 * against {@code serverName} with {@code model}.
+	 */
+	public CompletableFuture<QueryResponse> queryAsync(String serverName, String model, String prompt,
+		McpProgressListener listener, QueryCancellation cancellation, boolean structured) {
+		return CompletableFuture.supplyAsync(() -> {
+			queryCancellations.bind(cancellation);
+			try {
+				return execute(serverName, model, prompt, listener, structured);
+			}
+			finally {
+				queryCancellations.unbind();
+			}
+		}, queryExecutor);
 	}
 
-	private boolean isDataQuery(String prompt) {
-		String lowerPrompt = prompt.toLowerCase();
-		// More aggressive detection for data queries
-		return lowerPrompt.contains("select") || 
-			   lowerPrompt.contains("retorne") || 
-			   lowerPrompt.contains("lista") || 
-			   lowerPrompt.contains("dados") || 
-			   lowerPrompt.contains("registros") || 
-			   lowerPrompt.contains("tabela") ||
-			   lowerPrompt.contains("database") ||
-			   lowerPrompt.contains("query") ||
-			   lowerPrompt.contains("motorista") ||
-			   lowerPrompt.contains("frota") ||
-			   (lowerPrompt.contains("5") && lowerPrompt.contains("primeiros"));
+	/**
+	 * Cancels the tool call of a streaming query, given the request id announced
+	 * to its listener.
+	 */
+	public boolean cancel(String requestId) {
+		if (!toolInvoker.cancel(requestId, "client")) {
+			return false;
+		}
+		queryCancellations.record("client", "mcp");
+		return true;
 	}
 
-	private String executeRealDataQuery(String prompt) {
-		McpSession session = sessionManager.getOrCreateSession(currentServer);
-		if ("oracle-monitor".equals(currentServer)) {
-			return executeOracleQuery(prompt, session);
+	@PreDestroy
+	void shutdown() {
+		queryExecutor.shutdownNow();
+	}
+
+	boolean isDataQuery(String serverName, String prompt) {
+		return queryRouter.route(serverName, prompt).isData();
+	}
+
+	private QueryResponse executeRealDataQuery(String serverName, String model, String prompt,
+		McpProgressListener listener, boolean structured) {
+		McpSession session = queryTracer.stage("session", () -> sessionManager.getOrCreateSession(serverName));
+		String databaseType = processManagerService.getDatabaseType(serverName);
+		if ("oracle".equals(databaseType)) {
+			return executeOracleQuery(prompt, model, session, listener, structured);
 		}
-		if ("mysql-monitor".equals(currentServer)) {
-			return executeMySQLQuery(prompt, session);
+		if ("mysql".equals(databaseType)) {
+			return executeMySQLQuery(prompt, model, session, listener, structured);
 		}
-		return "❌ **Unsupported Server**: MCP data queries currently supported for oracle-monitor and mysql-monitor only.";
+		return QueryResponse.error(prompt, serverName,
+			"❌ **Unsupported Server**: MCP data queries need \"databaseType\" (oracle or mysql) in the server configuration.");
 	}
 
-	private String executeOracleQuery(String prompt, McpSession session) {
+	private QueryResponse executeOracleQuery(String prompt, String model, McpSession session,
+		McpProgressListener listener, boolean structured) {
 		try {
-			String sqlQuery = generateSQLFromPrompt(prompt);
-			return executeQueryWithTool(session, "execute_safe_query", sqlQuery, "oracle");
+			String sqlQuery = queryTracer.stage("generate_sql", () -> generateSQLFromPrompt(session.getServerName(), model, prompt));
+			return executeQueryWithTool(prompt, session, "execute_safe_query", sqlQuery, "oracle", listener, structured);
+		} catch (CircuitOpenException e) {
+			throw e;
 		} catch (Exception e) {
 			log.error("Failed to execute Oracle query: {}", e.getMessage(), e);
-			return "❌ **Oracle Query Error**: " + e.getMessage();
+			return QueryResponse.error(prompt, session.getServerName(), "❌ **Oracle Query Error**: " + e.getMessage());
 		}
 	}
 
-	private String executeMySQLQuery(String prompt, McpSession session) {
+	private QueryResponse executeMySQLQuery(String prompt, String model, McpSession session,
+		McpProgressListener listener, boolean structured) {
 		try {
-			String sqlQuery = generateSQLFromPrompt(prompt);
-			return executeQueryWithTool(session, "execute_safe_query", sqlQuery, "mysql");
+			String sqlQuery = queryTracer.stage("generate_sql", () -> generateSQLFromPrompt(session.getServerName(), model, prompt));
+			return executeQueryWithTool(prompt, session, "execute_safe_query", sqlQuery, "mysql", listener, structured);
+		} catch (CircuitOpenException e) {
+			throw e;
 		} catch (Exception e) {
 			log.error("Failed to execute MySQL query: {}", e.getMessage(), e);
-			return "❌ **MySQL Query Error**: " + e.getMessage();
+			return QueryResponse.error(prompt, session.getServerName(), "❌ **MySQL Query Error**: " + e.getMessage());
 		}
 	}
 
-	private String executeQueryWithTool(McpSession session, String toolName, String sqlQuery, String databaseType) {
+	private QueryResponse executeQueryWithTool(String prompt, McpSession session, String toolName, String sqlQuery,
+		String databaseType, McpProgressListener listener, boolean structured) {
 		log.info("Executing query via MCP tool {}: {}", toolName, sqlQuery);
 		ObjectNode params = objectMapper.createObjectNode();
 		params.put("query", sqlQuery);
 		params.put("databaseType", databaseType);
-		JsonNode resultNode = toolInvoker.invokeTool(session, toolName, params);
-		return formatToolResult(resultNode, sqlQuery, databaseType);
+		JsonNode resultNode = queryTracer.stage("invoke_tool", () ->
+			queryCancellations.tool(listener, tracked -> toolInvoker.invokeTool(session, toolName, params, tracked)));
+		// Structured callers get the result as is, without the pretty-printed Markdown copy.
+		String text = structured ? null
+			: queryTracer.stage("format_result", () -> formatToolResult(resultNode, sqlQuery, databaseType));
+		return QueryResponse.data(prompt, session.getServerName(), databaseType, sqlQuery, resultNode, text);
 	}
 
 	private String formatToolResult(JsonNode resultNode, String sqlQuery, String databaseType) {
@@ -159,72 +311,263 @@ public class McpClientService {
 		return builder.toString();
 	}
 
-	private String generateSQLFromPrompt(String prompt) {
+	/**
+	 * Translates a prompt to SQL. When {@code serverName} is given, the SQL is in
+	 * that server's dialect, the tables of that server relevant to the prompt are
+	 * included in the system prompt, and prompts that differ only in literals
+	 * reuse a cached SQL template.
+	 */
+	String generateSQLFromPrompt(String serverName, String prompt) {
+		return generateSQLFromPrompt(serverName, selectedModel, prompt);
+	}
+
+	String generateSQLFromPrompt(String serverName, String model, String prompt) {
+		boolean mysql = serverName != null && "mysql".equals(processManagerService.getDatabaseType(serverName));
 		try {
+			PromptShape shape = PromptShape.of(prompt);
+			boolean templated = serverName != null && sqlTemplateCache.isEnabled() && shape.hasParameters();
+			if (templated) {
+				Optional<String> cached = queryTracer.stage("sql_template", () -> sqlTemplateCache.lookup(serverName, shape));
+				if (cached.isPresent()) {
+					log.debug("SQL template hit for '{}' on {}", shape.key(), serverName);
+					return cached.get();
+				}
+			}
+
+			String schemaContext = queryTracer.stage("schema_lookup",
+				() -> schemaCatalogService.describeRelevantTables(serverName, prompt));
+
 			ChatOptions options = ChatOptionsBuilder.builder()
 				.withTemperature(0.1)
 				.withMaxTokens(200)
-				.withModel(selectedModel)
+				.withModel(model)
 				.build();
 
-			return chatClient.prompt()
-				.system("Convert user requests to SQL queries. Return only the SQL query, no explanations. " +
-						"Use Oracle syntax. For 'primeiros 5 registros' use ROWNUM <= 5.")
-				.user(prompt)
-				.options(options)
-				.call()
-				.content()
-				.replaceAll("```sql", "")
-				.replaceAll("```", "")
-				.trim();
+			String system = "Convert user requests to SQL queries. Return only the SQL query, no explanations. " +
+					(mysql ? "Use MySQL syntax. For 'primeiros 5 registros' use LIMIT 5."
+						: "Use Oracle syntax. For 'primeiros 5 registros' use ROWNUM <= 5.") +
+					(schemaContext.isEmpty() ? "" : "\n" + schemaContext);
+
+			if (templated) {
+				String template = cleanSql(callChat("sql_template", serverName, system +
+					"\nThe request contains placeholders like {p1}. Keep every placeholder unchanged in the SQL " +
+					"where its value belongs, without adding quotes around it.", shape.text(), options));
+				Optional<String> bound = sqlTemplateCache.store(serverName, shape, template);
+				if (bound.isPresent()) {
+					return bound.get();
+				}
+				log.debug("LLM dropped placeholders for '{}', generating SQL for the literal prompt", shape.key());
+			}
+
+			return cleanSql(callChat("sql", serverName, system, prompt, options));
+		} catch (CircuitOpenException e) {
+			// The fallback query would hide that the model is down.
+			throw e;
 		} catch (Exception e) {
 			log.warn("Failed to generate SQL from prompt, using fallback: {}", e.getMessage());
-			return "SELECT * FROM frota.motorista WHERE ROWNUM <= 5";
+			return mysql ? "SELECT * FROM frota.motorista LIMIT 5" : "SELECT * FROM frota.motorista WHERE ROWNUM <= 5";
 		}
 	}
 
-	private String executeLLMQuery(String prompt) {
-		log.info("Sending general prompt to {} via Ollama model {}: {}", currentServer, selectedModel, prompt);
+	private static String cleanSql(String sql) {
+		return sql
+			.replaceAll("```sql", "")
+			.replaceAll("```", "")
+			.trim();
+	}
+
+	/**
+	 * Answers a general (non-data) prompt in the context of the given server.
+	 */
+	String executeLLMQuery(String serverName, String prompt) {
+		return executeLLMQuery(serverName, selectedModel, prompt, null);
+	}
+
+	/**
+	 * Same as {@link #executeLLMQuery(String, String)} with {@code model}; when
+	 * {@code listener} is given, the answer is streamed to it token by token.
+	 */
+	String executeLLMQuery(String serverName, String model, String prompt, McpProgressListener listener) {
+		log.debug("Sending general prompt to {} via Ollama model {}", serverName, model);
 
 		try {
 			ChatOptions options = ChatOptionsBuilder.builder()
 				.withTemperature(0.2)
 				.withMaxTokens(512)
-				.withModel(selectedModel)
+				.withModel(model)
 				.build();
 
-			String content = chatClient.prompt()
-				.system("You are an assistant specialized in database and MCP management. " +
-						"Current connected server: '" + currentServer + "'. " +
-						"Provide helpful information about database management, MCP servers, and general guidance.")
-				.user(prompt)
-				.options(options)
-				.call()
-				.content();
-
-			log.debug("LLM response: {}", content);
+			String system = "You are an assistant specialized in database and MCP management. " +
+					"Current connected server: '" + serverName + "'. " +
+					"Provide helpful information about database management, MCP servers, and general guidance.";
+			String content = queryTracer.stage("llm", () -> callChat("chat", serverName, system, prompt, options,
+				listener != null ? listener::token : null));
 			return content;
+		} catch (CircuitOpenException e) {
+			throw e;
 		} catch (org.springframework.web.client.UnknownContentTypeException e) {
 			log.error("Ollama communication failed - unexpected content type: {}", e.getMessage(), e);
-			return "❌ **Ollama Server Communication Error**: The model '" + selectedModel + 
+			return "❌ **Ollama Server Communication Error**: The model '" + model + 
 				   "' returned unexpected format (text/plain instead of JSON). Please check: " +
-				   "1) Ollama server is running 2) Model '" + selectedModel + "' is downloaded 3) " +
+				   "1) Ollama server is running 2) Model '" + model + "' is downloaded 3) " +
 				   "Correct model name. Use GET /api/mcp/ollama/test-connection to verify Ollama status.";
 		} catch (Exception e) {
 			// Check if it's the specific UnknownContentTypeException propagated
 			if (e.getCause() != null && e.getCause() instanceof org.springframework.web.client.UnknownContentTypeException) {
 				log.error("Ollama communication failed (propagated): {}", e.getCause().getMessage(), e);
 				return "❌ **Ollama Communication Issue**: Could not parse response format " +
-					   "from model '" + selectedModel + "'. Check that the Ollama server is " +
+					   "from model '" + model + "'. Check that the Ollama server is " +
 					   "running and the model is loaded/generation completed first: '" + e.getCause().getMessage() + "'";
 			}
 			
-			log.error("Failed to communicate with Ollama LLM {}: {}", selectedModel, e.getMessage(), e);
+			log.error("Failed to communicate with Ollama LLM {}: {}", model, e.getMessage(), e);
 			return "❌ **OLLAMA ERROR**: Failed to process request: " + e.getMessage() + 
 				   "\n\nPlease verify Ollama server status with GET /api/mcp/ollama/test-connection";
 		}
 	}
 
+	/**
+	 * Calls the LLM once a slot for the model is free. {@code client} is the
+	 * context (usually the MCP server) used for fair queuing between callers.
+	 * Fails with {@link CircuitOpenException}, without queueing, while the
+	 * model's circuit breaker is open.
+	 */
+	private String callChat(String purpose, String client, String system, String prompt, ChatOptions options) {
+		return callChat(purpose, client, system, prompt, options, null);
+	}
+
+	/**
+	 * Same as {@link #callChat(String, String, String, String, ChatOptions)},
+	 * streaming the response to {@code tokens} (when given) as it is generated.
+	 */
+	private String callChat(String purpose, String client, String system, String prompt, ChatOptions options,
+		Consumer<String> tokens) {
+		String model = options.getModel();
+		circuitBreakers.check(CircuitBreakerRegistry.LLM, model);
+		// A cancelled query interrupts the wait for a slot or the Ollama HTTP call.
+		return queryCancellations.interruptibly(() -> {
+			try (LlmScheduler.Permit permit = queryTracer.stage("llm_queue",
+					() -> llmScheduler.acquire(model, LlmPriority.forPurpose(purpose), client))) {
+				return circuitBreakers.call(CircuitBreakerRegistry.LLM, model,
+					() -> sendChat(purpose, system, prompt, options, tokens));
+			}
+		});
+	}
+
+	private String sendChat(String purpose, String system, String prompt, ChatOptions options,
+		Consumer<String> tokens) {
+		LlmCallEvent event = new LlmCallEvent();
+		event.begin();
+		ChatResponse response = null;
+		String content = null;
+		long start = System.nanoTime();
+		RuntimeException error = null;
+		try {
+			if (tokens != null) {
+				StreamedChat streamed = streamChat(system, prompt, options, tokens);
+				response = streamed.last();
+				content = streamed.content();
+				return content;
+			}
+			response = chatClient().prompt()
+				.system(system)
+				.user(prompt)
+				.options(options)
+				.call()
+				.chatResponse();
+			content = response != null && response.getResult() != null
+				? response.getResult().getOutput().getContent()
+				: null;
+			return content;
+		}
+		catch (RuntimeException ex) {
+			error = ex;
+			throw ex;
+		}
+		finally {
+			recordLlmCall(purpose, system, prompt, options, response, content, start, error);
+			event.end();
+			if (event.shouldCommit()) {
+				event.model = options.getModel();
+				event.purpose = purpose;
+				event.promptChars = system.length() + prompt.length();
+				event.responseChars = content != null ? content.length() : 0;
+				event.success = content != null;
+				Usage usage = response != null && response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+				if (usage != null) {
+					event.promptTokens = usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+					event.completionTokens = usage.getGenerationTokens() != null ? usage.getGenerationTokens() : 0;
+				}
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Streams the response, handing each chunk to {@code tokens} on the
+	 * calling thread's subscription. Blocks until the model is done; an
+	 * interrupt (query cancelled) disposes the stream and closes the HTTP call.
+	 */
+	private StreamedChat streamChat(String system, String prompt, ChatOptions options, Consumer<String> tokens) {
+		StringBuilder content = new StringBuilder();
+		AtomicReference<ChatResponse> last = new AtomicReference<>();
+		chatClient().prompt()
+			.system(system)
+			.user(prompt)
+			.options(options)
+			.stream()
+			.chatResponse()
+			.doOnNext(chunk -> {
+				last.set(chunk);
+				String text = chunk.getResult() != null ? chunk.getResult().getOutput().getContent() : null;
+				if (text != null && !text.isEmpty()) {
+					content.append(text);
+					tokens.accept(text);
+				}
+			})
+			// Lets the WebClient routing filter pick an endpoint serving the model.
+			.contextWrite(options.getModel() != null
+				? Context.of(OllamaStreamingRoutingFilter.MODEL, options.getModel())
+				: Context.empty())
+			.blockLast();
+		return new StreamedChat(last.get(), content.toString());
+	}
+
+	// Usage is reported on the last chunk of a stream.
+	private record StreamedChat(ChatResponse last, String content) {
+	}
+
+	private void recordLlmCall(String purpose, String system, String prompt, ChatOptions options,
+		ChatResponse response, String content, long start, RuntimeException error) {
+		Usage usage = response != null && response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+		eventLog.event("llm-call", error != null)
+			.field("traceId", queryTracer.current().map(QueryTrace::getTraceId).orElse(null))
+			.field("model", options.getModel())
+			.field("purpose", purpose)
+			.field("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+			.field("promptTokens", usage != null ? usage.getPromptTokens() : null)
+			.field("completionTokens", usage != null ? usage.getGenerationTokens() : null)
+			.field("error", error != null ? String.valueOf(error.getMessage()) : null)
+			.payload("system", system)
+			.payload("prompt", prompt)
+			.payload("response", content)
+			.submit();
+	}
+
+	private ChatClient chatClient() {
+		ChatClient client = chatClient;
+		if (client == null) {
+			synchronized (this) {
+				client = chatClient;
+				if (client == null) {
+					client = chatClientBuilder.getObject().build();
+					chatClient = client;
+				}
+			}
+		}
+		return client;
+	}
+
 	public Map<String, Object> getChatInfo() {
 		Map<String, Object> info = new java.util.LinkedHashMap<>();
 		info.put("connectedServer", currentServer);
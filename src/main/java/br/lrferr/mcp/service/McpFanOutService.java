@@ -0,0 +1,198 @@
+package br.lrferr.mcp.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.model.FanOutRequest;
+import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
+import br.lrferr.mcp.service.mcp.McpSession;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+import br.lrferr.mcp.service.mcp.McpToolInvoker;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the same tool call (or the same prompt, translated to SQL for each
+ * server) on several MCP servers in parallel, so total latency is that of the
+ * slowest server instead of the sum.
+ */
+@Service
+public class McpFanOutService {
+
+	private static final Logger log = LoggerFactory.getLogger(McpFanOutService.class);
+
+	private static final String QUERY_TOOL = "execute_safe_query";
+
+	public record FanOutResult(String serverName, String status, long durationMs, String sql, JsonNode result,
+			String error) {
+	}
+
+	private final McpProcessManagerService processManagerService;
+	private final McpSessionManager sessionManager;
+	private final McpToolInvoker toolInvoker;
+	private final McpClientService clientService;
+	private final ObjectMapper objectMapper;
+
+	private final AtomicInteger threadCounter = new AtomicInteger();
+	private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "mcp-fanout-" + threadCounter.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public McpFanOutService(McpProcessManagerService processManagerService, McpSessionManager sessionManager,
+			McpToolInvoker toolInvoker, McpClientService clientService, ObjectMapper objectMapper) {
+		this.processManagerService = processManagerService;
+		this.sessionManager = sessionManager;
+		this.toolInvoker = toolInvoker;
+		this.clientService = clientService;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Starts the fan-out. {@code listener} receives each server's result as soon as
+	 * it is available (possibly concurrently); the returned future completes with
+	 * the merged response once every server has answered or timed out.
+	 */
+	public CompletableFuture<Map<String, Object>> execute(FanOutRequest request, Consumer<FanOutResult> listener) {
+		boolean promptMode = request.getPrompt() != null && !request.getPrompt().isBlank();
+		if (!promptMode && (request.getToolName() == null || request.getToolName().isBlank())) {
+			throw new IllegalArgumentException("Either toolName or prompt is required");
+		}
+		List<String> servers = resolveServers(request);
+		if (servers.isEmpty()) {
+			throw new IllegalArgumentException("No running MCP servers match the request");
+		}
+		long timeoutMs = request.getTimeoutMs() > 0 ? request.getTimeoutMs() : 30_000;
+		long start = System.nanoTime();
+
+		log.info("Fanning out {} to {} servers", promptMode ? QUERY_TOOL : request.getToolName(), servers.size());
+		List<CompletableFuture<FanOutResult>> calls = new ArrayList<>();
+		for (String server : servers) {
+			calls.add(callServer(server, request, promptMode, timeoutMs).whenComplete((result, error) -> {
+				synchronized (listener) {
+					listener.accept(result);
+				}
+			}));
+		}
+		return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+			.thenApply(ignored -> merge(calls.stream().map(CompletableFuture::join).toList(), start));
+	}
+
+	public List<String> resolveServers(FanOutRequest request) {
+		Map<String, RunningServer> running = processManagerService.getRunningServers();
+		if (request.getServers() != null && !request.getServers().isEmpty()) {
+			return request.getServers().stream().distinct().toList();
+		}
+		if (request.getTag() != null && !request.getTag().isBlank()) {
+			return running.entrySet().stream()
+				.filter(entry -> entry.getValue().config().getTags() != null
+					&& entry.getValue().config().getTags().contains(request.getTag()))
+				.map(Map.Entry::getKey)
+				.sorted()
+				.toList();
+		}
+		return running.keySet().stream().sorted().toList();
+	}
+
+	private CompletableFuture<FanOutResult> callServer(String server, FanOutRequest request, boolean promptMode,
+			long timeoutMs) {
+		long start = System.nanoTime();
+		String databaseType = promptMode ? processManagerService.getDatabaseType(server) : null;
+		if (promptMode && databaseType == null) {
+			return CompletableFuture.completedFuture(new FanOutResult(server, "ERROR", 0, null, null,
+				"No databaseType configured for " + server));
+		}
+		String toolName = promptMode ? QUERY_TOOL : request.getToolName();
+
+		// Servers differ in schema and dialect, so each gets its own SQL (and its own template cache entry).
+		AtomicReference<String> sqlRef = new AtomicReference<>();
+		CompletableFuture<JsonNode> arguments = promptMode
+			? CompletableFuture.supplyAsync(() -> {
+				String sqlQuery = clientService.generateSQLFromPrompt(server, request.getPrompt());
+				sqlRef.set(sqlQuery);
+				ObjectNode params = objectMapper.createObjectNode();
+				params.put("query", sqlQuery);
+				params.put("databaseType", databaseType);
+				return (JsonNode) params;
+			}, executor)
+			: CompletableFuture.completedFuture(
+				request.getArguments() != null ? request.getArguments() : objectMapper.createObjectNode());
+
+		// orTimeout only abandons our future; the request itself is cancelled by id on the server.
+		String requestId = UUID.randomUUID().toString();
+		AtomicReference<McpSession> sessionRef = new AtomicReference<>();
+		return arguments
+			.thenCompose(params -> CompletableFuture.supplyAsync(() -> sessionManager.getOrCreateSession(server), executor)
+				.thenCompose(session -> {
+					sessionRef.set(session);
+					return toolInvoker.invokeToolAsync(session, toolName, params, requestId);
+				}))
+			.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+			.handle((result, error) -> {
+				long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				String sqlQuery = sqlRef.get();
+				if (error == null) {
+					return new FanOutResult(server, "OK", durationMs, sqlQuery, result, null);
+				}
+				Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+				if (cause instanceof TimeoutException) {
+					McpSession session = sessionRef.get();
+					if (session != null) {
+						session.cancel(requestId, "timeout");
+					}
+					return new FanOutResult(server, "TIMEOUT", durationMs, sqlQuery, null,
+						"No answer within " + timeoutMs + " ms");
+				}
+				log.warn("Fan-out call to {} failed: {}", server, cause.getMessage());
+				return new FanOutResult(server, "ERROR", durationMs, sqlQuery, null, cause.getMessage());
+			});
+	}
+
+	private Map<String, Object> merge(List<FanOutResult> results, long start) {
+		Map<String, Object> byServer = new LinkedHashMap<>();
+		List<String> failed = new ArrayList<>();
+		int succeeded = 0;
+		for (FanOutResult result : results) {
+			byServer.put(result.serverName(), result);
+			if ("OK".equals(result.status())) {
+				succeeded++;
+			}
+			else {
+				failed.add(result.serverName());
+			}
+		}
+		Map<String, Object> merged = new LinkedHashMap<>();
+		merged.put("results", byServer);
+		merged.put("total", results.size());
+		merged.put("succeeded", succeeded);
+		merged.put("failed", failed);
+		merged.put("partial", succeeded > 0 && !failed.isEmpty());
+		merged.put("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return merged;
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+}
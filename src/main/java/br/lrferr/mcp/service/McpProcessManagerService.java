@@ -28,6 +28,16 @@ public class McpProcessManagerService {
 		if (runningServers.containsKey(name)) {
 			throw new IllegalStateException("Server already running: " + name);
 		}
+		RunningServer server = launch(name, config, sourcePath);
+		runningServers.put(name, server);
+	}
+
+	/**
+	 * Starts a process for the given configuration without registering it, so a
+	 * caller can prepare it before making it visible through
+	 * {@link #replaceServer(String, RunningServer, RunningServer)}.
+	 */
+	public RunningServer launch(String name, McpServerConfig config, Path sourcePath) {
 		ProcessBuilder builder = createProcessBuilder(config);
 		if (config.getEnv() != null) {
 			config.getEnv().forEach(builder.environment()::put);
@@ -37,8 +47,8 @@ public class McpProcessManagerService {
 		}
 		try {
 			Process process = builder.start();
-			runningServers.put(name, new RunningServer(process, Instant.now(), config, sourcePath));
 			log.info("Started MCP server '{}' with PID {}", name, process.pid());
+			return new RunningServer(process, Instant.now(), config, sourcePath);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Failed to start MCP server: " + name, ex);
@@ -54,6 +64,21 @@ public class McpProcessManagerService {
 		log.info("Stopped MCP server '{}'", name);
 	}
 
+	/**
+	 * Registers {@code replacement} as the running instance of {@code name} if
+	 * {@code expected} still is, leaving {@code expected} running for the caller
+	 * to drain. Returns {@code false}, registering nothing, if the server was
+	 * stopped or replaced in the meantime.
+	 */
+	public synchronized boolean replaceServer(String name, RunningServer expected, RunningServer replacement) {
+		if (!runningServers.replace(name, expected, replacement)) {
+			return false;
+		}
+		log.info("Replaced MCP server '{}' (PID {} -> {})", name, expected.process().pid(),
+			replacement.process().pid());
+		return true;
+	}
+
 	public Map<String, RunningServer> getRunningServers() {
 		return Collections.unmodifiableMap(runningServers);
 	}
@@ -62,6 +87,24 @@ public class McpProcessManagerService {
 		return runningServers.get(name);
 	}
 
+	/**
+	 * Resolves the database behind a server from its {@code databaseType} setting,
+	 * falling back to the well-known monitor names.
+	 */
+	public String getDatabaseType(String name) {
+		RunningServer running = runningServers.get(name);
+		if (running != null && running.config().getDatabaseType() != null) {
+			return running.config().getDatabaseType();
+		}
+		if ("oracle-monitor".equals(name)) {
+			return "oracle";
+		}
+		if ("mysql-monitor".equals(name)) {
+			return "mysql";
+		}
+		return null;
+	}
+
 	public ProcessBuilder createProcessBuilder(McpServerConfig config) {
 		if (config.getCommand() == null || config.getCommand().isBlank()) {
 			throw new IllegalArgumentException("Command is required to start an MCP server");
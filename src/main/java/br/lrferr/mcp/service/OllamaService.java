@@ -1,18 +1,32 @@
 package br.lrferr.mcp.service;
 
+import br.lrferr.mcp.config.OllamaModelProperties;
+import br.lrferr.mcp.service.ollama.OllamaEndpoint;
+import br.lrferr.mcp.service.ollama.OllamaEndpointPool;
+import br.lrferr.mcp.service.ollama.OllamaModelState;
+import br.lrferr.mcp.service.ollama.OllamaRoutingInterceptor;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class OllamaService {
@@ -20,19 +34,74 @@ public class OllamaService {
     private static final Logger log = LoggerFactory.getLogger(OllamaService.class);
     
     private final RestTemplate restTemplate;
+    private final RestTemplate warmUpTemplate;
     private final ObjectMapper objectMapper;
-    private final String baseUrl;
+    private final OllamaEndpointPool endpointPool;
+    private final OllamaModelProperties modelProperties;
     
-    public OllamaService(@Value("${spring.ai.ollama.base-url:http://localhost:11434}") String baseUrl) {
+    // model name -> endpoint URL -> load state
+    private final Map<String, Map<String, OllamaModelState>> loadStates = new ConcurrentHashMap<>();
+    private final AtomicInteger warmUpThreads = new AtomicInteger();
+    private final ExecutorService warmUpExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "ollama-warmup-" + warmUpThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public OllamaService(OllamaEndpointPool endpointPool, OllamaModelProperties modelProperties) {
         this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
-        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.endpointPool = endpointPool;
+        this.modelProperties = modelProperties;
+        
+        // Loading a large model can take minutes; the request returns once it is in memory.
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(5_000);
+        requestFactory.setReadTimeout((int) modelProperties.getWarmUpTimeout().toMillis());
+        this.warmUpTemplate = new RestTemplate(requestFactory);
     }
     
     /**
-     * List all available models in Ollama
+     * List all available models across the healthy Ollama endpoints. A model
+     * served by several hosts is listed once with all of their URLs.
      */
     public List<Map<String, Object>> listModels() {
+        Map<String, Map<String, Object>> merged = new LinkedHashMap<>();
+        Exception lastFailure = null;
+        int reachable = 0;
+        boolean anyHealthy = endpointPool.getEndpoints().stream().anyMatch(OllamaEndpoint::isHealthy);
+        for (OllamaEndpoint endpoint : endpointPool.getEndpoints()) {
+            if (anyHealthy && !endpoint.isHealthy()) {
+                continue;
+            }
+            try {
+                for (Map<String, Object> model : listModels(endpoint.getUrl())) {
+                    Map<String, Object> existing = merged.computeIfAbsent((String) model.get("name"), name -> {
+                        model.put("endpoints", new ArrayList<String>());
+                        return model;
+                    });
+                    @SuppressWarnings("unchecked")
+                    List<String> urls = (List<String>) existing.get("endpoints");
+                    urls.add(endpoint.getUrl());
+                }
+                reachable++;
+            } catch (Exception e) {
+                log.warn("Failed to list models from Ollama endpoint {}: {}", endpoint.getUrl(), e.getMessage());
+                lastFailure = e;
+            }
+        }
+        if (reachable == 0 && lastFailure != null) {
+            throw new RuntimeException("Failed to fetch models from Ollama: " + lastFailure.getMessage(), lastFailure);
+        }
+        merged.forEach((name, model) -> {
+            model.put("pinned", modelProperties.isPinned(name));
+            model.put("keepAlive", modelProperties.keepAliveFor(name));
+            model.put("loadState", getLoadState(name));
+        });
+        return new ArrayList<>(merged.values());
+    }
+    
+    private List<Map<String, Object>> listModels(String baseUrl) {
         try {
             String url = baseUrl + "/api/tags";
             String response = restTemplate.getForObject(URI.create(url), String.class);
@@ -44,36 +113,35 @@ public class OllamaService {
                 return List.of();
             }
             
-            return StreamSupport.stream(models.spliterator(), false)
-                .map(modelNode -> {
-                    Map<String, Object> modelInfo = new java.util.LinkedHashMap<>();
-                    modelInfo.put("name", modelNode.get("name").asText());
-                    modelInfo.put("size", modelNode.get("size").asLong());
-                    modelInfo.put("modifiedAt", modelNode.get("modified_at").asText());
-                    
-                    if (modelNode.has("details")) {
-                        JsonNode details = modelNode.get("details");
-                        if (details.has("format")) {
-                            modelInfo.put("format", details.get("format").asText());
-                        }
-                        if (details.has("family")) {
-                            modelInfo.put("family", details.get("family").asText());
-                        }
-                        if (details.has("parameter_size")) {
-                            modelInfo.put("parameterSize", details.get("parameter_size").asText());
-                        }
-                        if (details.has("quantization_level")) {
-                            modelInfo.put("quantizationLevel", details.get("quantization_level").asText());
-                        }
+            List<Map<String, Object>> result = new ArrayList<>();
+            for (JsonNode modelNode : models) {
+                Map<String, Object> modelInfo = new java.util.LinkedHashMap<>();
+                modelInfo.put("name", modelNode.get("name").asText());
+                modelInfo.put("size", modelNode.get("size").asLong());
+                modelInfo.put("modifiedAt", modelNode.get("modified_at").asText());
+                
+                if (modelNode.has("details")) {
+                    JsonNode details = modelNode.get("details");
+                    if (details.has("format")) {
+                        modelInfo.put("format", details.get("format").asText());
                     }
-                    
-                    return modelInfo;
-                })
-                .collect(Collectors.toList());
+                    if (details.has("family")) {
+                        modelInfo.put("family", details.get("family").asText());
+                    }
+                    if (details.has("parameter_size")) {
+                        modelInfo.put("parameterSize", details.get("parameter_size").asText());
+                    }
+                    if (details.has("quantization_level")) {
+                        modelInfo.put("quantizationLevel", details.get("quantization_level").asText());
+                    }
+                }
+                
+                result.add(modelInfo);
+            }
+            return result;
                 
         } catch (Exception e) {
-            log.error("Failed to list models from Ollama", e);
-            throw new RuntimeException("Failed to fetch models from Ollama: " + e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch models from " + baseUrl + ": " + e.getMessage(), e);
         }
     }
     
@@ -82,7 +150,7 @@ public class OllamaService {
      */
     public Map<String, Object> getModelInfo(String modelName) {
         try {
-            String url = baseUrl + "/api/show";
+            String url = endpointPool.select(modelName).getUrl() + "/api/show";
             String requestBody = String.format("{\"name\":\"%s\"}", modelName);
             
             String response = restTemplate.postForObject(
@@ -123,33 +191,147 @@ public class OllamaService {
     }
     
     /**
-     * Test connection to Ollama server
+     * Test connection to every configured Ollama endpoint
      */
     public Map<String, Object> testConnection() {
+        List<Map<String, Object>> results = new ArrayList<>();
+        int reachable = 0;
+        for (OllamaEndpoint endpoint : endpointPool.getEndpoints()) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("baseUrl", endpoint.getUrl());
+            try {
+                String response = restTemplate.getForObject(URI.create(endpoint.getUrl() + "/api/tags"), String.class);
+                JsonNode models = objectMapper.readTree(response).get("models");
+                result.put("status", "SUCCESS");
+                result.put("availableModels", (models != null && models.isArray()) ? models.size() : 0);
+                reachable++;
+            } catch (Exception e) {
+                log.error("Failed to connect to Ollama at {}", endpoint.getUrl(), e);
+                result.put("status", "ERROR");
+                result.put("message", "Failed to connect to Ollama: " + e.getMessage());
+            }
+            results.add(result);
+        }
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("status", reachable > 0 ? "SUCCESS" : "ERROR");
+        summary.put("message", reachable > 0
+            ? "Connection to Ollama successful (" + reachable + "/" + results.size() + " endpoints)"
+            : "Failed to connect to any Ollama endpoint");
+        summary.put("endpoints", results);
+        return summary;
+    }
+
+    /**
+     * Routing state (health, load, latency, models) of every Ollama endpoint
+     */
+    public List<Map<String, Object>> getEndpoints() {
+        return endpointPool.getEndpoints().stream().map(OllamaEndpoint::toMap).toList();
+    }
+
+    /**
+     * Loads a model on every healthy endpoint serving it with an empty generate
+     * request, so the first real prompt does not pay for the load. Loads already
+     * in progress are not repeated.
+     */
+    public CompletableFuture<Void> warmUp(String modelName) {
+        List<CompletableFuture<Void>> loads = new ArrayList<>();
+        List<OllamaEndpoint> targets = endpointPool.getEndpoints().stream()
+            .filter(endpoint -> endpoint.isHealthy() && endpoint.serves(modelName))
+            .toList();
+        if (targets.isEmpty()) {
+            targets = List.of(endpointPool.select(modelName));
+        }
+        for (OllamaEndpoint endpoint : targets) {
+            OllamaModelState state = stateOf(modelName, endpoint.getUrl());
+            if (state.beginLoad()) {
+                loads.add(CompletableFuture.runAsync(() -> load(endpoint.getUrl(), modelName, state), warmUpExecutor));
+            }
+        }
+        return CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new));
+    }
+    
+    /**
+     * Starts warming up a newly selected model unless warm-up on select is
+     * disabled. Does not wait for the load to finish.
+     */
+    public void modelSelected(String modelName) {
+        if (modelProperties.isWarmUpOnSelect()) {
+            warmUp(modelName);
+        }
+    }
+    
+    private void load(String baseUrl, String modelName, OllamaModelState state) {
+        long start = System.nanoTime();
         try {
-            String url = baseUrl + "/api/tags";
-            String response = restTemplate.getForObject(URI.create(url), String.class);
-            
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode models = root.get("models");
-            
-            int modelCount = (models != null && models.isArray()) ? models.size() : 0;
-            
-            return Map.of(
-                "status", "SUCCESS",
-                "baseUrl", baseUrl,
-                "message", "Connection to Ollama successful",
-                "availableModels", modelCount
-            );
+            ObjectNode request = objectMapper.createObjectNode();
+            request.put("model", modelName);
+            OllamaRoutingInterceptor.putKeepAlive(request, modelProperties.keepAliveFor(modelName));
+            warmUpTemplate.postForObject(URI.create(baseUrl + "/api/generate"), request.toString(), String.class);
+            long latencyMs = (System.nanoTime() - start) / 1_000_000;
+            state.loaded(latencyMs);
+            log.info("Warmed up Ollama model {} on {} in {} ms", modelName, baseUrl, latencyMs);
         } catch (Exception e) {
-            log.error("Failed to connect to Ollama", e);
-            return Map.of(
-                "status", "ERROR",
-                "baseUrl", baseUrl,
-                "message", "Failed to connect to Ollama: " + e.getMessage()
-            );
+            state.failed(e.getMessage());
+            log.warn("Failed to warm up Ollama model {} on {}: {}", modelName, baseUrl, e.getMessage());
         }
     }
+    
+    /**
+     * Refreshes load states from each endpoint's {@code /api/ps} and reloads
+     * pinned models that were unloaded, e.g. after an Ollama restart.
+     */
+    @Scheduled(fixedDelayString = "${mcp.ollama.model.pinned-check-interval:PT1M}")
+    public void keepPinnedModelsWarm() {
+        for (OllamaEndpoint endpoint : endpointPool.getEndpoints()) {
+            if (!endpoint.isHealthy()) {
+                continue;
+            }
+            Set<String> resident = new HashSet<>();
+            try {
+                String response = restTemplate.getForObject(URI.create(endpoint.getUrl() + "/api/ps"), String.class);
+                for (JsonNode model : objectMapper.readTree(response).path("models")) {
+                    resident.add(OllamaEndpoint.normalize(model.path("name").asText()));
+                }
+            } catch (Exception e) {
+                log.debug("Failed to read running models from {}: {}", endpoint.getUrl(), e.getMessage());
+                continue;
+            }
+            loadStates.forEach((model, states) -> {
+                OllamaModelState state = states.get(endpoint.getUrl());
+                if (state != null) {
+                    state.observed(isResident(resident, model));
+                }
+            });
+            for (String pinned : modelProperties.getPinned()) {
+                if (endpoint.serves(pinned) && !isResident(resident, pinned)) {
+                    OllamaModelState state = stateOf(pinned, endpoint.getUrl());
+                    if (state.beginLoad()) {
+                        warmUpExecutor.execute(() -> load(endpoint.getUrl(), pinned, state));
+                    }
+                }
+            }
+        }
+    }
+    
+    private static boolean isResident(Set<String> resident, String modelName) {
+        return resident.contains(OllamaEndpoint.normalize(modelName));
+    }
+    
+    private OllamaModelState stateOf(String modelName, String baseUrl) {
+        return loadStates.computeIfAbsent(OllamaEndpoint.normalize(modelName), name -> new ConcurrentHashMap<>())
+            .computeIfAbsent(baseUrl, url -> new OllamaModelState());
+    }
+    
+    /**
+     * Load state of a model on each endpoint, keyed by endpoint URL
+     */
+    public Map<String, Object> getLoadState(String modelName) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Map<String, OllamaModelState> states = loadStates.getOrDefault(OllamaEndpoint.normalize(modelName), Map.of());
+        states.forEach((url, state) -> result.put(url, state.toMap()));
+        return result;
+    }
 
     /**
      * Verify that a specific model exists and is available
@@ -0,0 +1,246 @@
+package br.lrferr.mcp.service.breaker;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import br.lrferr.mcp.config.CircuitBreakerProperties;
+
+/**
+ * Breaker for one backend: an MCP server or an LLM model. It keeps the outcome
+ * of the last {@code windowSize} calls. It opens when their failure rate or
+ * slow-call rate crosses its threshold, rejects calls for
+ * {@code openDuration}, then lets {@code halfOpenCalls} probes through. It
+ * closes when every probe succeeds and reopens on the first failed probe.
+ * Each admitted call is tagged with the generation (state change count) it was
+ * admitted in; outcomes from an earlier generation are stale and ignored.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+    private static final byte SLOW_FAILURE = FAILURE | SLOW;
+
+    private final String kind;
+    private final String name;
+    private final CircuitBreakerProperties properties;
+    private final Duration slowCallDuration;
+
+    private byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private Instant openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private long calls;
+    private long rejected;
+    private long failed;
+    private long slow;
+    private long opened;
+    private String lastFailure;
+
+    CircuitBreaker(String kind, String name, CircuitBreakerProperties properties, Duration slowCallDuration) {
+        this.kind = kind;
+        this.name = name;
+        this.properties = properties;
+        this.slowCallDuration = slowCallDuration;
+        this.outcomes = new byte[Math.max(1, properties.getWindowSize())];
+    }
+
+    /**
+     * Admits a call, or throws {@link CircuitOpenException} while the breaker is
+     * open or all half-open probes are taken. Every admitted call must be
+     * followed by exactly one of {@link #onSuccess}, {@link #onFailure} or
+     * {@link #onIgnored}, passing the generation returned here.
+     */
+    public synchronized long acquire() {
+        if (state == State.OPEN) {
+            if (Instant.now().isBefore(openedAt.plus(properties.getOpenDuration()))) {
+                rejected++;
+                throw new CircuitOpenException(kind, name, state.name(), retryAfter(), lastFailure);
+            }
+            state = State.HALF_OPEN;
+            generation++;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= properties.getHalfOpenCalls()) {
+                rejected++;
+                throw new CircuitOpenException(kind, name, state.name(), Duration.ZERO, lastFailure);
+            }
+            probesStarted++;
+        }
+        calls++;
+        return generation;
+    }
+
+    /**
+     * Fails like {@link #acquire()} while the breaker is open, without admitting
+     * a call, so callers can fail before queueing for the backend.
+     */
+    public synchronized void check() {
+        if (state == State.OPEN && Instant.now().isBefore(openedAt.plus(properties.getOpenDuration()))) {
+            rejected++;
+            throw new CircuitOpenException(kind, name, state.name(), retryAfter(), lastFailure);
+        }
+    }
+
+    public synchronized void onSuccess(long admittedIn, long elapsedNanos) {
+        if (admittedIn != generation) {
+            // E.g. admitted while closed and finished after the breaker opened: not a probe.
+            return;
+        }
+        boolean isSlow = elapsedNanos > slowCallDuration.toNanos();
+        if (state == State.HALF_OPEN) {
+            if (isSlow) {
+                slow++;
+                open("slow probe");
+            }
+            else if (++probesSucceeded >= properties.getHalfOpenCalls()) {
+                close();
+            }
+            return;
+        }
+        record(isSlow ? SLOW : SUCCESS);
+    }
+
+    public synchronized void onFailure(long admittedIn, long elapsedNanos, Throwable error) {
+        failed++;
+        lastFailure = error.getClass().getSimpleName() + ": " + error.getMessage();
+        if (admittedIn != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open("failed probe");
+            return;
+        }
+        record(elapsedNanos > slowCallDuration.toNanos() ? SLOW_FAILURE : FAILURE);
+    }
+
+    /**
+     * Releases an admitted call whose outcome says nothing about the backend,
+     * e.g. one cancelled by the client.
+     */
+    public synchronized void onIgnored(long admittedIn) {
+        if (admittedIn == generation && state == State.HALF_OPEN) {
+            probesStarted--;
+        }
+    }
+
+    /**
+     * Closes the breaker and forgets the window.
+     */
+    public synchronized void reset() {
+        close();
+    }
+
+    private void record(byte outcome) {
+        if ((outcome & SLOW) != 0) {
+            slow++;
+        }
+        if (recorded == outcomes.length) {
+            byte evicted = outcomes[next];
+            failures -= evicted & FAILURE;
+            slowCalls -= (evicted & SLOW) >> 1;
+        }
+        else {
+            recorded++;
+        }
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+        failures += outcome & FAILURE;
+        slowCalls += (outcome & SLOW) >> 1;
+
+        if (recorded < properties.getMinimumCalls()) {
+            return;
+        }
+        if (failures >= properties.getFailureRateThreshold() * recorded) {
+            open("failure rate " + percent(failures));
+        }
+        else if (slowCalls >= properties.getSlowCallRateThreshold() * recorded) {
+            open("slow-call rate " + percent(slowCalls));
+        }
+    }
+
+    private void open(String cause) {
+        state = State.OPEN;
+        generation++;
+        openedAt = Instant.now();
+        opened++;
+        clearWindow();
+        log.warn("Circuit for {} {} opened ({}); rejecting calls for {}", kind, name, cause,
+            properties.getOpenDuration());
+    }
+
+    private void close() {
+        if (state != State.CLOSED) {
+            log.info("Circuit for {} {} closed", kind, name);
+        }
+        state = State.CLOSED;
+        generation++;
+        openedAt = null;
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        outcomes = new byte[Math.max(1, properties.getWindowSize())];
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private Duration retryAfter() {
+        Duration remaining = Duration.between(Instant.now(), openedAt.plus(properties.getOpenDuration()));
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private String percent(int count) {
+        return Math.round(100.0 * count / recorded) + "%";
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("kind", kind);
+        map.put("name", name);
+        map.put("state", state.name());
+        map.put("windowCalls", recorded);
+        map.put("failureRate", recorded == 0 ? 0.0 : failures / (double) recorded);
+        map.put("slowCallRate", recorded == 0 ? 0.0 : slowCalls / (double) recorded);
+        if (openedAt != null) {
+            map.put("openedAt", openedAt.toString());
+            map.put("retryAfterMs", retryAfter().toMillis());
+        }
+        map.put("calls", calls);
+        map.put("rejected", rejected);
+        map.put("failed", failed);
+        map.put("slow", slow);
+        map.put("opened", opened);
+        if (lastFailure != null) {
+            map.put("lastFailure", lastFailure);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,144 @@
+package br.lrferr.mcp.service.breaker;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import br.lrferr.mcp.config.CircuitBreakerProperties;
+
+/**
+ * Circuit breakers per MCP server ({@link #MCP}) and per LLM model
+ * ({@link #LLM}), created on first use.
+ */
+@Component
+public class CircuitBreakerRegistry {
+
+    public static final String MCP = "mcp";
+    public static final String LLM = "llm";
+
+    private final CircuitBreakerProperties properties;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(CircuitBreakerProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Runs {@code work} through the breaker of the backend, failing with
+     * {@link CircuitOpenException} without running it while the breaker is open.
+     */
+    public <T> T call(String kind, String name, Supplier<T> work) {
+        if (!properties.isEnabled() || name == null) {
+            return work.get();
+        }
+        CircuitBreaker breaker = breaker(kind, name);
+        long generation = breaker.acquire();
+        long start = System.nanoTime();
+        try {
+            T result = work.get();
+            breaker.onSuccess(generation, System.nanoTime() - start);
+            return result;
+        }
+        catch (RuntimeException | Error ex) {
+            record(breaker, generation, start, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Throws {@link CircuitOpenException} if the backend's breaker is open, e.g.
+     * before waiting in a queue for it.
+     */
+    public void check(String kind, String name) {
+        if (properties.isEnabled() && name != null) {
+            breaker(kind, name).check();
+        }
+    }
+
+    /**
+     * Same as {@link #call} for work that completes asynchronously. An open
+     * breaker returns an already failed future.
+     */
+    public <T> CompletableFuture<T> callAsync(String kind, String name, Supplier<CompletableFuture<T>> work) {
+        if (!properties.isEnabled() || name == null) {
+            return work.get();
+        }
+        CircuitBreaker breaker = breaker(kind, name);
+        long generation;
+        try {
+            generation = breaker.acquire();
+        }
+        catch (CircuitOpenException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = work.get();
+        }
+        catch (RuntimeException ex) {
+            record(breaker, generation, start, ex);
+            throw ex;
+        }
+        return future.whenComplete((result, error) -> {
+            if (error == null) {
+                breaker.onSuccess(generation, System.nanoTime() - start);
+            }
+            else {
+                record(breaker, generation, start, error);
+            }
+        });
+    }
+
+    private static void record(CircuitBreaker breaker, long generation, long start, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        // Cancelled and interrupted calls say nothing about the health of the backend.
+        if (isCancellation(cause) || Thread.currentThread().isInterrupted()) {
+            breaker.onIgnored(generation);
+        }
+        else {
+            breaker.onFailure(generation, System.nanoTime() - start, cause);
+        }
+    }
+
+    private static boolean isCancellation(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CircuitBreaker breaker(String kind, String name) {
+        return breakers.computeIfAbsent(kind + ":" + name, key -> new CircuitBreaker(kind, name, properties,
+            MCP.equals(kind) ? properties.getMcpSlowCallDuration() : properties.getLlmSlowCallDuration()));
+    }
+
+    public List<Map<String, Object>> getBreakers() {
+        return breakers.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .map(entry -> entry.getValue().toMap())
+            .sorted(Comparator.comparing(map -> "CLOSED".equals(map.get("state"))))
+            .toList();
+    }
+
+    /**
+     * Closes the breaker of a backend. Returns {@code false} if it has none.
+     */
+    public boolean reset(String kind, String name) {
+        CircuitBreaker breaker = breakers.get(kind + ":" + name);
+        if (breaker == null) {
+            return false;
+        }
+        breaker.reset();
+        return true;
+    }
+}
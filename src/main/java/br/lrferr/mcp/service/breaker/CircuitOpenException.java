@@ -0,0 +1,50 @@
+package br.lrferr.mcp.service.breaker;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thrown instead of calling a backend whose circuit breaker is open.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private final String kind;
+    private final String name;
+    private final String state;
+    private final Duration retryAfter;
+    private final String lastFailure;
+
+    public CircuitOpenException(String kind, String name, String state, Duration retryAfter, String lastFailure) {
+        super("Circuit for " + kind + " " + name + " is " + state + "; retry in " + (retryAfter.toMillis() + 999) / 1000 + "s");
+        this.kind = kind;
+        this.name = name;
+        this.state = state;
+        this.retryAfter = retryAfter;
+        this.lastFailure = lastFailure;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("kind", kind);
+        map.put("name", name);
+        map.put("state", state);
+        map.put("retryAfterMs", retryAfter.toMillis());
+        if (lastFailure != null) {
+            map.put("lastFailure", lastFailure);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,141 @@
+package br.lrferr.mcp.service.cancel;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import br.lrferr.mcp.service.mcp.McpProgressListener;
+import br.lrferr.mcp.service.mcp.McpToolInvoker;
+
+/**
+ * Cancellation handle of one query. Cancelling it abandons whatever the query
+ * is waiting for: the MCP tool call is cancelled on the server, an LLM call (or
+ * the wait for an LLM slot) is interrupted, and stages not started yet fail
+ * with a {@link CancellationException}.
+ */
+public final class QueryCancellation {
+
+    private final McpToolInvoker toolInvoker;
+
+    private volatile String reason;
+
+    // Guarded by this: what the query is currently waiting for.
+    private String toolRequestId;
+    private Thread interruptibleThread;
+
+    QueryCancellation(McpToolInvoker toolInvoker) {
+        this.toolInvoker = toolInvoker;
+    }
+
+    public boolean isCancelled() {
+        return reason != null;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    void throwIfCancelled() {
+        String current = reason;
+        if (current != null) {
+            throw new CancellationException("Query cancelled: " + current);
+        }
+    }
+
+    /**
+     * Runs an MCP tool call, passing {@code call} a listener that remembers the
+     * request id so the call can be cancelled on the server.
+     */
+    <T> T runTool(McpProgressListener listener, Function<McpProgressListener, T> call) {
+        throwIfCancelled();
+        try {
+            return call.apply(new McpProgressListener() {
+                @Override
+                public void started(String requestId) {
+                    synchronized (QueryCancellation.this) {
+                        if (reason != null) {
+                            // Cancelled while being sent; the request is registered now, so this reaches the server.
+                            toolInvoker.cancel(requestId, reason);
+                        }
+                        else {
+                            toolRequestId = requestId;
+                        }
+                    }
+                    if (listener != null) {
+                        listener.started(requestId);
+                    }
+                }
+
+                @Override
+                public void progress(JsonNode params) {
+                    if (listener != null) {
+                        listener.progress(params);
+                    }
+                }
+
+                @Override
+                public void message(JsonNode params) {
+                    if (listener != null) {
+                        listener.message(params);
+                    }
+                }
+            });
+        }
+        catch (RuntimeException ex) {
+            // A call cancelled on the server fails as an MCP error; report it as the cancellation it is.
+            throwIfCancelled();
+            throw ex;
+        }
+        finally {
+            synchronized (this) {
+                toolRequestId = null;
+            }
+        }
+    }
+
+    /**
+     * Runs blocking work that is abandoned by interrupting the thread, e.g. an
+     * Ollama HTTP call.
+     */
+    <T> T runInterruptibly(Supplier<T> work) {
+        throwIfCancelled();
+        synchronized (this) {
+            interruptibleThread = Thread.currentThread();
+        }
+        try {
+            return work.get();
+        }
+        finally {
+            synchronized (this) {
+                interruptibleThread = null;
+                if (reason != null) {
+                    // Our interrupt must not leak into the next task on this pooled thread.
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels the query and returns the stage it was in ({@code mcp},
+     * {@code llm} or {@code pending}), or {@code null} if it was already
+     * cancelled.
+     */
+    synchronized String cancel(String reason) {
+        if (this.reason != null) {
+            return null;
+        }
+        this.reason = reason;
+        if (toolRequestId != null) {
+            toolInvoker.cancel(toolRequestId, reason);
+            return "mcp";
+        }
+        if (interruptibleThread != null) {
+            interruptibleThread.interrupt();
+            return "llm";
+        }
+        return "pending";
+    }
+}
@@ -0,0 +1,108 @@
+package br.lrferr.mcp.service.cancel;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import br.lrferr.mcp.service.mcp.McpProgressListener;
+import br.lrferr.mcp.service.mcp.McpToolInvoker;
+
+/**
+ * Creates query cancellation handles, binds the active one to the worker
+ * thread, and counts cancellations by reason (e.g. {@code disconnect},
+ * {@code timeout}, {@code client}) and by the stage they interrupted.
+ */
+@Component
+public class QueryCancellations {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCancellations.class);
+
+    private static final ThreadLocal<QueryCancellation> CURRENT = new ThreadLocal<>();
+
+    private final McpToolInvoker toolInvoker;
+
+    private final LongAdder total = new LongAdder();
+    private final Map<String, LongAdder> byReason = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byStage = new ConcurrentHashMap<>();
+
+    public QueryCancellations(McpToolInvoker toolInvoker) {
+        this.toolInvoker = toolInvoker;
+    }
+
+    public QueryCancellation create() {
+        return new QueryCancellation(toolInvoker);
+    }
+
+    /**
+     * Binds the handle to the current thread until {@link #unbind()}. A
+     * {@code null} handle binds nothing.
+     */
+    public void bind(QueryCancellation cancellation) {
+        if (cancellation != null) {
+            CURRENT.set(cancellation);
+        }
+    }
+
+    public void unbind() {
+        CURRENT.remove();
+    }
+
+    public Optional<QueryCancellation> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Runs an MCP tool call under the current handle, if any.
+     */
+    public <T> T tool(McpProgressListener listener, Function<McpProgressListener, T> call) {
+        QueryCancellation cancellation = CURRENT.get();
+        return cancellation != null ? cancellation.runTool(listener, call) : call.apply(listener);
+    }
+
+    /**
+     * Runs interruptible work (an LLM call) under the current handle, if any.
+     */
+    public <T> T interruptibly(Supplier<T> work) {
+        QueryCancellation cancellation = CURRENT.get();
+        return cancellation != null ? cancellation.runInterruptibly(work) : work.get();
+    }
+
+    public void cancel(QueryCancellation cancellation, String reason) {
+        String stage = cancellation.cancel(reason);
+        if (stage != null) {
+            record(reason, stage);
+            log.info("Cancelled query ({}) during stage {}", reason, stage);
+        }
+    }
+
+    /**
+     * Counts a cancellation that did not go through a handle, e.g. an explicit
+     * cancel of a tool call by request id.
+     */
+    public void record(String reason, String stage) {
+        total.increment();
+        byReason.computeIfAbsent(reason, key -> new LongAdder()).increment();
+        byStage.computeIfAbsent(stage, key -> new LongAdder()).increment();
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+            "total", total.sum(),
+            "byReason", sums(byReason),
+            "byStage", sums(byStage));
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> sums = new TreeMap<>();
+        counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+        return sums;
+    }
+}
@@ -0,0 +1,375 @@
+package br.lrferr.mcp.service.eventlog;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.lrferr.mcp.config.EventLogProperties;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Structured log of queries, tool calls, LLM calls and MCP notifications,
+ * written as one JSON object per line to rolling files. The request thread only
+ * decides whether the event is sampled and queues it with references to its
+ * payloads; serialization, truncation and I/O happen on a single writer thread.
+ * When the queue is full, events are dropped rather than slowing requests down.
+ */
+@Component
+public class QueryEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryEventLog.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private static final EventBuilder DISCARD = new EventBuilder(null, null, false);
+
+    private final EventLogProperties properties;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Event> queue;
+    private final Thread writerThread;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong truncated = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+
+    // Owned by the writer thread.
+    private BufferedWriter writer;
+    private Path currentFile;
+    private long currentSize;
+
+    private volatile boolean running = true;
+
+    public QueryEventLog(EventLogProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getBufferSize()));
+        this.writerThread = new Thread(this::drain, "mcp-event-log");
+        this.writerThread.setDaemon(true);
+        if (properties.isEnabled()) {
+            writerThread.start();
+        }
+    }
+
+    /**
+     * Starts an event of {@code type}. Returns a builder that discards
+     * everything when the event log is disabled or the event is sampled out;
+     * failed events are never sampled out.
+     */
+    public EventBuilder event(String type, boolean failed) {
+        if (!properties.isEnabled()) {
+            return DISCARD;
+        }
+        if (!failed) {
+            double rate = properties.sampleRateFor(type);
+            if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+                sampledOut.incrementAndGet();
+                return DISCARD;
+            }
+        }
+        return new EventBuilder(this, type, failed);
+    }
+
+    private void submit(Event event) {
+        if (queue.offer(event)) {
+            queued.incrementAndGet();
+        }
+        else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drain() {
+        List<Event> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Event first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 255);
+                for (Event event : batch) {
+                    write(event);
+                }
+                if (writer != null) {
+                    writer.flush();
+                }
+            }
+            catch (InterruptedException ex) {
+                running = false;
+            }
+            catch (IOException | RuntimeException ex) {
+                writeErrors.incrementAndGet();
+                log.warn("Failed to write event log: {}", ex.getMessage());
+                closeWriter();
+            }
+            finally {
+                batch.clear();
+            }
+        }
+        closeWriter();
+    }
+
+    private void write(Event event) throws IOException {
+        StringWriter line = new StringWriter(256);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(line)) {
+            generator.writeStartObject();
+            generator.writeStringField("ts", event.timestamp().toString());
+            generator.writeStringField("type", event.type());
+            if (event.failed()) {
+                generator.writeBooleanField("failed", true);
+            }
+            for (Map.Entry<String, Object> field : event.fields().entrySet()) {
+                generator.writeFieldName(field.getKey());
+                objectMapper.writeValue(generator, field.getValue());
+            }
+            if (!event.payloads().isEmpty()) {
+                writePayloads(generator, event);
+            }
+            generator.writeEndObject();
+        }
+        line.write('\n');
+
+        openWriterIfNeeded();
+        String text = line.toString();
+        writer.write(text);
+        currentSize += text.getBytes(StandardCharsets.UTF_8).length;
+        written.incrementAndGet();
+        if (currentSize >= properties.getMaxFileSize().toBytes()) {
+            closeWriter();
+        }
+    }
+
+    private void writePayloads(JsonGenerator generator, Event event) throws IOException {
+        int limit = properties.maxPayloadCharsFor(event.type());
+        List<String> cut = new ArrayList<>();
+        generator.writeObjectFieldStart("payload");
+        for (Map.Entry<String, Object> payload : event.payloads().entrySet()) {
+            Object value = payload.getValue();
+            generator.writeFieldName(payload.getKey());
+            if (value == null) {
+                generator.writeNull();
+                continue;
+            }
+            String text = value instanceof JsonNode ? null : value.toString();
+            if (text != null && text.length() <= limit) {
+                generator.writeString(text);
+                continue;
+            }
+            if (text == null) {
+                // Serialize JSON only up to the limit; a large tool result is never stringified in full.
+                BoundedWriter bounded = new BoundedWriter(limit);
+                try {
+                    objectMapper.writeValue(bounded, value);
+                }
+                catch (IOException ex) {
+                    if (!bounded.isFull()) {
+                        throw ex;
+                    }
+                }
+                if (!bounded.isFull()) {
+                    generator.writeRawValue(bounded.toString());
+                    continue;
+                }
+                text = bounded.toString();
+            }
+            generator.writeString(text.substring(0, Math.min(limit, text.length())));
+            cut.add(payload.getKey());
+        }
+        generator.writeEndObject();
+        if (!cut.isEmpty()) {
+            truncated.incrementAndGet();
+            generator.writeArrayFieldStart("truncated");
+            for (String name : cut) {
+                generator.writeString(name);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private void openWriterIfNeeded() throws IOException {
+        if (writer != null) {
+            return;
+        }
+        Path directory = Path.of(properties.getDirectory());
+        Files.createDirectories(directory);
+        currentFile = directory.resolve("events-" + FILE_TIMESTAMP.format(Instant.now()) + ".jsonl");
+        writer = Files.newBufferedWriter(currentFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND);
+        currentSize = Files.size(currentFile);
+        deleteOldFiles(directory);
+    }
+
+    private void deleteOldFiles(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream
+                .filter(path -> path.getFileName().toString().matches("events-.*\\.jsonl"))
+                .sorted()
+                .toList();
+        }
+        for (int i = 0; i < files.size() - Math.max(1, properties.getMaxFiles()); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        }
+        catch (IOException ex) {
+            log.warn("Failed to close event log {}: {}", currentFile, ex.getMessage());
+        }
+        writer = null;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("directory", properties.getDirectory());
+        stats.put("currentFile", currentFile != null ? currentFile.getFileName().toString() : null);
+        stats.put("queued", queued.get());
+        stats.put("pending", queue.size());
+        stats.put("written", written.get());
+        stats.put("sampledOut", sampledOut.get());
+        stats.put("dropped", dropped.get());
+        stats.put("truncated", truncated.get());
+        stats.put("writeErrors", writeErrors.get());
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private record Event(Instant timestamp, String type, boolean failed, Map<String, Object> fields,
+            Map<String, Object> payloads) {
+    }
+
+    /**
+     * Collects the fields of one event. Payloads are kept by reference and
+     * serialized on the writer thread, so they must not be modified after
+     * {@link #submit()}.
+     */
+    public static final class EventBuilder {
+
+        private final QueryEventLog eventLog;
+        private final String type;
+        private final boolean failed;
+        private final Map<String, Object> fields;
+        private final Map<String, Object> payloads;
+
+        private EventBuilder(QueryEventLog eventLog, String type, boolean failed) {
+            this.eventLog = eventLog;
+            this.type = type;
+            this.failed = failed;
+            this.fields = eventLog != null ? new LinkedHashMap<>() : null;
+            this.payloads = eventLog != null ? new LinkedHashMap<>() : null;
+        }
+
+        /**
+         * Adds a small value (name, count, duration) written as is.
+         */
+        public EventBuilder field(String name, Object value) {
+            if (fields != null && value != null) {
+                fields.put(name, value);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a potentially large value (text or {@link JsonNode}) cut to the
+         * type's {@code max-payload-chars}.
+         */
+        public EventBuilder payload(String name, Object value) {
+            if (payloads != null) {
+                payloads.put(name, value);
+            }
+            return this;
+        }
+
+        public void submit() {
+            if (eventLog != null) {
+                eventLog.submit(new Event(Instant.now(), type, failed, fields, payloads));
+            }
+        }
+    }
+
+    /**
+     * Collects up to {@code limit} characters and fails the write once more
+     * arrive.
+     */
+    private static final class BoundedWriter extends Writer {
+
+        private final StringBuilder buffer;
+        private final int limit;
+        private boolean full;
+
+        BoundedWriter(int limit) {
+            this.limit = limit;
+            this.buffer = new StringBuilder(Math.min(limit, 1024));
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int room = limit - buffer.length();
+            buffer.append(chars, offset, Math.min(room, length));
+            if (length > room) {
+                full = true;
+                throw new IOException("payload limit reached");
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        boolean isFull() {
+            return full;
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+}
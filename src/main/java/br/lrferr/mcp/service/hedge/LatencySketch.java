@@ -0,0 +1,67 @@
+package br.lrferr.mcp.service.hedge;
+
+/**
+ * Streaming latency histogram with logarithmic buckets (10% apart, 1 ms to
+ * about 10 minutes), so quantiles are accurate to within 10% in constant
+ * memory. Counts are halved every {@code window} samples so the sketch follows
+ * recent behaviour.
+ */
+final class LatencySketch {
+
+    private static final double GROWTH = 1.1;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = 142;
+
+    private final long[] counts = new long[BUCKETS];
+    private final int window;
+
+    private long total;
+    private long sinceDecay;
+
+    LatencySketch(int window) {
+        this.window = Math.max(1, window);
+    }
+
+    synchronized void record(long millis) {
+        counts[bucket(millis)]++;
+        total++;
+        if (++sinceDecay >= window) {
+            sinceDecay = 0;
+            total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] /= 2;
+                total += counts[i];
+            }
+        }
+    }
+
+    /**
+     * Upper bound of the bucket holding quantile {@code q}, in milliseconds, or
+     * -1 when nothing was recorded.
+     */
+    synchronized long quantile(double q) {
+        if (total == 0) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (long) Math.ceil(Math.pow(GROWTH, i));
+            }
+        }
+        return (long) Math.ceil(Math.pow(GROWTH, BUCKETS - 1));
+    }
+
+    synchronized long count() {
+        return total;
+    }
+
+    private static int bucket(long millis) {
+        if (millis <= 1) {
+            return 0;
+        }
+        return (int) Math.min(BUCKETS - 1, Math.ceil(Math.log(millis) / LOG_GROWTH));
+    }
+}
@@ -0,0 +1,323 @@
+package br.lrferr.mcp.service.hedge;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import br.lrferr.mcp.config.HedgingProperties;
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
+import br.lrferr.mcp.service.mcp.McpSession;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sends a duplicate of an idempotent tool call to a second process of the same
+ * server when the first has not answered within the tool's usual tail latency,
+ * and keeps whichever answers first. The loser is cancelled. A token bucket
+ * limits duplicates to {@code mcp.hedging.max-rate} of all calls, so a server
+ * that is slow across the board does not get twice the load.
+ */
+@Component
+public class McpHedger {
+
+    private static final Logger log = LoggerFactory.getLogger(McpHedger.class);
+
+    private static final double MAX_BUDGET = 10.0;
+
+    private final McpProcessManagerService processManagerService;
+    private final McpSessionManager sessionManager;
+    private final HedgingProperties properties;
+
+    private final Map<String, ToolStats> stats = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    // Starting a hedge process and its handshake take seconds; kept off the scheduler that fires hedges.
+    private final ExecutorService starter;
+
+    private double budget;
+
+    public McpHedger(McpProcessManagerService processManagerService, McpSessionManager sessionManager,
+            HedgingProperties properties) {
+        this.processManagerService = processManagerService;
+        this.sessionManager = sessionManager;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "mcp-hedge-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+        AtomicInteger starterCount = new AtomicInteger();
+        this.starter = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-hedge-start-" + starterCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Whether calls of {@code toolName} on this session's server may be hedged:
+     * hedging is enabled and the server lists the tool in its
+     * {@code idempotentTools}.
+     */
+    public boolean shouldHedge(McpSession session, String toolName) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        RunningServer running = processManagerService.getRunningServer(session.getServerName());
+        List<String> idempotentTools = running != null ? running.config().getIdempotentTools() : null;
+        return idempotentTools != null && idempotentTools.contains(toolName);
+    }
+
+    /**
+     * Sends {@code method} to {@code session}, hedging it once the tool has been
+     * observed often enough to know its latency. The future completes with the
+     * first response from either process; it fails only if every attempt
+     * failed.
+     */
+    public CompletableFuture<JsonNode> call(McpSession session, String toolName, String method, JsonNode params) {
+        return call(session, toolName, method, params, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Same as {@link #call(McpSession, String, String, JsonNode)}, sending the
+     * first attempt with {@code requestId}. Cancelling that request on the
+     * session ({@link McpSession#cancel}) also cancels the duplicate and fails
+     * the returned future.
+     */
+    public CompletableFuture<JsonNode> call(McpSession session, String toolName, String method, JsonNode params,
+            String requestId) {
+        ToolStats toolStats = stats.computeIfAbsent(session.getServerName() + "|" + toolName,
+            key -> new ToolStats(session.getServerName(), toolName, properties.getSketchWindow()));
+        toolStats.calls.incrementAndGet();
+        earn();
+
+        CompletableFuture<JsonNode> result = new CompletableFuture<>();
+        Attempt primary = new Attempt(session, requestId, toolStats.sketch);
+        AtomicReference<Attempt> hedge = new AtomicReference<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+
+        ScheduledFuture<?> timer = null;
+        long delay = hedgeDelay(toolStats);
+        if (delay >= 0) {
+            timer = scheduler.schedule(() -> {
+                if (result.isDone() || !spend()) {
+                    return;
+                }
+                McpSession hedgeSession = sessionManager.getHedgeSession(session.getServerName(), starter);
+                if (hedgeSession == null) {
+                    refund();
+                    return;
+                }
+                outstanding.incrementAndGet();
+                Attempt duplicate = new Attempt(hedgeSession, UUID.randomUUID().toString(), null);
+                hedge.set(duplicate);
+                toolStats.hedged.incrementAndGet();
+                log.debug("Hedging {} on {} after {} ms", toolName, session.getServerName(), delay);
+                send(duplicate, method, params, result, outstanding, () -> {
+                    toolStats.hedgeWins.incrementAndGet();
+                    long elapsed = primary.elapsedMillis();
+                    if (primary.cancel("hedge won")) {
+                        // The primary would have taken at least this long; recording the hedge's time instead
+                        // would pull down the tail that decides when to hedge.
+                        toolStats.sketch.record(elapsed);
+                    }
+                });
+                if (result.isDone() && !duplicate.won.get()) {
+                    // The primary answered while the duplicate was being sent.
+                    duplicate.cancel("primary won");
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+        send(primary, method, params, result, outstanding, () -> {
+            Attempt duplicate = hedge.get();
+            if (duplicate != null) {
+                duplicate.cancel("primary won");
+            }
+        });
+        result.whenComplete((response, error) -> {
+            if (error instanceof CancellationException) {
+                // The caller cancelled the primary request by its id; the duplicate is abandoned too.
+                Attempt duplicate = hedge.get();
+                if (duplicate != null) {
+                    duplicate.cancel(error.getMessage());
+                }
+            }
+        });
+
+        if (timer != null) {
+            ScheduledFuture<?> pendingTimer = timer;
+            result.whenComplete((response, error) -> pendingTimer.cancel(false));
+        }
+        return result;
+    }
+
+    private void send(Attempt attempt, String method, JsonNode params, CompletableFuture<JsonNode> result,
+            AtomicInteger outstanding, Runnable onWin) {
+        CompletableFuture<JsonNode> future;
+        try {
+            future = attempt.session.callMethod(method, params, attempt.requestId);
+        }
+        catch (RuntimeException ex) {
+            fail(result, outstanding, ex);
+            return;
+        }
+        future.whenComplete((response, error) -> {
+            if (attempt.cancelled.get()) {
+                return;
+            }
+            if (error instanceof CancellationException && attempt.primary) {
+                result.completeExceptionally(error);
+            }
+            else if (error != null) {
+                fail(result, outstanding, error);
+            }
+            else {
+                if (attempt.primary) {
+                    // Before completing the result, so the caller's next call sees the sample.
+                    attempt.latency.record(attempt.elapsedMillis());
+                }
+                if (result.complete(response)) {
+                    attempt.won.set(true);
+                    onWin.run();
+                }
+            }
+        });
+    }
+
+    private static void fail(CompletableFuture<JsonNode> result, AtomicInteger outstanding, Throwable error) {
+        // Wait for the other attempt, if any, before giving up.
+        if (outstanding.decrementAndGet() == 0) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    private long hedgeDelay(ToolStats toolStats) {
+        if (toolStats.sketch.count() < properties.getMinSamples()) {
+            return -1;
+        }
+        long quantile = toolStats.sketch.quantile(properties.getQuantile());
+        return Math.max(quantile, properties.getMinDelay().toMillis());
+    }
+
+    private synchronized void earn() {
+        budget = Math.min(MAX_BUDGET, budget + properties.getMaxRate());
+    }
+
+    private synchronized boolean spend() {
+        if (budget < 1.0) {
+            return false;
+        }
+        budget -= 1.0;
+        return true;
+    }
+
+    private synchronized void refund() {
+        budget = Math.min(MAX_BUDGET, budget + 1.0);
+    }
+
+    /**
+     * Per tool counters and latency quantiles, slowest p95 first.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", properties.isEnabled());
+        result.put("quantile", properties.getQuantile());
+        result.put("maxRate", properties.getMaxRate());
+        synchronized (this) {
+            result.put("budget", budget);
+        }
+        result.put("tools", stats.values().stream()
+            .map(ToolStats::toMap)
+            .sorted((a, b) -> Long.compare((Long) b.get("p95Ms"), (Long) a.get("p95Ms")))
+            .toList());
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        starter.shutdownNow();
+    }
+
+    private static final class Attempt {
+
+        private final McpSession session;
+        private final String requestId;
+        private final boolean primary;
+        // The tool's sketch for the primary attempt, whose own latency is recorded; null for the duplicate.
+        private final LatencySketch latency;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean won = new AtomicBoolean();
+        private final long startNanos = System.nanoTime();
+
+        Attempt(McpSession session, String requestId, LatencySketch latency) {
+            this.session = session;
+            this.requestId = requestId;
+            this.primary = latency != null;
+            this.latency = latency;
+        }
+
+        long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Returns false if the request had already completed.
+         */
+        boolean cancel(String reason) {
+            return cancelled.compareAndSet(false, true) && session.cancel(requestId, reason);
+        }
+    }
+
+    private static final class ToolStats {
+
+        private final String serverName;
+        private final String toolName;
+        private final LatencySketch sketch;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong hedged = new AtomicLong();
+        private final AtomicLong hedgeWins = new AtomicLong();
+
+        ToolStats(String serverName, String toolName, int window) {
+            this.serverName = serverName;
+            this.toolName = toolName;
+            this.sketch = new LatencySketch(window);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("serverName", serverName);
+            map.put("toolName", toolName);
+            map.put("calls", calls.get());
+            map.put("hedged", hedged.get());
+            map.put("hedgeWins", hedgeWins.get());
+            map.put("p50Ms", sketch.quantile(0.50));
+            map.put("p95Ms", sketch.quantile(0.95));
+            map.put("p99Ms", sketch.quantile(0.99));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package br.lrferr.mcp.service.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Starts and stops Java Flight Recorder recordings that include the
+ * orchestrator's domain events, so GC/CPU samples can be correlated with MCP
+ * frames, tool calls and LLM calls.
+ */
+@Service
+public class JfrRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingService.class);
+
+    private static final List<Class<? extends jdk.jfr.Event>> EVENT_TYPES = List.of(McpFrameEvent.class,
+        McpRequestEvent.class, McpSyncWaitEvent.class, McpToolInvocationEvent.class, LlmCallEvent.class);
+
+    static {
+        EVENT_TYPES.forEach(FlightRecorder::register);
+    }
+
+    private final Path outputDirectory;
+
+    private Recording recording;
+
+    public JfrRecordingService(@Value("${mcp.jfr.output-directory:./logs}") String outputDirectory) {
+        this.outputDirectory = Path.of(outputDirectory);
+    }
+
+    /**
+     * Starts a recording using one of the JDK settings ({@code default} or
+     * {@code profile}) with all orchestrator events enabled.
+     */
+    public synchronized Map<String, Object> start(String settings, Duration maxAge) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A JFR recording is already running: " + recording.getName());
+        }
+        try {
+            Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+            newRecording.setName("mcp-orchestrator-" + Instant.now().toEpochMilli());
+            newRecording.setToDisk(true);
+            if (maxAge != null) {
+                newRecording.setMaxAge(maxAge);
+            }
+            EVENT_TYPES.forEach(type -> newRecording.enable(type).withoutThreshold());
+            newRecording.start();
+            this.recording = newRecording;
+            log.info("Started JFR recording {} with '{}' settings", newRecording.getName(), settings);
+            return getStatus();
+        }
+        catch (IOException | ParseException ex) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings, ex);
+        }
+    }
+
+    /**
+     * Stops the running recording and dumps it to the output directory.
+     */
+    public synchronized Map<String, Object> stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("No JFR recording is running");
+        }
+        try {
+            Files.createDirectories(outputDirectory);
+            Path file = outputDirectory.resolve(recording.getName() + ".jfr").toAbsolutePath();
+            recording.stop();
+            recording.dump(file);
+            log.info("Stopped JFR recording {}, written to {}", recording.getName(), file);
+            return Map.of(
+                "name", recording.getName(),
+                "state", recording.getState().name(),
+                "file", file.toString()
+            );
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Failed to write JFR recording: " + ex.getMessage(), ex);
+        }
+        finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new java.util.LinkedHashMap<>();
+        status.put("recording", recording != null && recording.getState() == RecordingState.RUNNING);
+        if (recording != null) {
+            status.put("name", recording.getName());
+            status.put("state", recording.getState().name());
+            status.put("startedAt", recording.getStartTime());
+        }
+        status.put("events", EVENT_TYPES.stream().map(Class::getSimpleName).toList());
+        status.put("outputDirectory", outputDirectory.toAbsolutePath().toString());
+        return status;
+    }
+}
@@ -0,0 +1,40 @@
+package br.lrferr.mcp.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One prompt/response round trip to Ollama.
+ */
+@Name("br.lrferr.mcp.LlmCall")
+@Label("LLM Call")
+@Category({ "MCP Orchestrator", "LLM" })
+@StackTrace(false)
+public class LlmCallEvent extends Event {
+
+    @Label("Model")
+    public String model;
+
+    @Label("Purpose")
+    @Description("sql for SQL generation, chat for general prompts")
+    public String purpose;
+
+    @Label("Prompt Characters")
+    public int promptChars;
+
+    @Label("Response Characters")
+    public int responseChars;
+
+    @Label("Prompt Tokens")
+    public long promptTokens;
+
+    @Label("Completion Tokens")
+    public long completionTokens;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,31 @@
+package br.lrferr.mcp.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Time spent reading or writing a single Content-Length framed MCP message.
+ */
+@Name("br.lrferr.mcp.Frame")
+@Label("MCP Frame I/O")
+@Category({ "MCP Orchestrator", "MCP" })
+@Description("Read or write of one framed JSON-RPC message on a server's stdio pipe")
+@StackTrace(false)
+public class McpFrameEvent extends Event {
+
+    @Label("Server")
+    public String server;
+
+    @Label("Direction")
+    @Description("IN for frames read from the server, OUT for frames written to it")
+    public String direction;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,43 @@
+package br.lrferr.mcp.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Lifecycle of one JSON-RPC request: from being queued in
+ * {@code pendingRequests}, through the frame write, until the response arrives.
+ */
+@Name("br.lrferr.mcp.JsonRpcRequest")
+@Label("MCP JSON-RPC Request")
+@Category({ "MCP Orchestrator", "MCP" })
+@Description("JSON-RPC request lifecycle (queued, sent, responded)")
+@StackTrace(false)
+public class McpRequestEvent extends Event {
+
+    @Label("Server")
+    public String server;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Request Id")
+    public String requestId;
+
+    @Label("Send Time")
+    @Description("Time between queueing the request and finishing the frame write")
+    @Timespan(Timespan.NANOSECONDS)
+    public long sendTime;
+
+    @Label("Response Time")
+    @Description("Time between finishing the frame write and receiving the response")
+    @Timespan(Timespan.NANOSECONDS)
+    public long responseTime;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,24 @@
+package br.lrferr.mcp.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Time a caller thread spends blocked in {@code callMethodSync} waiting for a
+ * response.
+ */
+@Name("br.lrferr.mcp.SyncWait")
+@Label("MCP Synchronous Wait")
+@Category({ "MCP Orchestrator", "MCP" })
+@Description("Caller thread blocked on CompletableFuture.join for an MCP response")
+public class McpSyncWaitEvent extends Event {
+
+    @Label("Server")
+    public String server;
+
+    @Label("Method")
+    public String method;
+}
@@ -0,0 +1,26 @@
+package br.lrferr.mcp.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code tools/call} issued through {@code McpToolInvoker}.
+ */
+@Name("br.lrferr.mcp.ToolInvocation")
+@Label("MCP Tool Invocation")
+@Category({ "MCP Orchestrator", "MCP" })
+@StackTrace(false)
+public class McpToolInvocationEvent extends Event {
+
+    @Label("Server")
+    public String server;
+
+    @Label("Tool")
+    public String tool;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,18 @@
+package br.lrferr.mcp.service.llm;
+
+/**
+ * Priority classes of LLM calls, highest first. A waiting call of a higher
+ * class is always dispatched before any call of a lower one.
+ */
+public enum LlmPriority {
+
+    /** Prompt-to-SQL translation on the data query path. */
+    SQL,
+
+    /** Free-form chat answers. */
+    CHAT;
+
+    public static LlmPriority forPurpose(String purpose) {
+        return purpose != null && purpose.startsWith("sql") ? SQL : CHAT;
+    }
+}
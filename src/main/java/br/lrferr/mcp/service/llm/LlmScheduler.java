@@ -0,0 +1,304 @@
+package br.lrferr.mcp.service.llm;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import br.lrferr.mcp.config.LlmSchedulerProperties;
+import br.lrferr.mcp.service.ollama.OllamaEndpointPool;
+
+/**
+ * Admission control for LLM calls. Each model has a queue whose concurrency
+ * limit is the per-endpoint limit times the healthy endpoints serving the
+ * model; waiting calls are dispatched by priority and, within a priority,
+ * round-robin across client contexts so one busy client cannot starve others.
+ * <p>
+ * Callers keep running on their own thread: {@link #acquire} blocks until a
+ * slot is granted and the returned {@link Permit} releases it when closed.
+ */
+@Component
+public class LlmScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmScheduler.class);
+
+    private final LlmSchedulerProperties properties;
+    private final OllamaEndpointPool endpointPool;
+    private final Map<String, ModelQueue> queues = new ConcurrentHashMap<>();
+
+    public LlmScheduler(LlmSchedulerProperties properties, OllamaEndpointPool endpointPool) {
+        this.properties = properties;
+        this.endpointPool = endpointPool;
+    }
+
+    /**
+     * Waits for a slot on {@code model}. Throws {@link IllegalStateException}
+     * when the queue is full or the wait exceeds the configured timeout.
+     */
+    public Permit acquire(String model, LlmPriority priority, String client) {
+        if (!properties.isEnabled()) {
+            return Permit.NONE;
+        }
+        ModelQueue queue = queues.computeIfAbsent(model, name -> new ModelQueue(name));
+        return queue.acquire(priority, client == null ? "default" : client);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        Map<String, Object> models = new LinkedHashMap<>();
+        queues.forEach((model, queue) -> models.put(model, queue.stats()));
+        stats.put("models", models);
+        return stats;
+    }
+
+    /**
+     * A granted slot. Closing it more than once has no effect.
+     */
+    public static class Permit implements AutoCloseable {
+
+        static final Permit NONE = new Permit(null);
+
+        private final ModelQueue queue;
+        private boolean released;
+
+        Permit(ModelQueue queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void close() {
+            if (queue != null && !released) {
+                released = true;
+                queue.release();
+            }
+        }
+    }
+
+    private static final class Ticket {
+
+        final LlmPriority priority;
+        final long enqueuedAt = System.nanoTime();
+        boolean granted;
+
+        Ticket(LlmPriority priority) {
+            this.priority = priority;
+        }
+    }
+
+    private final class ModelQueue {
+
+        private final String model;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+
+        // Per priority, clients in round-robin order, each with its FIFO of tickets.
+        private final Map<LlmPriority, LinkedHashMap<String, ArrayDeque<Ticket>>> waiting = new EnumMap<>(LlmPriority.class);
+        private final Map<LlmPriority, WaitStats> waitStats = new EnumMap<>(LlmPriority.class);
+        private int queued;
+        private int running;
+        private long rejected;
+        private long timedOut;
+
+        ModelQueue(String model) {
+            this.model = model;
+            for (LlmPriority priority : LlmPriority.values()) {
+                waiting.put(priority, new LinkedHashMap<>());
+                waitStats.put(priority, new WaitStats(properties.getSampleSize()));
+            }
+        }
+
+        Permit acquire(LlmPriority priority, String client) {
+            lock.lock();
+            try {
+                if (queued == 0 && running < limit()) {
+                    running++;
+                    waitStats.get(priority).record(0);
+                    return new Permit(this);
+                }
+                if (queued >= properties.getQueueCapacity()) {
+                    rejected++;
+                    throw new IllegalStateException("LLM queue for model " + model + " is full (" + queued + " waiting)");
+                }
+                Ticket ticket = new Ticket(priority);
+                waiting.get(priority).computeIfAbsent(client, key -> new ArrayDeque<>()).addLast(ticket);
+                queued++;
+
+                long remaining = properties.getQueueTimeout().toNanos();
+                boolean interrupted = false;
+                while (!ticket.granted && remaining > 0) {
+                    try {
+                        remaining = changed.awaitNanos(remaining);
+                    }
+                    catch (InterruptedException ex) {
+                        interrupted = true;
+                        break;
+                    }
+                }
+                if (interrupted) {
+                    // The grant may have raced the interrupt: hand the slot on rather than run an abandoned call.
+                    if (ticket.granted) {
+                        running--;
+                        dispatch();
+                    }
+                    else {
+                        remove(ticket, client);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for model " + model);
+                }
+                if (!ticket.granted) {
+                    remove(ticket, client);
+                    timedOut++;
+                    throw new IllegalStateException("Timed out after " + properties.getQueueTimeout().toSeconds()
+                        + "s waiting for model " + model);
+                }
+                long waited = System.nanoTime() - ticket.enqueuedAt;
+                waitStats.get(priority).record(waited);
+                if (waited > TimeUnit.SECONDS.toNanos(1)) {
+                    log.debug("{} call for {} from {} waited {} ms in queue", priority, model, client,
+                        TimeUnit.NANOSECONDS.toMillis(waited));
+                }
+                return new Permit(this);
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        private int limit() {
+            return properties.concurrencyFor(model) * Math.max(1, endpointPool.countAvailable(model));
+        }
+
+        void release() {
+            lock.lock();
+            try {
+                running--;
+                dispatch();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        // Grants waiting tickets while slots are free; caller holds the lock.
+        private void dispatch() {
+            boolean grantedAny = false;
+            int limit = limit();
+            while (running < limit && queued > 0) {
+                Ticket next = pollNext();
+                if (next == null) {
+                    break;
+                }
+                next.granted = true;
+                queued--;
+                running++;
+                grantedAny = true;
+            }
+            if (grantedAny) {
+                changed.signalAll();
+            }
+        }
+
+        private Ticket pollNext() {
+            for (LlmPriority priority : LlmPriority.values()) {
+                LinkedHashMap<String, ArrayDeque<Ticket>> clients = waiting.get(priority);
+                Iterator<Map.Entry<String, ArrayDeque<Ticket>>> it = clients.entrySet().iterator();
+                if (!it.hasNext()) {
+                    continue;
+                }
+                Map.Entry<String, ArrayDeque<Ticket>> first = it.next();
+                Ticket ticket = first.getValue().pollFirst();
+                it.remove();
+                if (!first.getValue().isEmpty()) {
+                    // Move the client to the back so the next grant goes to another client.
+                    clients.put(first.getKey(), first.getValue());
+                }
+                return ticket;
+            }
+            return null;
+        }
+
+        private void remove(Ticket ticket, String client) {
+            Map<String, ArrayDeque<Ticket>> clients = waiting.get(ticket.priority);
+            ArrayDeque<Ticket> tickets = clients.get(client);
+            if (tickets != null && tickets.remove(ticket)) {
+                queued--;
+                if (tickets.isEmpty()) {
+                    clients.remove(client);
+                }
+            }
+        }
+
+        Map<String, Object> stats() {
+            lock.lock();
+            try {
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("limit", limit());
+                stats.put("running", running);
+                stats.put("queued", queued);
+                stats.put("rejected", rejected);
+                stats.put("timedOut", timedOut);
+                Map<String, Object> priorities = new LinkedHashMap<>();
+                for (LlmPriority priority : LlmPriority.values()) {
+                    Map<String, Object> entry = waitStats.get(priority).snapshot();
+                    entry.put("queued", waiting.get(priority).values().stream().mapToInt(ArrayDeque::size).sum());
+                    entry.put("clients", waiting.get(priority).size());
+                    priorities.put(priority.name(), entry);
+                }
+                stats.put("priorities", priorities);
+                return stats;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Ring of recent queue-wait samples; guarded by the owning queue's lock.
+     */
+    private static final class WaitStats {
+
+        private final long[] samples;
+        private long count;
+
+        WaitStats(int size) {
+            this.samples = new long[Math.max(1, size)];
+        }
+
+        void record(long waitNanos) {
+            samples[(int) (count++ % samples.length)] = waitNanos;
+        }
+
+        Map<String, Object> snapshot() {
+            int n = (int) Math.min(count, samples.length);
+            long[] sorted = Arrays.copyOf(samples, n);
+            Arrays.sort(sorted);
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("dispatched", count);
+            snapshot.put("waitP50Ms", percentileMillis(sorted, 0.50));
+            snapshot.put("waitP99Ms", percentileMillis(sorted, 0.99));
+            snapshot.put("waitMaxMs", n == 0 ? 0.0 : sorted[n - 1] / 1_000_000.0);
+            return snapshot;
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates capture journals for MCP sessions and lists the ones on disk.
+ */
+@Component
+public class McpCaptureService {
+
+    static final String JOURNAL_EXTENSION = ".mcpj";
+
+    private final Path directory;
+    private final Set<String> autoCaptureServers;
+
+    public McpCaptureService(@Value("${mcp.capture.directory:./captures}") String directory,
+            @Value("${mcp.capture.servers:}") List<String> autoCaptureServers) {
+        this.directory = Path.of(directory);
+        this.autoCaptureServers = Set.copyOf(autoCaptureServers);
+    }
+
+    /**
+     * Whether new sessions for this server should start capturing immediately.
+     */
+    public boolean isAutoCapture(String serverName) {
+        return autoCaptureServers.contains(serverName);
+    }
+
+    public McpJournalWriter open(String serverName) {
+        try {
+            Files.createDirectories(directory);
+            Path path = directory.resolve(serverName + "-" + Instant.now().toEpochMilli() + JOURNAL_EXTENSION);
+            return new McpJournalWriter(path, serverName);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create MCP journal for " + serverName, ex);
+        }
+    }
+
+    public List<Path> listJournals() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(path -> path.getFileName().toString().endsWith(JOURNAL_EXTENSION))
+                .sorted()
+                .toList();
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("Failed to list MCP journals in " + directory, ex);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
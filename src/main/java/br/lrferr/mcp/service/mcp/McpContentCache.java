@@ -0,0 +1,169 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import br.lrferr.mcp.config.ContentCacheProperties;
+
+/**
+ * LRU cache of MCP resource and prompt results bounded by their serialized
+ * size. Keys start with the server name and {@code |}. Entries belong to the
+ * session they were read from: once a server's session is replaced, its
+ * entries no longer match and are refetched.
+ */
+@Component
+public class McpContentCache {
+
+    private final ContentCacheProperties properties;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, AtomicLong> epochs = new ConcurrentHashMap<>();
+
+    private long bytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public McpContentCache(ContentCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    private record Entry(McpSession session, JsonNode value, long bytes, long expiresAtNanos) {
+    }
+
+    public Optional<JsonNode> get(String key, McpSession session) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.session() == session && entry.expiresAtNanos() - System.nanoTime() > 0) {
+                hits.incrementAndGet();
+                return Optional.of(entry.value());
+            }
+            if (entry != null) {
+                remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Counter bumped by every invalidation of a server's entries. Read it before
+     * fetching and pass it to {@link #put} so a result that raced with a change
+     * notification is not cached.
+     */
+    public long epoch(String serverName) {
+        return epochs.computeIfAbsent(serverName, name -> new AtomicLong()).get();
+    }
+
+    public void put(String key, McpSession session, JsonNode value, Duration ttl, long epoch) {
+        if (!properties.isEnabled() || value == null || epoch(serverOf(key)) != epoch) {
+            return;
+        }
+        long size = value.toString().getBytes(StandardCharsets.UTF_8).length;
+        if (size > properties.getMaxEntrySize().toBytes()) {
+            return;
+        }
+        synchronized (entries) {
+            remove(key);
+            entries.put(key, new Entry(session, value, size, System.nanoTime() + ttl.toNanos()));
+            bytes += size;
+            long maxBytes = properties.getMaxSize().toBytes();
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Entry> next = eldest.next();
+                bytes -= next.getValue().bytes();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidate(String key) {
+        bump(serverOf(key));
+        synchronized (entries) {
+            if (remove(key)) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drops every entry whose key starts with {@code prefix} and returns how
+     * many were removed.
+     */
+    public int invalidatePrefix(String prefix) {
+        bump(serverOf(prefix));
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Entry> next = it.next();
+                if (next.getKey().startsWith(prefix)) {
+                    bytes -= next.getValue().bytes();
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        invalidations.addAndGet(removed);
+        return removed;
+    }
+
+    public void clear() {
+        epochs.values().forEach(AtomicLong::incrementAndGet);
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    private void bump(String serverName) {
+        epochs.computeIfAbsent(serverName, name -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static String serverOf(String key) {
+        int separator = key.indexOf('|');
+        return separator < 0 ? key : key.substring(0, separator);
+    }
+
+    // Caller holds the lock.
+    private boolean remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.bytes();
+            return true;
+        }
+        return false;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("enabled", properties.isEnabled());
+            stats.put("entries", entries.size());
+            stats.put("bytes", bytes);
+            stats.put("maxBytes", properties.getMaxSize().toBytes());
+        }
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : hitCount / (double) (hitCount + missCount));
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+}
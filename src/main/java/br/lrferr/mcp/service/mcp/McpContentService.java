@@ -0,0 +1,142 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.config.ContentCacheProperties;
+
+/**
+ * Access to the {@code resources/*} and {@code prompts/*} capabilities of MCP
+ * servers through {@link McpContentCache}. Read resources are subscribed to
+ * when the server supports it, and cached entries are dropped as soon as the
+ * server reports a change, so cached data is never stale for such servers.
+ */
+@Component
+public class McpContentService {
+
+    private static final Logger log = LoggerFactory.getLogger(McpContentService.class);
+
+    private final McpSessionManager sessionManager;
+    private final McpContentCache cache;
+    private final ContentCacheProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public McpContentService(McpSessionManager sessionManager, McpContentCache cache,
+            ContentCacheProperties properties, ObjectMapper objectMapper) {
+        this.sessionManager = sessionManager;
+        this.cache = cache;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        sessionManager.addNotificationListener(this::onNotification);
+    }
+
+    /**
+     * A result and whether it was served from the cache.
+     */
+    public record Result(JsonNode value, boolean cached) {
+    }
+
+    public Result listResources(String serverName, String cursor) {
+        McpSession session = sessionManager.getOrCreateSession(serverName);
+        ObjectNode params = objectMapper.createObjectNode();
+        if (cursor != null) {
+            params.put("cursor", cursor);
+        }
+        boolean notified = session.getServerCapabilities().path("resources").path("listChanged").asBoolean(false);
+        return fetch(session, key(serverName, "resources/list", cursor), "resources/list", params, notified);
+    }
+
+    public Result readResource(String serverName, String uri) {
+        McpSession session = sessionManager.getOrCreateSession(serverName);
+        boolean notified = session.getServerCapabilities().path("resources").path("subscribe").asBoolean(false)
+            && subscribe(session, uri);
+        ObjectNode params = objectMapper.createObjectNode();
+        params.put("uri", uri);
+        return fetch(session, key(serverName, "resources/read", uri), "resources/read", params, notified);
+    }
+
+    public Result listPrompts(String serverName, String cursor) {
+        McpSession session = sessionManager.getOrCreateSession(serverName);
+        ObjectNode params = objectMapper.createObjectNode();
+        if (cursor != null) {
+            params.put("cursor", cursor);
+        }
+        boolean notified = session.getServerCapabilities().path("prompts").path("listChanged").asBoolean(false);
+        return fetch(session, key(serverName, "prompts/list", cursor), "prompts/list", params, notified);
+    }
+
+    public Result getPrompt(String serverName, String name, JsonNode arguments) {
+        McpSession session = sessionManager.getOrCreateSession(serverName);
+        ObjectNode params = objectMapper.createObjectNode();
+        params.put("name", name);
+        if (arguments != null && !arguments.isNull()) {
+            params.set("arguments", arguments);
+        }
+        // Prompt templates change only with the prompt list, so they share its notifications.
+        boolean notified = session.getServerCapabilities().path("prompts").path("listChanged").asBoolean(false);
+        String argumentsKey = arguments == null ? "" : arguments.toString();
+        return fetch(session, key(serverName, "prompts/get", name + "|" + argumentsKey), "prompts/get", params,
+            notified);
+    }
+
+    public void invalidate(String serverName) {
+        cache.invalidatePrefix(serverName + "|");
+    }
+
+    private Result fetch(McpSession session, String key, String method, JsonNode params, boolean notified) {
+        Optional<JsonNode> cached = cache.get(key, session);
+        if (cached.isPresent()) {
+            return new Result(cached.get(), true);
+        }
+        long epoch = cache.epoch(session.getServerName());
+        JsonNode result = session.callMethodSync(method, params).get("result");
+        Duration ttl = notified ? properties.getNotifiedTtl() : properties.getUnnotifiedTtl();
+        cache.put(key, session, result, ttl, epoch);
+        return new Result(result, false);
+    }
+
+    // Subscribes before the read so an update between the two is not missed.
+    private boolean subscribe(McpSession session, String uri) {
+        if (!session.markSubscribed(uri)) {
+            return true;
+        }
+        ObjectNode params = objectMapper.createObjectNode();
+        params.put("uri", uri);
+        try {
+            session.callMethodSync("resources/subscribe", params);
+            return true;
+        }
+        catch (McpProtocolException ex) {
+            session.unmarkSubscribed(uri);
+            log.warn("Failed to subscribe to {} on {}: {}", uri, session.getServerName(), ex.getMessage());
+            return false;
+        }
+    }
+
+    private void onNotification(String serverName, JsonNode message) {
+        String method = message.path("method").asText();
+        switch (method) {
+            case "notifications/resources/updated" -> {
+                String uri = message.path("params").path("uri").asText();
+                cache.invalidate(key(serverName, "resources/read", uri));
+                log.debug("Resource {} on {} updated", uri, serverName);
+            }
+            case "notifications/resources/list_changed" -> cache.invalidatePrefix(serverName + "|resources/list|");
+            case "notifications/prompts/list_changed" -> cache.invalidatePrefix(serverName + "|prompts/");
+            default -> {
+            }
+        }
+    }
+
+    private static String key(String serverName, String method, String argument) {
+        return serverName + "|" + method + "|" + (argument == null ? "" : argument);
+    }
+}
@@ -1,6 +1,7 @@
 package br.lrferr.mcp.service.mcp;
 
 import java.io.IOException;
+import java.time.Duration;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -19,12 +20,15 @@ public final class McpHandshake {
         ObjectNode params = mapper.createObjectNode();
         params.set("capabilities", clientCapabilities == null ? mapper.createObjectNode() : clientCapabilities);
 
+        long start = System.nanoTime();
         JsonNode response = session.callMethodSync("initialize", params);
         if (response.has("error")) {
             throw new McpProtocolException("MCP initialize failed: " + response.get("error"));
         }
+        session.setServerCapabilities(response.path("result").path("capabilities"));
 
         session.callMethodSync("initialized", mapper.createObjectNode());
+        session.setHandshakeDuration(Duration.ofNanos(System.nanoTime() - start));
     }
 }
 
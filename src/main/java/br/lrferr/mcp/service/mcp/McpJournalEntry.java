@@ -0,0 +1,19 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One captured MCP frame. {@code nanos} is relative to the start of the
+ * journal.
+ */
+public record McpJournalEntry(Direction direction, long nanos, byte[] payload) {
+
+    public enum Direction {
+        OUT,
+        IN
+    }
+
+    public String payloadAsString() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
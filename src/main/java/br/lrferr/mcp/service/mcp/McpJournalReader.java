@@ -0,0 +1,138 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads journals produced by {@link McpJournalWriter}. A last record cut short
+ * at the end of the file (e.g. after a crash), in its header or its payload,
+ * ends the journal instead of failing; a header with an unknown direction or a
+ * negative length fails with an {@link IOException} naming its offset.
+ */
+public class McpJournalReader implements Closeable {
+
+    private final DataInputStream in;
+    private final CountingInputStream counter;
+    private final long size;
+    private final Instant startedAt;
+    private final String serverName;
+
+    public McpJournalReader(Path path) throws IOException {
+        this.size = Files.size(path);
+        this.counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024));
+        this.in = new DataInputStream(counter);
+        if (in.readInt() != McpJournalWriter.MAGIC) {
+            in.close();
+            throw new McpProtocolException("Not an MCP journal: " + path);
+        }
+        int version = in.readUnsignedByte();
+        if (version != McpJournalWriter.VERSION) {
+            in.close();
+            throw new McpProtocolException("Unsupported MCP journal version " + version + ": " + path);
+        }
+        this.startedAt = Instant.ofEpochMilli(in.readLong());
+        this.serverName = in.readUTF();
+    }
+
+    /**
+     * Returns the next entry, or {@code null} at the end of the journal.
+     */
+    public McpJournalEntry next() throws IOException {
+        long offset = counter.getCount();
+        int direction;
+        long nanos;
+        int length;
+        try {
+            direction = in.readUnsignedByte();
+            nanos = in.readLong();
+            length = in.readInt();
+        }
+        catch (EOFException ex) {
+            return null;
+        }
+        McpJournalEntry.Direction[] directions = McpJournalEntry.Direction.values();
+        if (direction >= directions.length) {
+            throw new IOException("corrupt journal at offset " + offset + ": unknown direction " + direction);
+        }
+        if (length < 0) {
+            throw new IOException("corrupt journal at offset " + offset + ": negative payload length " + length);
+        }
+        // Checked before allocating, so a torn last record cannot ask for gigabytes either.
+        if (length > size - counter.getCount()) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new McpJournalEntry(directions[direction], nanos, payload);
+    }
+
+    public List<McpJournalEntry> readAll() throws IOException {
+        List<McpJournalEntry> entries = new ArrayList<>();
+        McpJournalEntry entry;
+        while ((entry = next()) != null) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
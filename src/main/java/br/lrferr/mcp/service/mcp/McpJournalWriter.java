@@ -0,0 +1,94 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only binary journal of the frames exchanged with one MCP server.
+ * <p>
+ * Layout: a header ({@code MCPJ} magic, format version, capture start as epoch
+ * millis, server name) followed by records of direction byte, nanoseconds since
+ * capture start, payload length and the raw JSON payload.
+ */
+public class McpJournalWriter implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(McpJournalWriter.class);
+
+    static final int MAGIC = 0x4D43504A; // "MCPJ"
+    static final int VERSION = 1;
+
+    private final Path path;
+    private final String serverName;
+    private final DataOutputStream out;
+    private final long startNanos;
+
+    private long entries;
+    private boolean closed;
+
+    public McpJournalWriter(Path path, String serverName) throws IOException {
+        this.path = path;
+        this.serverName = serverName;
+        this.out = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), 64 * 1024));
+        this.startNanos = System.nanoTime();
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(Instant.now().toEpochMilli());
+        out.writeUTF(serverName);
+        out.flush();
+    }
+
+    /**
+     * Appends a frame. Failures are logged and swallowed so capture never breaks
+     * the live session.
+     */
+    public synchronized void append(McpJournalEntry.Direction direction, byte[] payload) {
+        if (closed) {
+            return;
+        }
+        try {
+            out.writeByte(direction.ordinal());
+            out.writeLong(System.nanoTime() - startNanos);
+            out.writeInt(payload.length);
+            out.write(payload);
+            entries++;
+            if (direction == McpJournalEntry.Direction.IN) {
+                // Responses end an exchange; flushing here keeps the journal usable after a crash.
+                out.flush();
+            }
+        }
+        catch (IOException ex) {
+            log.warn("Failed to append to MCP journal {} for {}: {}", path, serverName, ex.getMessage());
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    public synchronized long getEntries() {
+        return entries;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        out.close();
+    }
+}
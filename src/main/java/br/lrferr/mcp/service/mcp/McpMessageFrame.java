@@ -8,6 +8,8 @@ import java.nio.charset.StandardCharsets;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import br.lrferr.mcp.service.jfr.McpFrameEvent;
+
 /**
  * Handles Model Context Protocol message framing using Content-Length headers.
  */
@@ -17,28 +19,69 @@ public class McpMessageFrame {
     private static final String HEADER_DELIMITER = "\r\n\r\n";
 
     private final ObjectMapper objectMapper;
+    private final String serverName;
+    private final McpTrafficStats traffic;
+
+    // Reads block until the server sends something, so they must not hold the write lock.
+    private final Object readLock = new Object();
+    private final Object writeLock = new Object();
+
+    private volatile McpJournalWriter journal;
 
     public McpMessageFrame(ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
+
+    public McpMessageFrame(ObjectMapper objectMapper, String serverName) {
+        this(objectMapper, serverName, null);
+    }
+
+    public McpMessageFrame(ObjectMapper objectMapper, String serverName, McpTrafficStats traffic) {
         this.objectMapper = objectMapper;
+        this.serverName = serverName;
+        this.traffic = traffic;
     }
 
     /**
      * Writes a JSON RPC message with proper MCP framing to the given writer.
      */
-    public synchronized void write(Writer writer, JsonNode message) throws IOException {
+    public void write(Writer writer, JsonNode message) throws IOException {
+        McpFrameEvent event = new McpFrameEvent();
+        event.begin();
         byte[] payload = objectMapper.writeValueAsBytes(message);
-        writer.write(CONTENT_LENGTH + ": " + payload.length + "\r\n\r\n");
-        writer.write(new String(payload, StandardCharsets.UTF_8));
-        writer.flush();
+        synchronized (writeLock) {
+            writer.write(CONTENT_LENGTH + ": " + payload.length + "\r\n\r\n");
+            writer.write(new String(payload, StandardCharsets.UTF_8));
+            writer.flush();
+            McpJournalWriter current = journal;
+            if (current != null) {
+                current.append(McpJournalEntry.Direction.OUT, payload);
+            }
+        }
+        if (traffic != null) {
+            traffic.recordOut(payload.length);
+        }
+        commit(event, "OUT", payload.length);
     }
 
     /**
      * Reads a framed JSON RPC message from the given reader.
      */
-    public synchronized JsonNode read(BufferedReader reader) throws IOException {
+    public JsonNode read(BufferedReader reader) throws IOException {
+        synchronized (readLock) {
+            return readFrame(reader);
+        }
+    }
+
+    private JsonNode readFrame(BufferedReader reader) throws IOException {
+        McpFrameEvent event = new McpFrameEvent();
         StringBuilder headerBuilder = new StringBuilder();
         int ch;
         while ((ch = reader.read()) != -1) {
+            if (headerBuilder.length() == 0) {
+                // Start timing at the first byte so idle time between messages is not counted.
+                event.begin();
+            }
             headerBuilder.append((char) ch);
             if (headerBuilder.toString().endsWith(HEADER_DELIMITER)) {
                 break;
@@ -62,7 +105,38 @@ public class McpMessageFrame {
             read += result;
         }
 
-        return objectMapper.readTree(new String(body));
+        String payload = new String(body);
+        McpJournalWriter current = journal;
+        if (current != null) {
+            current.append(McpJournalEntry.Direction.IN, payload.getBytes(StandardCharsets.UTF_8));
+        }
+        JsonNode message = objectMapper.readTree(payload);
+        if (traffic != null) {
+            traffic.recordIn(contentLength);
+        }
+        commit(event, "IN", contentLength);
+        return message;
+    }
+
+    /**
+     * Starts or stops (with {@code null}) copying every frame to a journal.
+     */
+    public void setJournal(McpJournalWriter journal) {
+        this.journal = journal;
+    }
+
+    public McpJournalWriter getJournal() {
+        return journal;
+    }
+
+    private void commit(McpFrameEvent event, String direction, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.server = serverName;
+            event.direction = direction;
+            event.bytes = bytes;
+            event.commit();
+        }
     }
 
     private int parseContentLength(String headers) {
@@ -0,0 +1,41 @@
+package br.lrferr.mcp.service.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Receives the notifications a server emits while working on one
+ * {@code tools/call}, and the streamed answer when the query turns out not to
+ * need a tool. Progress and log notifications are delivered in order on a
+ * dispatcher thread, not the session's reader, so a listener that blocks only
+ * delays (and, once far enough behind, loses) its own notifications.
+ */
+public interface McpProgressListener {
+
+    /**
+     * Called once the request is sent, with the id that cancels it; a cancel
+     * from this point on reaches the server.
+     */
+    default void started(String requestId) {
+    }
+
+    /**
+     * Params of a {@code notifications/progress} carrying this call's progress
+     * token.
+     */
+    void progress(JsonNode params);
+
+    /**
+     * Params of a {@code notifications/message} log entry tagged with this
+     * call's progress token, or untagged while it was the only call in flight,
+     * e.g. partial rows.
+     */
+    default void message(JsonNode params) {
+    }
+
+    /**
+     * A chunk of the model's answer to a general prompt, as it is generated.
+     * Called on the LLM client's thread rather than the session's, in order.
+     */
+    default void token(String text) {
+    }
+}
@@ -0,0 +1,198 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Stub MCP server that answers requests from a captured journal, reproducing
+ * the recorded responses and response times. Point an {@code mcp.json} entry at
+ * it to replay production traffic without a database:
+ *
+ * <pre>
+ * "oracle-replay": {
+ *   "command": "java",
+ *   "args": ["-cp", "target/mcp-orchestrator-0.0.1-SNAPSHOT.jar",
+ *            "-Dloader.main=br.lrferr.mcp.service.mcp.McpReplayServer",
+ *            "org.springframework.boot.loader.launch.PropertiesLauncher",
+ *            "./captures/oracle-monitor-1736937000000.mcpj", "--speed=1.0"]
+ * }
+ * </pre>
+ *
+ * Requests are matched to recorded exchanges by method and parameters (ignoring
+ * {@code _meta}), falling back to the next unused exchange with the same
+ * method. Unsolicited notifications in the journal are not replayed.
+ */
+public final class McpReplayServer {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final McpMessageFrame messageFrame = new McpMessageFrame(objectMapper, "replay");
+    private final Map<String, Deque<Exchange>> byParams = new HashMap<>();
+    private final Map<String, Deque<Exchange>> byMethod = new HashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+    private final double speed;
+
+    private McpReplayServer(List<McpJournalEntry> entries, double speed) throws IOException {
+        this.speed = speed;
+        index(entries);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: McpReplayServer <journal.mcpj> [--speed=1.0]");
+            System.exit(2);
+        }
+        double speed = 1.0;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--speed=")) {
+                speed = Double.parseDouble(args[i].substring("--speed=".length()));
+            }
+        }
+        List<McpJournalEntry> entries;
+        try (McpJournalReader reader = new McpJournalReader(Path.of(args[0]))) {
+            entries = reader.readAll();
+            System.err.printf("Replaying %d frames captured from %s at %s (speed %.2fx)%n", entries.size(),
+                reader.getServerName(), reader.getStartedAt(), speed);
+        }
+        new McpReplayServer(entries, speed).serve();
+    }
+
+    private void index(List<McpJournalEntry> entries) throws IOException {
+        Map<String, McpJournalEntry> requests = new HashMap<>();
+        Map<String, JsonNode> requestNodes = new HashMap<>();
+        for (McpJournalEntry entry : entries) {
+            JsonNode node = objectMapper.readTree(entry.payload());
+            if (!node.has("id")) {
+                continue;
+            }
+            String id = node.get("id").asText();
+            if (entry.direction() == McpJournalEntry.Direction.OUT) {
+                requests.put(id, entry);
+                requestNodes.put(id, node);
+                continue;
+            }
+            McpJournalEntry request = requests.remove(id);
+            if (request == null) {
+                continue;
+            }
+            JsonNode requestNode = requestNodes.remove(id);
+            String method = requestNode.path("method").asText();
+            Exchange exchange = new Exchange(node, entry.nanos() - request.nanos());
+            byParams.computeIfAbsent(paramsKey(method, requestNode.get("params")), key -> new ArrayDeque<>())
+                .add(exchange);
+            byMethod.computeIfAbsent(method, key -> new ArrayDeque<>()).add(exchange);
+        }
+    }
+
+    private void serve() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try {
+            while (true) {
+                JsonNode request = messageFrame.read(reader);
+                if (!request.has("id")) {
+                    continue;
+                }
+                respond(writer, request);
+            }
+        }
+        catch (McpProtocolException ex) {
+            System.err.println("Replay input closed: " + ex.getMessage());
+        }
+        finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private void respond(BufferedWriter writer, JsonNode request) {
+        String method = request.path("method").asText();
+        Exchange exchange = take(method, request.get("params"));
+        ObjectNode response;
+        long delayNanos;
+        if (exchange == null) {
+            response = objectMapper.createObjectNode();
+            response.put("jsonrpc", "2.0");
+            ObjectNode error = response.putObject("error");
+            error.put("code", -32601);
+            error.put("message", "No recorded response for method " + method);
+            delayNanos = 0;
+        }
+        else {
+            response = exchange.response().deepCopy();
+            delayNanos = (long) (exchange.latencyNanos() / speed);
+        }
+        response.set("id", request.get("id"));
+        scheduler.schedule(() -> {
+            try {
+                messageFrame.write(writer, response);
+            }
+            catch (IOException ex) {
+                System.err.println("Failed to write replayed response: " + ex.getMessage());
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized Exchange take(String method, JsonNode params) {
+        Exchange exchange = poll(byParams.get(paramsKey(method, params)));
+        return exchange != null ? exchange : poll(byMethod.get(method));
+    }
+
+    private static Exchange poll(Deque<Exchange> queue) {
+        if (queue == null) {
+            return null;
+        }
+        Exchange exchange;
+        while ((exchange = queue.poll()) != null) {
+            if (!exchange.used) {
+                exchange.used = true;
+                return exchange;
+            }
+        }
+        return null;
+    }
+
+    private static String paramsKey(String method, JsonNode params) {
+        if (params instanceof ObjectNode object && object.has("_meta")) {
+            ObjectNode copy = object.deepCopy();
+            copy.remove("_meta");
+            params = copy;
+        }
+        return method + "|" + (params != null ? params.toString() : "");
+    }
+
+    private static final class Exchange {
+
+        private final ObjectNode response;
+        private final long latencyNanos;
+        private boolean used;
+
+        Exchange(JsonNode response, long latencyNanos) {
+            this.response = (ObjectNode) response;
+            this.latencyNanos = latencyNanos;
+        }
+
+        ObjectNode response() {
+            return response;
+        }
+
+        long latencyNanos() {
+            return latencyNanos;
+        }
+    }
+}
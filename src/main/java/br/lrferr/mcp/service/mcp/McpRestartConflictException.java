@@ -0,0 +1,15 @@
+package br.lrferr.mcp.service.mcp;
+
+/**
+ * Thrown when a rolling restart cannot swap in its replacement because the
+ * server was stopped or replaced while the replacement was starting. The
+ * replacement has been discarded.
+ */
+public class McpRestartConflictException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public McpRestartConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,172 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.stereotype.Component;
+
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
+import br.lrferr.mcp.service.mcp.McpSession.InFlightCall;
+
+/**
+ * Snapshot of servers, their sessions and in-flight calls, assembled from the
+ * counters the sessions keep anyway. Nothing is locked and no process is
+ * queried, so it is cheap enough to poll every second.
+ */
+@Component
+public class McpRuntimeInspector {
+
+    private static final int MAX_STACK_FRAMES = 32;
+
+    private final McpProcessManagerService processManagerService;
+    private final McpSessionManager sessionManager;
+
+    public McpRuntimeInspector(McpProcessManagerService processManagerService, McpSessionManager sessionManager) {
+        this.processManagerService = processManagerService;
+        this.sessionManager = sessionManager;
+    }
+
+    public Map<String, Object> getRuntime() {
+        Instant now = Instant.now();
+        Map<String, RunningServer> running = processManagerService.getRunningServers();
+        Map<String, McpSession> sessions = sessionManager.getActiveSessions();
+        Map<String, McpSession> hedgeSessions = sessionManager.getHedgeSessions();
+
+        TreeSet<String> names = new TreeSet<>(running.keySet());
+        names.addAll(sessions.keySet());
+        names.addAll(hedgeSessions.keySet());
+
+        List<Map<String, Object>> servers = new ArrayList<>();
+        int sessionCount = 0;
+        int pending = 0;
+        long oldestPendingMs = 0;
+        for (String name : names) {
+            RunningServer server = running.get(name);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("serverName", name);
+            entry.put("status", server == null ? "STOPPED" : server.process().isAlive() ? "RUNNING" : "EXITED");
+            if (server != null) {
+                entry.put("pid", server.process().pid());
+                entry.put("startedAt", server.startedAt().toString());
+                entry.put("uptimeMs", Duration.between(server.startedAt(), now).toMillis());
+            }
+            List<Map<String, Object>> sessionEntries = new ArrayList<>();
+            McpSession primary = sessions.get(name);
+            if (primary != null) {
+                sessionEntries.add(describe(primary, "primary", now));
+            }
+            McpSession hedge = hedgeSessions.get(name);
+            if (hedge != null) {
+                sessionEntries.add(describe(hedge, "hedge", now));
+            }
+            for (Map<String, Object> sessionEntry : sessionEntries) {
+                sessionCount++;
+                pending += (Integer) sessionEntry.get("pendingRequests");
+                oldestPendingMs = Math.max(oldestPendingMs, (Long) sessionEntry.get("oldestPendingMs"));
+            }
+            entry.put("sessions", sessionEntries);
+            servers.add(entry);
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("servers", servers.size());
+        totals.put("sessions", sessionCount);
+        totals.put("pendingRequests", pending);
+        totals.put("oldestPendingMs", oldestPendingMs);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", now.toString());
+        result.put("totals", totals);
+        result.put("servers", servers);
+        return result;
+    }
+
+    private static Map<String, Object> describe(McpSession session, String role, Instant now) {
+        List<InFlightCall> calls = session.getInFlightCalls();
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("role", role);
+        entry.put("pid", session.getPid());
+        entry.put("alive", session.isAlive());
+        entry.put("createdAt", session.getCreatedAt().toString());
+        Duration handshake = session.getHandshakeDuration();
+        entry.put("handshakeMs", handshake != null ? handshake.toMillis() : null);
+        entry.put("lastInteraction", session.getLastInteraction().toString());
+        entry.put("idleMs", Duration.between(session.getLastInteraction(), now).toMillis());
+        entry.put("pendingRequests", session.getPendingCount());
+        entry.put("oldestPendingMs", calls.isEmpty() ? 0L : calls.get(0).age().toMillis());
+        Thread listener = session.getListenerThread();
+        if (listener != null) {
+            entry.put("listenerThread", Map.of(
+                "name", listener.getName(),
+                "state", listener.getState().name()));
+        }
+        entry.put("traffic", session.getTraffic().toMap());
+        return entry;
+    }
+
+    /**
+     * In-flight calls pending for at least {@code olderThan}, oldest first, each
+     * with the state of the thread that sent it and, with {@code stacks}, that
+     * thread's stack.
+     */
+    public Map<String, Object> getStuckCalls(Duration olderThan, boolean stacks) {
+        List<Map<String, Object>> stuck = new ArrayList<>();
+        collectStuck(sessionManager.getActiveSessions(), "primary", olderThan, stacks, stuck);
+        collectStuck(sessionManager.getHedgeSessions(), "hedge", olderThan, stacks, stuck);
+        stuck.sort((a, b) -> Long.compare((Long) b.get("ageMs"), (Long) a.get("ageMs")));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("olderThanMs", olderThan.toMillis());
+        result.put("count", stuck.size());
+        result.put("calls", stuck);
+        return result;
+    }
+
+    private static void collectStuck(Map<String, McpSession> sessions, String role, Duration olderThan,
+            boolean stacks, List<Map<String, Object>> stuck) {
+        sessions.forEach((name, session) -> {
+            for (InFlightCall call : session.getInFlightCalls()) {
+                Duration age = call.age();
+                if (age.compareTo(olderThan) < 0) {
+                    // Sorted oldest first, so the rest are younger.
+                    break;
+                }
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("serverName", name);
+                entry.put("role", role);
+                entry.put("pid", session.getPid());
+                entry.put("requestId", call.requestId());
+                entry.put("method", call.method());
+                if (call.tool() != null) {
+                    entry.put("tool", call.tool());
+                }
+                entry.put("sentAt", call.sentAt().toString());
+                entry.put("ageMs", age.toMillis());
+                entry.put("caller", describe(call.caller(), stacks));
+                stuck.add(entry);
+            }
+        });
+    }
+
+    private static Map<String, Object> describe(Thread thread, boolean stacks) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", thread.getName());
+        entry.put("id", thread.getId());
+        entry.put("state", thread.getState().name());
+        if (stacks) {
+            entry.put("stack", Arrays.stream(thread.getStackTrace())
+                .limit(MAX_STACK_FRAMES)
+                .map(StackTraceElement::toString)
+                .toList());
+        }
+        return entry;
+    }
+}
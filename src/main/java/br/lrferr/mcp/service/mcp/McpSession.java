@@ -6,11 +6,28 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +37,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import br.lrferr.mcp.model.McpServerConfig;
+import br.lrferr.mcp.service.jfr.McpRequestEvent;
+import br.lrferr.mcp.service.jfr.McpSyncWaitEvent;
 
 /**
  * Represents a session with a running MCP server using JSON-RPC over stdio
@@ -29,6 +48,17 @@ public class McpSession {
 
     private static final Logger log = LoggerFactory.getLogger(McpSession.class);
 
+    private static final int MAX_PENDING_NOTIFICATIONS = 256;
+
+    private static final AtomicInteger PROGRESS_THREADS = new AtomicInteger();
+
+    // Runs progress listeners off the reader thread; at most one task per listener at a time.
+    private static final Executor PROGRESS_DISPATCHER = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-progress-" + PROGRESS_THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final String serverName;
     private final Process process;
     private final BufferedReader reader;
@@ -37,8 +67,17 @@ public class McpSession {
     private final McpMessageFrame messageFrame;
 
     private final Map<String, CompletableFuture<JsonNode>> pendingRequests = new ConcurrentHashMap<>();
+    private final Set<String> subscribedResources = ConcurrentHashMap.newKeySet();
+    private final Map<String, ProgressOutbox> progressListeners = new ConcurrentHashMap<>();
+    private final Map<String, InFlightCall> inFlightCalls = new ConcurrentHashMap<>();
+    private final McpTrafficStats traffic = new McpTrafficStats();
+    private final Instant createdAt = Instant.now();
 
+    private volatile Thread listenerThread;
+    private volatile Duration handshakeDuration;
     private volatile Instant lastInteraction = Instant.now();
+    private volatile JsonNode serverCapabilities;
+    private volatile Consumer<JsonNode> notificationHandler;
 
     public McpSession(String serverName, Process process, ObjectMapper objectMapper) {
         this.serverName = serverName;
@@ -46,7 +85,7 @@ public class McpSession {
         this.objectMapper = objectMapper;
         this.reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
         this.writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
-        this.messageFrame = new McpMessageFrame(objectMapper);
+        this.messageFrame = new McpMessageFrame(objectMapper, serverName, traffic);
 
         startListenerThread();
     }
@@ -59,12 +98,14 @@ public class McpSession {
                     handleIncomingMessage(message);
                 }
             }
-            catch (IOException ex) {
+            catch (IOException | McpProtocolException ex) {
                 log.warn("MCP session listener stopped for {}: {}", serverName, ex.getMessage());
             }
+            failPending("MCP server " + serverName + " closed its output");
         });
         listener.setName("mcp-session-" + serverName);
         listener.setDaemon(true);
+        listenerThread = listener;
         listener.start();
     }
 
@@ -78,11 +119,123 @@ public class McpSession {
                 return;
             }
         }
-        log.debug("Received MCP notification from {}: {}", serverName, message);
+        // Notifications are recorded, sampled, in the event log; logging each one here costs the reader thread.
+        log.trace("Received MCP notification from {}: {}", serverName, message);
+        if (routeProgress(message)) {
+            return;
+        }
+        Consumer<JsonNode> handler = notificationHandler;
+        if (handler != null && message.has("method")) {
+            try {
+                handler.accept(message);
+            }
+            catch (RuntimeException ex) {
+                log.warn("MCP notification handler failed for {}: {}", serverName, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Delivers progress notifications to the call that owns their token, and log
+     * messages to the call named in {@code _meta}. A log message without a token
+     * goes to the only call in flight, if there is exactly one, since a stdio
+     * server cannot otherwise attribute it; with several it is not delivered to
+     * any, so one client never sees another's rows. Log messages still reach
+     * the notification handler.
+     */
+    private boolean routeProgress(JsonNode message) {
+        String method = message.path("method").asText();
+        JsonNode params = message.path("params");
+        if ("notifications/progress".equals(method)) {
+            ProgressOutbox outbox = progressListeners.get(params.path("progressToken").asText());
+            if (outbox != null) {
+                outbox.offer(listener -> listener.progress(params));
+                return true;
+            }
+        }
+        else if ("notifications/message".equals(method) && !progressListeners.isEmpty()) {
+            String token = params.path("_meta").path("progressToken").asText(null);
+            ProgressOutbox outbox = token != null ? progressListeners.get(token) : onlyProgressListener();
+            if (outbox != null) {
+                outbox.offer(listener -> listener.message(params));
+            }
+        }
+        return false;
+    }
+
+    private ProgressOutbox onlyProgressListener() {
+        Iterator<ProgressOutbox> listeners = progressListeners.values().iterator();
+        ProgressOutbox only = listeners.hasNext() ? listeners.next() : null;
+        return listeners.hasNext() ? null : only;
+    }
+
+    /**
+     * Routes notifications carrying {@code progressToken} to the listener until
+     * {@link #removeProgressListener} is called. The listener is called in
+     * order on a dispatcher thread, never on the reader, so a slow listener
+     * only delays its own notifications; once
+     * {@value #MAX_PENDING_NOTIFICATIONS} are waiting, further ones are dropped.
+     */
+    public void addProgressListener(String progressToken, McpProgressListener listener) {
+        ProgressOutbox previous = progressListeners.put(progressToken, new ProgressOutbox(progressToken, listener));
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Stops routing to the listener; notifications not delivered yet are
+     * discarded.
+     */
+    public void removeProgressListener(String progressToken) {
+        ProgressOutbox outbox = progressListeners.remove(progressToken);
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    /**
+     * Sets the handler for server-initiated messages, called on the listener
+     * thread.
+     */
+    public void setNotificationHandler(Consumer<JsonNode> notificationHandler) {
+        this.notificationHandler = notificationHandler;
+    }
+
+    void setServerCapabilities(JsonNode serverCapabilities) {
+        this.serverCapabilities = serverCapabilities;
+    }
+
+    /**
+     * Capabilities the server announced in its {@code initialize} response, or an
+     * empty node before the handshake.
+     */
+    public JsonNode getServerCapabilities() {
+        JsonNode capabilities = serverCapabilities;
+        return capabilities != null ? capabilities : objectMapper.createObjectNode();
+    }
+
+    /**
+     * Records a {@code resources/subscribe} for this session. Returns
+     * {@code true} if the URI was not subscribed yet.
+     */
+    public boolean markSubscribed(String uri) {
+        return subscribedResources.add(uri);
+    }
+
+    public void unmarkSubscribed(String uri) {
+        subscribedResources.remove(uri);
     }
 
     public CompletableFuture<JsonNode> callMethod(String method, JsonNode params) {
-        String requestId = UUID.randomUUID().toString();
+        return callMethod(method, params, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Sends a request with a caller-chosen id, so the caller can
+     * {@linkplain #cancel cancel} it.
+     */
+    public CompletableFuture<JsonNode> callMethod(String method, JsonNode params, String requestId) {
         ObjectNode request = objectMapper.createObjectNode();
         request.put("jsonrpc", "2.0");
         request.put("id", requestId);
@@ -91,23 +244,59 @@ public class McpSession {
             request.set("params", params);
         }
 
+        McpRequestEvent event = new McpRequestEvent();
+        event.begin();
+        long queuedAt = System.nanoTime();
+
         CompletableFuture<JsonNode> future = new CompletableFuture<>();
         pendingRequests.put(requestId, future);
+        String tool = "tools/call".equals(method) && params != null ? params.path("name").asText(null) : null;
+        inFlightCalls.put(requestId, new InFlightCall(requestId, method, tool, System.nanoTime(), Instant.now(),
+            Thread.currentThread()));
+        future.whenComplete((response, error) -> inFlightCalls.remove(requestId));
 
         try {
             messageFrame.write(writer, request);
         }
         catch (IOException ex) {
             pendingRequests.remove(requestId);
+            inFlightCalls.remove(requestId);
+            commitRequestEvent(event, method, requestId, System.nanoTime() - queuedAt, 0, "SEND_FAILED");
             throw new McpProtocolException("Failed to send MCP request", ex);
         }
 
+        if (event.isEnabled()) {
+            long sentAt = System.nanoTime();
+            future.whenComplete((response, error) -> {
+                String outcome = error != null ? "FAILED" : response != null && response.has("error") ? "ERROR" : "OK";
+                commitRequestEvent(event, method, requestId, sentAt - queuedAt, System.nanoTime() - sentAt, outcome);
+            });
+        }
+
         return future;
     }
 
+    private void commitRequestEvent(McpRequestEvent event, String method, String requestId, long sendTime,
+            long responseTime, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.server = serverName;
+            event.method = method;
+            event.requestId = requestId;
+            event.sendTime = sendTime;
+            event.responseTime = responseTime;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
     public JsonNode callMethodSync(String method, JsonNode params) {
+        return callMethodSync(method, params, UUID.randomUUID().toString());
+    }
+
+    public JsonNode callMethodSync(String method, JsonNode params, String requestId) {
         try {
-            JsonNode response = callMethod(method, params).join();
+            JsonNode response = awaitResponse(method, callMethod(method, params, requestId));
             if (response != null && response.has("error")) {
                 throw new McpProtocolException("MCP method returned error: " + response.get("error"));
             }
@@ -118,6 +307,176 @@ public class McpSession {
         }
     }
 
+    /**
+     * Waits for the response to a request sent with {@link #callMethod}. A
+     * JSON-RPC error response is returned as is: only getting no response at
+     * all (a closed session, a cancellation) throws.
+     */
+    public JsonNode awaitResponse(String method, CompletableFuture<JsonNode> future) {
+        McpSyncWaitEvent waitEvent = new McpSyncWaitEvent();
+        waitEvent.begin();
+        try {
+            return future.join();
+        }
+        catch (CompletionException ex) {
+            throw new McpProtocolException("MCP method call failed: " + method, ex.getCause());
+        }
+        catch (CancellationException ex) {
+            throw new McpProtocolException("MCP method call failed: " + method, ex);
+        }
+        finally {
+            waitEvent.end();
+            if (waitEvent.shouldCommit()) {
+                waitEvent.server = serverName;
+                waitEvent.method = method;
+                waitEvent.commit();
+            }
+        }
+    }
+
+    /**
+     * Abandons an in-flight request: its future fails with a
+     * {@link CancellationException} and the server is sent
+     * {@code notifications/cancelled} so it can stop working. Returns
+     * {@code false} if the request already completed.
+     */
+    public boolean cancel(String requestId, String reason) {
+        CompletableFuture<JsonNode> future = pendingRequests.remove(requestId);
+        if (future == null) {
+            return false;
+        }
+        ObjectNode notification = objectMapper.createObjectNode();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", "notifications/cancelled");
+        ObjectNode params = notification.putObject("params");
+        params.put("requestId", requestId);
+        params.put("reason", reason);
+        try {
+            messageFrame.write(writer, notification);
+        }
+        catch (IOException ex) {
+            log.warn("Failed to send cancellation of {} to {}: {}", requestId, serverName, ex.getMessage());
+        }
+        future.completeExceptionally(new CancellationException(reason));
+        return true;
+    }
+
+    /**
+     * Starts copying every frame of this session to the given journal, replacing
+     * (and returning) any journal already attached.
+     */
+    public McpJournalWriter startCapture(McpJournalWriter journal) {
+        McpJournalWriter previous = messageFrame.getJournal();
+        messageFrame.setJournal(journal);
+        return previous;
+    }
+
+    /**
+     * Detaches and closes the current journal, if any.
+     */
+    public McpJournalWriter stopCapture() {
+        McpJournalWriter journal = messageFrame.getJournal();
+        messageFrame.setJournal(null);
+        if (journal != null) {
+            try {
+                journal.close();
+            }
+            catch (IOException ex) {
+                log.warn("Failed to close MCP journal for {}: {}", serverName, ex.getMessage());
+            }
+        }
+        return journal;
+    }
+
+    public McpJournalWriter getCapture() {
+        return messageFrame.getJournal();
+    }
+
+    public int getPendingCount() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * Requests sent and not yet answered, oldest first.
+     */
+    public List<InFlightCall> getInFlightCalls() {
+        return inFlightCalls.values().stream()
+            .sorted(Comparator.comparingLong(InFlightCall::sentAtNanos))
+            .toList();
+    }
+
+    public McpTrafficStats getTraffic() {
+        return traffic;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Time the initialize handshake took, or {@code null} before it completed.
+     */
+    public Duration getHandshakeDuration() {
+        return handshakeDuration;
+    }
+
+    void setHandshakeDuration(Duration handshakeDuration) {
+        this.handshakeDuration = handshakeDuration;
+    }
+
+    /**
+     * The thread reading the server's output; {@code TERMINATED} once the
+     * server closed it.
+     */
+    public Thread getListenerThread() {
+        return listenerThread;
+    }
+
+    /**
+     * Waits until every in-flight request has been answered or the timeout
+     * expires. Returns {@code true} when nothing is pending anymore.
+     */
+    public boolean awaitDrained(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!pendingRequests.isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            CompletableFuture<?>[] inFlight = pendingRequests.values().toArray(CompletableFuture[]::new);
+            try {
+                CompletableFuture.allOf(inFlight).get(remaining, TimeUnit.NANOSECONDS);
+            }
+            catch (TimeoutException ex) {
+                return pendingRequests.isEmpty();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            catch (Exception ignore) {
+                // A failed request still counts as drained.
+            }
+        }
+        return true;
+    }
+
+    private void failPending(String reason) {
+        pendingRequests.forEach((id, future) -> {
+            if (pendingRequests.remove(id, future)) {
+                future.completeExceptionally(new McpProtocolException(reason));
+            }
+        });
+    }
+
+    public long getPid() {
+        return process.pid();
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
     public Instant getLastInteraction() {
         return lastInteraction;
     }
@@ -127,21 +486,121 @@ public class McpSession {
     }
 
     public void close() {
+        stopCapture();
+        failPending("MCP session for " + serverName + " was closed");
         try {
             writer.close();
         }
         catch (IOException ignore) {
         }
+        // The listener holds the reader's lock while it waits for output; the process exiting releases it.
+        process.destroyForcibly();
         try {
             reader.close();
         }
         catch (IOException ignore) {
         }
-        process.destroyForcibly();
     }
 
     ObjectMapper getObjectMapper() {
         return objectMapper;
     }
+
+    /**
+     * Notifications queued for one progress listener, delivered in order by a
+     * single dispatcher task at a time.
+     */
+    private final class ProgressOutbox {
+
+        private final String progressToken;
+        private final McpProgressListener listener;
+
+        // Guarded by this.
+        private final Deque<Consumer<McpProgressListener>> pending = new ArrayDeque<>();
+        private boolean open = true;
+        private long dropped;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        ProgressOutbox(String progressToken, McpProgressListener listener) {
+            this.progressToken = progressToken;
+            this.listener = listener;
+        }
+
+        void offer(Consumer<McpProgressListener> notification) {
+            synchronized (this) {
+                if (!open) {
+                    return;
+                }
+                if (pending.size() >= MAX_PENDING_NOTIFICATIONS) {
+                    if (dropped++ == 0) {
+                        log.debug("Progress listener {} on {} is falling behind; dropping notifications",
+                            progressToken, serverName);
+                    }
+                    return;
+                }
+                pending.add(notification);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    PROGRESS_DISPATCHER.execute(this::drain);
+                }
+                catch (RejectedExecutionException ex) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Consumer<McpProgressListener> notification;
+                while ((notification = next()) != null) {
+                    try {
+                        notification.accept(listener);
+                    }
+                    catch (RuntimeException ex) {
+                        log.warn("MCP progress listener failed for {}: {}", serverName, ex.getMessage());
+                    }
+                }
+            }
+            finally {
+                draining.set(false);
+            }
+            // A notification queued after our last look would otherwise wait for the next one.
+            if (hasPending()) {
+                scheduleDrain();
+            }
+        }
+
+        private synchronized Consumer<McpProgressListener> next() {
+            return open ? pending.poll() : null;
+        }
+
+        private synchronized boolean hasPending() {
+            return open && !pending.isEmpty();
+        }
+
+        synchronized void close() {
+            open = false;
+            pending.clear();
+        }
+    }
+
+    /**
+     * A request awaiting its response. {@code tool} is set for
+     * {@code tools/call}; {@code caller} is the thread that sent it, which is
+     * the one blocked on it for synchronous calls.
+     */
+    public record InFlightCall(String requestId, String method, String tool, long sentAtNanos, Instant sentAt,
+            Thread caller) {
+
+        public Duration age() {
+            return Duration.ofNanos(System.nanoTime() - sentAtNanos);
+        }
+    }
 }
 
@@ -3,19 +3,28 @@ package br.lrferr.mcp.service.mcp;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import br.lrferr.mcp.model.McpServerConfig;
+import br.lrferr.mcp.service.McpConfigLoader;
 import br.lrferr.mcp.service.McpProcessManagerService;
 import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
+import br.lrferr.mcp.service.eventlog.QueryEventLog;
+import jakarta.annotation.PreDestroy;
 
 /**
  * Maintains active MCP sessions per server, reusing processes started by the
@@ -28,12 +37,27 @@ public class McpSessionManager {
 
     private final McpProcessManagerService processManagerService;
     private final ObjectMapper objectMapper;
+    private final McpCaptureService captureService;
+    private final McpConfigLoader configLoader;
+    private final QueryEventLog eventLog;
 
     private final Map<String, McpSession> activeSessions = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, JsonNode>> notificationListeners = new CopyOnWriteArrayList<>();
 
-    public McpSessionManager(McpProcessManagerService processManagerService, ObjectMapper objectMapper) {
+    // Second processes of servers whose idempotent tool calls are hedged, started on first use.
+    private final Map<String, HedgeSession> hedgeSessions = new ConcurrentHashMap<>();
+    private final Set<String> hedgeStarting = ConcurrentHashMap.newKeySet();
+
+    private record HedgeSession(RunningServer server, McpSession session) {
+    }
+
+    public McpSessionManager(McpProcessManagerService processManagerService, ObjectMapper objectMapper,
+            McpCaptureService captureService, McpConfigLoader configLoader, QueryEventLog eventLog) {
         this.processManagerService = processManagerService;
         this.objectMapper = objectMapper;
+        this.captureService = captureService;
+        this.configLoader = configLoader;
+        this.eventLog = eventLog;
     }
 
     public McpSession getOrCreateSession(String serverName) {
@@ -45,12 +69,254 @@ public class McpSessionManager {
         });
     }
 
+    public Map<String, McpSession> getActiveSessions() {
+        return java.util.Collections.unmodifiableMap(activeSessions);
+    }
+
+    /**
+     * Sessions of the second processes used for hedged calls, by server name.
+     */
+    public Map<String, McpSession> getHedgeSessions() {
+        Map<String, McpSession> sessions = new java.util.LinkedHashMap<>();
+        hedgeSessions.forEach((name, hedge) -> sessions.put(name, hedge.session()));
+        return sessions;
+    }
+
+    /**
+     * Processes behind {@link #getHedgeSessions()}, by server name.
+     */
+    public Map<String, RunningServer> getHedgeServers() {
+        Map<String, RunningServer> servers = new java.util.LinkedHashMap<>();
+        hedgeSessions.forEach((name, hedge) -> servers.put(name, hedge.server()));
+        return servers;
+    }
+
+    /**
+     * Registers a listener for notifications from every session, including
+     * sessions created later. It receives the server name and the message.
+     */
+    public void addNotificationListener(BiConsumer<String, JsonNode> listener) {
+        notificationListeners.add(listener);
+    }
+
+    private void attachNotifications(McpSession session) {
+        String serverName = session.getServerName();
+        session.setNotificationHandler(message -> {
+            eventLog.event("notification", false)
+                .field("server", serverName)
+                .field("method", message.path("method").asText(null))
+                .payload("params", message.get("params"))
+                .submit();
+            notificationListeners.forEach(listener -> listener.accept(serverName, message));
+        });
+    }
+
     public void closeSession(String serverName) {
         McpSession session = activeSessions.remove(serverName);
         if (session != null) {
             log.info("Closing MCP session for {}", serverName);
             session.close();
         }
+        closeHedgeSession(serverName);
+    }
+
+    /**
+     * Returns the session of a second process of the server, used to send
+     * hedged duplicates of slow calls. The first call starts the process and
+     * handshakes it on {@code executor} and returns {@code null}, as do calls
+     * made before it is ready or while the primary is not running.
+     */
+    public McpSession getHedgeSession(String serverName, Executor executor) {
+        HedgeSession hedge = hedgeSessions.get(serverName);
+        if (hedge != null) {
+            if (hedge.session().isAlive()) {
+                return hedge.session();
+            }
+            closeHedgeSession(serverName);
+        }
+        RunningServer primary = processManagerService.getRunningServer(serverName);
+        if (primary == null || !hedgeStarting.add(serverName)) {
+            return null;
+        }
+        executor.execute(() -> {
+            try {
+                startHedgeSession(serverName, primary);
+            }
+            catch (RuntimeException ex) {
+                log.warn("Could not start hedge process for {}: {}", serverName, ex.getMessage());
+            }
+            finally {
+                hedgeStarting.remove(serverName);
+            }
+        });
+        return null;
+    }
+
+    private void startHedgeSession(String serverName, RunningServer primary) {
+        RunningServer server = processManagerService.launch(serverName, primary.config(), primary.configSource());
+        McpSession session = new McpSession(serverName, server.process(), objectMapper);
+        try {
+            performHandshake(session, primary.config());
+        }
+        catch (RuntimeException ex) {
+            session.close();
+            server.process().destroy();
+            throw ex;
+        }
+        HedgeSession previous = hedgeSessions.put(serverName, new HedgeSession(server, session));
+        if (previous != null) {
+            close(previous);
+        }
+        log.info("Started hedge process for {} (PID {})", serverName, server.process().pid());
+    }
+
+    public void closeHedgeSession(String serverName) {
+        HedgeSession hedge = hedgeSessions.remove(serverName);
+        if (hedge != null) {
+            log.info("Stopping hedge process for {} (PID {})", serverName, hedge.server().process().pid());
+            close(hedge);
+        }
+    }
+
+    private static void close(HedgeSession hedge) {
+        hedge.session().close();
+        hedge.server().process().destroy();
+    }
+
+    /**
+     * Starts capturing the session of a server to a new journal, opening the
+     * session if needed.
+     */
+    public McpJournalWriter startCapture(String serverName) {
+        McpSession session = getOrCreateSession(serverName);
+        McpJournalWriter journal = captureService.open(serverName);
+        McpJournalWriter previous = session.startCapture(journal);
+        if (previous != null) {
+            try {
+                previous.close();
+            }
+            catch (IOException ex) {
+                log.warn("Failed to close previous MCP journal for {}: {}", serverName, ex.getMessage());
+            }
+        }
+        log.info("Capturing MCP traffic for {} to {}", serverName, journal.getPath());
+        return journal;
+    }
+
+    public McpJournalWriter stopCapture(String serverName) {
+        McpSession session = activeSessions.get(serverName);
+        McpJournalWriter journal = session != null ? session.stopCapture() : null;
+        if (journal != null) {
+            log.info("Stopped capturing MCP traffic for {} ({} frames)", serverName, journal.getEntries());
+        }
+        return journal;
+    }
+
+    public Map<String, McpJournalWriter> getActiveCaptures() {
+        Map<String, McpJournalWriter> captures = new java.util.LinkedHashMap<>();
+        activeSessions.forEach((name, session) -> {
+            McpJournalWriter journal = session.getCapture();
+            if (journal != null) {
+                captures.put(name, journal);
+            }
+        });
+        return captures;
+    }
+
+    /**
+     * Replaces a server's process without failing in-flight requests: a new
+     * process is started (with the configuration re-read from its source file)
+     * and handshaken, routing switches to it atomically, and the old process is
+     * terminated once its pending requests complete or {@code drainTimeout}
+     * expires.
+     */
+    public Map<String, Object> rollingRestart(String serverName, Duration drainTimeout) {
+        RunningServer current = processManagerService.getRunningServer(serverName);
+        if (current == null) {
+            throw new IllegalStateException("MCP server not running: " + serverName);
+        }
+        McpServerConfig config = reloadConfig(serverName, current);
+
+        long start = System.nanoTime();
+        RunningServer replacement = processManagerService.launch(serverName, config, current.configSource());
+        McpSession newSession = new McpSession(serverName, replacement.process(), objectMapper);
+        attachNotifications(newSession);
+        try {
+            if (captureService.isAutoCapture(serverName)) {
+                newSession.startCapture(captureService.open(serverName));
+            }
+            performHandshake(newSession, config);
+        }
+        catch (RuntimeException ex) {
+            newSession.close();
+            throw new McpProtocolException("Replacement for " + serverName + " failed to start; keeping PID "
+                + current.process().pid(), ex);
+        }
+        long handshakeMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Swap inside compute so concurrent getOrCreateSession calls see either the old or the new pair.
+        McpSession[] previousSession = new McpSession[1];
+        boolean[] replaced = new boolean[1];
+        activeSessions.compute(serverName, (name, existing) -> {
+            replaced[0] = processManagerService.replaceServer(name, current, replacement);
+            if (!replaced[0]) {
+                return existing;
+            }
+            previousSession[0] = existing;
+            return newSession;
+        });
+        if (!replaced[0]) {
+            // Stopped (or restarted by someone else) while we were starting; do not bring it back.
+            newSession.close();
+            throw new McpRestartConflictException("MCP server " + serverName
+                + " was stopped or replaced during the rolling restart; discarded replacement PID "
+                + replacement.process().pid());
+        }
+
+        boolean drained = true;
+        int abandoned = 0;
+        if (previousSession[0] != null) {
+            McpJournalWriter capture = previousSession[0].getCapture();
+            if (capture != null && newSession.getCapture() == null) {
+                previousSession[0].startCapture(null);
+                newSession.startCapture(capture);
+            }
+            drained = previousSession[0].awaitDrained(drainTimeout);
+            abandoned = previousSession[0].getPendingCount();
+            previousSession[0].close();
+        }
+        RunningServer old = current;
+        old.process().destroy();
+        // The hedge process still runs the old configuration; the next hedge starts a fresh one.
+        closeHedgeSession(serverName);
+
+        log.info("Rolling restart of {} complete: PID {} -> {} (drained: {}, abandoned: {})", serverName,
+            old.process().pid(), replacement.process().pid(), drained, abandoned);
+
+        Map<String, Object> result = new java.util.LinkedHashMap<>();
+        result.put("serverName", serverName);
+        result.put("previousPid", old.process().pid());
+        result.put("pid", replacement.process().pid());
+        result.put("handshakeMs", handshakeMs);
+        result.put("drained", drained);
+        result.put("abandonedRequests", abandoned);
+        result.put("totalMs", Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return result;
+    }
+
+    private McpServerConfig reloadConfig(String serverName, RunningServer current) {
+        if (current.configSource() == null) {
+            return current.config();
+        }
+        try {
+            McpServerConfig reloaded = configLoader.loadConfiguration(current.configSource()).get(serverName);
+            return reloaded != null ? reloaded : current.config();
+        }
+        catch (IllegalArgumentException ex) {
+            log.warn("Could not reload configuration for {} from {}, reusing the current one: {}", serverName,
+                current.configSource(), ex.getMessage());
+            return current.config();
+        }
     }
 
     private McpSession createSession(String serverName) {
@@ -61,6 +327,10 @@ public class McpSessionManager {
         Process process = running.process();
         log.info("Creating MCP session for {} (PID {})", serverName, process.pid());
         McpSession session = new McpSession(serverName, process, objectMapper);
+        attachNotifications(session);
+        if (captureService.isAutoCapture(serverName)) {
+            session.startCapture(captureService.open(serverName));
+        }
         performHandshake(session, running.config());
         return session;
     }
@@ -86,6 +356,20 @@ public class McpSessionManager {
             }
             return false;
         });
+        hedgeSessions.keySet().removeIf(serverName -> {
+            HedgeSession hedge = hedgeSessions.get(serverName);
+            if (hedge != null && (!hedge.session().isAlive() || hedge.session().getLastInteraction().isBefore(threshold))) {
+                log.info("Stopping idle hedge process for {}", serverName);
+                close(hedge);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgeSessions.keySet().forEach(this::closeHedgeSession);
     }
 }
 
@@ -1,39 +1,226 @@
 package br.lrferr.mcp.service.mcp;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import br.lrferr.mcp.service.breaker.CircuitBreakerRegistry;
+import br.lrferr.mcp.service.eventlog.QueryEventLog;
+import br.lrferr.mcp.service.hedge.McpHedger;
+import br.lrferr.mcp.service.jfr.McpToolInvocationEvent;
+import br.lrferr.mcp.service.toolcache.ToolResultCache;
+import br.lrferr.mcp.service.trace.QueryTrace;
+import br.lrferr.mcp.service.trace.QueryTracer;
+
 @Component
 public class McpToolInvoker {
 
-    private static final Logger log = LoggerFactory.getLogger(McpToolInvoker.class);
-
     private final ObjectMapper objectMapper;
+    private final QueryTracer queryTracer;
+    private final ToolResultCache toolResultCache;
+    private final McpHedger hedger;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final QueryEventLog eventLog;
 
-    public McpToolInvoker(ObjectMapper objectMapper) {
+    // Sessions of calls started with a progress listener, by request id, so they can be cancelled.
+    private final Map<String, McpSession> inFlight = new ConcurrentHashMap<>();
+
+    public McpToolInvoker(ObjectMapper objectMapper, QueryTracer queryTracer, ToolResultCache toolResultCache,
+            McpHedger hedger, CircuitBreakerRegistry circuitBreakers, QueryEventLog eventLog) {
         this.objectMapper = objectMapper;
+        this.queryTracer = queryTracer;
+        this.toolResultCache = toolResultCache;
+        this.hedger = hedger;
+        this.circuitBreakers = circuitBreakers;
+        this.eventLog = eventLog;
     }
 
+    /**
+     * Calls the tool and waits for its result. Results of cacheable tools are
+     * served from, and stored in, the tool-result cache; asynchronous calls
+     * always reach the server. Calls of the server's idempotent tools are
+     * hedged when slow. Calls to a server whose circuit breaker is open fail
+     * with a {@link br.lrferr.mcp.service.breaker.CircuitOpenException} without
+     * reaching it.
+     */
     public JsonNode invokeTool(McpSession session, String toolName, JsonNode arguments) {
+        Optional<JsonNode> cached = toolResultCache.get(session.getServerName(), toolName, arguments);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        ObjectNode params = buildParams(toolName, arguments);
+
+        McpToolInvocationEvent event = new McpToolInvocationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        JsonNode result = null;
+        Throwable error = null;
+        try {
+            JsonNode response = circuitBreakers.call(CircuitBreakerRegistry.MCP, session.getServerName(),
+                () -> callSync(session, toolName, params, UUID.randomUUID().toString()));
+            result = extractResult(toolName, response);
+            toolResultCache.put(session.getServerName(), toolName, arguments, result);
+            return result;
+        }
+        catch (RuntimeException ex) {
+            error = ex;
+            throw ex;
+        }
+        finally {
+            commit(event, session, toolName, start, arguments, result, error);
+        }
+    }
+
+    /**
+     * Same as {@link #invokeTool(McpSession, String, JsonNode)}, but asks the
+     * server for progress and routes its progress and log notifications to
+     * {@code listener} until the call completes. The request id doubles as the
+     * progress token and can be passed to {@link #cancel}. A hedged call reports
+     * progress from the primary process only; cancelling it cancels both.
+     */
+    public JsonNode invokeTool(McpSession session, String toolName, JsonNode arguments, McpProgressListener listener) {
+        if (listener == null) {
+            return invokeTool(session, toolName, arguments);
+        }
+        Optional<JsonNode> cached = toolResultCache.get(session.getServerName(), toolName, arguments);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        String requestId = UUID.randomUUID().toString();
+        ObjectNode params = buildParams(toolName, arguments);
+        ObjectNode meta = params.has("_meta") ? (ObjectNode) params.get("_meta") : params.putObject("_meta");
+        meta.put("progressToken", requestId);
+
+        McpToolInvocationEvent event = new McpToolInvocationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        JsonNode result = null;
+        Throwable error = null;
+        session.addProgressListener(requestId, listener);
+        inFlight.put(requestId, session);
+        try {
+            JsonNode response = circuitBreakers.call(CircuitBreakerRegistry.MCP, session.getServerName(), () -> {
+                CompletableFuture<JsonNode> pending = callAsync(session, toolName, params, requestId);
+                // Published only once the session knows the request, so a cancel from here on reaches the server.
+                listener.started(requestId);
+                return session.awaitResponse("tools/call", pending);
+            });
+            result = extractResult(toolName, response);
+            toolResultCache.put(session.getServerName(), toolName, arguments, result);
+            return result;
+        }
+        catch (RuntimeException ex) {
+            error = ex;
+            throw ex;
+        }
+        finally {
+            inFlight.remove(requestId);
+            session.removeProgressListener(requestId);
+            commit(event, session, toolName, start, arguments, result, error);
+        }
+    }
+
+    /**
+     * Cancels a call started with a progress listener. Returns {@code false} if
+     * it is unknown or already finished.
+     */
+    public boolean cancel(String requestId, String reason) {
+        McpSession session = inFlight.get(requestId);
+        return session != null && session.cancel(requestId, reason);
+    }
+
+    /**
+     * Sends a {@code tools/call} without blocking the caller. The returned future
+     * completes with the tool result, or exceptionally with an
+     * {@link McpProtocolException} when the server reports an error, or a
+     * {@link br.lrferr.mcp.service.breaker.CircuitOpenException} when its
+     * circuit breaker is open.
+     */
+    public CompletableFuture<JsonNode> invokeToolAsync(McpSession session, String toolName, JsonNode arguments) {
+        return invokeToolAsync(session, toolName, arguments, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Same as {@link #invokeToolAsync(McpSession, String, JsonNode)}, sending the
+     * request with {@code requestId} so the caller can abandon it with
+     * {@link McpSession#cancel(String, String)}, e.g. when its own deadline
+     * passes.
+     */
+    public CompletableFuture<JsonNode> invokeToolAsync(McpSession session, String toolName, JsonNode arguments,
+            String requestId) {
+        ObjectNode params = buildParams(toolName, arguments);
+
+        McpToolInvocationEvent event = new McpToolInvocationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        return circuitBreakers.callAsync(CircuitBreakerRegistry.MCP, session.getServerName(),
+                () -> callAsync(session, toolName, params, requestId))
+            .thenApply(response -> extractResult(toolName, response))
+            .whenComplete((result, error) -> commit(event, session, toolName, start, arguments, result, error));
+    }
+
+    // Both return the raw response: a JSON-RPC error is the server answering, so the breaker counts it as
+    // a success, and extractResult turns it into an exception outside the breaker.
+    private CompletableFuture<JsonNode> callAsync(McpSession session, String toolName, ObjectNode params,
+            String requestId) {
+        return hedger.shouldHedge(session, toolName)
+            ? hedger.call(session, toolName, "tools/call", params, requestId)
+            : session.callMethod("tools/call", params, requestId);
+    }
+
+    private JsonNode callSync(McpSession session, String toolName, ObjectNode params, String requestId) {
+        return session.awaitResponse("tools/call", callAsync(session, toolName, params, requestId));
+    }
+
+    private ObjectNode buildParams(String toolName, JsonNode arguments) {
         ObjectNode params = objectMapper.createObjectNode();
         params.put("name", toolName);
         params.set("arguments", arguments);
+        queryTracer.current().ifPresent(trace -> {
+            ObjectNode meta = params.putObject("_meta");
+            meta.put("traceId", trace.getTraceId());
+            meta.put("traceparent", "00-" + trace.getTraceId() + "-" + trace.getRootSpanId() + "-01");
+        });
+        return params;
+    }
 
-        JsonNode response = session.callMethodSync("tools/call", params);
+    private JsonNode extractResult(String toolName, JsonNode response) {
         if (response.has("error")) {
             JsonNode error = response.get("error");
             String message = error.has("message") ? error.get("message").asText() : error.toString();
             throw new McpProtocolException("MCP tool call failed: " + message);
         }
 
-        JsonNode result = response.get("result");
-        log.debug("Tool {} returned: {}", toolName, result);
-        return result;
+        return response.get("result");
     }
-}
 
+    private void commit(McpToolInvocationEvent event, McpSession session, String toolName, long start,
+            JsonNode arguments, JsonNode result, Throwable error) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.server = session.getServerName();
+            event.tool = toolName;
+            event.success = error == null;
+            event.commit();
+        }
+        // Arguments and result are serialized, and cut, on the event log's writer thread.
+        eventLog.event("tool-call", error != null)
+            .field("traceId", queryTracer.current().map(QueryTrace::getTraceId).orElse(null))
+            .field("server", session.getServerName())
+            .field("tool", toolName)
+            .field("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+            .field("error", error != null ? String.valueOf(error.getMessage()) : null)
+            .payload("arguments", arguments)
+            .payload("result", result)
+            .submit();
+    }
+}
@@ -0,0 +1,66 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads the rows out of a {@code tools/call} result.
+ */
+public final class McpToolResults {
+
+    private McpToolResults() {
+    }
+
+    /**
+     * Extracts rows from a tool result. Accepts a JSON array, an object with a
+     * {@code rows} array, or MCP {@code content} whose text items hold either;
+     * anything else is a single row.
+     */
+    public static List<JsonNode> rows(JsonNode result, ObjectMapper objectMapper) {
+        List<JsonNode> rows = new ArrayList<>();
+        collectRows(result, rows, objectMapper);
+        return rows;
+    }
+
+    private static void collectRows(JsonNode node, List<JsonNode> rows, ObjectMapper objectMapper) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return;
+        }
+        if (node.isArray()) {
+            node.forEach(rows::add);
+        }
+        else if (node.path("rows").isArray()) {
+            node.get("rows").forEach(rows::add);
+        }
+        else if (node.has("structuredContent")) {
+            collectRows(node.get("structuredContent"), rows, objectMapper);
+        }
+        else if (node.path("content").isArray()) {
+            for (JsonNode item : node.get("content")) {
+                if (!"text".equals(item.path("type").asText())) {
+                    rows.add(item);
+                    continue;
+                }
+                String text = item.path("text").asText();
+                try {
+                    JsonNode parsed = objectMapper.readTree(text);
+                    if (parsed != null && (parsed.isArray() || parsed.isObject())) {
+                        collectRows(parsed, rows, objectMapper);
+                        continue;
+                    }
+                }
+                catch (JsonProcessingException ex) {
+                    // Plain text: reported as a single row below.
+                }
+                rows.add(objectMapper.createObjectNode().put("text", text));
+            }
+        }
+        else {
+            rows.add(node);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Frame and byte counters of one session in each direction, with rates over
+ * the last {@value #WINDOW_SECONDS} seconds. Updates and reads are lock-free,
+ * so the runtime endpoint can be polled every second without slowing the
+ * session down.
+ */
+public final class McpTrafficStats {
+
+    static final int WINDOW_SECONDS = 10;
+
+    private final Direction in = new Direction();
+    private final Direction out = new Direction();
+
+    void recordIn(long bytes) {
+        in.record(bytes);
+    }
+
+    void recordOut(long bytes) {
+        out.record(bytes);
+    }
+
+    public Map<String, Object> toMap() {
+        long nowSecond = currentSecond();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("messagesIn", in.messages.sum());
+        map.put("messagesOut", out.messages.sum());
+        map.put("bytesIn", in.bytes.sum());
+        map.put("bytesOut", out.bytes.sum());
+        map.put("messagesInPerSec", in.messageRate.perSecond(nowSecond));
+        map.put("messagesOutPerSec", out.messageRate.perSecond(nowSecond));
+        map.put("bytesInPerSec", in.byteRate.perSecond(nowSecond));
+        map.put("bytesOutPerSec", out.byteRate.perSecond(nowSecond));
+        return map;
+    }
+
+    private static long currentSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static final class Direction {
+
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final Rate messageRate = new Rate();
+        private final Rate byteRate = new Rate();
+
+        void record(long size) {
+            long second = currentSecond();
+            messages.increment();
+            bytes.add(size);
+            messageRate.add(second, 1);
+            byteRate.add(second, size);
+        }
+    }
+
+    /**
+     * Ring of per-second buckets. A bucket is claimed for a new second with a
+     * compare-and-set on its stamp; an add racing with the claim may be lost,
+     * which is fine for a rate.
+     */
+    private static final class Rate {
+
+        private final AtomicLongArray seconds = new AtomicLongArray(WINDOW_SECONDS + 1);
+        private final AtomicLongArray counts = new AtomicLongArray(WINDOW_SECONDS + 1);
+
+        void add(long second, long amount) {
+            int index = (int) (second % seconds.length());
+            long stamp = seconds.get(index);
+            if (stamp != second && seconds.compareAndSet(index, stamp, second)) {
+                counts.set(index, 0);
+            }
+            counts.addAndGet(index, amount);
+        }
+
+        /**
+         * Average over the last full {@value #WINDOW_SECONDS} seconds, excluding
+         * the second in progress.
+         */
+        double perSecond(long nowSecond) {
+            long total = 0;
+            for (int i = 0; i < seconds.length(); i++) {
+                long stamp = seconds.get(i);
+                if (stamp < nowSecond && stamp >= nowSecond - WINDOW_SECONDS) {
+                    total += counts.get(i);
+                }
+            }
+            return total / (double) WINDOW_SECONDS;
+        }
+    }
+}
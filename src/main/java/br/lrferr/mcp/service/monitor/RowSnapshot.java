@@ -0,0 +1,81 @@
+package br.lrferr.mcp.service.monitor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.lrferr.mcp.service.mcp.McpToolResults;
+
+/**
+ * Rows of one standing-query run keyed for comparison with the next run.
+ */
+final class RowSnapshot {
+
+    private final Map<String, JsonNode> rows;
+
+    private RowSnapshot(Map<String, JsonNode> rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Extracts rows from a tool result as {@link McpToolResults#rows} does.
+     */
+    static RowSnapshot of(JsonNode result, List<String> keyColumns, ObjectMapper objectMapper) {
+        Map<String, JsonNode> keyed = new LinkedHashMap<>();
+        for (JsonNode row : McpToolResults.rows(result, objectMapper)) {
+            keyed.put(keyOf(row, keyColumns), row);
+        }
+        return new RowSnapshot(keyed);
+    }
+
+    private static String keyOf(JsonNode row, List<String> keyColumns) {
+        if (keyColumns == null || keyColumns.isEmpty() || !row.isObject()) {
+            return row.toString();
+        }
+        StringBuilder key = new StringBuilder();
+        for (String column : keyColumns) {
+            if (key.length() > 0) {
+                key.append('\u001f');
+            }
+            key.append(row.path(column).asText());
+        }
+        return key.toString();
+    }
+
+    Map<String, Object> diff(RowSnapshot previous) {
+        List<JsonNode> added = new ArrayList<>();
+        List<JsonNode> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        rows.forEach((key, row) -> {
+            JsonNode before = previous.rows.get(key);
+            if (before == null) {
+                added.add(row);
+            }
+            else if (!before.equals(row)) {
+                changed.add(row);
+            }
+        });
+        for (String key : previous.rows.keySet()) {
+            if (!rows.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("added", added);
+        delta.put("changed", changed);
+        delta.put("removed", removed);
+        return delta;
+    }
+
+    List<JsonNode> rows() {
+        return new ArrayList<>(rows.values());
+    }
+
+    int size() {
+        return rows.size();
+    }
+}
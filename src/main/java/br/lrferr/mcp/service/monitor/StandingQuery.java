@@ -0,0 +1,169 @@
+package br.lrferr.mcp.service.monitor;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One coalesced standing query: a tool call shared by every subscriber that
+ * registered the same server, tool, arguments and key columns.
+ */
+final class StandingQuery {
+
+    private final String id;
+    private final String key;
+    private final String serverName;
+    private final String toolName;
+    private final JsonNode arguments;
+    private final List<String> keyColumns;
+    private final long timeoutMs;
+    private final Instant createdAt = Instant.now();
+
+    private final List<StandingQueryService.Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private volatile long intervalMs;
+    private volatile ScheduledFuture<?> future;
+    private volatile long lastDurationMs;
+    private volatile Instant lastRunAt;
+    private volatile String lastError;
+    private volatile boolean stopped;
+
+    /** Rows of the last successful run; guarded by {@code this}. */
+    private RowSnapshot snapshot;
+
+    StandingQuery(String id, String key, String serverName, String toolName, JsonNode arguments,
+            List<String> keyColumns, long intervalMs, long timeoutMs) {
+        this.id = id;
+        this.key = key;
+        this.serverName = serverName;
+        this.toolName = toolName;
+        this.arguments = arguments;
+        this.keyColumns = keyColumns;
+        this.intervalMs = intervalMs;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Claims the next run; false when the previous run is still in flight, in
+     * which case the tick is counted as skipped.
+     */
+    boolean tryStart() {
+        if (stopped || !running.compareAndSet(false, true)) {
+            skipped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void finish(long durationMs, String error) {
+        runs.incrementAndGet();
+        lastDurationMs = durationMs;
+        lastRunAt = Instant.now();
+        lastError = error;
+        if (error != null) {
+            errors.incrementAndGet();
+        }
+        running.set(false);
+    }
+
+    RowSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    void setSnapshot(RowSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String getServerName() {
+        return serverName;
+    }
+
+    String getToolName() {
+        return toolName;
+    }
+
+    JsonNode getArguments() {
+        return arguments;
+    }
+
+    List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    long getIntervalMs() {
+        return intervalMs;
+    }
+
+    void setIntervalMs(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    ScheduledFuture<?> getFuture() {
+        return future;
+    }
+
+    void setFuture(ScheduledFuture<?> future) {
+        this.future = future;
+    }
+
+    List<StandingQueryService.Subscriber> getSubscribers() {
+        return subscribers;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    void stop() {
+        stopped = true;
+        ScheduledFuture<?> scheduled = future;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("queryId", id);
+        map.put("serverName", serverName);
+        map.put("toolName", toolName);
+        map.put("arguments", arguments);
+        map.put("keyColumns", keyColumns);
+        map.put("intervalMs", intervalMs);
+        map.put("subscribers", subscribers.size());
+        map.put("runs", runs.get());
+        map.put("skipped", skipped.get());
+        map.put("errors", errors.get());
+        map.put("lastDurationMs", lastDurationMs);
+        map.put("lastRunAt", lastRunAt);
+        map.put("lastError", lastError);
+        synchronized (this) {
+            map.put("rowCount", snapshot != null ? snapshot.size() : 0);
+        }
+        map.put("createdAt", createdAt);
+        return map;
+    }
+}
@@ -0,0 +1,321 @@
+package br.lrferr.mcp.service.monitor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.lrferr.mcp.config.MonitorProperties;
+import br.lrferr.mcp.model.StandingQueryRequest;
+import br.lrferr.mcp.service.mcp.McpSession;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+import br.lrferr.mcp.service.mcp.McpToolInvoker;
+import br.lrferr.mcp.service.toolcache.ToolResultKey;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs standing queries: tool calls re-executed on an interval whose row-level
+ * changes are pushed to subscribers. Identical registrations share one query,
+ * which runs at the shortest interval any of them asked for and stops when its
+ * last subscriber leaves.
+ */
+@Component
+public class StandingQueryService {
+
+    private static final Logger log = LoggerFactory.getLogger(StandingQueryService.class);
+
+    /**
+     * Receives the events of one standing query. {@link #send} returns false once
+     * the subscriber is gone, which unsubscribes it.
+     */
+    public interface Subscriber {
+
+        boolean send(String event, Object data);
+
+        void close();
+    }
+
+    private final McpSessionManager sessionManager;
+    private final McpToolInvoker toolInvoker;
+    private final ObjectMapper objectMapper;
+    private final MonitorProperties properties;
+
+    private final Map<String, StandingQuery> queriesById = new ConcurrentHashMap<>();
+    private final Map<String, StandingQuery> queriesByKey = new ConcurrentHashMap<>();
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    public StandingQueryService(McpSessionManager sessionManager, McpToolInvoker toolInvoker,
+            ObjectMapper objectMapper, MonitorProperties properties) {
+        this.sessionManager = sessionManager;
+        this.toolInvoker = toolInvoker;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.scheduler = new ScheduledThreadPoolExecutor(Math.max(1, properties.getThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "mcp-monitor-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Registers the query, or joins the identical one already running, and adds
+     * the subscriber. Returns the id of the (possibly shared) query.
+     */
+    public synchronized String subscribe(StandingQueryRequest request, Subscriber subscriber) {
+        if (request.getServerName() == null || request.getServerName().isBlank()) {
+            throw new IllegalArgumentException("serverName is required");
+        }
+        if (request.getToolName() == null || request.getToolName().isBlank()) {
+            throw new IllegalArgumentException("toolName is required");
+        }
+        JsonNode arguments = request.getArguments() != null ? request.getArguments() : objectMapper.createObjectNode();
+        List<String> keyColumns = request.getKeyColumns() != null ? List.copyOf(request.getKeyColumns()) : List.of();
+        long intervalMs = Math.max(request.getIntervalMs(), properties.getMinInterval().toMillis());
+
+        String key = request.getServerName() + '\u0000' + request.getToolName() + '\u0000'
+            + ToolResultKey.canonical(arguments) + '\u0000' + keyColumns;
+        StandingQuery query = queriesByKey.get(key);
+        if (query == null) {
+            if (queriesById.size() >= properties.getMaxQueries()) {
+                throw new IllegalStateException("Too many standing queries (max " + properties.getMaxQueries() + ")");
+            }
+            query = new StandingQuery(UUID.randomUUID().toString(), key, request.getServerName(),
+                request.getToolName(), arguments, keyColumns, intervalMs, Math.max(1, request.getTimeoutMs()));
+            // Attached before the query is registered, so one whose first subscriber is already gone never runs.
+            if (!addSubscriber(query, subscriber)) {
+                return query.getId();
+            }
+            queriesByKey.put(key, query);
+            queriesById.put(query.getId(), query);
+            schedule(query, 0);
+            log.info("Started standing query {} ({} on {}, every {} ms)", query.getId(),
+                query.getToolName(), query.getServerName(), intervalMs);
+        }
+        else if (addSubscriber(query, subscriber) && intervalMs < query.getIntervalMs()) {
+            query.setIntervalMs(intervalMs);
+            ScheduledFuture<?> previous = query.getFuture();
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            schedule(query, intervalMs);
+        }
+        return query.getId();
+    }
+
+    /**
+     * Adds a subscriber to a running query; it immediately receives the current
+     * rows if the query has completed a run.
+     */
+    public synchronized void join(String queryId, Subscriber subscriber) {
+        StandingQuery query = queriesById.get(queryId);
+        if (query == null) {
+            throw new IllegalArgumentException("Unknown standing query: " + queryId);
+        }
+        addSubscriber(query, subscriber);
+    }
+
+    public synchronized void unsubscribe(String queryId, Subscriber subscriber) {
+        StandingQuery query = queriesById.get(queryId);
+        if (query != null && query.getSubscribers().remove(subscriber) && query.getSubscribers().isEmpty()) {
+            remove(query);
+        }
+    }
+
+    /**
+     * Stops the query and ends every subscriber's stream.
+     */
+    public synchronized boolean stop(String queryId) {
+        StandingQuery query = queriesById.get(queryId);
+        if (query == null) {
+            return false;
+        }
+        remove(query);
+        for (Subscriber subscriber : query.getSubscribers()) {
+            subscriber.close();
+        }
+        query.getSubscribers().clear();
+        return true;
+    }
+
+    public List<Map<String, Object>> getQueries() {
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (StandingQuery query : queriesById.values()) {
+            queries.add(query.toMap());
+        }
+        return queries;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Returns false, leaving the query as it was, if the subscriber is gone
+     * before it could be added.
+     */
+    private boolean addSubscriber(StandingQuery query, Subscriber subscriber) {
+        synchronized (query) {
+            Map<String, Object> registered = new LinkedHashMap<>();
+            registered.put("queryId", query.getId());
+            registered.put("intervalMs", query.getIntervalMs());
+            registered.put("subscribers", query.getSubscribers().size() + 1);
+            if (!subscriber.send("subscribed", registered)) {
+                return false;
+            }
+            RowSnapshot snapshot = query.getSnapshot();
+            if (snapshot != null && !subscriber.send("snapshot", snapshotEvent(query, snapshot))) {
+                return false;
+            }
+            query.getSubscribers().add(subscriber);
+            return true;
+        }
+    }
+
+    private void schedule(StandingQuery query, long initialDelayMs) {
+        query.setFuture(scheduler.scheduleAtFixedRate(() -> run(query), initialDelayMs, query.getIntervalMs(),
+            TimeUnit.MILLISECONDS));
+    }
+
+    private void remove(StandingQuery query) {
+        query.stop();
+        queriesById.remove(query.getId());
+        queriesByKey.remove(query.getKey(), query);
+        log.info("Stopped standing query {}", query.getId());
+    }
+
+    private void run(StandingQuery query) {
+        if (!query.tryStart()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // orTimeout only abandons our future; the request itself is cancelled by id on the server.
+            McpSession session = sessionManager.getOrCreateSession(query.getServerName());
+            String requestId = UUID.randomUUID().toString();
+            toolInvoker.invokeToolAsync(session, query.getToolName(), query.getArguments(), requestId)
+                .orTimeout(query.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                .whenCompleteAsync((result, error) -> {
+                    if (unwrap(error) instanceof TimeoutException) {
+                        session.cancel(requestId, "timeout");
+                    }
+                    complete(query, result, error, start);
+                }, scheduler);
+        } catch (RuntimeException e) {
+            complete(query, null, e, start);
+        }
+    }
+
+    private void complete(StandingQuery query, JsonNode result, Throwable error, long start) {
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String message = null;
+        boolean orphaned = false;
+        try {
+            synchronized (query) {
+                if (error != null) {
+                    Throwable cause = unwrap(error);
+                    message = cause instanceof TimeoutException
+                        ? "No answer within " + query.getTimeoutMs() + " ms"
+                        : String.valueOf(cause.getMessage());
+                    log.warn("Standing query {} failed: {}", query.getId(), message);
+                    orphaned = broadcast(query, "error", Map.of("queryId", query.getId(), "error", message));
+                }
+                else if (result != null && result.path("isError").asBoolean()) {
+                    message = result.path("content").toString();
+                    orphaned = broadcast(query, "error", Map.of("queryId", query.getId(), "error", message));
+                }
+                else {
+                    RowSnapshot next = RowSnapshot.of(result, query.getKeyColumns(), objectMapper);
+                    RowSnapshot previous = query.getSnapshot();
+                    query.setSnapshot(next);
+                    if (previous == null) {
+                        orphaned = broadcast(query, "snapshot", snapshotEvent(query, next));
+                    }
+                    else {
+                        Map<String, Object> delta = next.diff(previous);
+                        if (!isEmpty(delta)) {
+                            Map<String, Object> event = new LinkedHashMap<>();
+                            event.put("queryId", query.getId());
+                            event.put("runAt", Instant.now());
+                            event.putAll(delta);
+                            orphaned = broadcast(query, "delta", event);
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            message = e.getMessage();
+            log.warn("Standing query {} could not process its result: {}", query.getId(), message);
+        } finally {
+            query.finish(durationMs, message);
+        }
+        // Outside the query lock: subscribe and join take the service lock before the query's.
+        if (orphaned) {
+            synchronized (this) {
+                if (query.getSubscribers().isEmpty() && !query.isStopped()) {
+                    remove(query);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the event to every subscriber, dropping those that are gone. Returns
+     * true if that left the query without subscribers; the caller then removes it
+     * once it no longer holds the query lock.
+     */
+    private boolean broadcast(StandingQuery query, String event, Object data) {
+        boolean lost = false;
+        Iterator<Subscriber> iterator = query.getSubscribers().iterator();
+        while (iterator.hasNext()) {
+            Subscriber subscriber = iterator.next();
+            if (!subscriber.send(event, data)) {
+                query.getSubscribers().remove(subscriber);
+                lost = true;
+            }
+        }
+        return lost && query.getSubscribers().isEmpty();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static Map<String, Object> snapshotEvent(StandingQuery query, RowSnapshot snapshot) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("queryId", query.getId());
+        event.put("runAt", Instant.now());
+        event.put("rowCount", snapshot.size());
+        event.put("rows", snapshot.rows());
+        return event;
+    }
+
+    private static boolean isEmpty(Map<String, Object> delta) {
+        for (Object value : delta.values()) {
+            if (!((List<?>) value).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,134 @@
+package br.lrferr.mcp.service.ollama;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routing state of one Ollama host: in-flight requests, latency average,
+ * health and the models it serves.
+ */
+public class OllamaEndpoint {
+
+    private final String url;
+    private final Set<String> configuredModels;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile Set<String> discoveredModels = Set.of();
+    private volatile double latencyEwmaMs;
+    private volatile boolean healthy = true;
+    private volatile Instant ejectedAt;
+    private volatile String lastError;
+
+    OllamaEndpoint(String url, List<String> configuredModels) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.configuredModels = Set.copyOf(configuredModels.stream().map(OllamaEndpoint::normalize).toList());
+    }
+
+    /**
+     * Adds the implicit {@code :latest} tag so "llama3" and "llama3:latest"
+     * compare equal.
+     */
+    public static String normalize(String model) {
+        return model.contains(":") ? model : model + ":latest";
+    }
+
+    /**
+     * Whether this host is known to serve {@code model}. A host with neither
+     * configured nor discovered models is assumed to serve everything.
+     */
+    public boolean serves(String model) {
+        if (model == null) {
+            return true;
+        }
+        Set<String> models = configuredModels.isEmpty() ? discoveredModels : configuredModels;
+        return models.isEmpty() || models.contains(normalize(model));
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+        requests.incrementAndGet();
+    }
+
+    void succeeded(long latencyNanos, double alpha) {
+        outstanding.decrementAndGet();
+        consecutiveFailures.set(0);
+        double sample = latencyNanos / 1_000_000.0;
+        double current = latencyEwmaMs;
+        latencyEwmaMs = current == 0 ? sample : alpha * sample + (1 - alpha) * current;
+    }
+
+    /**
+     * Ends a request the caller abandoned before it answered.
+     */
+    void abandoned() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Records a failed request and returns the number of consecutive failures.
+     */
+    int failed(String error) {
+        outstanding.decrementAndGet();
+        failures.incrementAndGet();
+        lastError = error;
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void eject() {
+        if (healthy) {
+            healthy = false;
+            ejectedAt = Instant.now();
+        }
+    }
+
+    void admit(Set<String> models) {
+        discoveredModels = Set.copyOf(models.stream().map(OllamaEndpoint::normalize).toList());
+        consecutiveFailures.set(0);
+        healthy = true;
+        ejectedAt = null;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public double getLatencyEwmaMs() {
+        return latencyEwmaMs;
+    }
+
+    public Set<String> getModels() {
+        return configuredModels.isEmpty() ? discoveredModels : configuredModels;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("url", url);
+        map.put("healthy", healthy);
+        map.put("ejectedAt", ejectedAt);
+        map.put("outstanding", outstanding.get());
+        map.put("latencyEwmaMs", latencyEwmaMs);
+        map.put("requests", requests.get());
+        map.put("failures", failures.get());
+        map.put("consecutiveFailures", consecutiveFailures.get());
+        map.put("lastError", lastError);
+        map.put("models", getModels());
+        return map;
+    }
+}
@@ -0,0 +1,157 @@
+package br.lrferr.mcp.service.ollama;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.lrferr.mcp.config.OllamaEndpointsProperties;
+import br.lrferr.mcp.config.OllamaEndpointsProperties.Balancing;
+
+/**
+ * The Ollama hosts LLM traffic is balanced across. Endpoints are ejected
+ * after consecutive failures and re-admitted by the periodic
+ * {@code /api/tags} probe, which also refreshes the models each host serves.
+ */
+@Component
+public class OllamaEndpointPool {
+
+    private static final Logger log = LoggerFactory.getLogger(OllamaEndpointPool.class);
+
+    private final OllamaEndpointsProperties properties;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final List<OllamaEndpoint> endpoints;
+    private final RestTemplate probeClient;
+
+    public OllamaEndpointPool(OllamaEndpointsProperties properties, ObjectMapper objectMapper,
+            @Value("${spring.ai.ollama.base-url:http://localhost:11434}") String baseUrl) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.baseUri = URI.create(baseUrl);
+        List<OllamaEndpoint> configured = new ArrayList<>();
+        for (OllamaEndpointsProperties.Endpoint endpoint : properties.getEndpoints()) {
+            configured.add(new OllamaEndpoint(endpoint.getUrl(), endpoint.getModels()));
+        }
+        if (configured.isEmpty()) {
+            configured.add(new OllamaEndpoint(baseUrl, List.of()));
+        }
+        this.endpoints = List.copyOf(configured);
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(2_000);
+        requestFactory.setReadTimeout(5_000);
+        this.probeClient = new RestTemplate(requestFactory);
+    }
+
+    public List<OllamaEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Whether the request targets {@code spring.ai.ollama.base-url} and should be
+     * routed to a pool endpoint.
+     */
+    public boolean isRouted(URI uri) {
+        return baseUri.getHost() != null && baseUri.getHost().equalsIgnoreCase(uri.getHost())
+            && baseUri.getPort() == uri.getPort();
+    }
+
+    /**
+     * Endpoints to try for {@code model}, best first. Healthy hosts serving the
+     * model come first, then other healthy hosts, then ejected ones as a last
+     * resort.
+     */
+    public List<OllamaEndpoint> candidates(String model) {
+        Comparator<OllamaEndpoint> order = Comparator
+            .comparing((OllamaEndpoint endpoint) -> !endpoint.isHealthy())
+            .thenComparing(endpoint -> !endpoint.serves(model))
+            .thenComparing(load());
+        List<OllamaEndpoint> candidates = new ArrayList<>(endpoints);
+        candidates.sort(order);
+        return candidates;
+    }
+
+    /**
+     * Number of healthy endpoints serving {@code model}.
+     */
+    public int countAvailable(String model) {
+        int count = 0;
+        for (OllamaEndpoint endpoint : endpoints) {
+            if (endpoint.isHealthy() && endpoint.serves(model)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public OllamaEndpoint select(String model) {
+        return candidates(model).get(0);
+    }
+
+    private Comparator<OllamaEndpoint> load() {
+        if (properties.getBalancing() == Balancing.EWMA_LATENCY) {
+            return Comparator.comparingDouble(endpoint -> endpoint.getLatencyEwmaMs() * (endpoint.getOutstanding() + 1));
+        }
+        return Comparator.comparingInt(OllamaEndpoint::getOutstanding)
+            .thenComparingDouble(OllamaEndpoint::getLatencyEwmaMs);
+    }
+
+    public void begin(OllamaEndpoint endpoint) {
+        endpoint.begin();
+    }
+
+    public void succeeded(OllamaEndpoint endpoint, long latencyNanos) {
+        endpoint.succeeded(latencyNanos, properties.getEwmaAlpha());
+    }
+
+    public void abandoned(OllamaEndpoint endpoint) {
+        endpoint.abandoned();
+    }
+
+    public void failed(OllamaEndpoint endpoint, String error) {
+        int failures = endpoint.failed(error);
+        if (failures >= properties.getFailureThreshold() && endpoint.isHealthy() && endpoints.size() > 1) {
+            endpoint.eject();
+            log.warn("Ejected Ollama endpoint {} after {} consecutive failures: {}", endpoint.getUrl(), failures, error);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mcp.ollama.health-check-interval:PT10S}")
+    public void probe() {
+        for (OllamaEndpoint endpoint : endpoints) {
+            try {
+                String response = probeClient.getForObject(URI.create(endpoint.getUrl() + "/api/tags"), String.class);
+                Set<String> models = new LinkedHashSet<>();
+                JsonNode list = objectMapper.readTree(response).path("models");
+                for (JsonNode model : list) {
+                    models.add(model.path("name").asText());
+                }
+                boolean wasHealthy = endpoint.isHealthy();
+                endpoint.admit(models);
+                if (!wasHealthy) {
+                    log.info("Re-admitted Ollama endpoint {} serving {}", endpoint.getUrl(), models);
+                }
+            }
+            catch (Exception ex) {
+                if (endpoint.isHealthy() && endpoints.size() > 1) {
+                    endpoint.eject();
+                    log.warn("Ejected Ollama endpoint {}: health probe failed: {}", endpoint.getUrl(), ex.getMessage());
+                }
+            }
+        }
+    }
+}
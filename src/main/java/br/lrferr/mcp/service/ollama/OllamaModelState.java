@@ -0,0 +1,77 @@
+package br.lrferr.mcp.service.ollama;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load state of one model on one Ollama endpoint, as last observed by a
+ * warm-up request or a {@code /api/ps} check.
+ */
+public class OllamaModelState {
+
+    public enum State {
+        COLD, LOADING, LOADED, FAILED
+    }
+
+    private volatile State state = State.COLD;
+    private volatile long loadLatencyMs = -1;
+    private volatile Instant loadedAt;
+    private volatile String error;
+
+    /**
+     * Marks the model as loading unless a load is already running. Returns
+     * {@code false} when the caller should not start another load.
+     */
+    public synchronized boolean beginLoad() {
+        if (state == State.LOADING) {
+            return false;
+        }
+        state = State.LOADING;
+        error = null;
+        return true;
+    }
+
+    public void loaded(long latencyMs) {
+        loadLatencyMs = latencyMs;
+        loadedAt = Instant.now();
+        state = State.LOADED;
+    }
+
+    public void failed(String error) {
+        this.error = error;
+        state = State.FAILED;
+    }
+
+    /**
+     * Records what {@code /api/ps} reported for the model.
+     */
+    public synchronized void observed(boolean resident) {
+        if (state == State.LOADING) {
+            return;
+        }
+        if (resident) {
+            state = State.LOADED;
+        }
+        else if (state == State.LOADED) {
+            state = State.COLD;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getLoadLatencyMs() {
+        return loadLatencyMs;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("state", state);
+        map.put("loadLatencyMs", loadLatencyMs < 0 ? null : loadLatencyMs);
+        map.put("loadedAt", loadedAt);
+        map.put("error", error);
+        return map;
+    }
+}
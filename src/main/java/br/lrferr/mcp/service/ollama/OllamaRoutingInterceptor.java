@@ -0,0 +1,131 @@
+package br.lrferr.mcp.service.ollama;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.config.OllamaModelProperties;
+
+/**
+ * Sends requests addressed to {@code spring.ai.ollama.base-url} to the pool
+ * endpoint chosen for the request's model, so the Spring AI client and
+ * {@code RestTemplate} callers are balanced without knowing about the pool.
+ * Connection failures are retried once on the next candidate. Chat and
+ * generate requests without a {@code keep_alive} get the model's configured
+ * one, so pinned models are never unloaded by Ollama's idle timer.
+ */
+@Component
+public class OllamaRoutingInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final OllamaEndpointPool pool;
+    private final ObjectMapper objectMapper;
+    private final OllamaModelProperties modelProperties;
+
+    public OllamaRoutingInterceptor(OllamaEndpointPool pool, ObjectMapper objectMapper,
+            OllamaModelProperties modelProperties) {
+        this.pool = pool;
+        this.objectMapper = objectMapper;
+        this.modelProperties = modelProperties;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!pool.isRouted(request.getURI())) {
+            return execution.execute(request, body);
+        }
+
+        JsonNode json = parse(body);
+        String model = modelOf(json);
+        String path = request.getURI().getPath();
+        if (model != null && json instanceof ObjectNode object && !object.has("keep_alive")
+                && path != null && (path.endsWith("/api/chat") || path.endsWith("/api/generate"))) {
+            putKeepAlive(object, modelProperties.keepAliveFor(model));
+            body = objectMapper.writeValueAsBytes(object);
+            request.getHeaders().setContentLength(body.length);
+        }
+        byte[] payload = body;
+
+        List<OllamaEndpoint> candidates = pool.candidates(model);
+        IOException lastFailure = null;
+        for (int attempt = 0; attempt < Math.min(MAX_ATTEMPTS, candidates.size()); attempt++) {
+            OllamaEndpoint endpoint = candidates.get(attempt);
+            URI target = rewrite(request.getURI(), endpoint);
+            pool.begin(endpoint);
+            long start = System.nanoTime();
+            try {
+                ClientHttpResponse response = execution.execute(new HttpRequestWrapper(request) {
+                    @Override
+                    public URI getURI() {
+                        return target;
+                    }
+                }, payload);
+                if (response.getStatusCode().is5xxServerError()) {
+                    pool.failed(endpoint, "HTTP " + response.getStatusCode().value());
+                }
+                else {
+                    pool.succeeded(endpoint, System.nanoTime() - start);
+                }
+                return response;
+            }
+            catch (IOException ex) {
+                pool.failed(endpoint, ex.getMessage());
+                lastFailure = ex;
+            }
+        }
+        throw lastFailure;
+    }
+
+    private static URI rewrite(URI original, OllamaEndpoint endpoint) {
+        String path = original.getRawPath() == null ? "" : original.getRawPath();
+        String query = original.getRawQuery() == null ? "" : "?" + original.getRawQuery();
+        return URI.create(endpoint.getUrl() + path + query);
+    }
+
+    /**
+     * Sets {@code keep_alive} on an Ollama request. Ollama reads bare numbers as
+     * seconds (negative meaning forever) and strings as Go durations.
+     */
+    public static void putKeepAlive(ObjectNode request, String keepAlive) {
+        if (keepAlive.matches("-?\\d+")) {
+            request.put("keep_alive", Long.parseLong(keepAlive));
+        }
+        else {
+            request.put("keep_alive", keepAlive);
+        }
+    }
+
+    private JsonNode parse(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(body);
+        }
+        catch (IOException ex) {
+            return null;
+        }
+    }
+
+    // Chat and generate requests name the model in "model"; /api/show uses "name".
+    private static String modelOf(JsonNode json) {
+        if (json == null) {
+            return null;
+        }
+        JsonNode model = json.has("model") ? json.get("model") : json.get("name");
+        return model != null && model.isTextual() ? model.asText() : null;
+    }
+}
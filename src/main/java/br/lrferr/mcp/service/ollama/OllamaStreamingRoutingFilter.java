@@ -0,0 +1,155 @@
+package br.lrferr.mcp.service.ollama;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.config.OllamaModelProperties;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link OllamaRoutingInterceptor} for the reactive {@code WebClient} Spring AI
+ * streams chat responses with. Requests addressed to
+ * {@code spring.ai.ollama.base-url} go to a pool endpoint, a connection failure
+ * is retried once on the next candidate, and chat and generate requests
+ * without a {@code keep_alive} get the model's configured one.
+ * <p>
+ * The endpoint is chosen before the body is written, so the model is read from
+ * the subscriber context under {@link #MODEL}; without it the least loaded
+ * healthy endpoint is used. Latency is recorded when the response headers
+ * arrive, as the interceptor does.
+ */
+@Component
+public class OllamaStreamingRoutingFilter implements ExchangeFilterFunction {
+
+    /** Reactor context key of the model a streamed request is for. */
+    public static final String MODEL = OllamaStreamingRoutingFilter.class.getName() + ".model";
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final OllamaEndpointPool pool;
+    private final ObjectMapper objectMapper;
+    private final OllamaModelProperties modelProperties;
+
+    public OllamaStreamingRoutingFilter(OllamaEndpointPool pool, ObjectMapper objectMapper,
+            OllamaModelProperties modelProperties) {
+        this.pool = pool;
+        this.objectMapper = objectMapper;
+        this.modelProperties = modelProperties;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!pool.isRouted(request.url())) {
+            return next.exchange(request);
+        }
+        ClientRequest withKeepAlive = withKeepAlive(request);
+        return Mono.deferContextual(context -> {
+            List<OllamaEndpoint> candidates = pool.candidates(context.getOrDefault(MODEL, null));
+            return exchange(withKeepAlive, next, candidates, 0);
+        });
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next,
+            List<OllamaEndpoint> candidates, int attempt) {
+        OllamaEndpoint endpoint = candidates.get(attempt);
+        ClientRequest routed = ClientRequest.from(request).url(rewrite(request.url(), endpoint)).build();
+        return Mono.defer(() -> {
+            pool.begin(endpoint);
+            long start = System.nanoTime();
+            AtomicBoolean settled = new AtomicBoolean();
+            return next.exchange(routed)
+                .doOnNext(response -> {
+                    if (settled.compareAndSet(false, true)) {
+                        if (response.statusCode().is5xxServerError()) {
+                            pool.failed(endpoint, "HTTP " + response.statusCode().value());
+                        }
+                        else {
+                            pool.succeeded(endpoint, System.nanoTime() - start);
+                        }
+                    }
+                })
+                .doOnError(ex -> {
+                    if (settled.compareAndSet(false, true)) {
+                        pool.failed(endpoint, ex.getMessage());
+                    }
+                })
+                .doOnCancel(() -> {
+                    // The caller gave up, which says nothing about the endpoint.
+                    if (settled.compareAndSet(false, true)) {
+                        pool.abandoned(endpoint);
+                    }
+                })
+                .onErrorResume(WebClientRequestException.class,
+                    ex -> attempt + 1 < Math.min(MAX_ATTEMPTS, candidates.size())
+                        ? exchange(request, next, candidates, attempt + 1)
+                        : Mono.error(ex));
+        });
+    }
+
+    private static URI rewrite(URI original, OllamaEndpoint endpoint) {
+        String path = original.getRawPath() == null ? "" : original.getRawPath();
+        String query = original.getRawQuery() == null ? "" : "?" + original.getRawQuery();
+        return URI.create(endpoint.getUrl() + path + query);
+    }
+
+    // Rewrites the encoded body on its way out; it is one buffer for the single request object.
+    private ClientRequest withKeepAlive(ClientRequest request) {
+        String path = request.url().getPath();
+        if (path == null || !(path.endsWith("/api/chat") || path.endsWith("/api/generate"))) {
+            return request;
+        }
+        BodyInserter<?, ? super ClientHttpRequest> body = request.body();
+        return ClientRequest.from(request)
+            .body((message, context) -> body.insert(new ClientHttpRequestDecorator(message) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> chunks) {
+                    return DataBufferUtils.join(chunks)
+                        .flatMap(buffer -> {
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            DataBufferUtils.release(buffer);
+                            byte[] rewritten = addKeepAlive(bytes);
+                            getHeaders().setContentLength(rewritten.length);
+                            return super.writeWith(Mono.just(bufferFactory().wrap(rewritten)));
+                        })
+                        .switchIfEmpty(Mono.defer(() -> super.writeWith(Mono.empty())));
+                }
+            }, context))
+            .build();
+    }
+
+    private byte[] addKeepAlive(byte[] body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            JsonNode model = json != null ? json.get("model") : null;
+            if (!(json instanceof ObjectNode object) || object.has("keep_alive") || model == null
+                    || !model.isTextual()) {
+                return body;
+            }
+            OllamaRoutingInterceptor.putKeepAlive(object, modelProperties.keepAliveFor(model.asText()));
+            return objectMapper.writeValueAsBytes(object);
+        }
+        catch (IOException ex) {
+            return body;
+        }
+    }
+}
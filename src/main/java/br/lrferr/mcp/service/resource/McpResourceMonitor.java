@@ -0,0 +1,201 @@
+package br.lrferr.mcp.service.resource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.lrferr.mcp.config.ResourceProperties;
+import br.lrferr.mcp.model.McpResourceLimits;
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+
+/**
+ * Samples every running MCP server process tree, and the hedge process of a
+ * server when one runs, and enforces the {@code limits} of its configuration:
+ * soft limits log a warning, hard limits sustained over several samples
+ * trigger the configured action.
+ */
+@Component
+public class McpResourceMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(McpResourceMonitor.class);
+
+    // Hedge processes are reported and limited under the server name with this suffix.
+    static final String HEDGE_SUFFIX = ":hedge";
+
+    private final ResourceProperties properties;
+    private final McpProcessManagerService processManagerService;
+    private final McpSessionManager sessionManager;
+
+    private final Map<String, ServerResources> servers = new ConcurrentHashMap<>();
+    private final ExecutorService restartExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-resource-restart");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public McpResourceMonitor(ResourceProperties properties, McpProcessManagerService processManagerService,
+            McpSessionManager sessionManager) {
+        this.properties = properties;
+        this.processManagerService = processManagerService;
+        this.sessionManager = sessionManager;
+    }
+
+    @Scheduled(fixedDelayString = "${mcp.resources.sample-interval:PT5S}")
+    public void sampleAll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Map<String, RunningServer> running = new LinkedHashMap<>(processManagerService.getRunningServers());
+        sessionManager.getHedgeServers().forEach((name, hedge) -> running.put(name + HEDGE_SUFFIX, hedge));
+        servers.keySet().retainAll(running.keySet());
+        running.forEach((name, server) -> {
+            if (!server.process().isAlive()) {
+                return;
+            }
+            ServerResources resources = servers.computeIfAbsent(name,
+                key -> new ServerResources(properties.getHistorySize()));
+            ProcessSample sample = ProcessSampler.sample(server.process().toHandle(), resources.ring.latest());
+            resources.ring.add(sample);
+            McpResourceLimits limits = server.config().getLimits();
+            resources.limits = limits;
+            if (limits != null) {
+                enforce(name, limits, sample, resources);
+            }
+        });
+    }
+
+    private void enforce(String name, McpResourceLimits limits, ProcessSample sample, ServerResources resources) {
+        List<String> hard = exceeded(sample, limits.getHardRssMb(), limits.getHardCpuPercent(),
+            limits.getHardOpenFds(), limits.getHardThreads());
+        List<String> soft = exceeded(sample, limits.getSoftRssMb(), limits.getSoftCpuPercent(),
+            limits.getSoftOpenFds(), limits.getSoftThreads());
+
+        if (!soft.isEmpty() && !resources.softBreached) {
+            log.warn("MCP server {} (PID {}) above soft limits: {}", name, sample.pid(), soft);
+        }
+        resources.softBreached = !soft.isEmpty();
+        resources.breaches = hard.isEmpty() ? soft : hard;
+
+        if (hard.isEmpty()) {
+            resources.hardSamples = 0;
+            return;
+        }
+        resources.hardSamples++;
+        int sustainedSamples = Math.max(1, limits.getSustainedSamples());
+        if (resources.hardSamples < sustainedSamples) {
+            return;
+        }
+        if (limits.getOnHardLimit() != McpResourceLimits.Action.RESTART) {
+            if (resources.hardSamples == sustainedSamples) {
+                log.warn("MCP server {} (PID {}) above hard limits for {} samples: {}", name, sample.pid(),
+                    resources.hardSamples, hard);
+            }
+            return;
+        }
+        Instant lastRestart = resources.lastRestartAt;
+        if (resources.restarting
+                || (lastRestart != null && lastRestart.plus(properties.getRestartCooldown()).isAfter(Instant.now()))) {
+            return;
+        }
+        resources.restarting = true;
+        log.warn("Restarting MCP server {} (PID {}) after {} samples above hard limits: {}", name, sample.pid(),
+            resources.hardSamples, hard);
+        restartExecutor.execute(() -> {
+            try {
+                if (name.endsWith(HEDGE_SUFFIX)) {
+                    // The next hedged call starts a fresh one.
+                    sessionManager.closeHedgeSession(name.substring(0, name.length() - HEDGE_SUFFIX.length()));
+                }
+                else {
+                    sessionManager.rollingRestart(name, properties.getDrainTimeout());
+                }
+                resources.restarts++;
+            }
+            catch (RuntimeException ex) {
+                log.error("Limit-triggered restart of {} failed: {}", name, ex.getMessage(), ex);
+            }
+            finally {
+                resources.lastRestartAt = Instant.now();
+                resources.hardSamples = 0;
+                resources.restarting = false;
+            }
+        });
+    }
+
+    private static List<String> exceeded(ProcessSample sample, Long rssMb, Double cpuPercent, Integer openFds,
+            Integer threads) {
+        List<String> breaches = new ArrayList<>();
+        if (rssMb != null && sample.rssBytes() >= 0 && sample.rssMb() > rssMb) {
+            breaches.add("rss " + sample.rssMb() + " MB > " + rssMb + " MB");
+        }
+        if (cpuPercent != null && sample.cpuPercent() > cpuPercent) {
+            breaches.add(String.format("cpu %.1f%% > %.1f%%", sample.cpuPercent(), cpuPercent));
+        }
+        if (openFds != null && sample.openFds() > openFds) {
+            breaches.add("fds " + sample.openFds() + " > " + openFds);
+        }
+        if (threads != null && sample.threads() > threads) {
+            breaches.add("threads " + sample.threads() + " > " + threads);
+        }
+        return breaches;
+    }
+
+    /**
+     * Latest sample and limit status of every running server and hedge process.
+     */
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        servers.forEach((name, resources) -> summary.put(name, resources.toMap()));
+        return summary;
+    }
+
+    /**
+     * Up to {@code limit} most recent samples of a server, oldest first.
+     */
+    public List<ProcessSample> getHistory(String serverName, int limit) {
+        ServerResources resources = servers.get(serverName);
+        return resources == null ? List.of() : resources.ring.snapshot(limit);
+    }
+
+    private final class ServerResources {
+
+        final SampleRing ring;
+        volatile McpResourceLimits limits;
+        volatile boolean softBreached;
+        volatile int hardSamples;
+        volatile boolean restarting;
+        volatile Instant lastRestartAt;
+        volatile int restarts;
+        volatile List<String> breaches = List.of();
+
+        ServerResources(int historySize) {
+            this.ring = new SampleRing(historySize);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("latest", ring.latest());
+            map.put("limits", limits);
+            map.put("breaches", breaches);
+            map.put("hardSamples", hardSamples);
+            map.put("restarting", restarting);
+            map.put("restarts", restarts);
+            map.put("lastRestartAt", lastRestartAt);
+            map.put("sampleInterval", properties.getSampleInterval());
+            return map;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package br.lrferr.mcp.service.resource;
+
+import java.time.Instant;
+
+/**
+ * Resource usage of an MCP server process and its descendants at one point in
+ * time. Values that cannot be read on this platform are {@code -1}.
+ */
+public record ProcessSample(
+        Instant timestamp,
+        long pid,
+        int processes,
+        long cpuTimeMs,
+        double cpuPercent,
+        long rssBytes,
+        int openFds,
+        int threads) {
+
+    public long rssMb() {
+        return rssBytes < 0 ? -1 : rssBytes / (1024 * 1024);
+    }
+}
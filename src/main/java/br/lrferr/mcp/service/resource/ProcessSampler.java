@@ -0,0 +1,97 @@
+package br.lrferr.mcp.service.resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads the resource usage of a process tree. CPU time comes from
+ * {@link ProcessHandle}; memory, threads and file descriptors come from
+ * {@code /proc/<pid>} and are reported as {@code -1} where it does not exist.
+ */
+final class ProcessSampler {
+
+    private static final Path PROC = Path.of("/proc");
+
+    private ProcessSampler() {
+    }
+
+    /**
+     * Samples {@code root} and its live descendants. {@code previous} is the last
+     * sample of the same process and is used to turn CPU time into a percentage.
+     */
+    static ProcessSample sample(ProcessHandle root, ProcessSample previous) {
+        List<ProcessHandle> tree = new ArrayList<>();
+        tree.add(root);
+        root.descendants().filter(ProcessHandle::isAlive).forEach(tree::add);
+
+        Instant now = Instant.now();
+        long cpuNanos = 0;
+        long rssKb = 0;
+        int fds = 0;
+        int threads = 0;
+        boolean procAvailable = Files.isDirectory(PROC.resolve(Long.toString(root.pid())));
+        for (ProcessHandle handle : tree) {
+            cpuNanos += handle.info().totalCpuDuration().orElse(Duration.ZERO).toNanos();
+            if (procAvailable) {
+                long[] status = readStatus(handle.pid());
+                rssKb += status[0];
+                threads += (int) status[1];
+                fds += countFds(handle.pid());
+            }
+        }
+
+        long cpuTimeMs = cpuNanos / 1_000_000;
+        double cpuPercent = 0.0;
+        if (previous != null && previous.pid() == root.pid()) {
+            long wallMs = Duration.between(previous.timestamp(), now).toMillis();
+            if (wallMs > 0) {
+                cpuPercent = Math.max(0, cpuTimeMs - previous.cpuTimeMs()) * 100.0 / wallMs;
+            }
+        }
+        return new ProcessSample(now, root.pid(), tree.size(), cpuTimeMs, cpuPercent,
+            procAvailable ? rssKb * 1024 : -1, procAvailable ? fds : -1, procAvailable ? threads : -1);
+    }
+
+    // Returns {VmRSS in kB, Threads}; zeros when the process is gone.
+    private static long[] readStatus(long pid) {
+        long[] values = new long[2];
+        try {
+            for (String line : Files.readAllLines(PROC.resolve(pid + "/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    values[0] = parseLeadingNumber(line.substring(6));
+                }
+                else if (line.startsWith("Threads:")) {
+                    values[1] = parseLeadingNumber(line.substring(8));
+                }
+            }
+        }
+        catch (IOException | RuntimeException ex) {
+            // Process exited between listing and reading.
+        }
+        return values;
+    }
+
+    private static long parseLeadingNumber(String text) {
+        String trimmed = text.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isDigit(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? 0 : Long.parseLong(trimmed.substring(0, end));
+    }
+
+    private static int countFds(long pid) {
+        try (Stream<Path> entries = Files.list(PROC.resolve(pid + "/fd"))) {
+            return (int) entries.count();
+        }
+        catch (IOException | RuntimeException ex) {
+            return 0;
+        }
+    }
+}
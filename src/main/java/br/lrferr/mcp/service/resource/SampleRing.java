@@ -0,0 +1,46 @@
+package br.lrferr.mcp.service.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent samples of one server. Writers never
+ * block readers; a reader may miss a sample being written concurrently.
+ */
+final class SampleRing {
+
+    private final AtomicReferenceArray<ProcessSample> samples;
+    private final AtomicLong cursor = new AtomicLong();
+
+    SampleRing(int size) {
+        this.samples = new AtomicReferenceArray<>(Math.max(1, size));
+    }
+
+    void add(ProcessSample sample) {
+        long slot = cursor.getAndIncrement();
+        samples.set((int) (slot % samples.length()), sample);
+    }
+
+    ProcessSample latest() {
+        long written = cursor.get();
+        return written == 0 ? null : samples.get((int) ((written - 1) % samples.length()));
+    }
+
+    /**
+     * Returns up to {@code limit} samples, oldest first.
+     */
+    List<ProcessSample> snapshot(int limit) {
+        long end = cursor.get();
+        long start = Math.max(0, end - Math.min(limit, samples.length()));
+        List<ProcessSample> result = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            ProcessSample sample = samples.get((int) (i % samples.length()));
+            if (sample != null) {
+                result.add(sample);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,156 @@
+package br.lrferr.mcp.service.routing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+
+/**
+ * Immutable Aho-Corasick automaton that finds every keyword occurring in a
+ * text with a single left-to-right scan. Matching is case-insensitive.
+ */
+public final class AhoCorasickMatcher {
+
+    private static final int ROOT = 0;
+
+    private final String[] patterns;
+
+    // Per-node transitions kept as sorted parallel arrays for binary search.
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    private final int[][] outputs;
+
+    private AhoCorasickMatcher(String[] patterns, char[][] edgeChars, int[][] edgeTargets, int[] failure,
+            int[][] outputs) {
+        this.patterns = patterns;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.outputs = outputs;
+    }
+
+    public static AhoCorasickMatcher compile(Collection<String> keywords) {
+        List<String> normalized = keywords.stream()
+            .filter(keyword -> keyword != null && !keyword.isBlank())
+            .map(keyword -> keyword.toLowerCase(Locale.ROOT))
+            .distinct()
+            .toList();
+
+        List<StringBuilder> chars = new ArrayList<>();
+        List<List<Integer>> targets = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        chars.add(new StringBuilder());
+        targets.add(new ArrayList<>());
+        nodeOutputs.add(new ArrayList<>());
+
+        for (int p = 0; p < normalized.size(); p++) {
+            String pattern = normalized.get(p);
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                int idx = chars.get(node).indexOf(String.valueOf(c));
+                if (idx >= 0) {
+                    node = targets.get(node).get(idx);
+                    continue;
+                }
+                int next = chars.size();
+                chars.add(new StringBuilder());
+                targets.add(new ArrayList<>());
+                nodeOutputs.add(new ArrayList<>());
+                chars.get(node).append(c);
+                targets.get(node).add(next);
+                node = next;
+            }
+            nodeOutputs.get(node).add(p);
+        }
+
+        int size = chars.size();
+        char[][] edgeChars = new char[size][];
+        int[][] edgeTargets = new int[size][];
+        for (int n = 0; n < size; n++) {
+            sortEdges(chars.get(n), targets.get(n), edgeChars, edgeTargets, n);
+        }
+
+        int[] failure = new int[size];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[ROOT]) {
+            failure[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int e = 0; e < edgeChars[node].length; e++) {
+                char c = edgeChars[node][e];
+                int child = edgeTargets[node][e];
+                int f = failure[node];
+                int fallback;
+                while ((fallback = step(edgeChars, edgeTargets, f, c)) < 0 && f != ROOT) {
+                    f = failure[f];
+                }
+                failure[child] = fallback >= 0 && fallback != child ? fallback : ROOT;
+                nodeOutputs.get(child).addAll(nodeOutputs.get(failure[child]));
+                queue.add(child);
+            }
+        }
+
+        int[][] outputs = new int[size][];
+        for (int n = 0; n < size; n++) {
+            outputs[n] = nodeOutputs.get(n).stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+        return new AhoCorasickMatcher(normalized.toArray(String[]::new), edgeChars, edgeTargets, failure, outputs);
+    }
+
+    private static void sortEdges(StringBuilder chars, List<Integer> targets, char[][] edgeChars,
+            int[][] edgeTargets, int node) {
+        Integer[] order = new Integer[chars.length()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Character.compare(chars.charAt(a), chars.charAt(b)));
+        edgeChars[node] = new char[order.length];
+        edgeTargets[node] = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            edgeChars[node][i] = chars.charAt(order[i]);
+            edgeTargets[node][i] = targets.get(order[i]);
+        }
+    }
+
+    private static int step(char[][] edgeChars, int[][] edgeTargets, int node, char c) {
+        int idx = Arrays.binarySearch(edgeChars[node], c);
+        return idx >= 0 ? edgeTargets[node][idx] : -1;
+    }
+
+    /**
+     * Returns the indexes (into {@link #patterns()}) of every keyword found in
+     * the text. Each keyword is reported at most once.
+     */
+    public BitSet match(CharSequence text) {
+        BitSet found = new BitSet(patterns.length);
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next;
+            while ((next = step(edgeChars, edgeTargets, node, c)) < 0 && node != ROOT) {
+                node = failure[node];
+            }
+            node = next < 0 ? ROOT : next;
+            for (int output : outputs[node]) {
+                found.set(output);
+            }
+        }
+        return found;
+    }
+
+    public List<String> patterns() {
+        return List.of(patterns);
+    }
+
+    public String pattern(int index) {
+        return patterns[index];
+    }
+}
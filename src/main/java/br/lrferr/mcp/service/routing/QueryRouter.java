@@ -0,0 +1,160 @@
+package br.lrferr.mcp.service.routing;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import br.lrferr.mcp.config.RoutingProperties;
+import br.lrferr.mcp.model.McpServerConfig;
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
+import br.lrferr.mcp.service.routing.RoutingDecision.Route;
+
+/**
+ * Decides whether a prompt should be answered through the MCP data path or the
+ * general LLM path. Keywords are compiled into one Aho-Corasick automaton per
+ * server so a prompt is scanned once regardless of the number of keywords.
+ */
+@Component
+public class QueryRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryRouter.class);
+
+    private static final int PROMPT_PREVIEW_LENGTH = 200;
+
+    private final RoutingProperties properties;
+    private final McpProcessManagerService processManagerService;
+
+    private final Map<String, CompiledKeywords> matchers = new ConcurrentHashMap<>();
+    private final Deque<RoutingDecision> history = new ArrayDeque<>();
+    private final AtomicLong dataRoutes = new AtomicLong();
+    private final AtomicLong generalRoutes = new AtomicLong();
+
+    public QueryRouter(RoutingProperties properties, McpProcessManagerService processManagerService) {
+        this.properties = properties;
+        this.processManagerService = processManagerService;
+    }
+
+    public RoutingDecision route(String serverName, String prompt) {
+        long start = System.nanoTime();
+        AhoCorasickMatcher matcher = matcherFor(serverName);
+        BitSet hits = matcher.match(prompt);
+
+        List<String> matched = new ArrayList<>(hits.cardinality());
+        double score = 0;
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            String keyword = matcher.pattern(i);
+            matched.add(keyword);
+            score += properties.getWeights().getOrDefault(keyword, 1.0);
+        }
+
+        boolean data;
+        double confidence;
+        if (properties.isClassifierEnabled()) {
+            double threshold = properties.getThreshold();
+            data = score >= threshold;
+            // Prompts on the threshold are a coin toss; one threshold's width away is certain.
+            confidence = 0.5 + Math.abs(score - threshold) / Math.max(threshold, 1e-9);
+        }
+        else {
+            data = !matched.isEmpty();
+            confidence = 1.0;
+        }
+
+        RoutingDecision decision = new RoutingDecision(Instant.now(), serverName, preview(prompt),
+            data ? Route.DATA : Route.GENERAL, score, Math.min(1.0, confidence), List.copyOf(matched),
+            System.nanoTime() - start);
+        record(decision);
+        log.debug("Routed prompt for {} to {} (score {}, matched {})", serverName, decision.route(), score, matched);
+        return decision;
+    }
+
+    /**
+     * Drops the compiled automaton for a server so it is rebuilt from the current
+     * configuration on the next prompt.
+     */
+    public void invalidate(String serverName) {
+        matchers.remove(serverName);
+    }
+
+    public List<RoutingDecision> getRecentDecisions(int limit) {
+        synchronized (history) {
+            List<RoutingDecision> recent = new ArrayList<>(Math.min(limit, history.size()));
+            var it = history.descendingIterator();
+            while (it.hasNext() && recent.size() < limit) {
+                recent.add(it.next());
+            }
+            return recent;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new java.util.LinkedHashMap<>();
+        stats.put("dataRoutes", dataRoutes.get());
+        stats.put("generalRoutes", generalRoutes.get());
+        stats.put("classifierEnabled", properties.isClassifierEnabled());
+        stats.put("threshold", properties.getThreshold());
+        stats.put("compiledServers", matchers.keySet());
+        return stats;
+    }
+
+    private void record(RoutingDecision decision) {
+        (decision.isData() ? dataRoutes : generalRoutes).incrementAndGet();
+        int capacity = properties.getHistorySize();
+        if (capacity <= 0) {
+            return;
+        }
+        synchronized (history) {
+            while (history.size() >= capacity) {
+                history.pollFirst();
+            }
+            history.addLast(decision);
+        }
+    }
+
+    private AhoCorasickMatcher matcherFor(String serverName) {
+        McpServerConfig config = serverConfig(serverName);
+        CompiledKeywords compiled = matchers.get(serverName);
+        if (compiled == null || compiled.source() != config) {
+            compiled = new CompiledKeywords(config, AhoCorasickMatcher.compile(keywordsFor(config)));
+            matchers.put(serverName, compiled);
+        }
+        return compiled.matcher();
+    }
+
+    private Set<String> keywordsFor(McpServerConfig config) {
+        Set<String> keywords = new LinkedHashSet<>(properties.getKeywords());
+        keywords.addAll(properties.getWeights().keySet());
+        if (config != null && config.getKeywords() != null) {
+            keywords.addAll(config.getKeywords());
+        }
+        return keywords;
+    }
+
+    private McpServerConfig serverConfig(String serverName) {
+        if (serverName == null) {
+            return null;
+        }
+        RunningServer running = processManagerService.getRunningServer(serverName);
+        return running != null ? running.config() : null;
+    }
+
+    private static String preview(String prompt) {
+        return prompt.length() <= PROMPT_PREVIEW_LENGTH ? prompt : prompt.substring(0, PROMPT_PREVIEW_LENGTH) + "...";
+    }
+
+    private record CompiledKeywords(McpServerConfig source, AhoCorasickMatcher matcher) {
+    }
+}
@@ -0,0 +1,21 @@
+package br.lrferr.mcp.service.routing;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outcome of routing a single prompt, kept so keyword sets and weights can be
+ * tuned against real traffic.
+ */
+public record RoutingDecision(Instant timestamp, String serverName, String prompt, Route route, double score,
+        double confidence, List<String> matchedKeywords, long elapsedNanos) {
+
+    public enum Route {
+        DATA,
+        GENERAL
+    }
+
+    public boolean isData() {
+        return route == Route.DATA;
+    }
+}
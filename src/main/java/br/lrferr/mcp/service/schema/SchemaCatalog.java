@@ -0,0 +1,110 @@
+package br.lrferr.mcp.service.schema;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the tables behind one MCP server, indexed by name
+ * tokens so the tables relevant to a prompt can be found without scanning
+ * every column.
+ */
+public class SchemaCatalog {
+
+    private static final int TABLE_WEIGHT = 3;
+    private static final int SCHEMA_WEIGHT = 1;
+    private static final int COLUMN_WEIGHT = 1;
+
+    private final List<TableInfo> tables;
+    private final Instant loadedAt;
+    private final String error;
+
+    // token -> (table index -> score contribution)
+    private final Map<String, Map<Integer, Integer>> index = new HashMap<>();
+
+    public SchemaCatalog(List<TableInfo> tables, Instant loadedAt, String error) {
+        this.tables = List.copyOf(tables);
+        this.loadedAt = loadedAt;
+        this.error = error;
+        for (int i = 0; i < this.tables.size(); i++) {
+            TableInfo table = this.tables.get(i);
+            indexName(table.name(), i, TABLE_WEIGHT);
+            indexName(table.schema(), i, SCHEMA_WEIGHT);
+            for (String column : table.columns()) {
+                indexName(column, i, COLUMN_WEIGHT);
+            }
+        }
+    }
+
+    public static SchemaCatalog failed(String error) {
+        return new SchemaCatalog(List.of(), Instant.now(), error);
+    }
+
+    private void indexName(String name, int table, int weight) {
+        if (name == null) {
+            return;
+        }
+        for (String token : tokenize(name)) {
+            index.computeIfAbsent(token, key -> new HashMap<>()).merge(table, weight, Math::max);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} tables whose names or columns share tokens with
+     * the prompt, best match first.
+     */
+    public List<TableInfo> findRelevant(String prompt, int limit) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        for (String token : tokenize(prompt)) {
+            Map<Integer, Integer> hits = index.get(token);
+            if (hits != null) {
+                hits.forEach((table, weight) -> scores.merge(table, weight, Integer::sum));
+            }
+        }
+        List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder())
+            .thenComparing(Map.Entry.comparingByKey()));
+        return ranked.stream().limit(limit).map(entry -> tables.get(entry.getKey())).toList();
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (String part : lower.split("[^\\p{L}\\p{N}_]+")) {
+            if (part.length() < 2) {
+                continue;
+            }
+            tokens.add(part);
+            if (part.indexOf('_') >= 0) {
+                for (String piece : part.split("_")) {
+                    if (piece.length() >= 3) {
+                        tokens.add(piece);
+                    }
+                }
+            }
+        }
+        return tokens;
+    }
+
+    public List<TableInfo> getTables() {
+        return tables;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+}
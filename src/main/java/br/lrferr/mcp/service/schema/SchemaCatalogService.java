@@ -0,0 +1,378 @@
+package br.lrferr.mcp.service.schema;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.config.SchemaProperties;
+import br.lrferr.mcp.model.McpServerConfig;
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
+import br.lrferr.mcp.service.mcp.McpSession;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+import br.lrferr.mcp.service.mcp.McpToolInvoker;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Caches the table/column catalog of each MCP server and selects the tables
+ * relevant to a prompt, so SQL generation sees real names without sending the
+ * whole schema to the model. Catalogs of running servers are loaded in the
+ * background, so prompts rarely wait for the dictionary query.
+ */
+@Service
+public class SchemaCatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaCatalogService.class);
+
+    private static final String QUERY_TOOL = "execute_safe_query";
+    private static final int MAX_ROW_SEARCH_DEPTH = 4;
+
+    // Without configured schemas only the connection's own schema is read; a whole dictionary can be huge.
+    private static final String ORACLE_CURRENT_SCHEMA = "SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')";
+    private static final String MYSQL_CURRENT_SCHEMA = "DATABASE()";
+
+    private static final Set<String> SCHEMA_KEYS = Set.of("owner", "table_schema", "schema", "schema_name");
+    private static final Set<String> TABLE_KEYS = Set.of("table_name", "table", "name");
+    private static final Set<String> COLUMN_KEYS = Set.of("column_name", "column");
+
+    private final SchemaProperties properties;
+    private final McpProcessManagerService processManagerService;
+    private final McpSessionManager sessionManager;
+    private final McpToolInvoker toolInvoker;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, SchemaCatalog> catalogs = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<SchemaCatalog>> loading = new ConcurrentHashMap<>();
+    private final Set<String> warming = ConcurrentHashMap.newKeySet();
+    private final ExecutorService warmer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "schema-catalog-warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SchemaCatalogService(SchemaProperties properties, McpProcessManagerService processManagerService,
+            McpSessionManager sessionManager, McpToolInvoker toolInvoker, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.processManagerService = processManagerService;
+        this.sessionManager = sessionManager;
+        this.toolInvoker = toolInvoker;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the prompt section describing the tables relevant to
+     * {@code prompt}, or an empty string when nothing relevant is known.
+     */
+    public String describeRelevantTables(String serverName, String prompt) {
+        if (!properties.isEnabled() || serverName == null) {
+            return "";
+        }
+        List<TableInfo> tables = getCatalog(serverName).findRelevant(prompt, properties.getMaxTables());
+        if (tables.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder("Known tables (use only these names):\n");
+        for (TableInfo table : tables) {
+            builder.append("- ").append(table.qualifiedName()).append('(');
+            List<String> columns = table.columns();
+            builder.append(columns.stream().limit(properties.getMaxColumns()).collect(Collectors.joining(", ")));
+            if (columns.size() > properties.getMaxColumns()) {
+                builder.append(", ...");
+            }
+            builder.append(")\n");
+        }
+        return builder.toString();
+    }
+
+    public SchemaCatalog getCatalog(String serverName) {
+        SchemaCatalog cached = catalogs.get(serverName);
+        if (cached != null && !isExpired(cached, Duration.ZERO)) {
+            return cached;
+        }
+        return loadOnce(serverName, Duration.ZERO);
+    }
+
+    /**
+     * Loads, on a background thread, the catalog of every running server that
+     * has none yet or whose catalog expires before the next run.
+     */
+    @Scheduled(fixedDelayString = "${mcp.schema.warm-interval:PT10S}")
+    public void warmCatalogs() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Duration ahead = properties.getWarmInterval();
+        processManagerService.getRunningServers().forEach((serverName, running) -> {
+            SchemaCatalog cached = catalogs.get(serverName);
+            if ((cached != null && !isExpired(cached, ahead)) || !canLoad(serverName, running.config())
+                    || !warming.add(serverName)) {
+                return;
+            }
+            warmer.execute(() -> {
+                try {
+                    loadOnce(serverName, ahead);
+                }
+                catch (RuntimeException ex) {
+                    log.debug("Warming the schema catalog of {} failed: {}", serverName, ex.getMessage());
+                }
+                finally {
+                    warming.remove(serverName);
+                }
+            });
+        });
+    }
+
+    private SchemaCatalog loadOnce(String serverName, Duration ahead) {
+        // One caller loads while the others wait on its future; the tool call runs outside any map lock.
+        CompletableFuture<SchemaCatalog> mine = new CompletableFuture<>();
+        CompletableFuture<SchemaCatalog> inProgress = loading.putIfAbsent(serverName, mine);
+        if (inProgress != null) {
+            return inProgress.join();
+        }
+        try {
+            SchemaCatalog current = catalogs.get(serverName);
+            SchemaCatalog catalog = current != null && !isExpired(current, ahead) ? current : load(serverName);
+            catalogs.put(serverName, catalog);
+            mine.complete(catalog);
+            return catalog;
+        }
+        catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+        finally {
+            loading.remove(serverName, mine);
+        }
+    }
+
+    public void invalidate(String serverName) {
+        catalogs.remove(serverName);
+        log.info("Invalidated schema catalog for {}", serverName);
+    }
+
+    public void invalidateAll() {
+        catalogs.clear();
+    }
+
+    public Map<String, SchemaCatalog> getCachedCatalogs() {
+        return Map.copyOf(catalogs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        warmer.shutdownNow();
+    }
+
+    /**
+     * Whether the catalog expires within {@code ahead}.
+     */
+    private boolean isExpired(SchemaCatalog catalog, Duration ahead) {
+        Instant expiresAt = catalog.getLoadedAt().plus(catalog.isFailed() ? properties.getFailureTtl() : properties.getTtl());
+        return Instant.now().plus(ahead).isAfter(expiresAt);
+    }
+
+    private boolean canLoad(String serverName, McpServerConfig config) {
+        return (config.getSchemaTool() != null && !config.getSchemaTool().isBlank())
+            || catalogSql(processManagerService.getDatabaseType(serverName), config.getSchemas()) != null;
+    }
+
+    private SchemaCatalog load(String serverName) {
+        RunningServer running = processManagerService.getRunningServer(serverName);
+        if (running == null) {
+            return SchemaCatalog.failed("MCP server not running: " + serverName);
+        }
+        try {
+            McpSession session = sessionManager.getOrCreateSession(serverName);
+            JsonNode result = fetchCatalog(serverName, running.config(), session);
+            List<JsonNode> rows = findRows(result, 0);
+            if (rows.size() >= properties.getMaxRows()) {
+                log.warn("Schema catalog for {} cut at {} rows; narrow its \"schemas\" in mcp.json or raise "
+                    + "mcp.schema.max-rows", serverName, properties.getMaxRows());
+                rows = rows.subList(0, properties.getMaxRows());
+            }
+            List<TableInfo> tables = toTables(rows);
+            log.info("Loaded schema catalog for {}: {} tables", serverName, tables.size());
+            return new SchemaCatalog(tables, Instant.now(), null);
+        }
+        catch (RuntimeException ex) {
+            log.warn("Failed to load schema catalog for {}: {}", serverName, ex.getMessage());
+            return SchemaCatalog.failed(ex.getMessage());
+        }
+    }
+
+    private JsonNode fetchCatalog(String serverName, McpServerConfig config, McpSession session) {
+        if (config.getSchemaTool() != null && !config.getSchemaTool().isBlank()) {
+            return invoke(session, config.getSchemaTool(), objectMapper.createObjectNode());
+        }
+        String databaseType = processManagerService.getDatabaseType(serverName);
+        String sql = catalogSql(databaseType, config.getSchemas());
+        if (sql == null) {
+            throw new IllegalStateException("No schemaTool or known databaseType for " + serverName);
+        }
+        ObjectNode arguments = objectMapper.createObjectNode();
+        arguments.put("query", sql);
+        arguments.put("databaseType", databaseType);
+        return invoke(session, QUERY_TOOL, arguments);
+    }
+
+    private String catalogSql(String databaseType, List<String> schemas) {
+        if ("oracle".equals(databaseType)) {
+            return "SELECT owner, table_name, column_name FROM all_tab_columns WHERE owner "
+                + scope(schemas, ORACLE_CURRENT_SCHEMA) + " ORDER BY owner, table_name, column_id "
+                + "FETCH FIRST " + properties.getMaxRows() + " ROWS ONLY";
+        }
+        if ("mysql".equals(databaseType)) {
+            return "SELECT table_schema, table_name, column_name FROM information_schema.columns WHERE table_schema "
+                + scope(schemas, MYSQL_CURRENT_SCHEMA) + " ORDER BY table_schema, table_name, ordinal_position "
+                + "LIMIT " + properties.getMaxRows();
+        }
+        return null;
+    }
+
+    private static String scope(List<String> schemas, String currentSchema) {
+        if (schemas == null || schemas.isEmpty()) {
+            return "= " + currentSchema;
+        }
+        return schemas.stream()
+            .map(schema -> "'" + schema.replace("'", "''") + "'")
+            .collect(Collectors.joining(", ", "IN (", ")"));
+    }
+
+    private JsonNode invoke(McpSession session, String toolName, JsonNode arguments) {
+        String requestId = UUID.randomUUID().toString();
+        long timeoutMs = properties.getLoadTimeout().toMillis();
+        try {
+            return toolInvoker.invokeToolAsync(session, toolName, arguments, requestId)
+                .get(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException ex) {
+            session.cancel(requestId, "timeout");
+            throw new IllegalStateException("No catalog within " + timeoutMs + " ms");
+        }
+        catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(ex.getCause());
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the schema catalog", ex);
+        }
+    }
+
+    /**
+     * Finds the first array of objects in a tool result, looking inside MCP
+     * {@code content[].text} entries that carry JSON.
+     */
+    private List<JsonNode> findRows(JsonNode node, int depth) {
+        if (node == null || depth > MAX_ROW_SEARCH_DEPTH) {
+            return List.of();
+        }
+        if (node.isTextual()) {
+            try {
+                return findRows(objectMapper.readTree(node.asText()), depth + 1);
+            }
+            catch (Exception ex) {
+                return List.of();
+            }
+        }
+        if (node.isArray()) {
+            if (node.size() > 0 && node.get(0).isObject() && hasAny(node.get(0), TABLE_KEYS)) {
+                List<JsonNode> rows = new ArrayList<>(node.size());
+                node.forEach(rows::add);
+                return rows;
+            }
+            for (JsonNode child : node) {
+                List<JsonNode> rows = findRows(child.isObject() && child.has("text") ? child.get("text") : child, depth + 1);
+                if (!rows.isEmpty()) {
+                    return rows;
+                }
+            }
+            return List.of();
+        }
+        if (node.isObject()) {
+            Iterator<JsonNode> fields = node.elements();
+            while (fields.hasNext()) {
+                List<JsonNode> rows = findRows(fields.next(), depth + 1);
+                if (!rows.isEmpty()) {
+                    return rows;
+                }
+            }
+        }
+        return List.of();
+    }
+
+    private List<TableInfo> toTables(List<JsonNode> rows) {
+        Map<String, String[]> names = new LinkedHashMap<>();
+        Map<String, Set<String>> columns = new LinkedHashMap<>();
+        for (JsonNode row : rows) {
+            String schema = value(row, SCHEMA_KEYS);
+            String table = value(row, TABLE_KEYS);
+            if (table == null) {
+                continue;
+            }
+            String key = (schema != null ? schema : "") + "." + table;
+            names.putIfAbsent(key, new String[] { schema, table });
+            Set<String> tableColumns = columns.computeIfAbsent(key, k -> new LinkedHashSet<>());
+            String column = value(row, COLUMN_KEYS);
+            if (column != null) {
+                tableColumns.add(column);
+            }
+            JsonNode nested = field(row, Set.of("columns"));
+            if (nested != null && nested.isArray()) {
+                for (JsonNode entry : nested) {
+                    String nestedName = entry.isTextual() ? entry.asText() : value(entry, Set.of("column_name", "name"));
+                    if (nestedName != null) {
+                        tableColumns.add(nestedName);
+                    }
+                }
+            }
+        }
+        List<TableInfo> tables = new ArrayList<>(names.size());
+        names.forEach((key, name) -> tables.add(new TableInfo(name[0], name[1], List.copyOf(columns.get(key)))));
+        return tables;
+    }
+
+    private static boolean hasAny(JsonNode row, Set<String> keys) {
+        return field(row, keys) != null;
+    }
+
+    private static String value(JsonNode row, Set<String> keys) {
+        JsonNode node = field(row, keys);
+        return node != null && node.isValueNode() && !node.isNull() ? node.asText() : null;
+    }
+
+    private static JsonNode field(JsonNode row, Set<String> keys) {
+        Iterator<Map.Entry<String, JsonNode>> fields = row.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (keys.contains(field.getKey().toLowerCase(Locale.ROOT))) {
+                return field.getValue();
+            }
+        }
+        return null;
+    }
+}
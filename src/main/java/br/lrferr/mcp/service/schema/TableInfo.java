@@ -0,0 +1,13 @@
+package br.lrferr.mcp.service.schema;
+
+import java.util.List;
+
+/**
+ * A table (or view) known to an MCP server's database.
+ */
+public record TableInfo(String schema, String name, List<String> columns) {
+
+    public String qualifiedName() {
+        return schema == null || schema.isBlank() ? name : schema + "." + name;
+    }
+}
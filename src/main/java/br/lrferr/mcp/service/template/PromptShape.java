@@ -0,0 +1,49 @@
+package br.lrferr.mcp.service.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A prompt with its literals (quoted strings, dates, license plates and
+ * numbers) replaced by {@code {p1}}, {@code {p2}}, ... placeholders. Prompts
+ * with the same shape can share one SQL template.
+ */
+public record PromptShape(String text, String key, List<String> values) {
+
+    // Order matters: earlier alternatives win, so dates and plates are not split into numbers.
+    // Only '.' is a decimal point: "1,2,3" is a list of three numbers, never 1.2 and 3.
+    private static final Pattern LITERAL = Pattern.compile(
+        "'([^']*)'|\"([^\"]*)\""
+            + "|\\b(\\d{4}-\\d{2}-\\d{2}|\\d{2}/\\d{2}/\\d{4})\\b"
+            + "|\\b([A-Za-z]{3}-?\\d[A-Za-z0-9]\\d{2})\\b"
+            + "|(?<![\\p{L}\\d_.])(\\d+(?:\\.\\d+)?)(?![\\p{L}\\d_])");
+
+    public static PromptShape of(String prompt) {
+        Matcher matcher = LITERAL.matcher(prompt);
+        StringBuilder text = new StringBuilder();
+        List<String> values = new ArrayList<>();
+        while (matcher.find()) {
+            String value = null;
+            for (int group = 1; group <= matcher.groupCount() && value == null; group++) {
+                value = matcher.group(group);
+            }
+            values.add(value);
+            matcher.appendReplacement(text, Matcher.quoteReplacement(placeholder(values.size())));
+        }
+        matcher.appendTail(text);
+        String shaped = text.toString();
+        String key = shaped.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+        return new PromptShape(shaped, key, List.copyOf(values));
+    }
+
+    public static String placeholder(int index) {
+        return "{p" + index + "}";
+    }
+
+    public boolean hasParameters() {
+        return !values.isEmpty();
+    }
+}
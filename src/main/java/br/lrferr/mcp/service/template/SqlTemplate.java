@@ -0,0 +1,68 @@
+package br.lrferr.mcp.service.template;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cached parameterized SQL statement for one prompt shape on one server.
+ */
+public class SqlTemplate {
+
+    private final String serverName;
+    private final String shape;
+    private final String sql;
+    private final int parameterCount;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong hits = new AtomicLong();
+
+    private volatile Instant lastHitAt;
+
+    SqlTemplate(String serverName, String shape, String sql, int parameterCount) {
+        this.serverName = serverName;
+        this.shape = shape;
+        this.sql = sql;
+        this.parameterCount = parameterCount;
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+        lastHitAt = Instant.now();
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public Instant getLastHitAt() {
+        return lastHitAt;
+    }
+
+    /**
+     * Share of this shape's prompts answered from the template: the first prompt
+     * built it, every later one is a hit.
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        return hitCount / (double) (hitCount + 1);
+    }
+}
@@ -0,0 +1,162 @@
+package br.lrferr.mcp.service.template;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import br.lrferr.mcp.config.SqlTemplateProperties;
+
+/**
+ * LRU cache of parameterized SQL templates keyed by server and prompt shape.
+ * Hits are answered by binding the new prompt's literals into the template,
+ * without another LLM call.
+ */
+@Component
+public class SqlTemplateCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTemplateCache.class);
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("(')?\\{p(\\d+)\\}(')?");
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(?:\\.\\d+)?");
+
+    private final SqlTemplateProperties properties;
+    private final Map<String, SqlTemplate> templates;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SqlTemplateCache(SqlTemplateProperties properties) {
+        this.properties = properties;
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SqlTemplate> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Returns the SQL for {@code shape} bound with its values, if a template for
+     * the shape is cached.
+     */
+    public Optional<String> lookup(String serverName, PromptShape shape) {
+        SqlTemplate template;
+        synchronized (templates) {
+            template = templates.get(key(serverName, shape));
+        }
+        if (template == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        template.recordHit();
+        hits.incrementAndGet();
+        return Optional.of(bind(template.getSql(), shape));
+    }
+
+    /**
+     * Caches a template generated by the LLM if it uses every placeholder of the
+     * shape, and returns it bound with the shape's values. Returns empty when
+     * the template is unusable.
+     */
+    public Optional<String> store(String serverName, PromptShape shape, String sqlTemplate) {
+        for (int i = 1; i <= shape.values().size(); i++) {
+            if (!sqlTemplate.contains(PromptShape.placeholder(i))) {
+                log.debug("Discarding SQL template without {}: {}", PromptShape.placeholder(i), sqlTemplate);
+                return Optional.empty();
+            }
+        }
+        SqlTemplate template = new SqlTemplate(serverName, shape.key(), sqlTemplate, shape.values().size());
+        synchronized (templates) {
+            templates.put(key(serverName, shape), template);
+        }
+        log.info("Cached SQL template for '{}' on {}", shape.key(), serverName);
+        return Optional.of(bind(sqlTemplate, shape));
+    }
+
+    public List<SqlTemplate> getTemplates() {
+        List<SqlTemplate> snapshot;
+        synchronized (templates) {
+            snapshot = new ArrayList<>(templates.values());
+        }
+        snapshot.sort(Comparator.comparingLong(SqlTemplate::getHits).reversed());
+        return snapshot;
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("size", templates.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : hitCount / (double) (hitCount + missCount));
+        return stats;
+    }
+
+    public void clear() {
+        synchronized (templates) {
+            templates.clear();
+        }
+    }
+
+    private static String key(String serverName, PromptShape shape) {
+        return serverName + "|" + shape.key();
+    }
+
+    /**
+     * Substitutes placeholders with SQL literals. Values inside quotes in the
+     * template are escaped; unquoted numeric values are inlined, negative ones
+     * in parentheses, and any other unquoted value is quoted.
+     */
+    static String bind(String sql, PromptShape shape) {
+        Matcher matcher = PLACEHOLDER.matcher(sql);
+        StringBuilder bound = new StringBuilder();
+        while (matcher.find()) {
+            int index = Integer.parseInt(matcher.group(2));
+            if (index < 1 || index > shape.values().size()) {
+                matcher.appendReplacement(bound, Matcher.quoteReplacement(matcher.group()));
+                continue;
+            }
+            String value = shape.values().get(index - 1);
+            boolean quoted = matcher.group(1) != null && matcher.group(3) != null;
+            String literal;
+            if (quoted) {
+                literal = "'" + escape(value) + "'";
+            }
+            else if (NUMBER.matcher(value).matches()) {
+                // A negative number after a minus in the template would start a "--" comment. Positive numbers
+                // stay bare, since MySQL's LIMIT takes no parenthesized expression.
+                String number = value.startsWith("-") ? "(" + value + ")" : value;
+                literal = nullToEmpty(matcher.group(1)) + number + nullToEmpty(matcher.group(3));
+            }
+            else {
+                literal = nullToEmpty(matcher.group(1)) + "'" + escape(value) + "'" + nullToEmpty(matcher.group(3));
+            }
+            matcher.appendReplacement(bound, Matcher.quoteReplacement(literal));
+        }
+        matcher.appendTail(bound);
+        return bound.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("'", "''");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
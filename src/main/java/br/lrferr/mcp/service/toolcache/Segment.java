@@ -0,0 +1,208 @@
+package br.lrferr.mcp.service.toolcache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only segment file, memory-mapped so cached values live in the page
+ * cache rather than on the Java heap. Each record is
+ * {@code magic, keyLength, valueLength, expiresAt, crc32, key, value}; the CRC
+ * covers expiry, key and value, so a record torn by a crash is detected on
+ * recovery and everything after it is discarded. A tombstone has a
+ * {@code valueLength} of {@link #TOMBSTONE} and no value: it removes the key.
+ */
+final class Segment implements Closeable {
+
+    static final int HEADER_BYTES = 24;
+
+    static final int TOMBSTONE = -1;
+
+    private static final int MAGIC = 0x4D435452;
+
+    interface RecordVisitor {
+
+        void visit(int offset, int recordSize, String key, long expiresAt, boolean tombstone);
+    }
+
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private int writePosition;
+    private long liveBytes;
+
+    private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static Segment open(Path path, long id, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            int mapped = (int) Math.min(Integer.MAX_VALUE, Math.max(channel.size(), size));
+            return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, mapped));
+        }
+        catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    static int recordSize(int keyLength, int valueLength) {
+        return HEADER_BYTES + keyLength + valueLength;
+    }
+
+    /**
+     * Walks the valid records from the start and leaves the write position after
+     * the last one.
+     */
+    void recover(RecordVisitor visitor) {
+        writePosition = scan(visitor);
+    }
+
+    /**
+     * Walks the valid records from the start; returns the offset after the last
+     * one.
+     */
+    int scan(RecordVisitor visitor) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= buffer.capacity()) {
+            if (buffer.getInt(offset) != MAGIC) {
+                break;
+            }
+            int keyLength = buffer.getInt(offset + 4);
+            int valueLength = buffer.getInt(offset + 8);
+            boolean tombstone = valueLength == TOMBSTONE;
+            int bodyLength = tombstone ? 0 : valueLength;
+            // Only a tombstone may have an empty key: it clears everything written before it.
+            if (keyLength < 0 || (keyLength == 0 && !tombstone) || bodyLength < 0
+                    || (long) offset + recordSize(keyLength, bodyLength) > buffer.capacity()) {
+                break;
+            }
+            long expiresAt = buffer.getLong(offset + 12);
+            byte[] key = read(offset + HEADER_BYTES, keyLength);
+            if (buffer.getInt(offset + 20) != checksum(expiresAt, key, offset + HEADER_BYTES + keyLength, bodyLength)) {
+                break;
+            }
+            int size = recordSize(keyLength, bodyLength);
+            visitor.visit(offset, size, new String(key, StandardCharsets.UTF_8), expiresAt, tombstone);
+            offset += size;
+        }
+        return offset;
+    }
+
+    /**
+     * Appends a record; returns its offset, or -1 when the segment is full.
+     */
+    int append(byte[] key, byte[] value, long expiresAt) {
+        return write(key, value, value.length, expiresAt);
+    }
+
+    /**
+     * Appends a tombstone for the key; returns its offset, or -1 when the
+     * segment is full.
+     */
+    int appendTombstone(byte[] key) {
+        return write(key, new byte[0], TOMBSTONE, 0);
+    }
+
+    private int write(byte[] key, byte[] value, int valueLength, long expiresAt) {
+        int size = recordSize(key.length, value.length);
+        if ((long) writePosition + size > buffer.capacity()) {
+            return -1;
+        }
+        int offset = writePosition;
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset + HEADER_BYTES);
+        target.put(key);
+        target.put(value);
+        int crc = checksum(expiresAt, key, offset + HEADER_BYTES + key.length, value.length);
+        buffer.putInt(offset + 4, key.length);
+        buffer.putInt(offset + 8, valueLength);
+        buffer.putLong(offset + 12, expiresAt);
+        buffer.putInt(offset + 20, crc);
+        // Magic last: a record is only visible once it is complete.
+        buffer.putInt(offset, MAGIC);
+        writePosition = offset + size;
+        return offset;
+    }
+
+    byte[] readValue(int offset) {
+        int keyLength = buffer.getInt(offset + 4);
+        int valueLength = buffer.getInt(offset + 8);
+        return read(offset + HEADER_BYTES + keyLength, valueLength);
+    }
+
+    long readExpiresAt(int offset) {
+        return buffer.getLong(offset + 12);
+    }
+
+    String readKey(int offset) {
+        return new String(read(offset + HEADER_BYTES, buffer.getInt(offset + 4)), StandardCharsets.UTF_8);
+    }
+
+    private byte[] read(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return bytes;
+    }
+
+    private int checksum(long expiresAt, byte[] key, int valuePosition, int valueLength) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(0, expiresAt));
+        crc.update(key);
+        crc.update(buffer.slice(valuePosition, valueLength));
+        return (int) crc.getValue();
+    }
+
+    void addLive(long bytes) {
+        liveBytes += bytes;
+    }
+
+    long getLiveBytes() {
+        return liveBytes;
+    }
+
+    int getUsedBytes() {
+        return writePosition;
+    }
+
+    int getCapacity() {
+        return buffer.capacity();
+    }
+
+    long getId() {
+        return id;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Closes and deletes the file. The mapping itself is released once the buffer
+     * is garbage collected.
+     */
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+}
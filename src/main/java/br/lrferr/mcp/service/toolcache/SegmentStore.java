@@ -0,0 +1,330 @@
+package br.lrferr.mcp.service.toolcache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Disk tier of the tool-result cache: a directory of memory-mapped segments
+ * with an in-memory index rebuilt by scanning them at startup. New records go
+ * to the newest (active) segment; when it is full a new one is started, and
+ * the oldest segments are dropped once the directory exceeds its budget.
+ * Removals are written as tombstones so they survive a restart.
+ */
+final class SegmentStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentStore.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.dat");
+
+    /** Key of the tombstone {@link #clear} writes: it drops every record before it. */
+    private static final byte[] CLEAR_ALL = new byte[0];
+
+    /** Where the latest record of a key lives. */
+    private static final class Location {
+
+        final Segment segment;
+        final int offset;
+        final int size;
+        final long expiresAt;
+        int hits;
+
+        Location(Segment segment, int offset, int size, long expiresAt) {
+            this.segment = segment;
+            this.offset = offset;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    record Hit(byte[] value, int hits, long expiresAt) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxBytes;
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<String, Location> index = new HashMap<>();
+    private Segment active;
+
+    private long evictions;
+    private long compactions;
+
+    SegmentStore(Path directory, int segmentSize, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    private void recover() throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.forEach(path -> {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    files.put(Long.parseLong(matcher.group(1)), path);
+                }
+            });
+        }
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, Path> file : files.entrySet()) {
+            Segment segment = Segment.open(file.getValue(), file.getKey(), segmentSize);
+            segments.put(segment.getId(), segment);
+            boolean[] cleared = {false};
+            segment.recover((offset, size, key, expiresAt, tombstone) -> {
+                if (tombstone && key.isEmpty()) {
+                    new ArrayList<>(index.keySet()).forEach(this::drop);
+                    cleared[0] = true;
+                }
+                else if (!tombstone && expiresAt > now) {
+                    // Later records win: segments and offsets are replayed in write order.
+                    replace(key, new Location(segment, offset, size, expiresAt));
+                }
+                else {
+                    drop(key);
+                }
+            });
+            if (cleared[0]) {
+                // A clear that crashed before deleting the older files.
+                deleteOlderThan(segment.getId());
+            }
+        }
+        active = segments.isEmpty() ? newSegment(0) : segments.lastEntry().getValue();
+        log.info("Recovered tool-result cache from {}: {} entries in {} segments", directory, index.size(),
+            segments.size());
+        enforceMaxSize();
+    }
+
+    synchronized Hit get(String key, long now) {
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        if (location.expiresAt <= now) {
+            drop(key);
+            return null;
+        }
+        location.hits++;
+        return new Hit(location.segment.readValue(location.offset), location.hits, location.expiresAt);
+    }
+
+    /**
+     * Stores the value; returns {@code false} if it does not fit in a segment.
+     */
+    synchronized boolean put(String key, byte[] value, long expiresAt) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int size = Segment.recordSize(keyBytes.length, value.length);
+        if (size > segmentSize) {
+            return false;
+        }
+        int offset = active.append(keyBytes, value, expiresAt);
+        if (offset < 0) {
+            roll();
+            offset = active.append(keyBytes, value, expiresAt);
+        }
+        replace(key, new Location(active, offset, size, expiresAt));
+        enforceMaxSize();
+        return true;
+    }
+
+    /**
+     * Removes the key and writes a tombstone, so that older records of it are
+     * not replayed after a restart.
+     */
+    synchronized void remove(String key) {
+        if (!drop(key)) {
+            return;
+        }
+        try {
+            appendTombstone(key.getBytes(StandardCharsets.UTF_8));
+            enforceMaxSize();
+        }
+        catch (IOException ex) {
+            log.warn("Could not record removal of {}; it may reappear after a restart: {}", key, ex.getMessage());
+        }
+    }
+
+    /**
+     * Drops expired entries, then rewrites the live records of sealed segments
+     * whose live share fell below {@code threshold} into the active segment and
+     * deletes them. Returns the number of segments compacted.
+     */
+    synchronized int compact(double threshold, long now) throws IOException {
+        index.entrySet().removeIf(entry -> {
+            Location location = entry.getValue();
+            if (location.expiresAt <= now) {
+                location.segment.addLive(-location.size);
+                return true;
+            }
+            return false;
+        });
+        List<Segment> sparse = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+            if (segment != active && segment.getLiveBytes() < threshold * segment.getUsedBytes()) {
+                sparse.add(segment);
+            }
+        }
+        int compacted = 0;
+        for (Segment segment : sparse) {
+            if (!segments.containsKey(segment.getId())) {
+                continue;
+            }
+            Map<String, Location> moving = new LinkedHashMap<>();
+            index.forEach((key, location) -> {
+                if (location.segment == segment) {
+                    moving.put(key, location);
+                }
+            });
+            // Tombstones must outlive every older record of their key, so they move too.
+            Set<String> removed = new LinkedHashSet<>();
+            if (segments.firstKey() < segment.getId()) {
+                segment.scan((offset, size, key, expiresAt, tombstone) -> {
+                    if (tombstone && !key.isEmpty()) {
+                        removed.add(key);
+                    }
+                });
+            }
+            for (Map.Entry<String, Location> entry : moving.entrySet()) {
+                Location location = entry.getValue();
+                // A put below may evict this very segment, and the entries still waiting with it.
+                if (index.get(entry.getKey()) == location) {
+                    put(entry.getKey(), segment.readValue(location.offset), location.expiresAt);
+                }
+            }
+            for (String key : removed) {
+                if (!index.containsKey(key)) {
+                    appendTombstone(key.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            if (segments.remove(segment.getId()) != null) {
+                segment.delete();
+            }
+            compacted++;
+        }
+        compactions += compacted;
+        return compacted;
+    }
+
+    /**
+     * Drops every entry. The clearing tombstone goes into a fresh segment before
+     * the older files are deleted, so a crash in between cannot bring them back.
+     */
+    synchronized void clear() throws IOException {
+        index.clear();
+        roll();
+        active.appendTombstone(CLEAR_ALL);
+        active.force();
+        deleteOlderThan(active.getId());
+    }
+
+    synchronized Map<String, Object> getStats() {
+        long used = 0;
+        long live = 0;
+        for (Segment segment : segments.values()) {
+            used += segment.getUsedBytes();
+            live += segment.getLiveBytes();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", directory.toAbsolutePath().toString());
+        stats.put("entries", index.size());
+        stats.put("segments", segments.size());
+        stats.put("usedBytes", used);
+        stats.put("liveBytes", live);
+        stats.put("maxBytes", maxBytes);
+        stats.put("evictions", evictions);
+        stats.put("compactions", compactions);
+        return stats;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    private void replace(String key, Location location) {
+        drop(key);
+        index.put(key, location);
+        location.segment.addLive(location.size);
+    }
+
+    private boolean drop(String key) {
+        Location previous = index.remove(key);
+        if (previous == null) {
+            return false;
+        }
+        previous.segment.addLive(-previous.size);
+        return true;
+    }
+
+    private void appendTombstone(byte[] key) throws IOException {
+        if (active.appendTombstone(key) < 0) {
+            roll();
+            active.appendTombstone(key);
+        }
+    }
+
+    private void roll() throws IOException {
+        active.force();
+        active = newSegment(active.getId() + 1);
+    }
+
+    private void deleteOlderThan(long id) throws IOException {
+        Map<Long, Segment> older = segments.headMap(id);
+        List<Segment> deleting = new ArrayList<>(older.values());
+        older.clear();
+        for (Segment segment : deleting) {
+            segment.delete();
+        }
+    }
+
+    private Segment newSegment(long id) throws IOException {
+        Segment segment = Segment.open(directory.resolve(String.format("segment-%08d.dat", id)), id, segmentSize);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * Drops the oldest sealed segments, and their entries, while the directory is
+     * over budget.
+     */
+    private void enforceMaxSize() throws IOException {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.getCapacity();
+        }
+        while (total > maxBytes && segments.size() > 1) {
+            Segment oldest = segments.pollFirstEntry().getValue();
+            Iterator<Location> locations = index.values().iterator();
+            while (locations.hasNext()) {
+                if (locations.next().segment == oldest) {
+                    locations.remove();
+                    evictions++;
+                }
+            }
+            total -= oldest.getCapacity();
+            oldest.delete();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package br.lrferr.mcp.service.toolcache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.lrferr.mcp.config.ToolCacheProperties;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Two-tier cache of read-only tool results keyed by server, tool and argument
+ * hash. Results are written to memory-mapped segment files that survive
+ * restarts; results hit often enough are promoted to a small heap tier. With
+ * {@code persistent=false} only the heap tier is used.
+ */
+@Component
+public class ToolResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ToolResultCache.class);
+
+    private final ToolCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final SegmentStore store;
+
+    private final LinkedHashMap<String, HeapEntry> heap = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final AtomicLong heapHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong promotions = new AtomicLong();
+
+    private record HeapEntry(JsonNode value, long expiresAt) {
+    }
+
+    public ToolResultCache(ToolCacheProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.store = properties.isEnabled() && properties.isPersistent() ? openStore() : null;
+    }
+
+    private SegmentStore openStore() {
+        try {
+            return new SegmentStore(Path.of(properties.getDirectory()),
+                (int) Math.min(Integer.MAX_VALUE, properties.getSegmentSize().toBytes()),
+                properties.getMaxDiskSize().toBytes());
+        }
+        catch (IOException ex) {
+            log.warn("Tool-result cache directory {} unusable, caching on the heap only: {}",
+                properties.getDirectory(), ex.getMessage());
+            return null;
+        }
+    }
+
+    public Optional<JsonNode> get(String serverName, String toolName, JsonNode arguments) {
+        if (!properties.isCacheable(toolName)) {
+            return Optional.empty();
+        }
+        String key = ToolResultKey.of(serverName, toolName, arguments);
+        long now = System.currentTimeMillis();
+        synchronized (heap) {
+            HeapEntry entry = heap.get(key);
+            if (entry != null && entry.expiresAt() > now) {
+                heapHits.incrementAndGet();
+                return Optional.of(entry.value());
+            }
+            if (entry != null) {
+                heap.remove(key);
+            }
+        }
+        if (store != null) {
+            SegmentStore.Hit hit = store.get(key, now);
+            if (hit != null) {
+                try {
+                    JsonNode value = objectMapper.readTree(hit.value());
+                    diskHits.incrementAndGet();
+                    if (hit.hits() >= properties.getPromoteAfterHits()
+                            && hit.value().length <= properties.getHeapMaxEntrySize().toBytes()) {
+                        putHeap(key, value, hit.expiresAt());
+                        promotions.incrementAndGet();
+                    }
+                    return Optional.of(value);
+                }
+                catch (IOException ex) {
+                    log.warn("Dropping unreadable cached result for {}: {}", key, ex.getMessage());
+                    store.remove(key);
+                }
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Caches a successful result of a cacheable tool; results flagged
+     * {@code isError} are not cached.
+     */
+    public void put(String serverName, String toolName, JsonNode arguments, JsonNode result) {
+        if (!properties.isCacheable(toolName) || result == null || result.path("isError").asBoolean()) {
+            return;
+        }
+        String key = ToolResultKey.of(serverName, toolName, arguments);
+        long expiresAt = System.currentTimeMillis() + properties.ttlFor(toolName).toMillis();
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(result);
+            if (store != null) {
+                store.put(key, bytes, expiresAt);
+            }
+            else if (bytes.length <= properties.getHeapMaxEntrySize().toBytes()) {
+                putHeap(key, result, expiresAt);
+            }
+        }
+        catch (IOException ex) {
+            log.warn("Failed to cache result of {} on {}: {}", toolName, serverName, ex.getMessage());
+        }
+    }
+
+    private void putHeap(String key, JsonNode value, long expiresAt) {
+        synchronized (heap) {
+            heap.put(key, new HeapEntry(value, expiresAt));
+            Iterator<String> eldest = heap.keySet().iterator();
+            while (heap.size() > properties.getHeapEntries() && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mcp.tool-cache.compaction-interval:PT1M}")
+    public void compact() {
+        long now = System.currentTimeMillis();
+        synchronized (heap) {
+            heap.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+        if (store == null) {
+            return;
+        }
+        try {
+            int compacted = store.compact(properties.getCompactionThreshold(), now);
+            if (compacted > 0) {
+                log.debug("Compacted {} tool-result cache segments", compacted);
+            }
+        }
+        catch (IOException ex) {
+            log.warn("Tool-result cache compaction failed: {}", ex.getMessage());
+        }
+    }
+
+    public void clear() {
+        synchronized (heap) {
+            heap.clear();
+        }
+        if (store != null) {
+            try {
+                store.clear();
+            }
+            catch (IOException ex) {
+                log.warn("Failed to clear tool-result cache directory: {}", ex.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("tools", properties.getTools());
+        long hits = heapHits.get() + diskHits.get();
+        long total = hits + misses.get();
+        stats.put("heapHits", heapHits.get());
+        stats.put("diskHits", diskHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRate", total == 0 ? 0.0 : hits / (double) total);
+        stats.put("promotions", promotions.get());
+        synchronized (heap) {
+            stats.put("heapEntries", heap.size());
+        }
+        stats.put("disk", store != null ? store.getStats() : null);
+        return stats;
+    }
+
+    @PreDestroy
+    void close() {
+        if (store != null) {
+            try {
+                store.close();
+            }
+            catch (IOException ex) {
+                log.warn("Failed to flush tool-result cache: {}", ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.lrferr.mcp.service.toolcache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Cache keys of tool results: {@code server|tool|sha256(arguments)}, with the
+ * arguments rendered canonically so that key order does not matter.
+ */
+public final class ToolResultKey {
+
+    private ToolResultKey() {
+    }
+
+    public static String of(String serverName, String toolName, JsonNode arguments) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(canonical(arguments).getBytes(StandardCharsets.UTF_8));
+            return serverName + '|' + toolName + '|' + HexFormat.of().formatHex(hash);
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * Renders JSON with object keys sorted; {@code null} renders as {@code {}}.
+     */
+    public static String canonical(JsonNode node) {
+        if (node == null || node.isMissingNode()) {
+            return "{}";
+        }
+        if (node.isObject()) {
+            Map<String, String> sorted = new TreeMap<>();
+            node.fields().forEachRemaining(field -> sorted.put(field.getKey(), canonical(field.getValue())));
+            StringBuilder builder = new StringBuilder("{");
+            sorted.forEach((name, value) -> {
+                if (builder.length() > 1) {
+                    builder.append(',');
+                }
+                builder.append('"').append(name).append("\":").append(value);
+            });
+            return builder.append('}').toString();
+        }
+        if (node.isArray()) {
+            StringBuilder builder = new StringBuilder("[");
+            for (JsonNode element : node) {
+                if (builder.length() > 1) {
+                    builder.append(',');
+                }
+                builder.append(canonical(element));
+            }
+            return builder.append(']').toString();
+        }
+        return node.toString();
+    }
+}
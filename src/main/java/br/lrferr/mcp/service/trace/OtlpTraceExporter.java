@@ -0,0 +1,135 @@
+package br.lrferr.mcp.service.trace;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.config.TracingProperties;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sends finished traces to an OTLP/HTTP collector using the JSON encoding.
+ * Export happens on a single background thread so the request path never waits
+ * on the collector.
+ */
+@Component
+public class OtlpTraceExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(OtlpTraceExporter.class);
+
+    private static final int SPAN_KIND_SERVER = 2;
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int STATUS_ERROR = 2;
+
+    private final TracingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "otlp-trace-exporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OtlpTraceExporter(TracingProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(QueryTrace trace) {
+        String endpoint = properties.getOtlpEndpoint();
+        if (endpoint == null || endpoint.isBlank()) {
+            return;
+        }
+        try {
+            executor.execute(() -> send(endpoint, trace));
+        }
+        catch (RejectedExecutionException ex) {
+            log.debug("OTLP exporter is shut down, dropping trace {}", trace.getTraceId());
+        }
+    }
+
+    private void send(String endpoint, QueryTrace trace) {
+        try {
+            String url = (endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint)
+                + "/v1/traces";
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            restTemplate.postForObject(URI.create(url), new HttpEntity<>(toOtlp(trace), headers), String.class);
+        }
+        catch (Exception ex) {
+            log.warn("Failed to export trace {} to {}: {}", trace.getTraceId(), endpoint, ex.getMessage());
+        }
+    }
+
+    ObjectNode toOtlp(QueryTrace trace) {
+        long startEpochNanos = epochNanos(trace.getStartedAt());
+
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode resourceSpans = root.putArray("resourceSpans").addObject();
+        ArrayNode resourceAttributes = resourceSpans.putObject("resource").putArray("attributes");
+        attribute(resourceAttributes, "service.name", properties.getServiceName());
+
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", "br.lrferr.mcp");
+        ArrayNode spans = scopeSpans.putArray("spans");
+
+        ObjectNode rootSpan = spans.addObject();
+        rootSpan.put("traceId", trace.getTraceId());
+        rootSpan.put("spanId", trace.getRootSpanId());
+        rootSpan.put("name", "mcp.query");
+        rootSpan.put("kind", SPAN_KIND_SERVER);
+        rootSpan.put("startTimeUnixNano", Long.toString(startEpochNanos));
+        rootSpan.put("endTimeUnixNano", Long.toString(startEpochNanos + trace.getDurationNanos()));
+        ArrayNode rootAttributes = rootSpan.putArray("attributes");
+        attribute(rootAttributes, "mcp.server", trace.getServerName());
+        attribute(rootAttributes, "mcp.outcome", trace.getOutcome());
+
+        for (TraceSpan span : trace.getSpans()) {
+            long spanStart = startEpochNanos + span.startOffsetNanos();
+            ObjectNode node = spans.addObject();
+            node.put("traceId", trace.getTraceId());
+            node.put("spanId", span.spanId());
+            node.put("parentSpanId", trace.getRootSpanId());
+            node.put("name", span.name());
+            node.put("kind", SPAN_KIND_INTERNAL);
+            node.put("startTimeUnixNano", Long.toString(spanStart));
+            node.put("endTimeUnixNano", Long.toString(spanStart + span.durationNanos()));
+            if (span.error() != null) {
+                node.putObject("status").put("code", STATUS_ERROR).put("message", span.error());
+            }
+        }
+        return root;
+    }
+
+    private static void attribute(ArrayNode attributes, String key, String value) {
+        if (value == null) {
+            return;
+        }
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        attribute.putObject("value").put("stringValue", value);
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,85 @@
+package br.lrferr.mcp.service.trace;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Span-style record of one {@code /api/mcp/query} call. Spans are appended by
+ * the request thread while the trace is active; once finished the trace is
+ * only read.
+ */
+public class QueryTrace {
+
+    private final String traceId;
+    private final String rootSpanId;
+    private final String serverName;
+    private final String prompt;
+    private final Instant startedAt;
+    private final long startNanos;
+    private final List<TraceSpan> spans = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile long durationNanos = -1;
+    private volatile String outcome;
+
+    QueryTrace(String traceId, String rootSpanId, String serverName, String prompt) {
+        this.traceId = traceId;
+        this.rootSpanId = rootSpanId;
+        this.serverName = serverName;
+        this.prompt = prompt;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+    }
+
+    void addSpan(TraceSpan span) {
+        spans.add(span);
+    }
+
+    void finish(String outcome) {
+        this.outcome = outcome;
+        this.durationNanos = System.nanoTime() - startNanos;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getRootSpanId() {
+        return rootSpanId;
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    public String getPrompt() {
+        return prompt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public double getDurationMillis() {
+        return durationNanos / 1_000_000.0;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public List<TraceSpan> getSpans() {
+        synchronized (spans) {
+            return List.copyOf(spans);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package br.lrferr.mcp.service.trace;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import br.lrferr.mcp.config.TracingProperties;
+
+/**
+ * Records per-stage timings of query processing. The active trace is bound to
+ * the request thread; completed traces are kept in a fixed-size ring buffer and
+ * optionally handed to the OTLP exporter.
+ */
+@Component
+public class QueryTracer {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryTracer.class);
+
+    private static final ThreadLocal<QueryTrace> CURRENT = new ThreadLocal<>();
+
+    private final TracingProperties properties;
+    private final OtlpTraceExporter exporter;
+
+    private final AtomicReferenceArray<QueryTrace> buffer;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public QueryTracer(TracingProperties properties, OtlpTraceExporter exporter) {
+        this.properties = properties;
+        this.exporter = exporter;
+        this.buffer = new AtomicReferenceArray<>(Math.max(1, properties.getBufferSize()));
+    }
+
+    /**
+     * Starts a trace on the current thread. Returns {@code null} when tracing is
+     * disabled; {@link #finish(QueryTrace, String)} accepts that value.
+     */
+    public QueryTrace start(String serverName, String prompt) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        QueryTrace trace = new QueryTrace(randomHex(16), randomHex(8), serverName, prompt);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public void finish(QueryTrace trace, String outcome) {
+        if (trace == null) {
+            return;
+        }
+        CURRENT.remove();
+        trace.finish(outcome);
+        long slot = cursor.getAndIncrement();
+        buffer.set((int) (slot % buffer.length()), trace);
+        exporter.export(trace);
+        log.debug("Trace {} finished in {} ms ({})", trace.getTraceId(), trace.getDurationMillis(), outcome);
+    }
+
+    /**
+     * Runs {@code work} as a named stage of the current trace. Without an active
+     * trace the work simply runs.
+     */
+    public <T> T stage(String name, Supplier<T> work) {
+        QueryTrace trace = CURRENT.get();
+        if (trace == null) {
+            return work.get();
+        }
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            return work.get();
+        }
+        catch (RuntimeException ex) {
+            error = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+            throw ex;
+        }
+        finally {
+            long end = System.nanoTime();
+            trace.addSpan(new TraceSpan(randomHex(8), name, start - trace.getStartNanos(), end - start, error));
+        }
+    }
+
+    public Optional<QueryTrace> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public List<QueryTrace> getRecent(int limit) {
+        List<QueryTrace> traces = snapshot();
+        traces.sort(Comparator.comparing(QueryTrace::getStartedAt).reversed());
+        return traces.subList(0, Math.min(limit, traces.size()));
+    }
+
+    public List<QueryTrace> getSlowest(int limit) {
+        List<QueryTrace> traces = snapshot();
+        traces.sort(Comparator.comparingLong(QueryTrace::getDurationNanos).reversed());
+        return traces.subList(0, Math.min(limit, traces.size()));
+    }
+
+    public Optional<QueryTrace> find(String traceId) {
+        return snapshot().stream().filter(trace -> trace.getTraceId().equals(traceId)).findFirst();
+    }
+
+    /**
+     * Aggregates span durations per stage name over every buffered trace.
+     */
+    public Map<String, Map<String, Object>> getStageBreakdown() {
+        Map<String, List<Long>> durations = new HashMap<>();
+        for (QueryTrace trace : snapshot()) {
+            for (TraceSpan span : trace.getSpans()) {
+                durations.computeIfAbsent(span.name(), key -> new ArrayList<>()).add(span.durationNanos());
+            }
+        }
+        Map<String, Map<String, Object>> breakdown = new LinkedHashMap<>();
+        durations.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> {
+                List<Long> values = entry.getValue();
+                values.sort(null);
+                long total = values.stream().mapToLong(Long::longValue).sum();
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", values.size());
+                stats.put("avgMs", total / 1_000_000.0 / values.size());
+                stats.put("p50Ms", percentile(values, 0.50) / 1_000_000.0);
+                stats.put("p95Ms", percentile(values, 0.95) / 1_000_000.0);
+                stats.put("maxMs", values.get(values.size() - 1) / 1_000_000.0);
+                stats.put("totalMs", total / 1_000_000.0);
+                breakdown.put(entry.getKey(), stats);
+            });
+        return breakdown;
+    }
+
+    private List<QueryTrace> snapshot() {
+        List<QueryTrace> traces = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            QueryTrace trace = buffer.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static String randomHex(int bytes) {
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            hex.append(String.format("%02x", random.nextInt(256)));
+        }
+        return hex.toString();
+    }
+}
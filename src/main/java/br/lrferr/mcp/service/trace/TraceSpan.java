@@ -0,0 +1,12 @@
+package br.lrferr.mcp.service.trace;
+
+/**
+ * A single timed stage within a {@link QueryTrace}. Offsets are relative to the
+ * start of the trace.
+ */
+public record TraceSpan(String spanId, String name, long startOffsetNanos, long durationNanos, String error) {
+
+    public double durationMillis() {
+        return durationNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,369 @@
+package br.lrferr.mcp.service.ws;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.config.WebSocketProperties;
+import br.lrferr.mcp.model.QueryResponse;
+import br.lrferr.mcp.service.McpClientService;
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.cancel.QueryCancellation;
+import br.lrferr.mcp.service.cancel.QueryCancellations;
+import br.lrferr.mcp.service.mcp.McpProgressListener;
+import br.lrferr.mcp.service.mcp.McpToolResults;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Interactive query endpoint. A connection binds a server and model once and
+ * then runs any number of queries concurrently, each identified by an id the
+ * client chooses and echoed on every frame about it. Messages are JSON objects
+ * with a {@code type}:
+ * <ul>
+ * <li>client: {@code bind}, {@code query}, {@code cancel}, {@code credit},
+ * {@code ping}</li>
+ * <li>server: {@code welcome}, {@code bound}, {@code accepted},
+ * {@code started}, {@code token}, {@code progress}, {@code log},
+ * {@code rows}, {@code result}, {@code unavailable}, {@code cancelled},
+ * {@code error}, {@code pong}</li>
+ * </ul>
+ * Closing the connection cancels its running queries.
+ */
+@Component
+public class McpWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(McpWebSocketHandler.class);
+
+    private final McpClientService clientService;
+    private final McpProcessManagerService processManagerService;
+    private final QueryCancellations queryCancellations;
+    private final ObjectMapper objectMapper;
+    private final WebSocketProperties properties;
+
+    private final Map<String, WsConnection> connections = new ConcurrentHashMap<>();
+
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-ws-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public McpWebSocketHandler(McpClientService clientService, McpProcessManagerService processManagerService,
+            QueryCancellations queryCancellations, ObjectMapper objectMapper, WebSocketProperties properties) {
+        this.clientService = clientService;
+        this.processManagerService = processManagerService;
+        this.queryCancellations = queryCancellations;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // The connection starts on the connected server and selected model; bind changes that for it only.
+        WsConnection connection = new WsConnection(session, objectMapper, executor, properties.getMaxPendingFrames(),
+            clientService.getCurrentServer().orElse(null), clientService.getSelectedModel());
+        connections.put(session.getId(), connection);
+        opened.incrementAndGet();
+        ObjectNode welcome = frame("welcome", null);
+        welcome.put("connection", session.getId());
+        welcome.put("server", connection.getServer());
+        welcome.put("model", connection.getModel());
+        welcome.put("maxQueries", properties.getMaxQueriesPerConnection());
+        welcome.put("rowsPerFrame", properties.getRowsPerFrame());
+        connection.send(welcome, false);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        WsConnection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+        JsonNode request;
+        try {
+            request = objectMapper.readTree(message.getPayload());
+        }
+        catch (JsonProcessingException ex) {
+            connection.send(error(null, "Malformed message: " + ex.getOriginalMessage()), false);
+            return;
+        }
+        String type = request.path("type").asText();
+        switch (type) {
+            case "bind" -> bind(connection, request);
+            case "query" -> query(connection, request);
+            case "cancel" -> cancel(connection, request);
+            case "credit" -> connection.credit(request.path("frames").asInt());
+            case "ping" -> {
+                ObjectNode pong = frame("pong", null);
+                if (request.has("data")) {
+                    pong.set("data", request.get("data"));
+                }
+                connection.send(pong, false);
+            }
+            default -> connection.send(error(null, "Unknown message type: '" + type + "'"), false);
+        }
+    }
+
+    private void bind(WsConnection connection, JsonNode request) {
+        String server = text(request, "server", connection.getServer());
+        String model = text(request, "model", connection.getModel());
+        if (server != null && processManagerService.getRunningServer(server) == null) {
+            connection.send(error(null, "Server not running: " + server), false);
+            return;
+        }
+        connection.bind(server, model);
+        if (request.has("window")) {
+            connection.window(request.path("window").asInt());
+        }
+        ObjectNode bound = frame("bound", null);
+        bound.put("server", server);
+        bound.put("model", model);
+        int window = connection.getWindow();
+        if (window >= 0) {
+            bound.put("window", window);
+        }
+        connection.send(bound, false);
+    }
+
+    private void query(WsConnection connection, JsonNode request) {
+        String id = text(request, "id", null);
+        String prompt = text(request, "prompt", null);
+        String server = text(request, "server", connection.getServer());
+        String model = text(request, "model", connection.getModel());
+        boolean structured = request.path("structured").asBoolean(false);
+        if (id == null) {
+            connection.send(error(null, "A query needs an id"), false);
+            return;
+        }
+        if (prompt == null) {
+            connection.send(error(id, "A query needs a prompt"), false);
+            return;
+        }
+        if (server == null) {
+            connection.send(error(id, "No server bound. Send a bind message or connect a server first."), false);
+            return;
+        }
+        // A per-query override, or a bound server stopped since, is checked like a bind.
+        if (processManagerService.getRunningServer(server) == null) {
+            connection.send(error(id, "Server not running: " + server), false);
+            return;
+        }
+
+        QueryCancellation cancellation = queryCancellations.create();
+        String rejection = connection.register(id, cancellation, properties.getMaxQueriesPerConnection());
+        if (rejection != null) {
+            rejected.incrementAndGet();
+            connection.send(error(id, rejection), false);
+            return;
+        }
+        queries.incrementAndGet();
+        ObjectNode accepted = frame("accepted", id);
+        accepted.put("server", server);
+        accepted.put("model", model);
+        connection.send(accepted, false);
+
+        McpProgressListener listener = new McpProgressListener() {
+            @Override
+            public void started(String requestId) {
+                ObjectNode started = frame("started", id);
+                started.put("requestId", requestId);
+                connection.send(started, true);
+            }
+
+            @Override
+            public void progress(JsonNode params) {
+                ObjectNode progress = frame("progress", id);
+                progress.set("params", params);
+                connection.offer(progress);
+            }
+
+            @Override
+            public void message(JsonNode params) {
+                ObjectNode entry = frame("log", id);
+                entry.set("params", params);
+                connection.offer(entry);
+            }
+
+            @Override
+            public void token(String text) {
+                ObjectNode token = frame("token", id);
+                token.put("text", text);
+                connection.offer(token);
+            }
+        };
+        CompletableFuture<QueryResponse> future = clientService.queryAsync(server, model, prompt, listener,
+            cancellation, structured);
+        future.whenCompleteAsync((response, error) -> {
+            try {
+                deliver(connection, id, cancellation, response, error);
+            }
+            finally {
+                connection.finished(id);
+            }
+        }, executor);
+        CompletableFuture.delayedExecutor(properties.getQueryTimeout().toMillis(), TimeUnit.MILLISECONDS, executor)
+            .execute(() -> {
+                if (!future.isDone()) {
+                    queryCancellations.cancel(cancellation, "timeout");
+                }
+            });
+    }
+
+    private void deliver(WsConnection connection, String id, QueryCancellation cancellation, QueryResponse response,
+            Throwable error) {
+        // A cancelled stage may surface as an error response rather than an exception.
+        if (cancellation.isCancelled()) {
+            connection.send(cancelled(id, cancellation), true);
+            return;
+        }
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            connection.send(error(id, String.valueOf(cause.getMessage())), true);
+            return;
+        }
+        switch (response.getType()) {
+            case QueryResponse.UNAVAILABLE -> {
+                ObjectNode unavailable = frame("unavailable", id);
+                unavailable.put("text", response.getText());
+                unavailable.set("circuit", objectMapper.valueToTree(response.getCircuit()));
+                connection.send(unavailable, true);
+            }
+            case QueryResponse.ERROR -> connection.send(error(id, response.getText()), true);
+            case QueryResponse.DATA -> deliverRows(connection, id, cancellation, response);
+            default -> {
+                ObjectNode result = frame("result", id);
+                result.put("resultType", response.getType());
+                result.put("server", response.getServerName());
+                result.put("text", response.getText());
+                connection.send(result, true);
+            }
+        }
+    }
+
+    /**
+     * Sends the rows of a data result in {@code rows-per-frame} chunks, then a
+     * {@code result} frame with the SQL and row count instead of the rows.
+     */
+    private void deliverRows(WsConnection connection, String id, QueryCancellation cancellation,
+            QueryResponse response) {
+        List<JsonNode> rows = McpToolResults.rows(response.getResult(), objectMapper);
+        int chunk = Math.max(1, properties.getRowsPerFrame());
+        for (int offset = 0; offset < rows.size(); offset += chunk) {
+            ObjectNode frame = frame("rows", id);
+            frame.put("offset", offset);
+            frame.putArray("rows").addAll(rows.subList(offset, Math.min(rows.size(), offset + chunk)));
+            if (!connection.put(frame, cancellation)) {
+                if (cancellation.isCancelled()) {
+                    connection.send(cancelled(id, cancellation), true);
+                }
+                return;
+            }
+        }
+        ObjectNode result = frame("result", id);
+        result.put("resultType", response.getType());
+        result.put("server", response.getServerName());
+        result.put("databaseType", response.getDatabaseType());
+        result.put("sql", response.getSql());
+        result.put("rowCount", rows.size());
+        if (response.getText() != null) {
+            result.put("text", response.getText());
+        }
+        connection.send(result, true);
+    }
+
+    private void cancel(WsConnection connection, JsonNode request) {
+        String id = text(request, "id", null);
+        QueryCancellation cancellation = id != null ? connection.query(id) : null;
+        if (cancellation == null) {
+            connection.send(error(id, "No running query with id " + id), false);
+            return;
+        }
+        // The query's cancelled frame follows once it has stopped.
+        queryCancellations.cancel(cancellation, "client");
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WsConnection connection = connections.remove(session.getId());
+        if (connection == null) {
+            return;
+        }
+        connection.closed();
+        for (QueryCancellation cancellation : connection.runningQueries()) {
+            queryCancellations.cancel(cancellation, "disconnect");
+        }
+        log.debug("WebSocket {} closed: {}", session.getId(), status);
+    }
+
+    private ObjectNode frame(String type, String id) {
+        ObjectNode frame = objectMapper.createObjectNode();
+        frame.put("type", type);
+        if (id != null) {
+            frame.put("id", id);
+        }
+        return frame;
+    }
+
+    private ObjectNode error(String id, String message) {
+        ObjectNode frame = frame("error", id);
+        frame.put("error", message);
+        return frame;
+    }
+
+    private ObjectNode cancelled(String id, QueryCancellation cancellation) {
+        ObjectNode frame = frame("cancelled", id);
+        frame.put("reason", cancellation.getReason());
+        return frame;
+    }
+
+    private static String text(JsonNode request, String field, String fallback) {
+        JsonNode value = request.get(field);
+        return value != null && value.isValueNode() && !value.asText().isBlank() ? value.asText() : fallback;
+    }
+
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> open = new ArrayList<>();
+        connections.values().forEach(connection -> open.add(connection.toMap()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("path", properties.getPath());
+        stats.put("opened", opened.get());
+        stats.put("queries", queries.get());
+        stats.put("rejected", rejected.get());
+        stats.put("connections", open);
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connections.values().forEach(connection -> connection.close(CloseStatus.GOING_AWAY));
+        executor.shutdownNow();
+    }
+}
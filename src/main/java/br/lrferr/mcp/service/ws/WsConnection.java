@@ -0,0 +1,318 @@
+package br.lrferr.mcp.service.ws;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.service.cancel.QueryCancellation;
+
+/**
+ * One client connection: the server and model its queries run against, its
+ * running queries by client-chosen id, and an outbox of frames sent by a single
+ * task at a time so producers (query threads, MCP listener threads) never
+ * block on the socket.
+ * <p>
+ * Flow control is opt-in: once the client sets a window, every query frame
+ * spends one credit and frames wait in the outbox until the client grants
+ * more. Replies to the client's own messages ({@code bound}, {@code pong},
+ * ...) are not counted.
+ */
+final class WsConnection {
+
+    private static final Logger log = LoggerFactory.getLogger(WsConnection.class);
+
+    private final WebSocketSession session;
+    private final ObjectMapper objectMapper;
+    private final Executor sender;
+    private final int maxPendingFrames;
+    private final Instant openedAt = Instant.now();
+
+    private volatile String server;
+    private volatile String model;
+
+    private final Map<String, QueryCancellation> queries = new ConcurrentHashMap<>();
+
+    // Guarded by this.
+    private final Deque<Frame> outbox = new ArrayDeque<>();
+    private int credits = -1;
+    private boolean open = true;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong queriesRun = new AtomicLong();
+
+    WsConnection(WebSocketSession session, ObjectMapper objectMapper, Executor sender, int maxPendingFrames,
+            String server, String model) {
+        this.session = session;
+        this.objectMapper = objectMapper;
+        this.sender = sender;
+        this.maxPendingFrames = Math.max(1, maxPendingFrames);
+        this.server = server;
+        this.model = model;
+    }
+
+    String getId() {
+        return session.getId();
+    }
+
+    String getServer() {
+        return server;
+    }
+
+    String getModel() {
+        return model;
+    }
+
+    void bind(String server, String model) {
+        this.server = server;
+        this.model = model;
+    }
+
+    /**
+     * Sets the flow-control window; {@code 0} or less turns flow control off.
+     */
+    synchronized void window(int frames) {
+        credits = frames > 0 ? frames : -1;
+        scheduleDrain();
+    }
+
+    synchronized void credit(int frames) {
+        if (credits >= 0 && frames > 0) {
+            credits = (int) Math.min(Integer.MAX_VALUE, (long) credits + frames);
+            scheduleDrain();
+        }
+    }
+
+    synchronized int getWindow() {
+        return credits;
+    }
+
+    /**
+     * Registers a query, or returns why it is rejected.
+     */
+    String register(String id, QueryCancellation cancellation, int maxQueries) {
+        synchronized (queries) {
+            if (queries.containsKey(id)) {
+                return "A query with id " + id + " is already running";
+            }
+            if (queries.size() >= maxQueries) {
+                return "Too many queries running on this connection (" + maxQueries + ")";
+            }
+            queries.put(id, cancellation);
+        }
+        queriesRun.incrementAndGet();
+        return null;
+    }
+
+    QueryCancellation query(String id) {
+        return queries.get(id);
+    }
+
+    void finished(String id) {
+        queries.remove(id);
+    }
+
+    /**
+     * Queues a frame that must not be lost: a reply, or the start or end of a
+     * query. Never waits; a client that lets these pile up to twice the outbox
+     * size is disconnected.
+     */
+    void send(ObjectNode frame, boolean counted) {
+        String json = serialize(frame);
+        boolean overflow;
+        synchronized (this) {
+            if (!open) {
+                return;
+            }
+            overflow = outbox.size() >= 2 * maxPendingFrames;
+            if (!overflow) {
+                outbox.add(new Frame(json, counted));
+            }
+        }
+        if (overflow) {
+            close(CloseStatus.POLICY_VIOLATION.withReason("Client is not reading"));
+            return;
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Queues a frame the client can do without (token, progress, log), or drops
+     * it when the outbox is full.
+     */
+    void offer(ObjectNode frame) {
+        String json = serialize(frame);
+        synchronized (this) {
+            if (!open) {
+                return;
+            }
+            if (outbox.size() >= maxPendingFrames) {
+                dropped.incrementAndGet();
+                return;
+            }
+            outbox.add(new Frame(json, true));
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Queues a frame of rows, waiting for room in the outbox so a large result
+     * is produced no faster than the client reads it. Returns {@code false}
+     * when the connection closed or the query was cancelled meanwhile.
+     */
+    boolean put(ObjectNode frame, QueryCancellation cancellation) {
+        String json = serialize(frame);
+        synchronized (this) {
+            try {
+                while (open && !cancellation.isCancelled() && outbox.size() >= maxPendingFrames) {
+                    wait(1000);
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (!open || cancellation.isCancelled()) {
+                return false;
+            }
+            outbox.add(new Frame(json, true));
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    private String serialize(ObjectNode frame) {
+        try {
+            return objectMapper.writeValueAsString(frame);
+        }
+        catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize frame", ex);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::drain);
+            }
+            catch (RejectedExecutionException ex) {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Frame frame;
+            while ((frame = next()) != null) {
+                session.sendMessage(new TextMessage(frame.json()));
+                sent.incrementAndGet();
+            }
+        }
+        catch (IOException | IllegalStateException ex) {
+            log.debug("Failed to send to WebSocket {}: {}", getId(), ex.getMessage());
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+        }
+        finally {
+            draining.set(false);
+        }
+        // A frame queued after our last look would otherwise wait for the next one.
+        if (hasSendable()) {
+            scheduleDrain();
+        }
+    }
+
+    private synchronized Frame next() {
+        if (!open || !sendable()) {
+            return null;
+        }
+        Frame frame = outbox.poll();
+        if (frame.counted() && credits > 0) {
+            credits--;
+        }
+        notifyAll();
+        return frame;
+    }
+
+    private synchronized boolean hasSendable() {
+        return open && sendable();
+    }
+
+    private boolean sendable() {
+        Frame head = outbox.peek();
+        return head != null && (!head.counted() || credits != 0);
+    }
+
+    /**
+     * Closes the socket; the handler then cancels the running queries.
+     */
+    void close(CloseStatus status) {
+        if (!closed()) {
+            return;
+        }
+        try {
+            session.close(status);
+        }
+        catch (IOException ex) {
+            log.debug("Failed to close WebSocket {}: {}", getId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Stops sending and discards pending frames. Returns {@code false} if the
+     * connection was already closed.
+     */
+    synchronized boolean closed() {
+        if (!open) {
+            return false;
+        }
+        open = false;
+        outbox.clear();
+        notifyAll();
+        return true;
+    }
+
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", getId());
+        map.put("remoteAddress", String.valueOf(session.getRemoteAddress()));
+        map.put("openedAt", openedAt.toString());
+        map.put("server", server);
+        map.put("model", model);
+        map.put("queries", new ArrayList<>(queries.keySet()));
+        map.put("queriesRun", queriesRun.get());
+        map.put("pendingFrames", outbox.size());
+        map.put("credits", credits >= 0 ? credits : null);
+        map.put("sent", sent.get());
+        map.put("dropped", dropped.get());
+        return map;
+    }
+
+    List<QueryCancellation> runningQueries() {
+        return new ArrayList<>(queries.values());
+    }
+
+    private record Frame(String json, boolean counted) {
+    }
+}
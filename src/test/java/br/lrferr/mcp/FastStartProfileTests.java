@@ -0,0 +1,35 @@
+package br.lrferr.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import br.lrferr.mcp.service.OllamaService;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+import br.lrferr.mcp.service.ollama.OllamaEndpointPool;
+import br.lrferr.mcp.service.resource.McpResourceMonitor;
+import br.lrferr.mcp.service.schema.SchemaCatalogService;
+import br.lrferr.mcp.service.toolcache.ToolResultCache;
+
+@SpringBootTest
+@ActiveProfiles("fast-start")
+class FastStartProfileTests {
+
+	@Autowired
+	private ConfigurableListableBeanFactory beanFactory;
+
+	@Test
+	void scheduledBeansAreCreatedDespiteLazyInitialization() {
+		for (Class<?> type : new Class<?>[] { McpResourceMonitor.class, OllamaEndpointPool.class,
+				OllamaService.class, ToolResultCache.class, McpSessionManager.class, SchemaCatalogService.class }) {
+			String[] names = beanFactory.getBeanNamesForType(type);
+			assertTrue(names.length == 1 && beanFactory.containsSingleton(names[0]),
+				type.getSimpleName() + " was not created at startup");
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+package br.lrferr.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+	properties = "mcp.websocket.allowed-origins=https://console.example.com")
+class WebSocketEndpointTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void browsersFromOtherOriginsAreRejected() {
+		assertThrows(ExecutionException.class, () -> connect("https://evil.example.com", new Frames()));
+	}
+
+	@Test
+	void browsersFromAnAllowedOriginConnect() throws Exception {
+		Frames frames = new Frames();
+		WebSocketSession session = connect("https://console.example.com", frames);
+
+		assertEquals("welcome", frames.next().path("type").asText());
+		session.close();
+	}
+
+	@Test
+	void aQueryForAServerThatIsNotRunningIsAnError() throws Exception {
+		Frames frames = new Frames();
+		WebSocketSession session = connect(null, frames);
+		frames.next();
+
+		session.sendMessage(new TextMessage(
+			"{\"type\":\"query\",\"id\":\"q1\",\"prompt\":\"primeiros 5 motoristas\",\"server\":\"missing\"}"));
+
+		JsonNode error = frames.next();
+		assertEquals("error", error.path("type").asText());
+		assertEquals("q1", error.path("id").asText());
+		assertEquals("Server not running: missing", error.path("error").asText());
+		session.close();
+	}
+
+	private WebSocketSession connect(String origin, Frames frames) throws Exception {
+		WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+		if (origin != null) {
+			headers.setOrigin(origin);
+		}
+		return new StandardWebSocketClient()
+			.execute(frames, headers, URI.create("ws://localhost:" + port + "/ws/mcp"))
+			.get(5, TimeUnit.SECONDS);
+	}
+
+	private final class Frames extends TextWebSocketHandler {
+
+		private final BlockingQueue<JsonNode> received = new LinkedBlockingQueue<>();
+
+		@Override
+		protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+			received.add(objectMapper.readTree(message.getPayload()));
+		}
+
+		JsonNode next() throws InterruptedException {
+			JsonNode frame = received.poll(5, TimeUnit.SECONDS);
+			assertTrue(frame != null, "no frame received");
+			return frame;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package br.lrferr.mcp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import br.lrferr.mcp.config.CircuitBreakerProperties;
+import br.lrferr.mcp.config.EventLogProperties;
+import br.lrferr.mcp.config.HedgingProperties;
+import br.lrferr.mcp.config.ToolCacheProperties;
+import br.lrferr.mcp.config.TracingProperties;
+import br.lrferr.mcp.model.FanOutRequest;
+import br.lrferr.mcp.service.McpFanOutService.FanOutResult;
+import br.lrferr.mcp.service.breaker.CircuitBreakerRegistry;
+import br.lrferr.mcp.service.eventlog.QueryEventLog;
+import br.lrferr.mcp.service.hedge.McpHedger;
+import br.lrferr.mcp.service.mcp.FakeMcpServer;
+import br.lrferr.mcp.service.mcp.McpSession;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+import br.lrferr.mcp.service.mcp.McpToolInvoker;
+import br.lrferr.mcp.service.toolcache.ToolResultCache;
+import br.lrferr.mcp.service.trace.QueryTracer;
+
+class McpFanOutServiceTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<String, FakeMcpServer> servers = new HashMap<>();
+	private final Map<String, String> databaseTypes = new HashMap<>();
+	private final List<String> generatedFor = new ArrayList<>();
+
+	@Test
+	void eachServerRunsSqlGeneratedForIt() throws Exception {
+		server("oracle-db", "oracle", request -> FakeMcpServer.result(request, TextNode.valueOf("oracle rows")));
+		server("mysql-db", "mysql", request -> FakeMcpServer.result(request, TextNode.valueOf("mysql rows")));
+
+		Map<String, Object> merged = service().execute(prompt("oracle-db", "mysql-db"), result -> {
+		}).get(5, TimeUnit.SECONDS);
+
+		assertEquals(List.of("mysql-db", "oracle-db"), generatedFor.stream().sorted().toList());
+		JsonNode oracleCall = servers.get("oracle-db").nextFrame().path("params").path("arguments");
+		assertEquals("SELECT 'oracle-db'", oracleCall.path("query").asText());
+		assertEquals("oracle", oracleCall.path("databaseType").asText());
+		JsonNode mysqlCall = servers.get("mysql-db").nextFrame().path("params").path("arguments");
+		assertEquals("SELECT 'mysql-db'", mysqlCall.path("query").asText());
+		assertEquals("mysql", mysqlCall.path("databaseType").asText());
+		assertEquals("SELECT 'oracle-db'", result(merged, "oracle-db").sql());
+		assertEquals("SELECT 'mysql-db'", result(merged, "mysql-db").sql());
+		assertEquals(2, merged.get("succeeded"));
+		crashAll();
+	}
+
+	@Test
+	void aFailingServerFailsOnlyItsOwnResult() throws Exception {
+		server("oracle-db", "oracle", request -> FakeMcpServer.result(request, TextNode.valueOf("oracle rows")));
+		server("broken-db", "oracle", request -> FakeMcpServer.result(request, TextNode.valueOf("never asked")));
+		server("failing-db", "mysql", request -> FakeMcpServer.error(request, -32000, "table not found"));
+		server("silent-db", "mysql", request -> null);
+		server("untyped-db", null, request -> null);
+		List<FanOutResult> streamed = new ArrayList<>();
+
+		FanOutRequest request = prompt("oracle-db", "broken-db", "failing-db", "silent-db", "untyped-db");
+		request.setTimeoutMs(300);
+		Map<String, Object> merged = service().execute(request, streamed::add).get(5, TimeUnit.SECONDS);
+
+		assertEquals("OK", result(merged, "oracle-db").status());
+		assertEquals("oracle rows", result(merged, "oracle-db").result().asText());
+		FanOutResult broken = result(merged, "broken-db");
+		assertEquals("ERROR", broken.status());
+		assertTrue(broken.error().contains("model unavailable"));
+		assertNull(broken.sql());
+		assertEquals("ERROR", result(merged, "failing-db").status());
+		assertEquals("SELECT 'failing-db'", result(merged, "failing-db").sql());
+		assertEquals("TIMEOUT", result(merged, "silent-db").status());
+		assertEquals("ERROR", result(merged, "untyped-db").status());
+		assertEquals(5, streamed.size());
+		assertEquals(1, merged.get("succeeded"));
+		assertEquals(List.of("broken-db", "failing-db", "silent-db", "untyped-db"), merged.get("failed"));
+		assertEquals(true, merged.get("partial"));
+		// The timed-out request is cancelled on its server.
+		FakeMcpServer silent = servers.get("silent-db");
+		silent.nextFrame();
+		assertEquals("notifications/cancelled", silent.nextFrame().path("method").asText());
+		crashAll();
+	}
+
+	private void server(String name, String databaseType, Function<JsonNode, JsonNode> handler)
+			throws Exception {
+		servers.put(name, new FakeMcpServer(objectMapper, handler));
+		databaseTypes.put(name, databaseType);
+	}
+
+	private McpFanOutService service() {
+		McpProcessManagerService processManager = new McpProcessManagerService() {
+			@Override
+			public String getDatabaseType(String name) {
+				return databaseTypes.get(name);
+			}
+		};
+		Map<String, McpSession> sessions = new HashMap<>();
+		servers.forEach((name, server) -> sessions.put(name, server.session(name)));
+		McpSessionManager sessionManager = new McpSessionManager(processManager, objectMapper, null, null, null) {
+			@Override
+			public McpSession getOrCreateSession(String serverName) {
+				return sessions.get(serverName);
+			}
+		};
+		McpClientService clientService = new McpClientService(null, null, null, null, null, null, null, null, null,
+			null, null, null, null, null) {
+			@Override
+			String generateSQLFromPrompt(String serverName, String prompt) {
+				synchronized (generatedFor) {
+					generatedFor.add(serverName);
+				}
+				if (serverName.startsWith("broken")) {
+					throw new IllegalStateException("model unavailable");
+				}
+				return "SELECT '" + serverName + "'";
+			}
+		};
+		return new McpFanOutService(processManager, sessionManager, invoker(), clientService, objectMapper);
+	}
+
+	private McpToolInvoker invoker() {
+		TracingProperties tracing = new TracingProperties();
+		tracing.setEnabled(false);
+		ToolCacheProperties toolCache = new ToolCacheProperties();
+		toolCache.setEnabled(false);
+		EventLogProperties eventLog = new EventLogProperties();
+		eventLog.setEnabled(false);
+		HedgingProperties hedging = new HedgingProperties();
+		hedging.setEnabled(false);
+		return new McpToolInvoker(objectMapper, new QueryTracer(tracing, null),
+			new ToolResultCache(toolCache, objectMapper), new McpHedger(null, null, hedging),
+			new CircuitBreakerRegistry(new CircuitBreakerProperties()), new QueryEventLog(eventLog, objectMapper));
+	}
+
+	private static FanOutRequest prompt(String... servers) {
+		FanOutRequest request = new FanOutRequest();
+		request.setServers(List.of(servers));
+		request.setPrompt("primeiros 5 motoristas");
+		return request;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static FanOutResult result(Map<String, Object> merged, String server) {
+		return ((Map<String, FanOutResult>) merged.get("results")).get(server);
+	}
+
+	private void crashAll() {
+		servers.values().forEach(FakeMcpServer::crash);
+	}
+}
@@ -0,0 +1,161 @@
+package br.lrferr.mcp.service.breaker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import br.lrferr.mcp.config.CircuitBreakerProperties;
+import br.lrferr.mcp.service.breaker.CircuitBreaker.State;
+
+class CircuitBreakerTest {
+
+	private static final long FAST = Duration.ofMillis(10).toNanos();
+	private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+	private static final RuntimeException ERROR = new IllegalStateException("down");
+
+	@Test
+	void opensWhenTheFailureRateCrossesTheThreshold() {
+		CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+		succeed(breaker);
+		succeed(breaker);
+		fail(breaker);
+		assertEquals(State.CLOSED, breaker.getState());
+		fail(breaker);
+
+		assertEquals(State.OPEN, breaker.getState());
+		assertThrows(CircuitOpenException.class, breaker::acquire);
+		assertThrows(CircuitOpenException.class, breaker::check);
+	}
+
+	@Test
+	void opensWhenTheSlowCallRateCrossesTheThreshold() {
+		CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+		for (int i = 0; i < 4; i++) {
+			breaker.onSuccess(breaker.acquire(), SLOW);
+		}
+
+		assertEquals(State.OPEN, breaker.getState());
+	}
+
+	@Test
+	void halfOpenLetsOnlyTheConfiguredProbesThrough() {
+		CircuitBreaker breaker = opened(Duration.ZERO);
+
+		breaker.acquire();
+		breaker.acquire();
+
+		assertEquals(State.HALF_OPEN, breaker.getState());
+		assertThrows(CircuitOpenException.class, breaker::acquire);
+	}
+
+	@Test
+	void closesWhenEveryProbeSucceeds() {
+		CircuitBreaker breaker = opened(Duration.ZERO);
+
+		long first = breaker.acquire();
+		long second = breaker.acquire();
+		breaker.onSuccess(first, FAST);
+		assertEquals(State.HALF_OPEN, breaker.getState());
+		breaker.onSuccess(second, FAST);
+
+		assertEquals(State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void reopensOnAFailedOrSlowProbe() {
+		CircuitBreaker failing = opened(Duration.ZERO);
+		failing.onFailure(failing.acquire(), FAST, ERROR);
+		assertEquals(State.OPEN, failing.getState());
+
+		CircuitBreaker slow = opened(Duration.ZERO);
+		slow.onSuccess(slow.acquire(), SLOW);
+		assertEquals(State.OPEN, slow.getState());
+	}
+
+	@Test
+	void ignoredProbeFreesItsSlot() {
+		CircuitBreaker breaker = opened(Duration.ZERO);
+
+		long first = breaker.acquire();
+		breaker.acquire();
+		breaker.onIgnored(first);
+
+		breaker.acquire();
+		assertEquals(State.HALF_OPEN, breaker.getState());
+	}
+
+	@Test
+	void callsAdmittedBeforeHalfOpenAreNotCountedAsProbes() {
+		CircuitBreaker breaker = breaker(Duration.ZERO);
+		long stale = breaker.acquire();
+		long otherStale = breaker.acquire();
+		for (int i = 0; i < 4; i++) {
+			fail(breaker);
+		}
+		long probe = breaker.acquire();
+		assertEquals(State.HALF_OPEN, breaker.getState());
+
+		// Neither closes nor reopens the breaker, nor frees a probe slot.
+		breaker.onSuccess(stale, FAST);
+		breaker.onFailure(otherStale, FAST, ERROR);
+		assertEquals(State.HALF_OPEN, breaker.getState());
+		breaker.onIgnored(stale);
+		breaker.acquire();
+		assertThrows(CircuitOpenException.class, breaker::acquire);
+
+		breaker.onSuccess(probe, FAST);
+		assertEquals(State.HALF_OPEN, breaker.getState());
+	}
+
+	@Test
+	void callsAdmittedBeforeAResetDoNotCountInTheNewWindow() {
+		CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+		long[] stale = new long[4];
+		for (int i = 0; i < stale.length; i++) {
+			stale[i] = breaker.acquire();
+		}
+		breaker.reset();
+
+		for (long generation : stale) {
+			breaker.onFailure(generation, FAST, ERROR);
+		}
+
+		assertEquals(State.CLOSED, breaker.getState());
+		assertEquals(0, breaker.toMap().get("windowCalls"));
+		assertEquals(4L, breaker.toMap().get("failed"));
+	}
+
+	private static CircuitBreaker breaker(Duration openDuration) {
+		CircuitBreakerProperties properties = new CircuitBreakerProperties();
+		properties.setWindowSize(4);
+		properties.setMinimumCalls(4);
+		properties.setFailureRateThreshold(0.5);
+		properties.setSlowCallRateThreshold(1.0);
+		properties.setOpenDuration(openDuration);
+		properties.setHalfOpenCalls(2);
+		return new CircuitBreaker(CircuitBreakerRegistry.MCP, "test", properties, Duration.ofSeconds(1));
+	}
+
+	private static CircuitBreaker opened(Duration openDuration) {
+		CircuitBreaker breaker = breaker(openDuration);
+		for (int i = 0; i < 4; i++) {
+			fail(breaker);
+		}
+		assertEquals(State.OPEN, breaker.getState());
+		return breaker;
+	}
+
+	private static void succeed(CircuitBreaker breaker) {
+		breaker.onSuccess(breaker.acquire(), FAST);
+	}
+
+	private static void fail(CircuitBreaker breaker) {
+		breaker.onFailure(breaker.acquire(), FAST, ERROR);
+	}
+}
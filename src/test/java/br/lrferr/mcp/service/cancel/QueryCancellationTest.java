@@ -0,0 +1,152 @@
+package br.lrferr.mcp.service.cancel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.lrferr.mcp.config.CircuitBreakerProperties;
+import br.lrferr.mcp.config.EventLogProperties;
+import br.lrferr.mcp.config.HedgingProperties;
+import br.lrferr.mcp.config.ToolCacheProperties;
+import br.lrferr.mcp.config.TracingProperties;
+import br.lrferr.mcp.service.breaker.CircuitBreakerRegistry;
+import br.lrferr.mcp.service.eventlog.QueryEventLog;
+import br.lrferr.mcp.service.hedge.McpHedger;
+import br.lrferr.mcp.service.mcp.FakeMcpServer;
+import br.lrferr.mcp.service.mcp.McpProgressListener;
+import br.lrferr.mcp.service.mcp.McpSession;
+import br.lrferr.mcp.service.mcp.McpToolInvoker;
+import br.lrferr.mcp.service.toolcache.ToolResultCache;
+import br.lrferr.mcp.service.trace.QueryTracer;
+
+class QueryCancellationTest {
+
+	private static final String TOOL = "execute_safe_query";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final McpToolInvoker toolInvoker = invoker();
+
+	@Test
+	void aCancelBeforeTheRequestIsRegisteredIsSentOnceItIs() throws Exception {
+		FakeMcpServer server = new FakeMcpServer(objectMapper, request -> null);
+		McpSession session = server.session("db");
+		QueryCancellation cancellation = new QueryCancellation(toolInvoker);
+		AtomicReference<String> stage = new AtomicReference<>();
+
+		CompletableFuture<JsonNode> call = CompletableFuture.supplyAsync(() -> cancellation.runTool(null, tracked -> {
+			// Lands after the query reached the tool stage, before the request exists on the session.
+			stage.set(cancellation.cancel("client"));
+			return toolInvoker.invokeTool(session, TOOL, arguments(), tracked);
+		}));
+
+		assertCancelled(call);
+
+		assertEquals("pending", stage.get());
+		assertCancelledOnServer(server);
+		server.crash();
+	}
+
+	@Test
+	void aCancelAsSoonAsTheRequestIsPublishedReachesTheServer() throws Exception {
+		FakeMcpServer server = new FakeMcpServer(objectMapper, request -> null);
+		McpSession session = server.session("db");
+		QueryCancellation cancellation = new QueryCancellation(toolInvoker);
+		AtomicReference<String> stage = new AtomicReference<>();
+		McpProgressListener listener = new McpProgressListener() {
+			@Override
+			public void started(String requestId) {
+				stage.set(cancellation.cancel("client"));
+			}
+
+			@Override
+			public void progress(JsonNode params) {
+			}
+		};
+
+		CompletableFuture<JsonNode> call = CompletableFuture.supplyAsync(() -> cancellation.runTool(listener,
+			tracked -> toolInvoker.invokeTool(session, TOOL, arguments(), tracked)));
+
+		assertCancelled(call);
+
+		assertEquals("mcp", stage.get());
+		assertCancelledOnServer(server);
+		server.crash();
+	}
+
+	@Test
+	void aCancelWhileTheToolRunsReachesTheServer() throws Exception {
+		FakeMcpServer server = new FakeMcpServer(objectMapper, request -> null);
+		McpSession session = server.session("db");
+		QueryCancellation cancellation = new QueryCancellation(toolInvoker);
+		CountDownLatch started = new CountDownLatch(1);
+		McpProgressListener listener = new McpProgressListener() {
+			@Override
+			public void started(String requestId) {
+				started.countDown();
+			}
+
+			@Override
+			public void progress(JsonNode params) {
+			}
+		};
+
+		CompletableFuture<JsonNode> call = CompletableFuture.supplyAsync(() -> cancellation.runTool(listener,
+			tracked -> toolInvoker.invokeTool(session, TOOL, arguments(), tracked)));
+		JsonNode request = server.nextFrame();
+		assertEquals("tools/call", request.path("method").asText());
+		// The server can see the request before the call is published to the handle.
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		assertEquals("mcp", cancellation.cancel("client"));
+		JsonNode notification = server.nextFrame();
+		assertEquals("notifications/cancelled", notification.path("method").asText());
+		assertEquals(request.path("id").asText(), notification.path("params").path("requestId").asText());
+		assertCancelled(call);
+		server.crash();
+	}
+
+	private static void assertCancelled(CompletableFuture<JsonNode> call) {
+		// Without the cancel reaching the server, nothing ever answers the call.
+		ExecutionException ex = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+		assertEquals(CancellationException.class, ex.getCause().getClass());
+	}
+
+	private static void assertCancelledOnServer(FakeMcpServer server) throws InterruptedException {
+		JsonNode request = server.nextFrame();
+		assertEquals("tools/call", request.path("method").asText());
+		JsonNode notification = server.nextFrame();
+		assertEquals("notifications/cancelled", notification.path("method").asText());
+		assertEquals(request.path("id").asText(), notification.path("params").path("requestId").asText());
+		assertEquals("client", notification.path("params").path("reason").asText());
+	}
+
+	private JsonNode arguments() {
+		return objectMapper.createObjectNode().put("query", "SELECT 1 FROM dual");
+	}
+
+	private McpToolInvoker invoker() {
+		TracingProperties tracing = new TracingProperties();
+		tracing.setEnabled(false);
+		ToolCacheProperties toolCache = new ToolCacheProperties();
+		toolCache.setEnabled(false);
+		EventLogProperties eventLog = new EventLogProperties();
+		eventLog.setEnabled(false);
+		HedgingProperties hedging = new HedgingProperties();
+		hedging.setEnabled(false);
+		return new McpToolInvoker(objectMapper, new QueryTracer(tracing, null),
+			new ToolResultCache(toolCache, objectMapper), new McpHedger(null, null, hedging),
+			new CircuitBreakerRegistry(new CircuitBreakerProperties()), new QueryEventLog(eventLog, objectMapper));
+	}
+}
@@ -0,0 +1,183 @@
+package br.lrferr.mcp.service.hedge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import br.lrferr.mcp.config.HedgingProperties;
+import br.lrferr.mcp.model.McpServerConfig;
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.mcp.FakeMcpServer;
+import br.lrferr.mcp.service.mcp.McpSession;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+
+class McpHedgerTest {
+
+	private static final String TOOL = "execute_safe_query";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void aDuplicateThatAnswersFirstWinsAndCancelsThePrimary() throws Exception {
+		FakeMcpServer primary = server("primary");
+		FakeMcpServer hedge = server("hedge");
+		McpSession session = primary.session("db");
+		McpHedger hedger = hedger(primary, (name, executor) -> hedge.session("db"));
+		warmUp(hedger, session, primary);
+
+		primary.setHandler(request -> null);
+		JsonNode response = hedger.call(session, TOOL, "tools/call", params()).get(5, TimeUnit.SECONDS);
+
+		assertEquals("hedge", response.path("result").asText());
+		assertEquals("hedge won", cancellation(primary).path("params").path("reason").asText());
+		assertEquals(1L, toolStats(hedger).get("hedgeWins"));
+		primary.crash();
+		hedge.crash();
+	}
+
+	@Test
+	void aPrimaryThatAnswersFirstWinsAndCancelsTheDuplicate() throws Exception {
+		FakeMcpServer primary = server("primary");
+		FakeMcpServer hedge = new FakeMcpServer(objectMapper, request -> null);
+		McpSession session = primary.session("db");
+		McpHedger hedger = hedger(primary, (name, executor) -> hedge.session("db"));
+		warmUp(hedger, session, primary);
+
+		primary.setHandler(request -> {
+			// Answer late, after the duplicate went out.
+			Thread reply = new Thread(() -> {
+				sleep(300);
+				primary.send(FakeMcpServer.result(request, TextNode.valueOf("primary")));
+			});
+			reply.start();
+			return null;
+		});
+		JsonNode response = hedger.call(session, TOOL, "tools/call", params()).get(5, TimeUnit.SECONDS);
+
+		assertEquals("primary", response.path("result").asText());
+		assertEquals("tools/call", hedge.nextFrame().path("method").asText());
+		assertEquals("primary won", cancellation(hedge).path("params").path("reason").asText());
+		Map<String, Object> stats = toolStats(hedger);
+		assertEquals(1L, stats.get("hedged"));
+		assertEquals(0L, stats.get("hedgeWins"));
+		primary.crash();
+		hedge.crash();
+	}
+
+	@Test
+	void startingAHedgeProcessDoesNotHoldUpOtherHedges() throws Exception {
+		FakeMcpServer primary = server("primary");
+		McpSession session = primary.session("db");
+		AtomicInteger lookups = new AtomicInteger();
+		CountDownLatch handshake = new CountDownLatch(1);
+		McpHedger hedger = hedger(primary, (name, executor) -> {
+			lookups.incrementAndGet();
+			// A start that never finishes, like a server stuck in its handshake.
+			executor.execute(() -> {
+				try {
+					handshake.await();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			return null;
+		});
+		warmUp(hedger, session, primary);
+
+		primary.setHandler(request -> null);
+		hedger.call(session, TOOL, "tools/call", params());
+		hedger.call(session, TOOL, "tools/call", params());
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (lookups.get() < 2 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+
+		assertEquals(2, lookups.get());
+		handshake.countDown();
+		hedger.shutdown();
+		primary.crash();
+	}
+
+	private FakeMcpServer server(String answer) throws Exception {
+		return new FakeMcpServer(objectMapper, request -> FakeMcpServer.result(request, TextNode.valueOf(answer)));
+	}
+
+	private McpHedger hedger(FakeMcpServer primary, HedgeSessions hedgeSessions) {
+		McpServerConfig config = new McpServerConfig();
+		config.setIdempotentTools(List.of(TOOL));
+		McpProcessManagerService processManager = new McpProcessManagerService() {
+			@Override
+			public RunningServer getRunningServer(String name) {
+				return new RunningServer(primary, Instant.now(), config, null);
+			}
+		};
+		McpSessionManager sessionManager = new McpSessionManager(processManager, objectMapper, null, null, null) {
+			@Override
+			public McpSession getHedgeSession(String serverName, Executor executor) {
+				return hedgeSessions.get(serverName, executor);
+			}
+		};
+		HedgingProperties properties = new HedgingProperties();
+		properties.setMinSamples(5);
+		properties.setMinDelay(Duration.ofMillis(20));
+		properties.setMaxRate(1.0);
+		return new McpHedger(processManager, sessionManager, properties);
+	}
+
+	private void warmUp(McpHedger hedger, McpSession session, FakeMcpServer primary) throws Exception {
+		assertTrue(hedger.shouldHedge(session, TOOL));
+		for (int i = 0; i < 5; i++) {
+			hedger.call(session, TOOL, "tools/call", params()).get(5, TimeUnit.SECONDS);
+			primary.nextFrame();
+		}
+	}
+
+	private JsonNode params() {
+		return objectMapper.createObjectNode().put("name", TOOL);
+	}
+
+	private static JsonNode cancellation(FakeMcpServer server) throws InterruptedException {
+		JsonNode frame;
+		while ((frame = server.nextFrame()) != null) {
+			if ("notifications/cancelled".equals(frame.path("method").asText())) {
+				return frame;
+			}
+		}
+		throw new AssertionError("no notifications/cancelled received");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> toolStats(McpHedger hedger) {
+		return ((List<Map<String, Object>>) hedger.getStats().get("tools")).get(0);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@FunctionalInterface
+	private interface HedgeSessions {
+
+		McpSession get(String serverName, Executor executor);
+	}
+}
@@ -0,0 +1,193 @@
+package br.lrferr.mcp.service.mcp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * An in-process MCP server for tests: a {@link Process} whose stdio is a pair
+ * of pipes, answered by a handler on its own thread. The handler returns the
+ * reply to a request, or {@code null} to leave it unanswered. Every frame the
+ * session sends is recorded and can be awaited with {@link #nextFrame}.
+ */
+public class FakeMcpServer extends Process {
+
+	private static final AtomicLong PIDS = new AtomicLong(100_000);
+
+	private final ObjectMapper objectMapper;
+	private final McpMessageFrame frame;
+	private final InputStream toSession;
+	private final OutputStream fromSession;
+	private final BufferedWriter writer;
+	private final BlockingQueue<JsonNode> received = new LinkedBlockingQueue<>();
+	private final CountDownLatch exited = new CountDownLatch(1);
+	private final long pid = PIDS.incrementAndGet();
+
+	private volatile Function<JsonNode, JsonNode> handler;
+
+	public FakeMcpServer(ObjectMapper objectMapper, Function<JsonNode, JsonNode> handler) throws IOException {
+		this.objectMapper = objectMapper;
+		this.frame = new McpMessageFrame(objectMapper);
+		this.handler = handler;
+		Pipe out = Pipe.open();
+		Pipe in = Pipe.open();
+		this.toSession = Channels.newInputStream(out.source());
+		this.writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(out.sink()),
+			StandardCharsets.UTF_8));
+		this.fromSession = Channels.newOutputStream(in.sink());
+		BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(in.source()),
+			StandardCharsets.UTF_8));
+		Thread thread = new Thread(() -> serve(reader), "fake-mcp-server");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Starts a session on this server.
+	 */
+	public McpSession session(String serverName) {
+		return new McpSession(serverName, this, objectMapper);
+	}
+
+	private void serve(BufferedReader reader) {
+		try {
+			while (exited.getCount() > 0) {
+				JsonNode message = frame.read(reader);
+				received.add(message);
+				JsonNode reply = message.has("id") ? handler.apply(message) : null;
+				if (reply != null) {
+					send(reply);
+				}
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			// The session closed its end.
+		}
+	}
+
+	public void setHandler(Function<JsonNode, JsonNode> handler) {
+		this.handler = handler;
+	}
+
+	/**
+	 * Writes a message, e.g. a notification or a late reply, to the session.
+	 */
+	public void send(JsonNode message) {
+		try {
+			frame.write(writer, message);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("fake server closed", ex);
+		}
+	}
+
+	/**
+	 * The next frame the session sent, waiting up to five seconds for it.
+	 */
+	public JsonNode nextFrame() throws InterruptedException {
+		return received.poll(5, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Closes the server's output as if it had died.
+	 */
+	public void crash() {
+		destroy();
+	}
+
+	public static ObjectNode result(JsonNode request, JsonNode result) {
+		ObjectNode reply = reply(request);
+		reply.set("result", result);
+		return reply;
+	}
+
+	public static ObjectNode error(JsonNode request, int code, String message) {
+		ObjectNode reply = reply(request);
+		ObjectNode error = reply.putObject("error");
+		error.put("code", code);
+		error.put("message", message);
+		return reply;
+	}
+
+	private static ObjectNode reply(JsonNode request) {
+		ObjectNode reply = new ObjectMapper().createObjectNode();
+		reply.put("jsonrpc", "2.0");
+		reply.set("id", request.get("id"));
+		return reply;
+	}
+
+	public ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		return fromSession;
+	}
+
+	@Override
+	public InputStream getInputStream() {
+		return toSession;
+	}
+
+	@Override
+	public InputStream getErrorStream() {
+		return InputStream.nullInputStream();
+	}
+
+	@Override
+	public int waitFor() throws InterruptedException {
+		exited.await();
+		return 0;
+	}
+
+	@Override
+	public int exitValue() {
+		if (exited.getCount() > 0) {
+			throw new IllegalThreadStateException("running");
+		}
+		return 0;
+	}
+
+	@Override
+	public boolean isAlive() {
+		return exited.getCount() > 0;
+	}
+
+	@Override
+	public long pid() {
+		return pid;
+	}
+
+	@Override
+	public void destroy() {
+		exited.countDown();
+		try {
+			writer.close();
+		}
+		catch (IOException ignore) {
+		}
+		try {
+			fromSession.close();
+		}
+		catch (IOException ignore) {
+		}
+	}
+}
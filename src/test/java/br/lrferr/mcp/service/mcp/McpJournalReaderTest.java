@@ -0,0 +1,110 @@
+package br.lrferr.mcp.service.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.lrferr.mcp.service.mcp.McpJournalEntry.Direction;
+
+class McpJournalReaderTest {
+
+	// Direction byte, nanos and payload length.
+	private static final int RECORD_HEADER = 1 + 8 + 4;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsBackWhatWasWritten() throws IOException {
+		Path journal = write("request", "response");
+
+		try (McpJournalReader reader = new McpJournalReader(journal)) {
+			assertEquals("db", reader.getServerName());
+			List<McpJournalEntry> entries = reader.readAll();
+			assertEquals(2, entries.size());
+			assertEquals(Direction.OUT, entries.get(0).direction());
+			assertEquals("request", entries.get(0).payloadAsString());
+			assertEquals(Direction.IN, entries.get(1).direction());
+			assertEquals("response", entries.get(1).payloadAsString());
+		}
+	}
+
+	@Test
+	void aTornPayloadEndsTheJournal() throws IOException {
+		Path journal = write("request", "response");
+		truncate(journal, Files.size(journal) - 3);
+
+		try (McpJournalReader reader = new McpJournalReader(journal)) {
+			List<McpJournalEntry> entries = reader.readAll();
+			assertEquals(1, entries.size());
+			assertEquals("request", entries.get(0).payloadAsString());
+		}
+	}
+
+	@Test
+	void aTornHeaderEndsTheJournal() throws IOException {
+		Path journal = write("request", "response");
+		truncate(journal, Files.size(journal) - "response".length() - RECORD_HEADER + 5);
+
+		try (McpJournalReader reader = new McpJournalReader(journal)) {
+			assertEquals(1, reader.readAll().size());
+		}
+	}
+
+	@Test
+	void aNegativeLengthIsCorruption() throws IOException {
+		Path journal = write("request", "response");
+		long lengthOffset = Files.size(journal) - "response".length() - 4;
+		try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+			file.seek(lengthOffset);
+			file.writeInt(-1);
+		}
+
+		try (McpJournalReader reader = new McpJournalReader(journal)) {
+			reader.next();
+			IOException ex = assertThrows(IOException.class, reader::next);
+			assertTrue(ex.getMessage().contains("negative payload length"));
+		}
+	}
+
+	@Test
+	void anUnknownDirectionIsCorruption() throws IOException {
+		Path journal = write("request", "response");
+		long directionOffset = Files.size(journal) - "response".length() - RECORD_HEADER;
+		try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+			file.seek(directionOffset);
+			file.writeByte(7);
+		}
+
+		try (McpJournalReader reader = new McpJournalReader(journal)) {
+			reader.next();
+			IOException ex = assertThrows(IOException.class, reader::next);
+			assertTrue(ex.getMessage().contains("unknown direction 7"));
+		}
+	}
+
+	private Path write(String request, String response) throws IOException {
+		Path path = directory.resolve("db.mcpj");
+		try (McpJournalWriter writer = new McpJournalWriter(path, "db")) {
+			writer.append(Direction.OUT, request.getBytes(StandardCharsets.UTF_8));
+			writer.append(Direction.IN, response.getBytes(StandardCharsets.UTF_8));
+		}
+		return path;
+	}
+
+	private static void truncate(Path path, long size) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			file.setLength(size);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package br.lrferr.mcp.service.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.lrferr.mcp.model.McpServerConfig;
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
+
+class McpSessionManagerTest {
+
+	private static final Duration DRAIN = Duration.ofSeconds(1);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<FakeMcpServer> launched = new ArrayList<>();
+	private Runnable onLaunch = () -> {
+	};
+
+	private final McpProcessManagerService processManager = new McpProcessManagerService() {
+		@Override
+		public RunningServer launch(String name, McpServerConfig config, Path sourcePath) {
+			onLaunch.run();
+			try {
+				FakeMcpServer server = new FakeMcpServer(objectMapper,
+					request -> FakeMcpServer.result(request, objectMapper.createObjectNode()));
+				launched.add(server);
+				return new RunningServer(server, Instant.now(), config, sourcePath);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	};
+	private final McpSessionManager sessionManager = new McpSessionManager(processManager, objectMapper,
+		new McpCaptureService("captures", List.of()), null, null);
+
+	@Test
+	void aRestartSwapsInTheNewProcessAndStopsTheOldOne() {
+		processManager.startServer("db", new McpServerConfig(), null);
+
+		Map<String, Object> result = sessionManager.rollingRestart("db", DRAIN);
+
+		assertSame(launched.get(1), processManager.getRunningServer("db").process());
+		assertFalse(launched.get(0).isAlive());
+		assertEquals(launched.get(0).pid(), result.get("previousPid"));
+		assertEquals(launched.get(1).pid(), result.get("pid"));
+		crashAll();
+	}
+
+	@Test
+	void aServerStoppedDuringTheRestartIsNotBroughtBack() {
+		processManager.startServer("db", new McpServerConfig(), null);
+		onLaunch = () -> processManager.stopServer("db");
+
+		assertThrows(McpRestartConflictException.class, () -> sessionManager.rollingRestart("db", DRAIN));
+
+		assertNull(processManager.getRunningServer("db"));
+		assertFalse(launched.get(1).isAlive());
+		crashAll();
+	}
+
+	@Test
+	void aRestartOvertakenByAnotherKeepsTheOtherOnesProcess() {
+		processManager.startServer("db", new McpServerConfig(), null);
+		onLaunch = () -> {
+			onLaunch = () -> {
+			};
+			sessionManager.rollingRestart("db", DRAIN);
+		};
+
+		assertThrows(McpRestartConflictException.class, () -> sessionManager.rollingRestart("db", DRAIN));
+
+		// The inner restart launched second and won; the outer one's process is discarded.
+		assertSame(launched.get(1), processManager.getRunningServer("db").process());
+		assertTrue(launched.get(1).isAlive());
+		assertFalse(launched.get(2).isAlive());
+		crashAll();
+	}
+
+	private void crashAll() {
+		launched.forEach(FakeMcpServer::crash);
+	}
+}
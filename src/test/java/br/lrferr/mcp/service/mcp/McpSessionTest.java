@@ -0,0 +1,169 @@
+package br.lrferr.mcp.service.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+class McpSessionTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void routesProgressByToken() throws Exception {
+		FakeMcpServer server = new FakeMcpServer(objectMapper, request -> null);
+		McpSession session = server.session("db");
+		RecordingListener first = new RecordingListener();
+		RecordingListener second = new RecordingListener();
+		session.addProgressListener("a", first);
+		session.addProgressListener("b", second);
+
+		server.send(progress("b", 1));
+		server.send(progress("a", 2));
+		server.send(log("a", "row 1"));
+		server.send(progress("b", 3));
+
+		assertEquals("progress:2", first.next());
+		assertEquals("message:row 1", first.next());
+		assertEquals("progress:1", second.next());
+		assertEquals("progress:3", second.next());
+		server.crash();
+	}
+
+	@Test
+	void untaggedLogsReachOnlyTheSoleCallInFlight() throws Exception {
+		FakeMcpServer server = new FakeMcpServer(objectMapper, request -> null);
+		McpSession session = server.session("db");
+		RecordingListener first = new RecordingListener();
+		RecordingListener second = new RecordingListener();
+
+		session.addProgressListener("a", first);
+		server.send(log(null, "only a"));
+		assertEquals("message:only a", first.next());
+
+		session.addProgressListener("b", second);
+		server.send(log(null, "whose?"));
+		server.send(progress("a", 1));
+		server.send(progress("b", 2));
+
+		assertEquals("progress:1", first.next());
+		assertEquals("progress:2", second.next());
+		assertTrue(first.events.isEmpty());
+		assertTrue(second.events.isEmpty());
+		server.crash();
+	}
+
+	@Test
+	void aBlockedListenerDoesNotHoldUpResponses() throws Exception {
+		FakeMcpServer server = new FakeMcpServer(objectMapper,
+			request -> FakeMcpServer.result(request, objectMapper.createObjectNode()));
+		McpSession session = server.session("db");
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingListener blocked = new RecordingListener() {
+			@Override
+			public void progress(JsonNode params) {
+				entered.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				super.progress(params);
+			}
+		};
+		session.addProgressListener("a", blocked);
+
+		server.send(progress("a", 0));
+		assertTrue(entered.await(5, TimeUnit.SECONDS));
+		for (int i = 1; i < 300; i++) {
+			server.send(progress("a", i));
+		}
+		JsonNode response = session.callMethod("ping", null).get(5, TimeUnit.SECONDS);
+		assertTrue(response.has("result"));
+
+		release.countDown();
+		// The outbox held 256 notifications behind the one being delivered; the rest were dropped.
+		for (int i = 0; i <= 256; i++) {
+			assertEquals("progress:" + i, blocked.next());
+		}
+		assertEquals(null, blocked.events.poll(200, TimeUnit.MILLISECONDS));
+		server.crash();
+	}
+
+	@Test
+	void removedListenersGetNothingMore() throws Exception {
+		FakeMcpServer server = new FakeMcpServer(objectMapper,
+			request -> FakeMcpServer.result(request, objectMapper.createObjectNode()));
+		McpSession session = server.session("db");
+		RecordingListener listener = new RecordingListener();
+		session.addProgressListener("a", listener);
+		server.send(progress("a", 1));
+		assertEquals("progress:1", listener.next());
+
+		session.removeProgressListener("a");
+		server.send(progress("a", 2));
+		server.send(log("a", "late"));
+		// Answered after both notifications were read.
+		session.callMethod("ping", null).get(5, TimeUnit.SECONDS);
+
+		assertEquals(null, listener.events.poll(200, TimeUnit.MILLISECONDS));
+		server.crash();
+	}
+
+	private ObjectNode progress(String token, int progress) {
+		ObjectNode notification = notification("notifications/progress");
+		ObjectNode params = (ObjectNode) notification.get("params");
+		params.put("progressToken", token);
+		params.put("progress", progress);
+		return notification;
+	}
+
+	private ObjectNode log(String token, String data) {
+		ObjectNode notification = notification("notifications/message");
+		ObjectNode params = (ObjectNode) notification.get("params");
+		params.put("level", "info");
+		params.put("data", data);
+		if (token != null) {
+			params.putObject("_meta").put("progressToken", token);
+		}
+		return notification;
+	}
+
+	private ObjectNode notification(String method) {
+		ObjectNode notification = objectMapper.createObjectNode();
+		notification.put("jsonrpc", "2.0");
+		notification.put("method", method);
+		notification.putObject("params");
+		return notification;
+	}
+
+	private static class RecordingListener implements McpProgressListener {
+
+		final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+		@Override
+		public void progress(JsonNode params) {
+			events.add("progress:" + params.path("progress").asInt());
+		}
+
+		@Override
+		public void message(JsonNode params) {
+			events.add("message:" + params.path("data").asText());
+		}
+
+		String next() throws InterruptedException {
+			return events.poll(5, TimeUnit.SECONDS);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package br.lrferr.mcp.service.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.lrferr.mcp.config.CircuitBreakerProperties;
+import br.lrferr.mcp.config.EventLogProperties;
+import br.lrferr.mcp.config.HedgingProperties;
+import br.lrferr.mcp.config.ToolCacheProperties;
+import br.lrferr.mcp.config.TracingProperties;
+import br.lrferr.mcp.service.breaker.CircuitBreakerRegistry;
+import br.lrferr.mcp.service.breaker.CircuitOpenException;
+import br.lrferr.mcp.service.eventlog.QueryEventLog;
+import br.lrferr.mcp.service.hedge.McpHedger;
+import br.lrferr.mcp.service.toolcache.ToolResultCache;
+import br.lrferr.mcp.service.trace.QueryTracer;
+
+class McpToolInvokerTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void errorRepliesDoNotOpenTheBreaker() throws Exception {
+		CircuitBreakerRegistry breakers = breakers();
+		McpToolInvoker invoker = invoker(breakers);
+		FakeMcpServer server = new FakeMcpServer(objectMapper,
+			request -> FakeMcpServer.error(request, -32000, "ORA-00942: table or view does not exist"));
+		McpSession session = server.session("db");
+
+		for (int i = 0; i < 12; i++) {
+			McpProtocolException ex = assertThrows(McpProtocolException.class,
+				() -> invoker.invokeTool(session, "execute_safe_query", objectMapper.createObjectNode()));
+			assertTrue(ex.getMessage().contains("ORA-00942"));
+		}
+		for (int i = 0; i < 12; i++) {
+			CompletionException ex = assertThrows(CompletionException.class,
+				() -> invoker.invokeToolAsync(session, "execute_safe_query", objectMapper.createObjectNode()).join());
+			assertTrue(ex.getCause() instanceof McpProtocolException);
+		}
+
+		assertEquals("CLOSED", breaker(breakers).get("state"));
+		server.crash();
+	}
+
+	@Test
+	void aDeadServerOpensTheBreaker() throws Exception {
+		CircuitBreakerRegistry breakers = breakers();
+		McpToolInvoker invoker = invoker(breakers);
+		FakeMcpServer server = new FakeMcpServer(objectMapper, request -> null);
+		McpSession session = server.session("db");
+		server.crash();
+
+		for (int i = 0; i < 10; i++) {
+			assertThrows(McpProtocolException.class,
+				() -> invoker.invokeTool(session, "execute_safe_query", objectMapper.createObjectNode()));
+		}
+
+		assertEquals("OPEN", breaker(breakers).get("state"));
+		assertThrows(CircuitOpenException.class,
+			() -> invoker.invokeTool(session, "execute_safe_query", objectMapper.createObjectNode()));
+	}
+
+	@Test
+	void returnsTheResultOfASuccessfulCall() throws Exception {
+		McpToolInvoker invoker = invoker(breakers());
+		FakeMcpServer server = new FakeMcpServer(objectMapper,
+			request -> FakeMcpServer.result(request, request.path("params").path("arguments")));
+		McpSession session = server.session("db");
+
+		JsonNode arguments = objectMapper.createObjectNode().put("sql", "select 1 from dual");
+		assertEquals(arguments, invoker.invokeTool(session, "execute_safe_query", arguments));
+		assertEquals(arguments, invoker.invokeToolAsync(session, "execute_safe_query", arguments).join());
+		server.crash();
+	}
+
+	private McpToolInvoker invoker(CircuitBreakerRegistry breakers) {
+		TracingProperties tracing = new TracingProperties();
+		tracing.setEnabled(false);
+		ToolCacheProperties toolCache = new ToolCacheProperties();
+		toolCache.setEnabled(false);
+		EventLogProperties eventLog = new EventLogProperties();
+		eventLog.setEnabled(false);
+		HedgingProperties hedging = new HedgingProperties();
+		hedging.setEnabled(false);
+		return new McpToolInvoker(objectMapper, new QueryTracer(tracing, null),
+			new ToolResultCache(toolCache, objectMapper), new McpHedger(null, null, hedging), breakers,
+			new QueryEventLog(eventLog, objectMapper));
+	}
+
+	private static CircuitBreakerRegistry breakers() {
+		CircuitBreakerProperties properties = new CircuitBreakerProperties();
+		properties.setWindowSize(10);
+		properties.setMinimumCalls(10);
+		properties.setFailureRateThreshold(0.5);
+		return new CircuitBreakerRegistry(properties);
+	}
+
+	private static Map<String, Object> breaker(CircuitBreakerRegistry breakers) {
+		return breakers.getBreakers().get(0);
+	}
+}
@@ -0,0 +1,177 @@
+package br.lrferr.mcp.service.monitor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.config.CircuitBreakerProperties;
+import br.lrferr.mcp.config.EventLogProperties;
+import br.lrferr.mcp.config.HedgingProperties;
+import br.lrferr.mcp.config.MonitorProperties;
+import br.lrferr.mcp.config.ToolCacheProperties;
+import br.lrferr.mcp.config.TracingProperties;
+import br.lrferr.mcp.model.StandingQueryRequest;
+import br.lrferr.mcp.service.breaker.CircuitBreakerRegistry;
+import br.lrferr.mcp.service.eventlog.QueryEventLog;
+import br.lrferr.mcp.service.hedge.McpHedger;
+import br.lrferr.mcp.service.mcp.FakeMcpServer;
+import br.lrferr.mcp.service.mcp.McpSession;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+import br.lrferr.mcp.service.mcp.McpToolInvoker;
+import br.lrferr.mcp.service.toolcache.ToolResultCache;
+import br.lrferr.mcp.service.trace.QueryTracer;
+
+class StandingQueryServiceTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@Test
+	void aSubscriberGoneBeforeItIsAttachedStartsNothing() throws Exception {
+		FakeMcpServer server = server();
+		StandingQueryService service = service(server, 1);
+
+		service.subscribe(request(), new RecordingSubscriber(false));
+		Thread.sleep(200);
+
+		assertTrue(service.getQueries().isEmpty());
+		assertEquals(0, calls.get());
+		// The only slot is still free.
+		RecordingSubscriber subscriber = new RecordingSubscriber(true);
+		service.subscribe(request(), subscriber);
+		assertEquals("snapshot", subscriber.next("snapshot"));
+		service.shutdown();
+		server.crash();
+	}
+
+	@Test
+	void theLastUnsubscribeStopsTheQuery() throws Exception {
+		FakeMcpServer server = server();
+		StandingQueryService service = service(server, 10);
+		RecordingSubscriber first = new RecordingSubscriber(true);
+		RecordingSubscriber second = new RecordingSubscriber(true);
+
+		String queryId = service.subscribe(request(), first);
+		assertEquals(queryId, service.subscribe(request(), second));
+		assertEquals(1, service.getQueries().size());
+		assertEquals("snapshot", first.next("snapshot"));
+
+		service.unsubscribe(queryId, first);
+		assertEquals(1, service.getQueries().size());
+		service.unsubscribe(queryId, second);
+		assertTrue(service.getQueries().isEmpty());
+
+		Thread.sleep(100);
+		int stoppedAt = calls.get();
+		Thread.sleep(200);
+		assertEquals(stoppedAt, calls.get());
+		service.shutdown();
+		server.crash();
+	}
+
+	@Test
+	void aSubscriberLostDuringARunStopsTheQuery() throws Exception {
+		FakeMcpServer server = server();
+		StandingQueryService service = service(server, 10);
+		RecordingSubscriber subscriber = new RecordingSubscriber(true);
+
+		service.subscribe(request(), subscriber);
+		assertEquals("snapshot", subscriber.next("snapshot"));
+		subscriber.alive = false;
+		// Rows change on every run, so the next run sends a delta and finds the subscriber gone.
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!service.getQueries().isEmpty() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+
+		assertTrue(service.getQueries().isEmpty());
+		service.shutdown();
+		server.crash();
+	}
+
+	private FakeMcpServer server() throws Exception {
+		return new FakeMcpServer(objectMapper, request -> {
+			ObjectNode result = objectMapper.createObjectNode();
+			result.putArray("rows").addObject().put("id", 1).put("run", calls.incrementAndGet());
+			return FakeMcpServer.result(request, result);
+		});
+	}
+
+	private StandingQueryService service(FakeMcpServer server, int maxQueries) {
+		McpSession session = server.session("db");
+		McpSessionManager sessionManager = new McpSessionManager(null, objectMapper, null, null, null) {
+			@Override
+			public McpSession getOrCreateSession(String serverName) {
+				return session;
+			}
+		};
+		MonitorProperties properties = new MonitorProperties();
+		properties.setMinInterval(Duration.ofMillis(50));
+		properties.setMaxQueries(maxQueries);
+		return new StandingQueryService(sessionManager, invoker(), objectMapper, properties);
+	}
+
+	private McpToolInvoker invoker() {
+		TracingProperties tracing = new TracingProperties();
+		tracing.setEnabled(false);
+		ToolCacheProperties toolCache = new ToolCacheProperties();
+		toolCache.setEnabled(false);
+		EventLogProperties eventLog = new EventLogProperties();
+		eventLog.setEnabled(false);
+		HedgingProperties hedging = new HedgingProperties();
+		hedging.setEnabled(false);
+		return new McpToolInvoker(objectMapper, new QueryTracer(tracing, null),
+			new ToolResultCache(toolCache, objectMapper), new McpHedger(null, null, hedging),
+			new CircuitBreakerRegistry(new CircuitBreakerProperties()), new QueryEventLog(eventLog, objectMapper));
+	}
+
+	private static StandingQueryRequest request() {
+		StandingQueryRequest request = new StandingQueryRequest();
+		request.setServerName("db");
+		request.setToolName("execute_safe_query");
+		request.setIntervalMs(50);
+		request.setKeyColumns(List.of("id"));
+		return request;
+	}
+
+	private static final class RecordingSubscriber implements StandingQueryService.Subscriber {
+
+		private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+		private volatile boolean alive;
+
+		RecordingSubscriber(boolean alive) {
+			this.alive = alive;
+		}
+
+		@Override
+		public boolean send(String event, Object data) {
+			if (alive) {
+				events.add(event);
+			}
+			return alive;
+		}
+
+		@Override
+		public void close() {
+		}
+
+		String next(String event) throws InterruptedException {
+			String next;
+			while ((next = events.poll(5, TimeUnit.SECONDS)) != null && !next.equals(event)) {
+				// Skip earlier events.
+			}
+			return next;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package br.lrferr.mcp.service.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.lrferr.mcp.config.ResourceProperties;
+import br.lrferr.mcp.model.McpResourceLimits;
+import br.lrferr.mcp.model.McpServerConfig;
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+
+class McpResourceMonitorTest {
+
+	private final BlockingQueue<String> actions = new LinkedBlockingQueue<>();
+
+	@Test
+	void samplesAndLimitsTheHedgeProcess() throws Exception {
+		Process primary = new ProcessBuilder("sleep", "30").start();
+		Process hedge = new ProcessBuilder("sleep", "30").start();
+		try {
+			McpResourceMonitor monitor = monitor(primary, hedge, limits(McpResourceLimits.Action.RESTART, 1));
+
+			monitor.sampleAll();
+
+			Map<String, Object> summary = monitor.getSummary();
+			assertEquals(List.of("db", "db:hedge"), summary.keySet().stream().sorted().toList());
+			assertEquals(1, monitor.getHistory("db:hedge", 10).size());
+			// The hedge process is stopped, not the primary restarted on its account.
+			List<String> taken = List.of(next(), next());
+			assertTrue(taken.contains("restart db"));
+			assertTrue(taken.contains("close hedge db"));
+		}
+		finally {
+			primary.destroy();
+			hedge.destroy();
+		}
+	}
+
+	private McpResourceMonitor monitor(Process primary, Process hedge, McpResourceLimits limits) {
+		McpServerConfig config = new McpServerConfig();
+		config.setLimits(limits);
+		McpProcessManagerService processManager = new McpProcessManagerService() {
+			@Override
+			public Map<String, RunningServer> getRunningServers() {
+				return Map.of("db", new RunningServer(primary, Instant.now(), config, null));
+			}
+		};
+		McpSessionManager sessionManager = new McpSessionManager(processManager, new ObjectMapper(), null, null, null) {
+			@Override
+			public Map<String, RunningServer> getHedgeServers() {
+				return Map.of("db", new RunningServer(hedge, Instant.now(), config, null));
+			}
+
+			@Override
+			public Map<String, Object> rollingRestart(String serverName, Duration drainTimeout) {
+				actions.add("restart " + serverName);
+				return Map.of();
+			}
+
+			@Override
+			public void closeHedgeSession(String serverName) {
+				actions.add("close hedge " + serverName);
+			}
+		};
+		return new McpResourceMonitor(new ResourceProperties(), processManager, sessionManager);
+	}
+
+	private static McpResourceLimits limits(McpResourceLimits.Action action, int sustainedSamples) {
+		McpResourceLimits limits = new McpResourceLimits();
+		// Any process has a thread.
+		limits.setHardThreads(0);
+		limits.setOnHardLimit(action);
+		limits.setSustainedSamples(sustainedSamples);
+		return limits;
+	}
+
+	private String next() throws InterruptedException {
+		return actions.poll(5, TimeUnit.SECONDS);
+	}
+}
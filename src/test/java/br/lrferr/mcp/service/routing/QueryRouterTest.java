@@ -0,0 +1,50 @@
+package br.lrferr.mcp.service.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import br.lrferr.mcp.config.RoutingProperties;
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.routing.RoutingDecision.Route;
+
+class QueryRouterTest {
+
+	private final RoutingProperties properties = new RoutingProperties();
+	private final QueryRouter router = new QueryRouter(properties, new McpProcessManagerService());
+
+	@Test
+	void weightsConfiguredInAnyCaseApply() {
+		properties.setKeywords(List.of());
+		properties.setWeights(Map.of("Top", 0.25, "CLIENTES", 0.5));
+
+		RoutingDecision decision = router.route("db", "top clientes do mes");
+
+		assertEquals(0.75, decision.score(), 1e-9);
+		assertEquals(List.of("clientes", "top"), decision.matchedKeywords().stream().sorted().toList());
+		assertEquals(Route.GENERAL, decision.route());
+	}
+
+	@Test
+	void weightsAddUpToTheThreshold() {
+		properties.setKeywords(List.of());
+		properties.setWeights(Map.of("Primeiros", 0.5, "motoristas", 0.5));
+
+		assertEquals(Route.GENERAL, router.route("db", "PRIMEIROS da fila").route());
+		assertEquals(Route.DATA, router.route("db", "Primeiros Motoristas").route());
+	}
+
+	@Test
+	void keywordsWithoutAWeightCountOnce() {
+		properties.setKeywords(List.of("frota"));
+		properties.setWeights(Map.of());
+
+		RoutingDecision decision = router.route("db", "veiculos da Frota");
+
+		assertEquals(1.0, decision.score(), 1e-9);
+		assertEquals(Route.DATA, decision.route());
+	}
+}
@@ -0,0 +1,157 @@
+package br.lrferr.mcp.service.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import br.lrferr.mcp.config.CircuitBreakerProperties;
+import br.lrferr.mcp.config.EventLogProperties;
+import br.lrferr.mcp.config.HedgingProperties;
+import br.lrferr.mcp.config.SchemaProperties;
+import br.lrferr.mcp.config.ToolCacheProperties;
+import br.lrferr.mcp.config.TracingProperties;
+import br.lrferr.mcp.model.McpServerConfig;
+import br.lrferr.mcp.service.McpProcessManagerService;
+import br.lrferr.mcp.service.McpProcessManagerService.RunningServer;
+import br.lrferr.mcp.service.breaker.CircuitBreakerRegistry;
+import br.lrferr.mcp.service.eventlog.QueryEventLog;
+import br.lrferr.mcp.service.hedge.McpHedger;
+import br.lrferr.mcp.service.mcp.FakeMcpServer;
+import br.lrferr.mcp.service.mcp.McpSession;
+import br.lrferr.mcp.service.mcp.McpSessionManager;
+import br.lrferr.mcp.service.mcp.McpToolInvoker;
+import br.lrferr.mcp.service.toolcache.ToolResultCache;
+import br.lrferr.mcp.service.trace.QueryTracer;
+
+class SchemaCatalogServiceTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final SchemaProperties properties = new SchemaProperties();
+
+	@Test
+	void readsOnlyTheConfiguredSchemasUpToTheRowCap() throws Exception {
+		FakeMcpServer server = new FakeMcpServer(objectMapper, request -> FakeMcpServer.result(request, rows(
+			"FROTA", "MOTORISTA", "ID_MOTORISTA",
+			"FROTA", "MOTORISTA", "APELIDO",
+			"FROTA", "VIAGEM", "PLACA")));
+		McpServerConfig config = config("oracle");
+		config.setSchemas(List.of("FROTA", "O'BRIEN"));
+		properties.setMaxRows(2);
+
+		SchemaCatalog catalog = service(server, config).getCatalog("db");
+
+		String query = server.nextFrame().path("params").path("arguments").path("query").asText();
+		assertTrue(query.contains("WHERE owner IN ('FROTA', 'O''BRIEN')"), query);
+		assertTrue(query.endsWith("FETCH FIRST 2 ROWS ONLY"), query);
+		assertEquals(1, catalog.getTables().size());
+		assertEquals(List.of("ID_MOTORISTA", "APELIDO"), catalog.getTables().get(0).columns());
+		server.crash();
+	}
+
+	@Test
+	void aCatalogQueryThatRunsTooLongIsCancelled() throws Exception {
+		FakeMcpServer server = new FakeMcpServer(objectMapper, request -> null);
+		properties.setLoadTimeout(Duration.ofMillis(200));
+
+		SchemaCatalog catalog = service(server, config("mysql")).getCatalog("db");
+
+		assertTrue(catalog.isFailed());
+		assertTrue(catalog.getError().contains("No catalog within 200 ms"), catalog.getError());
+		JsonNode request = server.nextFrame();
+		assertTrue(request.path("params").path("arguments").path("query").asText().contains("= DATABASE()"));
+		JsonNode cancellation = server.nextFrame();
+		assertEquals("notifications/cancelled", cancellation.path("method").asText());
+		assertEquals(request.path("id").asText(), cancellation.path("params").path("requestId").asText());
+		server.crash();
+	}
+
+	@Test
+	void catalogsOfRunningServersAreLoadedInTheBackground() throws Exception {
+		FakeMcpServer server = new FakeMcpServer(objectMapper, request -> FakeMcpServer.result(request, rows(
+			"frota", "motorista", "id_motorista")));
+		SchemaCatalogService service = service(server, config("mysql"));
+
+		service.warmCatalogs();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!service.getCachedCatalogs().containsKey("db") && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+
+		assertEquals(1, service.getCachedCatalogs().get("db").getTables().size());
+		// Fresh for longer than the next run, so it is not loaded again.
+		service.warmCatalogs();
+		service.getCatalog("db");
+		server.nextFrame();
+		assertEquals(null, server.nextFrame());
+		service.shutdown();
+		server.crash();
+	}
+
+	private ObjectNode rows(String... values) {
+		ObjectNode result = objectMapper.createObjectNode();
+		ArrayNode rows = result.putArray("rows");
+		for (int i = 0; i < values.length; i += 3) {
+			rows.addObject().put("owner", values[i]).put("table_name", values[i + 1]).put("column_name", values[i + 2]);
+		}
+		return result;
+	}
+
+	private static McpServerConfig config(String databaseType) {
+		McpServerConfig config = new McpServerConfig();
+		config.setDatabaseType(databaseType);
+		return config;
+	}
+
+	private SchemaCatalogService service(FakeMcpServer server, McpServerConfig config) {
+		McpSession session = server.session("db");
+		McpProcessManagerService processManager = new McpProcessManagerService() {
+			@Override
+			public Map<String, RunningServer> getRunningServers() {
+				return Map.of("db", getRunningServer("db"));
+			}
+
+			@Override
+			public RunningServer getRunningServer(String name) {
+				return new RunningServer(server, Instant.now(), config, null);
+			}
+
+			@Override
+			public String getDatabaseType(String name) {
+				return config.getDatabaseType();
+			}
+		};
+		McpSessionManager sessionManager = new McpSessionManager(processManager, objectMapper, null, null, null) {
+			@Override
+			public McpSession getOrCreateSession(String serverName) {
+				return session;
+			}
+		};
+		return new SchemaCatalogService(properties, processManager, sessionManager, invoker(), objectMapper);
+	}
+
+	private McpToolInvoker invoker() {
+		TracingProperties tracing = new TracingProperties();
+		tracing.setEnabled(false);
+		ToolCacheProperties toolCache = new ToolCacheProperties();
+		toolCache.setEnabled(false);
+		EventLogProperties eventLog = new EventLogProperties();
+		eventLog.setEnabled(false);
+		HedgingProperties hedging = new HedgingProperties();
+		hedging.setEnabled(false);
+		return new McpToolInvoker(objectMapper, new QueryTracer(tracing, null),
+			new ToolResultCache(toolCache, objectMapper), new McpHedger(null, null, hedging),
+			new CircuitBreakerRegistry(new CircuitBreakerProperties()), new QueryEventLog(eventLog, objectMapper));
+	}
+}
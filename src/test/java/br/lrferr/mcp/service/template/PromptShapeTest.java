@@ -0,0 +1,68 @@
+package br.lrferr.mcp.service.template;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PromptShapeTest {
+
+	@Test
+	void commaSeparatedNumbersAreAList() {
+		PromptShape shape = PromptShape.of("orders with ids 1,2,3");
+
+		assertEquals(List.of("1", "2", "3"), shape.values());
+		assertEquals("orders with ids {p1},{p2},{p3}", shape.text());
+	}
+
+	@Test
+	void pointIsADecimalSeparator() {
+		PromptShape shape = PromptShape.of("price above 10.5");
+
+		assertEquals(List.of("10.5"), shape.values());
+		assertEquals("price above {p1}", shape.text());
+	}
+
+	@Test
+	void minusSignStaysInTheText() {
+		PromptShape shape = PromptShape.of("balance below -20");
+
+		assertEquals(List.of("20"), shape.values());
+		assertEquals("balance below -{p1}", shape.text());
+	}
+
+	@Test
+	void quotedValuesDatesAndPlatesAreSingleLiterals() {
+		PromptShape shape = PromptShape.of("trips of 'Ana Maria' in \"ABC-1234\" since 2024-01-31 with plate ABC1D23");
+
+		assertEquals(List.of("Ana Maria", "ABC-1234", "2024-01-31", "ABC1D23"), shape.values());
+		assertEquals("trips of {p1} in {p2} since {p3} with plate {p4}", shape.text());
+	}
+
+	@Test
+	void quotedValueKeepsApostropheFreeContent() {
+		PromptShape shape = PromptShape.of("driver \"O'Brien\"");
+
+		assertEquals(List.of("O'Brien"), shape.values());
+	}
+
+	@Test
+	void numbersInsideWordsAreNotLiterals() {
+		PromptShape shape = PromptShape.of("rows of table_2024 and v2");
+
+		assertFalse(shape.hasParameters());
+	}
+
+	@Test
+	void promptsDifferingOnlyInLiteralsShareAKey() {
+		PromptShape first = PromptShape.of("primeiros 5 motoristas de 'SP'");
+		PromptShape second = PromptShape.of("Primeiros  10 motoristas de 'RJ'");
+		PromptShape list = PromptShape.of("primeiros 5,10 motoristas de 'SP'");
+
+		assertEquals(first.key(), second.key());
+		assertNotEquals(first.key(), list.key());
+	}
+}
@@ -0,0 +1,96 @@
+package br.lrferr.mcp.service.template;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class SqlTemplateCacheTest {
+
+	@Test
+	void listBindsEachNumberSeparately() {
+		PromptShape shape = PromptShape.of("orders with ids 1,2,3");
+
+		assertEquals("SELECT * FROM orders WHERE id IN (1, 2, 3)",
+			SqlTemplateCache.bind("SELECT * FROM orders WHERE id IN ({p1}, {p2}, {p3})", shape));
+	}
+
+	@Test
+	void decimalIsInlined() {
+		PromptShape shape = PromptShape.of("price above 10.5");
+
+		assertEquals("SELECT * FROM items WHERE price > 10.5",
+			SqlTemplateCache.bind("SELECT * FROM items WHERE price > {p1}", shape));
+	}
+
+	@Test
+	void negativeNumberKeepsItsSign() {
+		PromptShape shape = PromptShape.of("balance below -20");
+
+		assertEquals("SELECT * FROM accounts WHERE balance < -20",
+			SqlTemplateCache.bind("SELECT * FROM accounts WHERE balance < -{p1}", shape));
+	}
+
+	@Test
+	void quotedNegativeValueIsInlinedAsANumber() {
+		PromptShape shape = PromptShape.of("balance below '-20'");
+
+		assertEquals("SELECT * FROM accounts WHERE balance < (-20)",
+			SqlTemplateCache.bind("SELECT * FROM accounts WHERE balance < {p1}", shape));
+	}
+
+	@Test
+	void negativeValueAfterAMinusDoesNotStartAComment() {
+		PromptShape shape = PromptShape.of("balance below '-20'");
+
+		assertEquals("SELECT * FROM accounts WHERE balance < 0 -(-20) AND id > 0",
+			SqlTemplateCache.bind("SELECT * FROM accounts WHERE balance < 0 -{p1} AND id > 0", shape));
+	}
+
+	@Test
+	void positiveNumberStaysBareForLimit() {
+		PromptShape shape = PromptShape.of("first 5 drivers");
+
+		assertEquals("SELECT * FROM drivers LIMIT 5",
+			SqlTemplateCache.bind("SELECT * FROM drivers LIMIT {p1}", shape));
+	}
+
+	@Test
+	void quotedPlaceholderEscapesApostrophes() {
+		PromptShape shape = PromptShape.of("driver \"O'Brien\"");
+
+		assertEquals("SELECT * FROM drivers WHERE name = 'O''Brien'",
+			SqlTemplateCache.bind("SELECT * FROM drivers WHERE name = '{p1}'", shape));
+	}
+
+	@Test
+	void unquotedTextIsQuotedAndEscaped() {
+		PromptShape shape = PromptShape.of("driver \"O'Brien\"");
+
+		assertEquals("SELECT * FROM drivers WHERE name = 'O''Brien'",
+			SqlTemplateCache.bind("SELECT * FROM drivers WHERE name = {p1}", shape));
+	}
+
+	@Test
+	void numberInsideQuotesStaysAString() {
+		PromptShape shape = PromptShape.of("code 007");
+
+		assertEquals("SELECT * FROM agents WHERE code = '007'",
+			SqlTemplateCache.bind("SELECT * FROM agents WHERE code = '{p1}'", shape));
+	}
+
+	@Test
+	void commaInQuotedValueIsNotADecimal() {
+		PromptShape shape = PromptShape.of("amount '1,5'");
+
+		assertEquals("SELECT * FROM t WHERE amount = '1,5'",
+			SqlTemplateCache.bind("SELECT * FROM t WHERE amount = {p1}", shape));
+	}
+
+	@Test
+	void unknownPlaceholderIsLeftAsIs() {
+		PromptShape shape = PromptShape.of("primeiros 5");
+
+		assertEquals("SELECT * FROM t WHERE ROWNUM <= 5 AND x = {p9}",
+			SqlTemplateCache.bind("SELECT * FROM t WHERE ROWNUM <= {p1} AND x = {p9}", shape));
+	}
+}
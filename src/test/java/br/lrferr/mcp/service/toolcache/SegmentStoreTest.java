@@ -0,0 +1,220 @@
+package br.lrferr.mcp.service.toolcache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SegmentStoreTest {
+
+	// With one-character keys every record takes exactly 50 bytes.
+	private static final int RECORD = Segment.recordSize(1, 25);
+
+	private static final long FOREVER = Long.MAX_VALUE;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void entriesSurviveARestart() throws IOException {
+		try (SegmentStore store = open(3, 10)) {
+			store.put("a", value('a'), FOREVER);
+			store.put("b", value('b'), FOREVER);
+			store.put("c", value('c'), FOREVER);
+			store.put("d", value('d'), FOREVER);
+		}
+
+		try (SegmentStore store = open(3, 10)) {
+			assertValue(store, "a", 'a');
+			assertValue(store, "d", 'd');
+			assertEquals(4, store.getStats().get("entries"));
+			assertEquals(2, store.getStats().get("segments"));
+		}
+	}
+
+	@Test
+	void lastWriteWinsOnReplay() throws IOException {
+		try (SegmentStore store = open(3, 10)) {
+			store.put("a", value('1'), FOREVER);
+			store.put("b", value('b'), FOREVER);
+			store.put("c", value('c'), FOREVER);
+			store.put("a", value('2'), FOREVER);
+			store.put("a", value('3'), FOREVER);
+		}
+
+		try (SegmentStore store = open(3, 10)) {
+			assertValue(store, "a", '3');
+			assertEquals(3, store.getStats().get("entries"));
+		}
+	}
+
+	@Test
+	void expiredRecordsAreNotReplayed() throws IOException {
+		long now = System.currentTimeMillis();
+		try (SegmentStore store = open(3, 10)) {
+			store.put("a", value('a'), FOREVER);
+			store.put("a", value('x'), now - 1);
+		}
+
+		try (SegmentStore store = open(3, 10)) {
+			assertNull(store.get("a", now));
+		}
+	}
+
+	@Test
+	void removalSurvivesARestart() throws IOException {
+		try (SegmentStore store = open(3, 10)) {
+			store.put("a", value('a'), FOREVER);
+			store.put("b", value('b'), FOREVER);
+			store.remove("a");
+		}
+
+		try (SegmentStore store = open(3, 10)) {
+			assertNull(store.get("a", System.currentTimeMillis()));
+			assertValue(store, "b", 'b');
+		}
+	}
+
+	@Test
+	void clearSurvivesARestart() throws IOException {
+		try (SegmentStore store = open(3, 10)) {
+			store.put("a", value('a'), FOREVER);
+			store.put("b", value('b'), FOREVER);
+			store.clear();
+			store.put("c", value('c'), FOREVER);
+		}
+
+		try (SegmentStore store = open(3, 10)) {
+			assertNull(store.get("a", System.currentTimeMillis()));
+			assertNull(store.get("b", System.currentTimeMillis()));
+			assertValue(store, "c", 'c');
+		}
+	}
+
+	@Test
+	void tornRecordIsDiscardedAndOverwritten() throws IOException {
+		try (SegmentStore store = open(3, 10)) {
+			store.put("a", value('a'), FOREVER);
+			store.put("b", value('b'), FOREVER);
+		}
+		// Damage the value of the second record, as a crash mid-write would.
+		try (FileChannel channel = FileChannel.open(segment(0), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 0 }), RECORD + Segment.HEADER_BYTES + 1 + 10);
+		}
+
+		try (SegmentStore store = open(3, 10)) {
+			assertValue(store, "a", 'a');
+			assertNull(store.get("b", System.currentTimeMillis()));
+			store.put("c", value('c'), FOREVER);
+		}
+
+		try (SegmentStore store = open(3, 10)) {
+			assertValue(store, "a", 'a');
+			assertValue(store, "c", 'c');
+			assertEquals(1, store.getStats().get("segments"));
+		}
+	}
+
+	@Test
+	void oldestSegmentIsEvictedOverBudget() throws IOException {
+		try (SegmentStore store = open(2, 4)) {
+			for (char key = 'a'; key <= 'j'; key++) {
+				store.put(String.valueOf(key), value(key), FOREVER);
+			}
+			long now = System.currentTimeMillis();
+			assertNull(store.get("a", now));
+			assertNull(store.get("b", now));
+			assertValue(store, "c", 'c');
+			assertValue(store, "j", 'j');
+			assertEquals(4, store.getStats().get("segments"));
+			assertEquals(2L, store.getStats().get("evictions"));
+		}
+	}
+
+	@Test
+	void compactionMovesLiveRecordsAndKeepsRemovals() throws IOException {
+		try (SegmentStore store = open(3, 10)) {
+			store.put("a", value('a'), FOREVER);
+			store.put("b", value('b'), FOREVER);
+			store.put("c", value('c'), FOREVER);
+			// The tombstone lands in the second segment, in front of two records overwritten below.
+			store.remove("a");
+			store.put("x", value('x'), FOREVER);
+			store.put("y", value('y'), FOREVER);
+			store.put("x", value('X'), FOREVER);
+			store.put("y", value('Y'), FOREVER);
+
+			assertEquals(1, store.compact(0.5, System.currentTimeMillis()));
+			assertValue(store, "x", 'X');
+			assertNull(store.get("a", System.currentTimeMillis()));
+		}
+
+		try (SegmentStore store = open(3, 10)) {
+			// The first segment still holds "a": the moved tombstone keeps it removed.
+			assertNull(store.get("a", System.currentTimeMillis()));
+			assertValue(store, "b", 'b');
+			assertValue(store, "y", 'Y');
+		}
+	}
+
+	@Test
+	void compactionDoesNotResurrectEntriesEvictedMidway() throws IOException {
+		try (SegmentStore store = open(3, 3)) {
+			store.put("a", value('a'), FOREVER);
+			store.put("b", value('b'), FOREVER);
+			store.put("x", value('x'), FOREVER);
+			store.put("x", value('X'), FOREVER);
+			store.put("c", value('c'), FOREVER);
+			store.put("d", value('d'), FOREVER);
+			store.put("e", value('e'), FOREVER);
+			store.put("f", value('f'), FOREVER);
+			store.put("g", value('g'), FOREVER);
+
+			// Moving "a" opens a fourth segment, which evicts the one being compacted, "b" included.
+			store.compact(0.7, System.currentTimeMillis());
+
+			long now = System.currentTimeMillis();
+			assertValue(store, "a", 'a');
+			assertNull(store.get("b", now));
+			assertValue(store, "x", 'X');
+			assertEquals(3, store.getStats().get("segments"));
+		}
+
+		try (SegmentStore store = open(3, 3)) {
+			assertValue(store, "a", 'a');
+			assertNull(store.get("b", System.currentTimeMillis()));
+		}
+	}
+
+	private SegmentStore open(int recordsPerSegment, int maxSegments) throws IOException {
+		return new SegmentStore(directory, recordsPerSegment * RECORD, (long) maxSegments * recordsPerSegment * RECORD);
+	}
+
+	private Path segment(long id) {
+		Path path = directory.resolve(String.format("segment-%08d.dat", id));
+		assertTrue(Files.exists(path));
+		return path;
+	}
+
+	private static byte[] value(char content) {
+		byte[] value = new byte[25];
+		Arrays.fill(value, (byte) content);
+		return value;
+	}
+
+	private static void assertValue(SegmentStore store, String key, char content) {
+		SegmentStore.Hit hit = store.get(key, System.currentTimeMillis());
+		assertArrayEquals(value(content), hit != null ? hit.value() : null, key);
+	}
+}